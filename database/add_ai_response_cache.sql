@@ -0,0 +1,21 @@
+-- Shared tier of the AI response cache (AiResponseCache, maintained by AiResponseCacheService).
+-- Needed before deploying with spring.jpa.hibernate.ddl-auto=validate (prod profile);
+-- the dev profile (ddl-auto=update) creates the table by itself.
+--
+--   psql -d <database> -f database/add_ai_response_cache.sql
+--
+-- The primary key on cache_key is required by the lease claim
+-- (INSERT ... ON CONFLICT (cache_key) in AiResponseCacheRepository.claim).
+-- A row with a NULL payload is a lease held by the node calling the model.
+
+CREATE TABLE IF NOT EXISTS ai_response_cache (
+    cache_key   VARCHAR(100) NOT NULL,
+    kind        VARCHAR(30)  NOT NULL,
+    fingerprint TEXT,
+    payload     TEXT,
+    created_at  TIMESTAMP(6) NOT NULL,
+    expires_at  TIMESTAMP(6) NOT NULL,
+    CONSTRAINT ai_response_cache_pkey PRIMARY KEY (cache_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_ai_response_cache_expires ON ai_response_cache (expires_at);
@@ -0,0 +1,13 @@
+-- Denormalized line item totals stored on booking (maintained by BookingTotalsCalculator).
+-- Needed before deploying with spring.jpa.hibernate.ddl-auto=validate (prod profile);
+-- the dev profile (ddl-auto=update) adds the columns by itself.
+--
+--   psql -d <database> -f database/add_booking_line_item_totals.sql
+--
+-- Columns stay NULL for existing bookings: the totals are computed the first time a booking
+-- is calculated and stored by BookingRepository.storeLineItemTotals.
+
+ALTER TABLE booking ADD COLUMN IF NOT EXISTS table_fee_total NUMERIC(18, 2);
+ALTER TABLE booking ADD COLUMN IF NOT EXISTS dishes_total NUMERIC(18, 2);
+ALTER TABLE booking ADD COLUMN IF NOT EXISTS services_total NUMERIC(18, 2);
+ALTER TABLE booking ADD COLUMN IF NOT EXISTS subtotal_amount NUMERIC(18, 2);
@@ -0,0 +1,18 @@
+-- Dish/table/service id of a restaurant image (RestaurantMedia.targetId), used by the image
+-- lookups of RestaurantMediaRepository through idx_restaurant_media_target.
+-- Needed before deploying with spring.jpa.hibernate.ddl-auto=validate (prod profile);
+-- the dev profile (ddl-auto=update) adds the column and index by itself.
+--
+--   psql -d <database> -f database/add_restaurant_media_target_id.sql
+--
+-- Existing images get their id from the "/{type}_{id}_" upload naming convention; the same
+-- backfill also runs on startup (RestaurantMediaIndex.backfillTargetIds).
+
+ALTER TABLE restaurant_media ADD COLUMN IF NOT EXISTS target_id INTEGER;
+
+UPDATE restaurant_media
+SET target_id = CAST(SUBSTRING(url FROM '/' || type || '_([0-9]{1,9})_') AS INTEGER)
+WHERE target_id IS NULL AND type IN ('dish', 'table', 'service')
+  AND url ~ ('/' || type || '_[0-9]{1,9}_');
+
+CREATE INDEX IF NOT EXISTS idx_restaurant_media_target ON restaurant_media (restaurant_id, type, target_id);
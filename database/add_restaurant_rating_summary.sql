@@ -0,0 +1,17 @@
+-- Rating summary stored on restaurant_profile (maintained by ReviewService).
+-- Needed before deploying with spring.jpa.hibernate.ddl-auto=validate (prod profile);
+-- the dev profile (ddl-auto=update) adds the columns by itself.
+--
+--   psql -d <database> -f database/add_restaurant_rating_summary.sql
+--
+-- Columns stay NULL until the application starts: ReviewService.backfillRatingSummaries
+-- computes the summary of every restaurant that has none from its reviews.
+
+ALTER TABLE restaurant_profile ADD COLUMN IF NOT EXISTS review_count INTEGER;
+ALTER TABLE restaurant_profile ADD COLUMN IF NOT EXISTS rating_sum INTEGER;
+ALTER TABLE restaurant_profile ADD COLUMN IF NOT EXISTS rating_1_count INTEGER;
+ALTER TABLE restaurant_profile ADD COLUMN IF NOT EXISTS rating_2_count INTEGER;
+ALTER TABLE restaurant_profile ADD COLUMN IF NOT EXISTS rating_3_count INTEGER;
+ALTER TABLE restaurant_profile ADD COLUMN IF NOT EXISTS rating_4_count INTEGER;
+ALTER TABLE restaurant_profile ADD COLUMN IF NOT EXISTS rating_5_count INTEGER;
+ALTER TABLE restaurant_profile ADD COLUMN IF NOT EXISTS average_rating DOUBLE PRECISION;
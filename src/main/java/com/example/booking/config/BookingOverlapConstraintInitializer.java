@@ -0,0 +1,64 @@
+package com.example.booking.config;
+
+import java.sql.Connection;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.booking.service.BookingOverlapConstraint;
+
+/**
+ * Installs the booking_table overlap exclusion constraint on PostgreSQL.
+ * Runs after Hibernate has created/updated the tables; every statement is idempotent.
+ */
+@Component
+public class BookingOverlapConstraintInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingOverlapConstraintInitializer.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Override
+    public void run(String... args) {
+        try {
+            if (!isPostgres()) {
+                logger.info("Skipping booking overlap constraint: database is not PostgreSQL");
+                return;
+            }
+
+            for (String statement : BookingOverlapConstraint.SCHEMA_STATEMENTS) {
+                jdbcTemplate.execute(statement);
+            }
+
+            Integer existing = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM pg_constraint WHERE conname = ?", Integer.class,
+                    BookingOverlapConstraint.CONSTRAINT_NAME);
+            if (existing != null && existing > 0) {
+                logger.info("Booking overlap constraint already installed");
+                return;
+            }
+
+            jdbcTemplate.execute(BookingOverlapConstraint.CONSTRAINT_STATEMENT);
+            logger.info("Installed booking overlap constraint {}", BookingOverlapConstraint.CONSTRAINT_NAME);
+        } catch (Exception e) {
+            // Typically existing overlapping confirmed bookings; application-level checks still apply
+            logger.warn("Could not install booking overlap constraint: {}", e.getMessage());
+        }
+    }
+
+    private boolean isPostgres() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        }
+    }
+}
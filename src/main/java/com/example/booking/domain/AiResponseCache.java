@@ -0,0 +1,105 @@
+package com.example.booking.domain;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Persistent tier of the AI response cache, shared by every node.
+ * A row without payload is a lease: one node is calling the model for that
+ * fingerprint and the others wait for it instead of calling again.
+ */
+@Entity
+@Table(name = "ai_response_cache", indexes = {
+    @Index(name = "idx_ai_response_cache_expires", columnList = "expires_at")
+})
+public class AiResponseCache {
+
+    @Id
+    @Column(name = "cache_key", length = 100)
+    private String cacheKey;
+
+    @Column(name = "kind", nullable = false, length = 30)
+    private String kind;
+
+    @Column(name = "fingerprint", columnDefinition = "TEXT")
+    private String fingerprint;
+
+    @Column(name = "payload", columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public AiResponseCache() {
+    }
+
+    public AiResponseCache(String cacheKey, String kind, String fingerprint, String payload,
+            LocalDateTime createdAt, LocalDateTime expiresAt) {
+        this.cacheKey = cacheKey;
+        this.kind = kind;
+        this.fingerprint = fingerprint;
+        this.payload = payload;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isLiveAt(LocalDateTime now) {
+        return payload != null && expiresAt != null && expiresAt.isAfter(now);
+    }
+
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
+    public void setCacheKey(String cacheKey) {
+        this.cacheKey = cacheKey;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public void setKind(String kind) {
+        this.kind = kind;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
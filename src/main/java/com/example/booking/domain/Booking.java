@@ -5,10 +5,12 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import com.example.booking.common.enums.BookingStatus;
+import com.example.booking.domain.listener.BookingChangeListener;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
@@ -27,6 +29,7 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
 @Entity
+@EntityListeners(BookingChangeListener.class)
 @Table(name = "booking")
 public class Booking {
     
@@ -63,6 +66,19 @@ public class Booking {
     @Column(name = "total_amount", precision = 18, scale = 2, nullable = false)
     @DecimalMin(value = "0.0", message = "Tổng tiền không được âm")
     private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    // Denormalized line item totals (before voucher); null = not computed yet for old bookings
+    @Column(name = "table_fee_total", precision = 18, scale = 2)
+    private BigDecimal tableFeeTotal;
+
+    @Column(name = "dishes_total", precision = 18, scale = 2)
+    private BigDecimal dishesTotal;
+
+    @Column(name = "services_total", precision = 18, scale = 2)
+    private BigDecimal servicesTotal;
+
+    @Column(name = "subtotal_amount", precision = 18, scale = 2)
+    private BigDecimal subtotalAmount;
     
     @Column(name = "note", columnDefinition = "TEXT")
     private String note;
@@ -178,6 +194,46 @@ public class Booking {
     public void setTotalAmount(BigDecimal totalAmount) {
         this.totalAmount = totalAmount != null ? totalAmount : BigDecimal.ZERO;
     }
+
+    public BigDecimal getTableFeeTotal() {
+        return tableFeeTotal;
+    }
+
+    public BigDecimal getDishesTotal() {
+        return dishesTotal;
+    }
+
+    public BigDecimal getServicesTotal() {
+        return servicesTotal;
+    }
+
+    public BigDecimal getSubtotalAmount() {
+        return subtotalAmount;
+    }
+
+    /**
+     * Store the line item totals (table fees, dishes, services) and their sum
+     */
+    public void setLineItemTotals(BigDecimal tableFeeTotal, BigDecimal dishesTotal, BigDecimal servicesTotal) {
+        this.tableFeeTotal = tableFeeTotal != null ? tableFeeTotal : BigDecimal.ZERO;
+        this.dishesTotal = dishesTotal != null ? dishesTotal : BigDecimal.ZERO;
+        this.servicesTotal = servicesTotal != null ? servicesTotal : BigDecimal.ZERO;
+        this.subtotalAmount = this.tableFeeTotal.add(this.dishesTotal).add(this.servicesTotal);
+    }
+
+    /**
+     * Forget the stored totals after line items changed; they are recomputed on next read
+     */
+    public void clearLineItemTotals() {
+        this.tableFeeTotal = null;
+        this.dishesTotal = null;
+        this.servicesTotal = null;
+        this.subtotalAmount = null;
+    }
+
+    public boolean hasLineItemTotals() {
+        return subtotalAmount != null;
+    }
     
     public String getNote() {
         return note;
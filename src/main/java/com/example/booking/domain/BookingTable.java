@@ -3,8 +3,11 @@ package com.example.booking.domain;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+import com.example.booking.domain.listener.BookingChangeListener;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -15,6 +18,7 @@ import jakarta.persistence.Table;
 import jakarta.validation.constraints.DecimalMin;
 
 @Entity
+@EntityListeners(BookingChangeListener.class)
 @Table(name = "booking_table")
 public class BookingTable {
     
@@ -7,6 +7,7 @@ import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -20,9 +21,11 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
 import com.example.booking.domain.converter.DishStatusConverter;
+import com.example.booking.domain.listener.DishChangeListener;
 
 @Entity
 @Table(name = "dish")
+@EntityListeners(DishChangeListener.class)
 public class Dish {
     
     @Id
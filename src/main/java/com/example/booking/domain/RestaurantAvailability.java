@@ -13,7 +13,8 @@ import java.util.UUID;
  * Restaurant Availability Entity for real-time availability tracking
  */
 @Entity
-@Table(name = "restaurant_availability")
+@Table(name = "restaurant_availability",
+       uniqueConstraints = @UniqueConstraint(columnNames = { "restaurant_id", "date", "hour" }))
 public class RestaurantAvailability {
     
     @Id
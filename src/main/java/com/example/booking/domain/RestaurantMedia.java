@@ -2,20 +2,29 @@ package com.example.booking.domain;
 
 import java.time.LocalDateTime;
 
+import com.example.booking.domain.listener.RestaurantMediaChangeListener;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
 @Entity
-@Table(name = "restaurant_media")
+@Table(name = "restaurant_media", indexes = {
+        @Index(name = "idx_restaurant_media_target", columnList = "restaurant_id, type, target_id")
+})
+@EntityListeners(RestaurantMediaChangeListener.class)
 public class RestaurantMedia {
     
     @Id
@@ -39,6 +48,13 @@ public class RestaurantMedia {
     
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
+
+    /**
+     * Dish, table or service the image belongs to (type dish | table | service).
+     * Derived from the upload naming convention "/{type}_{id}_" when not set explicitly.
+     */
+    @Column(name = "target_id")
+    private Integer targetId;
     
     // Constructors
     public RestaurantMedia() {
@@ -92,4 +108,46 @@ public class RestaurantMedia {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public Integer getTargetId() {
+        return targetId;
+    }
+
+    public void setTargetId(Integer targetId) {
+        this.targetId = targetId;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void resolveTargetId() {
+        Integer parsed = parseTargetId(type, url);
+        if (parsed != null) {
+            targetId = parsed;
+        }
+    }
+
+    /**
+     * Extract the dish/table/service id from an uploaded image URL ("/dish_12_1700000000.jpg" -> 12)
+     *
+     * @return null for other media types or URLs without the naming convention
+     */
+    public static Integer parseTargetId(String type, String url) {
+        if (url == null || !("dish".equals(type) || "table".equals(type) || "service".equals(type))) {
+            return null;
+        }
+        String marker = "/" + type + "_";
+        int from = url.indexOf(marker);
+        while (from >= 0) {
+            int start = from + marker.length();
+            int end = start;
+            while (end < url.length() && end - start < 9 && Character.isDigit(url.charAt(end))) {
+                end++;
+            }
+            if (end > start && end < url.length() && url.charAt(end) == '_') {
+                return Integer.valueOf(url.substring(start, end));
+            }
+            from = url.indexOf(marker, start);
+        }
+        return null;
+    }
 }
@@ -8,6 +8,7 @@ import java.util.List;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
@@ -26,9 +27,11 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
 import com.example.booking.common.enums.RestaurantApprovalStatus;
+import com.example.booking.domain.listener.RestaurantProfileChangeListener;
 
 @Entity
 @Table(name = "restaurant_profile")
+@EntityListeners(RestaurantProfileChangeListener.class)
 public class RestaurantProfile {
     
     @Id
@@ -168,6 +171,33 @@ public class RestaurantProfile {
     @Transient
     private Double distance;
 
+    // === RATING SUMMARY ===
+    // Maintained by ReviewService with atomic UPDATE statements (never written by entity saves,
+    // so a stale copy of the profile cannot overwrite it). Null = not computed yet.
+    @Column(name = "review_count", updatable = false)
+    private Integer reviewCount;
+
+    @Column(name = "rating_sum", updatable = false)
+    private Integer ratingSum;
+
+    @Column(name = "rating_1_count", updatable = false)
+    private Integer rating1Count;
+
+    @Column(name = "rating_2_count", updatable = false)
+    private Integer rating2Count;
+
+    @Column(name = "rating_3_count", updatable = false)
+    private Integer rating3Count;
+
+    @Column(name = "rating_4_count", updatable = false)
+    private Integer rating4Count;
+
+    @Column(name = "rating_5_count", updatable = false)
+    private Integer rating5Count;
+
+    @Column(name = "average_rating", updatable = false)
+    private Double averageRating;
+
     // === APPROVAL FIELDS ===
     @Enumerated(EnumType.STRING)
     @Column(name = "approval_status", nullable = false)
@@ -271,6 +301,16 @@ public class RestaurantProfile {
         LocalDateTime now = LocalDateTime.now();
         this.createdAt = now;
         this.updatedAt = now;
+        if (this.reviewCount == null && (this.reviews == null || this.reviews.isEmpty())) {
+            this.reviewCount = 0;
+            this.ratingSum = 0;
+            this.rating1Count = 0;
+            this.rating2Count = 0;
+            this.rating3Count = 0;
+            this.rating4Count = 0;
+            this.rating5Count = 0;
+            this.averageRating = 0.0;
+        }
     }
     
     @PreUpdate
@@ -803,6 +843,9 @@ public class RestaurantProfile {
 
     // Review helper methods
     public double getAverageRating() {
+        if (averageRating != null) {
+            return averageRating;
+        }
         if (reviews == null || reviews.isEmpty()) {
             return 0.0;
         }
@@ -813,11 +856,40 @@ public class RestaurantProfile {
     }
 
     public int getReviewCount() {
+        if (reviewCount != null) {
+            return reviewCount;
+        }
         return reviews != null ? reviews.size() : 0;
     }
 
+    /**
+     * Number of reviews with the given star rating (1-5), from the stored summary
+     */
+    public int getRatingCount(int stars) {
+        Integer count;
+        switch (stars) {
+            case 1: count = rating1Count; break;
+            case 2: count = rating2Count; break;
+            case 3: count = rating3Count; break;
+            case 4: count = rating4Count; break;
+            case 5: count = rating5Count; break;
+            default: return 0;
+        }
+        if (count != null) {
+            return count;
+        }
+        return reviews != null ? (int) reviews.stream().filter(r -> r.getRating() != null && r.getRating() == stars).count() : 0;
+    }
+
+    /**
+     * Whether the rating summary columns have been computed for this restaurant
+     */
+    public boolean hasRatingSummary() {
+        return reviewCount != null;
+    }
+
     public boolean hasReviews() {
-        return reviews != null && !reviews.isEmpty();
+        return getReviewCount() > 0;
     }
 
     public String getFormattedAverageRating() {
@@ -8,6 +8,7 @@ import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -24,9 +25,11 @@ import jakarta.validation.constraints.Size;
 
 import com.example.booking.common.enums.TableStatus;
 import com.example.booking.domain.converter.TableStatusConverter;
+import com.example.booking.domain.listener.RestaurantTableChangeListener;
 
 @Entity
 @Table(name = "restaurant_table")
+@EntityListeners(RestaurantTableChangeListener.class)
 public class RestaurantTable {
     
     @Id
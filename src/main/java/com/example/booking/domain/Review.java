@@ -2,8 +2,11 @@ package com.example.booking.domain;
 
 import java.time.LocalDateTime;
 
+import com.example.booking.domain.listener.ReviewChangeListener;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -18,6 +21,7 @@ import jakarta.validation.constraints.Size;
 
 @Entity
 @Table(name = "review", uniqueConstraints = @UniqueConstraint(columnNames = { "customer_id", "restaurant_id" }))
+@EntityListeners(ReviewChangeListener.class)
 public class Review {
     
     @Id
@@ -0,0 +1,51 @@
+package com.example.booking.domain.listener;
+
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.example.booking.domain.Booking;
+import com.example.booking.domain.BookingTable;
+import com.example.booking.event.BookingChangedEvent;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA listener for Booking / BookingTable writes.
+ * Only IDs are read here (no lazy loading during flush); the actual data is
+ * reloaded by the event consumers after the transaction commits.
+ */
+public class BookingChangeListener {
+
+    @Autowired(required = false)
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (eventPublisher == null) {
+            return;
+        }
+
+        Booking booking = null;
+        if (entity instanceof Booking b) {
+            booking = b;
+        } else if (entity instanceof BookingTable bt) {
+            booking = bt.getBooking();
+        }
+
+        if (booking == null || booking.getBookingId() == null) {
+            return;
+        }
+
+        // A table assignment may hold an uninitialized booking proxy; don't load it mid-flush
+        Integer restaurantId = null;
+        if (Hibernate.isInitialized(booking) && booking.getRestaurant() != null) {
+            restaurantId = booking.getRestaurant().getRestaurantId();
+        }
+        eventPublisher.publishEvent(new BookingChangedEvent(booking.getBookingId(), restaurantId));
+    }
+}
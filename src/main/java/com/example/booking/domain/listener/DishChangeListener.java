@@ -0,0 +1,33 @@
+package com.example.booking.domain.listener;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.example.booking.domain.Dish;
+import com.example.booking.event.DishChangedEvent;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA listener for Dish writes (name, status, add/remove).
+ */
+public class DishChangeListener {
+
+    @Autowired(required = false)
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Dish dish) {
+        if (eventPublisher == null || dish.getDishId() == null) {
+            return;
+        }
+
+        // Calling the identifier getter on a lazy proxy does not initialize it
+        Integer restaurantId = dish.getRestaurant() != null ? dish.getRestaurant().getRestaurantId() : null;
+        eventPublisher.publishEvent(new DishChangedEvent(dish.getDishId(), restaurantId));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.booking.domain.listener;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.example.booking.domain.RestaurantMedia;
+import com.example.booking.event.RestaurantMediaChangedEvent;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA listener for RestaurantMedia writes (cover, gallery and menu images).
+ */
+public class RestaurantMediaChangeListener {
+
+    @Autowired(required = false)
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(RestaurantMedia media) {
+        if (eventPublisher == null || media.getMediaId() == null) {
+            return;
+        }
+
+        // Calling the identifier getter on a lazy proxy does not initialize it
+        Integer restaurantId = media.getRestaurant() != null ? media.getRestaurant().getRestaurantId() : null;
+        eventPublisher.publishEvent(new RestaurantMediaChangedEvent(media.getMediaId(), restaurantId));
+    }
+}
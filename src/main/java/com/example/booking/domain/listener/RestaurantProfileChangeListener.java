@@ -0,0 +1,28 @@
+package com.example.booking.domain.listener;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.example.booking.domain.RestaurantProfile;
+import com.example.booking.event.RestaurantProfileChangedEvent;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA listener for RestaurantProfile updates.
+ */
+public class RestaurantProfileChangeListener {
+
+    @Autowired(required = false)
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(RestaurantProfile restaurant) {
+        if (eventPublisher == null || restaurant.getRestaurantId() == null) {
+            return;
+        }
+        eventPublisher.publishEvent(new RestaurantProfileChangedEvent(restaurant.getRestaurantId()));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.booking.domain.listener;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.example.booking.domain.RestaurantTable;
+import com.example.booking.event.RestaurantTableChangedEvent;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA listener for RestaurantTable writes (status, capacity, add/remove).
+ */
+public class RestaurantTableChangeListener {
+
+    @Autowired(required = false)
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(RestaurantTable table) {
+        if (eventPublisher == null || table.getTableId() == null) {
+            return;
+        }
+
+        // Calling the identifier getter on a lazy proxy does not initialize it
+        Integer restaurantId = table.getRestaurant() != null ? table.getRestaurant().getRestaurantId() : null;
+        eventPublisher.publishEvent(new RestaurantTableChangedEvent(table.getTableId(), restaurantId));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.booking.domain.listener;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.example.booking.domain.Review;
+import com.example.booking.event.ReviewChangedEvent;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA listener for Review writes (rating, comment, add/remove).
+ */
+public class ReviewChangeListener {
+
+    @Autowired(required = false)
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Review review) {
+        if (eventPublisher == null || review.getReviewId() == null) {
+            return;
+        }
+
+        // Calling the identifier getter on a lazy proxy does not initialize it
+        Integer restaurantId = review.getRestaurant() != null ? review.getRestaurant().getRestaurantId() : null;
+        eventPublisher.publishEvent(new ReviewChangedEvent(review.getReviewId(), restaurantId));
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.booking.domain.listener;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.example.booking.domain.Waitlist;
+import com.example.booking.event.WaitlistChangedEvent;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA listener for Waitlist writes.
+ * Only the ID is read here; the queue index reloads the entry after commit.
+ */
+public class WaitlistChangeListener {
+
+    @Autowired(required = false)
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Waitlist waitlist) {
+        if (eventPublisher == null || waitlist.getWaitlistId() == null) {
+            return;
+        }
+        eventPublisher.publishEvent(new WaitlistChangedEvent(waitlist.getWaitlistId()));
+    }
+}
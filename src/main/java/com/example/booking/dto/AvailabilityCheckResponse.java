@@ -9,6 +9,7 @@ public class AvailabilityCheckResponse {
     private ConflictDetails conflictDetails;
     private WaitlistInfo waitlistInfo;
     private List<AlternativeTable> alternativeTables;
+    private TableCombination tableCombination;
 
     // Constructors
     public AvailabilityCheckResponse() {}
@@ -59,7 +60,55 @@ public class AvailabilityCheckResponse {
         this.alternativeTables = alternativeTables;
     }
 
+    public TableCombination getTableCombination() {
+        return tableCombination;
+    }
+
+    public void setTableCombination(TableCombination tableCombination) {
+        this.tableCombination = tableCombination;
+    }
+
     // Inner classes
+    public static class TableCombination {
+        private List<Integer> tableIds;
+        private List<String> tableNames;
+        private Integer totalCapacity;
+
+        // Constructors
+        public TableCombination() {}
+
+        public TableCombination(List<Integer> tableIds, List<String> tableNames, Integer totalCapacity) {
+            this.tableIds = tableIds;
+            this.tableNames = tableNames;
+            this.totalCapacity = totalCapacity;
+        }
+
+        // Getters and Setters
+        public List<Integer> getTableIds() {
+            return tableIds;
+        }
+
+        public void setTableIds(List<Integer> tableIds) {
+            this.tableIds = tableIds;
+        }
+
+        public List<String> getTableNames() {
+            return tableNames;
+        }
+
+        public void setTableNames(List<String> tableNames) {
+            this.tableNames = tableNames;
+        }
+
+        public Integer getTotalCapacity() {
+            return totalCapacity;
+        }
+
+        public void setTotalCapacity(Integer totalCapacity) {
+            this.totalCapacity = totalCapacity;
+        }
+    }
+
     public static class ConflictDetails {
         private List<TableConflictInfo> selectedTables;
 
@@ -0,0 +1,30 @@
+package com.example.booking.event;
+
+/**
+ * Published whenever a booking or one of its table assignments is written.
+ * Listeners that keep in-memory read models (conflict index, availability...)
+ * should react AFTER_COMMIT and reload what they need by booking ID.
+ */
+public class BookingChangedEvent {
+
+    private final Integer bookingId;
+    private final Integer restaurantId;
+
+    public BookingChangedEvent(Integer bookingId, Integer restaurantId) {
+        this.bookingId = bookingId;
+        this.restaurantId = restaurantId;
+    }
+
+    public Integer getBookingId() {
+        return bookingId;
+    }
+
+    public Integer getRestaurantId() {
+        return restaurantId;
+    }
+
+    @Override
+    public String toString() {
+        return "BookingChangedEvent{bookingId=" + bookingId + ", restaurantId=" + restaurantId + "}";
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.booking.event;
+
+/**
+ * Published whenever a dish is created, updated or removed.
+ * Consumers should react AFTER_COMMIT and reload the menu of the restaurant.
+ */
+public class DishChangedEvent {
+
+    private final Integer dishId;
+    private final Integer restaurantId;
+
+    public DishChangedEvent(Integer dishId, Integer restaurantId) {
+        this.dishId = dishId;
+        this.restaurantId = restaurantId;
+    }
+
+    public Integer getDishId() {
+        return dishId;
+    }
+
+    public Integer getRestaurantId() {
+        return restaurantId;
+    }
+
+    @Override
+    public String toString() {
+        return "DishChangedEvent{dishId=" + dishId + ", restaurantId=" + restaurantId + "}";
+    }
+}
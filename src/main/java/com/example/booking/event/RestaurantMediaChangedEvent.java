@@ -0,0 +1,29 @@
+package com.example.booking.event;
+
+/**
+ * Published whenever a restaurant image or other media item is created, updated or removed.
+ * Consumers should react AFTER_COMMIT and reload what they derived from the restaurant.
+ */
+public class RestaurantMediaChangedEvent {
+
+    private final Integer mediaId;
+    private final Integer restaurantId;
+
+    public RestaurantMediaChangedEvent(Integer mediaId, Integer restaurantId) {
+        this.mediaId = mediaId;
+        this.restaurantId = restaurantId;
+    }
+
+    public Integer getMediaId() {
+        return mediaId;
+    }
+
+    public Integer getRestaurantId() {
+        return restaurantId;
+    }
+
+    @Override
+    public String toString() {
+        return "RestaurantMediaChangedEvent{mediaId=" + mediaId + ", restaurantId=" + restaurantId + "}";
+    }
+}
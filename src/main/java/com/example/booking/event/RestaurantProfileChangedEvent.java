@@ -0,0 +1,23 @@
+package com.example.booking.event;
+
+/**
+ * Published whenever a restaurant profile is updated or removed.
+ * Consumers should drop anything they derived from the profile (e.g. compiled opening hours).
+ */
+public class RestaurantProfileChangedEvent {
+
+    private final Integer restaurantId;
+
+    public RestaurantProfileChangedEvent(Integer restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+
+    public Integer getRestaurantId() {
+        return restaurantId;
+    }
+
+    @Override
+    public String toString() {
+        return "RestaurantProfileChangedEvent{restaurantId=" + restaurantId + "}";
+    }
+}
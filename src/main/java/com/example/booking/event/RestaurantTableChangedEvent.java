@@ -0,0 +1,29 @@
+package com.example.booking.event;
+
+/**
+ * Published whenever a restaurant table is created, updated or removed.
+ * Consumers should react AFTER_COMMIT and reload the tables they need.
+ */
+public class RestaurantTableChangedEvent {
+
+    private final Integer tableId;
+    private final Integer restaurantId;
+
+    public RestaurantTableChangedEvent(Integer tableId, Integer restaurantId) {
+        this.tableId = tableId;
+        this.restaurantId = restaurantId;
+    }
+
+    public Integer getTableId() {
+        return tableId;
+    }
+
+    public Integer getRestaurantId() {
+        return restaurantId;
+    }
+
+    @Override
+    public String toString() {
+        return "RestaurantTableChangedEvent{tableId=" + tableId + ", restaurantId=" + restaurantId + "}";
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.booking.event;
+
+/**
+ * Published whenever a review is created, updated or removed.
+ * Consumers should react AFTER_COMMIT and reload what they derived from the restaurant.
+ */
+public class ReviewChangedEvent {
+
+    private final Integer reviewId;
+    private final Integer restaurantId;
+
+    public ReviewChangedEvent(Integer reviewId, Integer restaurantId) {
+        this.reviewId = reviewId;
+        this.restaurantId = restaurantId;
+    }
+
+    public Integer getReviewId() {
+        return reviewId;
+    }
+
+    public Integer getRestaurantId() {
+        return restaurantId;
+    }
+
+    @Override
+    public String toString() {
+        return "ReviewChangedEvent{reviewId=" + reviewId + ", restaurantId=" + restaurantId + "}";
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.booking.event;
+
+import java.time.LocalDateTime;
+
+import com.example.booking.domain.Booking;
+import com.example.booking.domain.RestaurantTable;
+
+/**
+ * Published when a party sits down or leaves, or a table starts or finishes cleaning.
+ * The turn-time model learns from it AFTER_COMMIT, so transitions that are rolled back
+ * are never observed.
+ */
+public class TableTurnEvent {
+
+    public enum Type {
+        SEATED, LEFT, CLEANING_STARTED, CLEANING_FINISHED
+    }
+
+    private final Type type;
+    private final Integer restaurantId;
+    private final Integer bookingId;
+    private final Integer tableId;
+    private final Integer partySize;
+    private final LocalDateTime bookingTime;
+    private final LocalDateTime at;
+
+    private TableTurnEvent(Type type, Integer restaurantId, Integer bookingId, Integer tableId, Integer partySize,
+            LocalDateTime bookingTime, LocalDateTime at) {
+        this.type = type;
+        this.restaurantId = restaurantId;
+        this.bookingId = bookingId;
+        this.tableId = tableId;
+        this.partySize = partySize;
+        this.bookingTime = bookingTime;
+        this.at = at;
+    }
+
+    public static TableTurnEvent seated(Booking booking, LocalDateTime at) {
+        return ofBooking(Type.SEATED, booking, at);
+    }
+
+    public static TableTurnEvent left(Booking booking, LocalDateTime at) {
+        return ofBooking(Type.LEFT, booking, at);
+    }
+
+    public static TableTurnEvent cleaningStarted(RestaurantTable table, LocalDateTime at) {
+        return ofTable(Type.CLEANING_STARTED, table, at);
+    }
+
+    public static TableTurnEvent cleaningFinished(RestaurantTable table, LocalDateTime at) {
+        return ofTable(Type.CLEANING_FINISHED, table, at);
+    }
+
+    private static TableTurnEvent ofBooking(Type type, Booking booking, LocalDateTime at) {
+        Integer restaurantId = booking.getRestaurant() != null ? booking.getRestaurant().getRestaurantId() : null;
+        return new TableTurnEvent(type, restaurantId, booking.getBookingId(), null, booking.getNumberOfGuests(),
+                booking.getBookingTime(), at);
+    }
+
+    private static TableTurnEvent ofTable(Type type, RestaurantTable table, LocalDateTime at) {
+        Integer restaurantId = table.getRestaurant() != null ? table.getRestaurant().getRestaurantId() : null;
+        return new TableTurnEvent(type, restaurantId, null, table.getTableId(), null, null, at);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Integer getRestaurantId() {
+        return restaurantId;
+    }
+
+    /**
+     * Booking of a SEATED / LEFT event, null for cleaning events
+     */
+    public Integer getBookingId() {
+        return bookingId;
+    }
+
+    /**
+     * Table of a cleaning event, null for SEATED / LEFT
+     */
+    public Integer getTableId() {
+        return tableId;
+    }
+
+    public Integer getPartySize() {
+        return partySize;
+    }
+
+    public LocalDateTime getBookingTime() {
+        return bookingTime;
+    }
+
+    public LocalDateTime getAt() {
+        return at;
+    }
+
+    @Override
+    public String toString() {
+        return "TableTurnEvent{type=" + type + ", restaurantId=" + restaurantId + ", bookingId=" + bookingId
+                + ", tableId=" + tableId + ", at=" + at + "}";
+    }
+}
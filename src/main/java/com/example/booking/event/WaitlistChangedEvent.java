@@ -0,0 +1,24 @@
+package com.example.booking.event;
+
+/**
+ * Published whenever a waitlist entry is written (joined, cancelled, seated...).
+ * Listeners that keep in-memory read models (queue positions) should react
+ * AFTER_COMMIT and reload what they need by waitlist ID.
+ */
+public class WaitlistChangedEvent {
+
+    private final Integer waitlistId;
+
+    public WaitlistChangedEvent(Integer waitlistId) {
+        this.waitlistId = waitlistId;
+    }
+
+    public Integer getWaitlistId() {
+        return waitlistId;
+    }
+
+    @Override
+    public String toString() {
+        return "WaitlistChangedEvent{waitlistId=" + waitlistId + "}";
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.booking.event;
+
+import com.example.booking.domain.WaitlistStatus;
+
+/**
+ * Published by the waitlist queue index after it applied a committed change to a
+ * restaurant queue. Positions are 1-based, 0 when the entry is not in the queue
+ * (before or after the change). A {@code resync} event means the whole queue of the
+ * restaurant was reloaded and clients should fetch their positions again.
+ */
+public class WaitlistQueueChangedEvent {
+
+    private final Integer restaurantId;
+    private final Integer waitlistId;
+    private final WaitlistStatus status;
+    private final Integer partySize;
+    private final int previousPosition;
+    private final int position;
+    private final int queueLength;
+    private final boolean resync;
+
+    public WaitlistQueueChangedEvent(Integer restaurantId, Integer waitlistId, WaitlistStatus status,
+            Integer partySize, int previousPosition, int position, int queueLength) {
+        this(restaurantId, waitlistId, status, partySize, previousPosition, position, queueLength, false);
+    }
+
+    private WaitlistQueueChangedEvent(Integer restaurantId, Integer waitlistId, WaitlistStatus status,
+            Integer partySize, int previousPosition, int position, int queueLength, boolean resync) {
+        this.restaurantId = restaurantId;
+        this.waitlistId = waitlistId;
+        this.status = status;
+        this.partySize = partySize;
+        this.previousPosition = previousPosition;
+        this.position = position;
+        this.queueLength = queueLength;
+        this.resync = resync;
+    }
+
+    public static WaitlistQueueChangedEvent resync(Integer restaurantId, int queueLength) {
+        return new WaitlistQueueChangedEvent(restaurantId, null, null, null, 0, 0, queueLength, true);
+    }
+
+    public Integer getRestaurantId() {
+        return restaurantId;
+    }
+
+    public Integer getWaitlistId() {
+        return waitlistId;
+    }
+
+    /**
+     * Status after the change, null if the entry no longer exists
+     */
+    public WaitlistStatus getStatus() {
+        return status;
+    }
+
+    public Integer getPartySize() {
+        return partySize;
+    }
+
+    public int getPreviousPosition() {
+        return previousPosition;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public int getQueueLength() {
+        return queueLength;
+    }
+
+    public boolean isResync() {
+        return resync;
+    }
+
+    @Override
+    public String toString() {
+        return "WaitlistQueueChangedEvent{restaurantId=" + restaurantId + ", waitlistId=" + waitlistId
+                + ", status=" + status + ", previousPosition=" + previousPosition + ", position=" + position
+                + ", queueLength=" + queueLength + ", resync=" + resync + "}";
+    }
+}
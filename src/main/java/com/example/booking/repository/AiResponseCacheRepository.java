@@ -0,0 +1,56 @@
+package com.example.booking.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.booking.domain.AiResponseCache;
+
+/**
+ * Repository for AiResponseCache entity
+ */
+@Repository
+public interface AiResponseCacheRepository extends JpaRepository<AiResponseCache, String> {
+
+    /**
+     * Claim the right to call the model for a key: inserts a lease row, or takes
+     * over a row whose entry or lease has expired. Returns 0 while another node
+     * holds a live entry or lease for the key.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO ai_response_cache (cache_key, kind, fingerprint, payload, created_at, expires_at) " +
+           "VALUES (:cacheKey, :kind, :fingerprint, NULL, :now, :leaseUntil) " +
+           "ON CONFLICT (cache_key) DO UPDATE SET payload = NULL, kind = EXCLUDED.kind, " +
+           "fingerprint = EXCLUDED.fingerprint, created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at " +
+           "WHERE ai_response_cache.expires_at <= :now", nativeQuery = true)
+    int claim(@Param("cacheKey") String cacheKey, @Param("kind") String kind, @Param("fingerprint") String fingerprint,
+              @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * Drop a lease whose model call failed so the next request can retry at once
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AiResponseCache c WHERE c.cacheKey = :cacheKey AND c.payload IS NULL")
+    int releaseLease(@Param("cacheKey") String cacheKey);
+
+    /**
+     * Newest unexpired entries, used to warm the in-memory tier
+     */
+    @Query("SELECT c FROM AiResponseCache c WHERE c.payload IS NOT NULL AND c.expiresAt > :now " +
+           "ORDER BY c.createdAt DESC")
+    List<AiResponseCache> findLiveEntries(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AiResponseCache c WHERE c.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
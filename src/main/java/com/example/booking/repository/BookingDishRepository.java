@@ -1,6 +1,7 @@
 package com.example.booking.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -57,4 +58,11 @@ public interface BookingDishRepository extends JpaRepository<BookingDish, Intege
     List<BookingDish> findByRestaurantIdAndDishId(
         @Param("restaurantId") Integer restaurantId,
         @Param("dishId") Integer dishId);
+
+    /**
+     * Dish total per booking: rows of [bookingId, sum(price * quantity)]
+     */
+    @Query("SELECT bd.booking.bookingId, SUM(bd.price * bd.quantity) FROM BookingDish bd " +
+           "WHERE bd.booking.bookingId IN :bookingIds GROUP BY bd.booking.bookingId")
+    List<Object[]> sumDishesByBookingIds(@Param("bookingIds") Collection<Integer> bookingIds);
 }
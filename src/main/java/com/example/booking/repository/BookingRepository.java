@@ -7,6 +7,7 @@ import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -213,4 +214,31 @@ public interface BookingRepository extends JpaRepository<Booking, Integer> {
     List<Booking> findTableConflictsInTimeRange(@Param("tableId") Integer tableId,
                   @Param("bufferStart") LocalDateTime bufferStart,
                   @Param("bufferEnd") LocalDateTime bufferEnd);
-} 
+
+    /**
+     * Finished bookings for the turn-time model: [restaurantId, numberOfGuests, bookingTime, updatedAt, bookingId]
+     */
+    @Query("SELECT b.restaurant.restaurantId, b.numberOfGuests, b.bookingTime, b.updatedAt, b.bookingId FROM Booking b " +
+                  "WHERE b.status = :status AND b.updatedAt > b.bookingTime")
+    List<Object[]> findTurnHistory(@Param("status") BookingStatus status);
+
+    /**
+     * Distinct [customerId, restaurantId] pairs of bookings since a time, for co-booking signals
+     */
+    @Query("SELECT DISTINCT b.customer.customerId, b.restaurant.restaurantId FROM Booking b " +
+                  "WHERE b.status IN :statuses AND b.bookingTime >= :since")
+    List<Object[]> findCustomerRestaurantPairs(@Param("statuses") Collection<BookingStatus> statuses,
+                  @Param("since") LocalDateTime since);
+
+    /**
+     * Store line item totals computed for a booking that had none. Rows whose totals were
+     * stored meanwhile by the line item write path are left alone.
+     */
+    @Modifying
+    @Query("UPDATE Booking b SET b.tableFeeTotal = :tableFeeTotal, b.dishesTotal = :dishesTotal, " +
+           "b.servicesTotal = :servicesTotal, b.subtotalAmount = :subtotalAmount " +
+           "WHERE b.bookingId = :bookingId AND b.subtotalAmount IS NULL")
+    int storeLineItemTotals(@Param("bookingId") Integer bookingId, @Param("tableFeeTotal") BigDecimal tableFeeTotal,
+                            @Param("dishesTotal") BigDecimal dishesTotal, @Param("servicesTotal") BigDecimal servicesTotal,
+                            @Param("subtotalAmount") BigDecimal subtotalAmount);
+}
@@ -1,8 +1,11 @@
 package com.example.booking.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.booking.domain.Booking;
@@ -20,4 +23,11 @@ public interface BookingServiceRepository extends JpaRepository<BookingService,
      * Delete all services for a booking
      */
     void deleteByBooking(Booking booking);
-}
\ No newline at end of file
+
+    /**
+     * Service total per booking: rows of [bookingId, sum(price * quantity)]
+     */
+    @Query("SELECT bs.booking.bookingId, SUM(bs.price * bs.quantity) FROM BookingService bs " +
+           "WHERE bs.booking.bookingId IN :bookingIds GROUP BY bs.booking.bookingId")
+    List<Object[]> sumServicesByBookingIds(@Param("bookingIds") Collection<Integer> bookingIds);
+}
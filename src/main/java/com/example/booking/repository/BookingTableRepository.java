@@ -1,6 +1,7 @@
 package com.example.booking.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.booking.common.enums.BookingStatus;
 import com.example.booking.domain.Booking;
 import com.example.booking.domain.BookingTable;
 import com.example.booking.domain.RestaurantTable;
@@ -55,4 +57,49 @@ public interface BookingTableRepository extends JpaRepository<BookingTable, Inte
     List<BookingTable> findOtherActiveBookingsByTable(@Param("table") RestaurantTable table,
                                                       @Param("excludeBookingId") Integer excludeBookingId);
 
+    /**
+     * Booking windows projection dùng để warm conflict index:
+     * [restaurantId, tableId, bookingId, bookingTime]
+     */
+    @Query("SELECT b.restaurant.restaurantId, bt.table.tableId, b.bookingId, b.bookingTime " +
+           "FROM BookingTable bt " +
+           "JOIN bt.booking b " +
+           "WHERE b.status IN :statuses " +
+           "AND b.bookingTime >= :from")
+    List<Object[]> findBookingWindowsFrom(@Param("statuses") Collection<BookingStatus> statuses,
+                                          @Param("from") LocalDateTime from);
+
+    /**
+     * Booking windows projection cho một nhóm booking cụ thể (incremental refresh)
+     */
+    @Query("SELECT b.restaurant.restaurantId, bt.table.tableId, b.bookingId, b.bookingTime " +
+           "FROM BookingTable bt " +
+           "JOIN bt.booking b " +
+           "WHERE b.bookingId IN :bookingIds " +
+           "AND b.status IN :statuses")
+    List<Object[]> findBookingWindowsByBookingIds(@Param("bookingIds") Collection<Integer> bookingIds,
+                                                  @Param("statuses") Collection<BookingStatus> statuses);
+
+    /**
+     * Booking windows của tất cả bàn trong một nhà hàng trong khoảng thời gian (một query cho cả nhà hàng):
+     * [tableId, bookingId, bookingTime, numberOfGuests, status]
+     */
+    @Query("SELECT bt.table.tableId, b.bookingId, b.bookingTime, b.numberOfGuests, b.status " +
+           "FROM BookingTable bt " +
+           "JOIN bt.booking b " +
+           "WHERE bt.table.restaurant.restaurantId = :restaurantId " +
+           "AND b.status IN :statuses " +
+           "AND b.bookingTime BETWEEN :from AND :to " +
+           "ORDER BY b.bookingTime")
+    List<Object[]> findRestaurantBookingWindows(@Param("restaurantId") Integer restaurantId,
+                                                @Param("statuses") Collection<BookingStatus> statuses,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to);
+
+    /**
+     * Table fee total per booking: rows of [bookingId, sum], one grouped query for a page of bookings
+     */
+    @Query("SELECT bt.booking.bookingId, SUM(bt.tableFee) FROM BookingTable bt " +
+           "WHERE bt.booking.bookingId IN :bookingIds GROUP BY bt.booking.bookingId")
+    List<Object[]> sumTableFeesByBookingIds(@Param("bookingIds") Collection<Integer> bookingIds);
 }
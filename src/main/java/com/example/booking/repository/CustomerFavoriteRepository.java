@@ -119,4 +119,10 @@ public interface CustomerFavoriteRepository extends JpaRepository<CustomerFavori
            "GROUP BY f.restaurant.restaurantId, f.restaurant.restaurantName " +
            "ORDER BY favoriteCount DESC")
     List<Object[]> getFavoriteStatisticsForOwner(@Param("ownerId") UUID ownerId, Pageable pageable);
+
+    /**
+     * [customerId, restaurantId] of every favorite, for co-favorite signals
+     */
+    @Query("SELECT f.customer.customerId, f.restaurant.restaurantId FROM CustomerFavorite f")
+    List<Object[]> findCustomerRestaurantPairs();
 }
@@ -1,8 +1,11 @@
 package com.example.booking.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.booking.domain.Dish;
@@ -61,4 +64,30 @@ public interface DishRepository extends JpaRepository<Dish, Integer> {
      */
     List<Dish> findByRestaurantRestaurantIdAndNameContainingIgnoreCaseAndStatus(
             Integer restaurantId, String name, DishStatus status);
+
+    /**
+     * Dish names of approved restaurants (excluding AI restaurant) for the typeahead index:
+     * [restaurantId, name, total quantity ever booked]
+     *
+     * @param status The dish status to include
+     * @return Rows of dish name data
+     */
+    @Query("SELECT d.restaurant.restaurantId, d.name, " +
+           "(SELECT COALESCE(SUM(bd.quantity), 0) FROM BookingDish bd WHERE bd.dish = d) " +
+           "FROM Dish d WHERE d.status = :status " +
+           "AND d.restaurant.approvalStatus = 'APPROVED' AND d.restaurant.restaurantId != 37")
+    List<Object[]> findSuggestionRowsOfApprovedRestaurants(@Param("status") DishStatus status);
+
+    /**
+     * Same columns as {@link #findSuggestionRowsOfApprovedRestaurants(DishStatus)} for the given restaurants
+     *
+     * @param restaurantIds The restaurant IDs
+     * @param status        The dish status to include
+     * @return Rows of dish name data
+     */
+    @Query("SELECT d.restaurant.restaurantId, d.name, " +
+           "(SELECT COALESCE(SUM(bd.quantity), 0) FROM BookingDish bd WHERE bd.dish = d) " +
+           "FROM Dish d WHERE d.status = :status AND d.restaurant.restaurantId IN :restaurantIds")
+    List<Object[]> findSuggestionRowsByRestaurantIds(@Param("restaurantIds") Collection<Integer> restaurantIds,
+            @Param("status") DishStatus status);
 }
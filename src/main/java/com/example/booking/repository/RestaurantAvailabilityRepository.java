@@ -0,0 +1,51 @@
+package com.example.booking.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.booking.domain.RestaurantAvailability;
+
+@Repository
+public interface RestaurantAvailabilityRepository extends JpaRepository<RestaurantAvailability, UUID> {
+
+    /**
+     * Lấy các ô availability (theo giờ) của nhà hàng trong khoảng ngày
+     */
+    List<RestaurantAvailability> findByRestaurantRestaurantIdAndDateBetweenOrderByDateAscHourAsc(
+            Integer restaurantId, LocalDate fromDate, LocalDate toDate);
+
+    /**
+     * Lấy 24 ô availability của nhà hàng trong một ngày
+     */
+    List<RestaurantAvailability> findByRestaurantRestaurantIdAndDateOrderByHourAsc(Integer restaurantId,
+            LocalDate date);
+
+    /**
+     * Lấy ô availability của nhà hàng tại một giờ cụ thể
+     */
+    Optional<RestaurantAvailability> findByRestaurantRestaurantIdAndDateAndHour(Integer restaurantId,
+            LocalDate date, Integer hour);
+
+    /**
+     * Khóa lưới availability của nhà hàng đến hết transaction (advisory lock của PostgreSQL),
+     * để hai lần materialize cùng nhà hàng chạy lần lượt, kể cả trên các node khác nhau
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtext('restaurant_availability'), :restaurantId)",
+           nativeQuery = true)
+    Integer lockRestaurantGrid(@Param("restaurantId") Integer restaurantId);
+
+    /**
+     * Xóa các ô đã qua
+     */
+    @Modifying
+    @Query("DELETE FROM RestaurantAvailability a WHERE a.date < :date")
+    int deleteByDateBefore(@Param("date") LocalDate date);
+}
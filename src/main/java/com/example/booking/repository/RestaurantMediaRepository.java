@@ -3,9 +3,11 @@ package com.example.booking.repository;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.booking.domain.RestaurantMedia;
 import com.example.booking.domain.RestaurantProfile;
@@ -38,35 +40,35 @@ public interface RestaurantMediaRepository extends JpaRepository<RestaurantMedia
     void deleteByRestaurant(RestaurantProfile restaurant);
 
     /**
-     * Find dish image by restaurant and dish ID using naming convention
-     * Looks for URLs containing "/dish_{dishId}."
+     * Find dish images by restaurant and dish ID
+     * Uses target_id (idx_restaurant_media_target), filled from the "/dish_{dishId}_" upload name
      */
-    @Query("SELECT rm FROM RestaurantMedia rm WHERE rm.restaurant = :restaurant AND rm.type = 'dish' AND rm.url LIKE %:dishIdPattern%")
+    @Query("SELECT rm FROM RestaurantMedia rm WHERE rm.restaurant = :restaurant AND rm.type = 'dish' AND rm.targetId = :dishId")
     List<RestaurantMedia> findDishImagesByRestaurantAndDishId(@Param("restaurant") RestaurantProfile restaurant,
-                    @Param("dishIdPattern") String dishIdPattern);
+                    @Param("dishId") Integer dishId);
 
     /**
      * Find single dish image by restaurant and dish ID
      */
-    @Query("SELECT rm FROM RestaurantMedia rm WHERE rm.restaurant = :restaurant AND rm.type = 'dish' AND rm.url LIKE %:dishIdPattern%")
+    @Query("SELECT rm FROM RestaurantMedia rm WHERE rm.restaurant = :restaurant AND rm.type = 'dish' AND rm.targetId = :dishId")
     RestaurantMedia findDishImageByRestaurantAndDishId(@Param("restaurant") RestaurantProfile restaurant,
-                    @Param("dishIdPattern") String dishIdPattern);
+                    @Param("dishId") Integer dishId);
 
     /**
-     * Find table images by restaurant and table ID using naming convention
-     * Looks for URLs containing "/table_{tableId}."
+     * Find table images by restaurant and table ID, oldest first
+     * Uses target_id (idx_restaurant_media_target), filled from the "/table_{tableId}_" upload name
      */
-    @Query("SELECT rm FROM RestaurantMedia rm WHERE rm.restaurant = :restaurant AND rm.type = 'table' AND rm.url LIKE %:tableIdPattern% ORDER BY rm.createdAt ASC")
+    @Query("SELECT rm FROM RestaurantMedia rm WHERE rm.restaurant = :restaurant AND rm.type = 'table' AND rm.targetId = :tableId ORDER BY rm.createdAt ASC")
     List<RestaurantMedia> findTableImagesByRestaurantAndTableId(@Param("restaurant") RestaurantProfile restaurant,
-                    @Param("tableIdPattern") String tableIdPattern);
+                    @Param("tableId") Integer tableId);
 
     /**
-     * Find service images by restaurant and service ID using naming convention
-     * Looks for URLs containing "/service_{serviceId}_"
+     * Find service images by restaurant and service ID, newest first
+     * Uses target_id (idx_restaurant_media_target), filled from the "/service_{serviceId}_" upload name
      */
-    @Query("SELECT rm FROM RestaurantMedia rm WHERE rm.restaurant = :restaurant AND rm.type = 'service' AND rm.url LIKE %:serviceIdPattern% ORDER BY rm.createdAt DESC")
+    @Query("SELECT rm FROM RestaurantMedia rm WHERE rm.restaurant = :restaurant AND rm.type = 'service' AND rm.targetId = :serviceId ORDER BY rm.createdAt DESC")
     List<RestaurantMedia> findServiceImagesByRestaurantAndServiceId(@Param("restaurant") RestaurantProfile restaurant,
-            @Param("serviceIdPattern") String serviceIdPattern);
+            @Param("serviceId") Integer serviceId);
 
     /**
      * ===== PERFORMANCE OPTIMIZATION: Batch query to fix N+1 =====
@@ -81,4 +83,32 @@ public interface RestaurantMediaRepository extends JpaRepository<RestaurantMedia
     List<RestaurantMedia> findByRestaurantsAndType(
             @Param("restaurants") List<RestaurantProfile> restaurants,
             @Param("type") String type);
+
+    /**
+     * [restaurantId, url] of one media type for all approved restaurants, newest first per restaurant
+     * Used to build the home page catalog snapshot without loading media entities
+     */
+    @Query("SELECT rm.restaurant.restaurantId, rm.url FROM RestaurantMedia rm " +
+           "WHERE rm.type = :type AND rm.restaurant.approvalStatus = 'APPROVED' " +
+           "ORDER BY rm.restaurant.restaurantId, rm.createdAt DESC")
+    List<Object[]> findUrlRowsOfApprovedRestaurantsByType(@Param("type") String type);
+
+    /**
+     * All media of one restaurant, oldest first, for the per-restaurant media index
+     */
+    @Query("SELECT rm FROM RestaurantMedia rm WHERE rm.restaurant.restaurantId = :restaurantId " +
+           "ORDER BY rm.createdAt ASC, rm.mediaId ASC")
+    List<RestaurantMedia> findAllByRestaurantIdOrderByCreatedAt(@Param("restaurantId") Integer restaurantId);
+
+    /**
+     * Fill target_id of dish/table/service images stored before the column existed,
+     * using the "/{type}_{id}_" upload naming convention (PostgreSQL regex)
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE restaurant_media " +
+           "SET target_id = CAST(SUBSTRING(url FROM '/' || type || '_([0-9]{1,9})_') AS INTEGER) " +
+           "WHERE target_id IS NULL AND type IN ('dish', 'table', 'service') " +
+           "AND url ~ ('/' || type || '_[0-9]{1,9}_')", nativeQuery = true)
+    int backfillTargetIds();
 }
@@ -1,11 +1,13 @@
 package com.example.booking.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -53,6 +55,62 @@ public interface RestaurantProfileRepository extends JpaRepository<RestaurantPro
     @Query("SELECT r FROM RestaurantProfile r WHERE r.approvalStatus = 'APPROVED' AND r.restaurantId != 37")
     List<RestaurantProfile> findApprovedExcludingAI();
 
+    /**
+     * Location and filter columns of approved restaurants (excluding AI restaurant) for the spatial index:
+     * [restaurantId, restaurantName, address, cuisineType, averagePrice, latitude, longitude, createdAt, averageRating]
+     */
+    @Query("SELECT r.restaurantId, r.restaurantName, r.address, r.cuisineType, r.averagePrice, " +
+           "r.latitude, r.longitude, r.createdAt, COALESCE(r.averageRating, 0) FROM RestaurantProfile r " +
+           "WHERE r.approvalStatus = 'APPROVED' AND r.restaurantId != 37")
+    List<Object[]> findApprovedLocationRows();
+
+    /**
+     * Same columns as {@link #findApprovedLocationRows()} plus approvalStatus (index 9), for any status
+     */
+    @Query("SELECT r.restaurantId, r.restaurantName, r.address, r.cuisineType, r.averagePrice, " +
+           "r.latitude, r.longitude, r.createdAt, COALESCE(r.averageRating, 0), r.approvalStatus FROM RestaurantProfile r " +
+           "WHERE r.restaurantId IN :restaurantIds")
+    List<Object[]> findLocationRowsByIds(@Param("restaurantIds") Collection<Integer> restaurantIds);
+
+    /**
+     * Card columns of approved restaurants (excluding AI restaurant) for the home page catalog:
+     * [restaurantId, restaurantName, cuisineType, address, averagePrice, openingHours, averageRating, reviewCount, approvedAt]
+     */
+    @Query("SELECT r.restaurantId, r.restaurantName, r.cuisineType, r.address, r.averagePrice, r.openingHours, " +
+           "COALESCE(r.averageRating, 0), COALESCE(r.reviewCount, 0), r.approvedAt FROM RestaurantProfile r " +
+           "WHERE r.approvalStatus = 'APPROVED' AND r.restaurantId != 37")
+    List<Object[]> findApprovedCatalogRows();
+
+    /**
+     * Typeahead columns of approved restaurants (excluding AI restaurant):
+     * [restaurantId, restaurantName, cuisineType, reviewCount, approvalStatus]
+     */
+    @Query("SELECT r.restaurantId, r.restaurantName, r.cuisineType, COALESCE(r.reviewCount, 0), r.approvalStatus " +
+           "FROM RestaurantProfile r WHERE r.approvalStatus = 'APPROVED' AND r.restaurantId != 37")
+    List<Object[]> findApprovedSuggestionRows();
+
+    /**
+     * Same columns as {@link #findApprovedSuggestionRows()} for any status
+     */
+    @Query("SELECT r.restaurantId, r.restaurantName, r.cuisineType, COALESCE(r.reviewCount, 0), r.approvalStatus " +
+           "FROM RestaurantProfile r WHERE r.restaurantId IN :restaurantIds")
+    List<Object[]> findSuggestionRowsByIds(@Param("restaurantIds") Collection<Integer> restaurantIds);
+
+    /**
+     * Text columns of approved restaurants (excluding AI restaurant) for the AI candidate token index:
+     * [restaurantId, restaurantName, cuisineType, description, averagePrice, approvalStatus]
+     */
+    @Query("SELECT r.restaurantId, r.restaurantName, r.cuisineType, r.description, r.averagePrice, r.approvalStatus " +
+           "FROM RestaurantProfile r WHERE r.approvalStatus = 'APPROVED' AND r.restaurantId != 37")
+    List<Object[]> findApprovedTokenRows();
+
+    /**
+     * Same columns as {@link #findApprovedTokenRows()} for any status
+     */
+    @Query("SELECT r.restaurantId, r.restaurantName, r.cuisineType, r.description, r.averagePrice, r.approvalStatus " +
+           "FROM RestaurantProfile r WHERE r.restaurantId IN :restaurantIds")
+    List<Object[]> findTokenRowsByIds(@Param("restaurantIds") Collection<Integer> restaurantIds);
+
     /**
      * Find restaurants by approval status with pagination
      */
@@ -102,7 +160,7 @@ public interface RestaurantProfileRepository extends JpaRepository<RestaurantPro
      * @param cuisineType - Exact cuisine type match (nullable)
      * @param minPrice - Minimum average price (nullable)
      * @param maxPrice - Maximum average price (nullable)
-     * @param minRating - Minimum average rating (nullable, but filtered in Java not DB)
+     * @param minRating - Minimum average rating (nullable), compared with the stored rating summary
      * @param pageable - Pagination and sorting
      * @return Page of matching restaurants
      */
@@ -116,7 +174,7 @@ public interface RestaurantProfileRepository extends JpaRepository<RestaurantPro
            "AND (:cuisineType IS NULL OR :cuisineType = '' OR LOWER(TRIM(r.cuisineType)) = LOWER(TRIM(:cuisineType))) " +
            "AND (:minPrice IS NULL OR r.averagePrice >= :minPrice) " +
            "AND (:maxPrice IS NULL OR r.averagePrice <= :maxPrice) " +
-           "AND (1=1 OR :minRating IS NULL)")
+           "AND (:minRating IS NULL OR COALESCE(r.averageRating, 0) >= :minRating)")
     Page<RestaurantProfile> findApprovedWithFilters(
             @Param("search") String search,
             @Param("cuisineType") String cuisineType,
@@ -125,6 +183,41 @@ public interface RestaurantProfileRepository extends JpaRepository<RestaurantPro
             @Param("minRating") Double minRating,
             Pageable pageable);
     
+    /**
+     * Same filters as {@link #findApprovedWithFilters} for restaurants already matched by the search index
+     */
+    @Query("SELECT r FROM RestaurantProfile r " +
+           "WHERE r.restaurantId IN :restaurantIds " +
+           "AND r.approvalStatus = 'APPROVED' AND r.restaurantId != 37 " +
+           "AND (:cuisineType IS NULL OR :cuisineType = '' OR LOWER(TRIM(r.cuisineType)) = LOWER(TRIM(:cuisineType))) " +
+           "AND (:minPrice IS NULL OR r.averagePrice >= :minPrice) " +
+           "AND (:maxPrice IS NULL OR r.averagePrice <= :maxPrice) " +
+           "AND (:minRating IS NULL OR COALESCE(r.averageRating, 0) >= :minRating)")
+    Page<RestaurantProfile> findApprovedWithFiltersIn(
+            @Param("restaurantIds") Collection<Integer> restaurantIds,
+            @Param("cuisineType") String cuisineType,
+            @Param("minPrice") java.math.BigDecimal minPrice,
+            @Param("maxPrice") java.math.BigDecimal maxPrice,
+            @Param("minRating") Double minRating,
+            Pageable pageable);
+
+    /**
+     * IDs of {@link #findApprovedWithFiltersIn} without paging, for ordering by relevance
+     */
+    @Query("SELECT r.restaurantId FROM RestaurantProfile r " +
+           "WHERE r.restaurantId IN :restaurantIds " +
+           "AND r.approvalStatus = 'APPROVED' AND r.restaurantId != 37 " +
+           "AND (:cuisineType IS NULL OR :cuisineType = '' OR LOWER(TRIM(r.cuisineType)) = LOWER(TRIM(:cuisineType))) " +
+           "AND (:minPrice IS NULL OR r.averagePrice >= :minPrice) " +
+           "AND (:maxPrice IS NULL OR r.averagePrice <= :maxPrice) " +
+           "AND (:minRating IS NULL OR COALESCE(r.averageRating, 0) >= :minRating)")
+    List<Integer> findApprovedIdsWithFiltersIn(
+            @Param("restaurantIds") Collection<Integer> restaurantIds,
+            @Param("cuisineType") String cuisineType,
+            @Param("minPrice") java.math.BigDecimal minPrice,
+            @Param("maxPrice") java.math.BigDecimal maxPrice,
+            @Param("minRating") Double minRating);
+    
     /**
      * Find distinct cuisine types from approved restaurants
      * Returns list of unique, non-null, non-empty cuisine types
@@ -140,10 +233,57 @@ public interface RestaurantProfileRepository extends JpaRepository<RestaurantPro
      * Find top-rated approved restaurants sorted by rating, review count, and approval time
      */
     @Query("SELECT r FROM RestaurantProfile r " +
-           "LEFT JOIN r.reviews rv " +
            "WHERE r.approvalStatus = 'APPROVED' AND r.restaurantId <> 37 " +
-           "GROUP BY r " +
-           "ORDER BY COALESCE(AVG(rv.rating), 0) DESC, COUNT(rv) DESC, r.approvedAt DESC")
+           "ORDER BY COALESCE(r.averageRating, 0) DESC, COALESCE(r.reviewCount, 0) DESC, r.approvedAt DESC")
     List<RestaurantProfile> findTopRatedRestaurants(Pageable pageable);
 
+    // ===== RATING SUMMARY (review_count, rating_sum, rating_N_count, average_rating) =====
+
+    /**
+     * Apply one review change to the rating summary in a single atomic statement.
+     * oldRating/newRating are 0 when the review did not exist before/after the change.
+     *
+     * @return 0 if the summary of the restaurant has not been computed yet
+     */
+    @Modifying
+    @Query("UPDATE RestaurantProfile r SET " +
+           "r.reviewCount = r.reviewCount + :countDelta, " +
+           "r.ratingSum = r.ratingSum + :newRating - :oldRating, " +
+           "r.rating1Count = r.rating1Count + (CASE WHEN :newRating = 1 THEN 1 ELSE 0 END) - (CASE WHEN :oldRating = 1 THEN 1 ELSE 0 END), " +
+           "r.rating2Count = r.rating2Count + (CASE WHEN :newRating = 2 THEN 1 ELSE 0 END) - (CASE WHEN :oldRating = 2 THEN 1 ELSE 0 END), " +
+           "r.rating3Count = r.rating3Count + (CASE WHEN :newRating = 3 THEN 1 ELSE 0 END) - (CASE WHEN :oldRating = 3 THEN 1 ELSE 0 END), " +
+           "r.rating4Count = r.rating4Count + (CASE WHEN :newRating = 4 THEN 1 ELSE 0 END) - (CASE WHEN :oldRating = 4 THEN 1 ELSE 0 END), " +
+           "r.rating5Count = r.rating5Count + (CASE WHEN :newRating = 5 THEN 1 ELSE 0 END) - (CASE WHEN :oldRating = 5 THEN 1 ELSE 0 END), " +
+           "r.averageRating = CASE WHEN r.reviewCount + :countDelta > 0 " +
+           "    THEN (r.ratingSum + :newRating - :oldRating) * 1.0 / (r.reviewCount + :countDelta) ELSE 0.0 END " +
+           "WHERE r.restaurantId = :restaurantId AND r.reviewCount IS NOT NULL")
+    int applyRatingChange(@Param("restaurantId") Integer restaurantId,
+                          @Param("countDelta") int countDelta,
+                          @Param("oldRating") int oldRating,
+                          @Param("newRating") int newRating);
+
+    /**
+     * Recompute the rating summary of one restaurant from its reviews
+     */
+    @Modifying
+    @Query(RATING_SUMMARY_FROM_REVIEWS + "WHERE r.restaurantId = :restaurantId")
+    int recomputeRatingSummary(@Param("restaurantId") Integer restaurantId);
+
+    /**
+     * Compute the rating summary of every restaurant that does not have one yet
+     */
+    @Modifying
+    @Query(RATING_SUMMARY_FROM_REVIEWS + "WHERE r.reviewCount IS NULL")
+    int backfillRatingSummaries();
+
+    String RATING_SUMMARY_FROM_REVIEWS = "UPDATE RestaurantProfile r SET " +
+           "r.reviewCount = (SELECT COUNT(rv) FROM Review rv WHERE rv.restaurant = r), " +
+           "r.ratingSum = (SELECT COALESCE(SUM(rv.rating), 0) FROM Review rv WHERE rv.restaurant = r), " +
+           "r.rating1Count = (SELECT COUNT(rv) FROM Review rv WHERE rv.restaurant = r AND rv.rating = 1), " +
+           "r.rating2Count = (SELECT COUNT(rv) FROM Review rv WHERE rv.restaurant = r AND rv.rating = 2), " +
+           "r.rating3Count = (SELECT COUNT(rv) FROM Review rv WHERE rv.restaurant = r AND rv.rating = 3), " +
+           "r.rating4Count = (SELECT COUNT(rv) FROM Review rv WHERE rv.restaurant = r AND rv.rating = 4), " +
+           "r.rating5Count = (SELECT COUNT(rv) FROM Review rv WHERE rv.restaurant = r AND rv.rating = 5), " +
+           "r.averageRating = (SELECT COALESCE(AVG(rv.rating), 0) FROM Review rv WHERE rv.restaurant = r) ";
+
 }
@@ -1,10 +1,13 @@
 package com.example.booking.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.booking.domain.Waitlist;
@@ -47,4 +50,32 @@ public interface WaitlistRepository extends JpaRepository<Waitlist, Integer> {
      * Lấy tất cả waitlist entries của customer (cho booking list)
      */
     List<Waitlist> findByCustomerCustomerIdOrderByJoinTimeDesc(UUID customerId);
+
+    /**
+     * Queue entries with one status: [waitlistId, restaurantId, joinTime, partySize]
+     */
+    @Query("SELECT w.waitlistId, w.restaurant.restaurantId, w.joinTime, w.partySize FROM Waitlist w WHERE w.status = :status")
+    List<Object[]> findQueueEntriesByStatus(@Param("status") WaitlistStatus status);
+
+    /**
+     * Queue entries of one restaurant with one status: [waitlistId, restaurantId, joinTime, partySize]
+     */
+    @Query("SELECT w.waitlistId, w.restaurant.restaurantId, w.joinTime, w.partySize FROM Waitlist w "
+            + "WHERE w.restaurant.restaurantId = :restaurantId AND w.status = :status")
+    List<Object[]> findQueueEntriesByRestaurantAndStatus(@Param("restaurantId") Integer restaurantId,
+            @Param("status") WaitlistStatus status);
+
+    /**
+     * Current state of the given entries: [waitlistId, restaurantId, joinTime, partySize, status]
+     */
+    @Query("SELECT w.waitlistId, w.restaurant.restaurantId, w.joinTime, w.partySize, w.status FROM Waitlist w "
+            + "WHERE w.waitlistId IN :waitlistIds")
+    List<Object[]> findQueueEntriesByIds(@Param("waitlistIds") Collection<Integer> waitlistIds);
+
+    /**
+     * Number of entries with one status per restaurant: [restaurantId, count]
+     */
+    @Query("SELECT w.restaurant.restaurantId, COUNT(w) FROM Waitlist w WHERE w.status = :status "
+            + "GROUP BY w.restaurant.restaurantId")
+    List<Object[]> countByStatusGroupByRestaurant(@Param("status") WaitlistStatus status);
 }
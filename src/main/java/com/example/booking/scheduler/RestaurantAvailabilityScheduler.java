@@ -0,0 +1,63 @@
+package com.example.booking.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.booking.common.enums.RestaurantApprovalStatus;
+import com.example.booking.domain.RestaurantProfile;
+import com.example.booking.repository.RestaurantProfileRepository;
+import com.example.booking.service.RestaurantAvailabilityService;
+
+@Component
+public class RestaurantAvailabilityScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(RestaurantAvailabilityScheduler.class);
+
+    @Autowired
+    private RestaurantAvailabilityService availabilityService;
+
+    @Autowired
+    private RestaurantProfileRepository restaurantProfileRepository;
+
+    /**
+     * Fill the availability grid once the application is up
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuildAvailabilityGrid();
+    }
+
+    /**
+     * Full rebuild of the availability grid to fix any drift
+     * Runs daily at 3:40 AM
+     */
+    @Scheduled(cron = "0 40 3 * * *")
+    public void rebuildAvailabilityGrid() {
+        long start = System.currentTimeMillis();
+        int rebuilt = 0;
+        try {
+            log.info("Starting availability grid rebuild job");
+            availabilityService.purgePastCells();
+            for (RestaurantProfile restaurant : restaurantProfileRepository
+                    .findByApprovalStatus(RestaurantApprovalStatus.APPROVED)) {
+                try {
+                    availabilityService.rebuildRestaurant(restaurant.getRestaurantId());
+                    rebuilt++;
+                } catch (Exception e) {
+                    log.error("Error rebuilding availability grid for restaurant {}", restaurant.getRestaurantId(), e);
+                }
+            }
+            log.info("Availability grid rebuild job completed: {} restaurants in {} ms", rebuilt,
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Error in availability grid rebuild job", e);
+        }
+    }
+}
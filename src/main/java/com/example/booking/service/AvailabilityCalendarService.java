@@ -0,0 +1,369 @@
+package com.example.booking.service;
+
+import static com.example.booking.service.BookingConflictService.BUFFER_AFTER_MINUTES;
+import static com.example.booking.service.BookingConflictService.BUFFER_BEFORE_MINUTES;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.booking.common.enums.TableStatus;
+import com.example.booking.domain.RestaurantProfile;
+import com.example.booking.domain.RestaurantTable;
+import com.example.booking.event.BookingChangedEvent;
+import com.example.booking.event.RestaurantProfileChangedEvent;
+import com.example.booking.event.RestaurantTableChangedEvent;
+import com.example.booking.repository.RestaurantProfileRepository;
+import com.example.booking.repository.RestaurantTableRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Multi-day availability calendar for the booking date picker.
+ *
+ * {@link #etag} is computed without touching the database, from a per-restaurant
+ * version bumped after every committed booking, table or profile change, so an
+ * unchanged calendar is answered with 304 before anything is loaded. The versions
+ * only see changes committed on this node, so every tag also expires after
+ * {@code booking.availability.etag-ttl-seconds}: a change committed on another node
+ * shows up here within that time at the latest.
+ * {@link #load} reads the restaurant, its tables and the booked windows of the
+ * whole range (two set-based queries); {@link #writeGrid} then sweeps the windows once and streams one compact row
+ * per day: the number of suitable free tables for every slot between opening
+ * and closing time.
+ */
+@Service
+@Transactional(readOnly = true)
+public class AvailabilityCalendarService {
+
+    public static final int SLOT_MINUTES = 30;
+
+    // A request at T conflicts with a booking at B when |T - B| <= buffer before + buffer after
+    private static final int CONFLICT_REACH_MINUTES = BUFFER_BEFORE_MINUTES + BUFFER_AFTER_MINUTES;
+    private static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    @Autowired
+    private RestaurantProfileRepository restaurantProfileRepository;
+
+    @Autowired
+    private RestaurantTableRepository restaurantTableRepository;
+
+    @Autowired
+    private TableAvailabilityService tableAvailabilityService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired(required = false)
+    private OpeningScheduleService openingScheduleService;
+
+    // Longest time a tag stays valid; bounds how long a change committed on another node can be missed
+    @Value("${booking.availability.etag-ttl-seconds:60}")
+    private long etagTtlSeconds = 60;
+
+    // restaurantId -> data version; versions live in this node only, so the startup epoch
+    // keeps the tags of another node (or an earlier run) from ever matching
+    private final Map<Integer, AtomicLong> versions = new ConcurrentHashMap<>();
+    // bumped for changes whose restaurant is unknown, invalidates every calendar
+    private final AtomicLong globalVersion = new AtomicLong();
+    private final long epoch = System.currentTimeMillis();
+
+    /**
+     * Inputs of a calendar, loaded eagerly so the grid can be streamed outside the transaction
+     */
+    public static final class CalendarData {
+        private final Integer restaurantId;
+        private final LocalDate from;
+        private final LocalDate to;
+        private final int guests;
+        private final OpeningSchedule schedule;
+        private final LocalDateTime earliestBookable;
+        private final List<RestaurantTable> tables;
+        private final TableAvailabilityService.BookingWindows windows;
+        private final String etag;
+
+        private CalendarData(Integer restaurantId, LocalDate from, LocalDate to, int guests, OpeningSchedule schedule,
+                LocalDateTime earliestBookable, List<RestaurantTable> tables,
+                TableAvailabilityService.BookingWindows windows, String etag) {
+            this.restaurantId = restaurantId;
+            this.from = from;
+            this.to = to;
+            this.guests = guests;
+            this.schedule = schedule;
+            this.earliestBookable = earliestBookable;
+            this.tables = tables;
+            this.windows = windows;
+            this.etag = etag;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+    }
+
+    /**
+     * Current ETag of the calendar of [from, to] for a party size; reads no data
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public String etag(Integer restaurantId, LocalDate from, LocalDate to, int guests) {
+        LocalDate[] range = clampRange(from, to, guests);
+        return fingerprint(restaurantId, range[0], range[1], guests, earliestBookable(), version(restaurantId));
+    }
+
+    /**
+     * Load everything needed to build the calendar of [from, to] for a party size
+     */
+    public CalendarData load(Integer restaurantId, LocalDate from, LocalDate to, int guests) {
+        LocalDate[] range = clampRange(from, to, guests);
+        from = range[0];
+        to = range[1];
+        // Version is read before the data: a change committed while loading gives the next request a new tag
+        long version = version(restaurantId);
+        LocalDateTime earliestBookable = earliestBookable();
+
+        RestaurantProfile restaurant = restaurantProfileRepository.findById(restaurantId)
+                .orElseThrow(() -> new IllegalArgumentException("Restaurant not found"));
+
+        OpeningSchedule schedule = openingScheduleService != null
+                ? openingScheduleService.getScheduleOrDefault(restaurant)
+                : Optional.ofNullable(OpeningSchedule.parse(restaurant.getOpeningHours()))
+                        .orElse(OpeningScheduleService.DEFAULT_SCHEDULE);
+
+        List<RestaurantTable> tables = new ArrayList<>();
+        for (RestaurantTable table : restaurantTableRepository.findByRestaurantRestaurantId(restaurantId)) {
+            if (table.getCapacity() != null && table.getCapacity() >= guests
+                    && table.getStatus() != TableStatus.MAINTENANCE) {
+                tables.add(table);
+            }
+        }
+        tables.sort((a, b) -> Integer.compare(a.getTableId(), b.getTableId()));
+
+        TableAvailabilityService.BookingWindows windows = tableAvailabilityService.getAvailability(restaurantId,
+                from.atStartOfDay().minusMinutes(CONFLICT_REACH_MINUTES),
+                to.plusDays(1).atStartOfDay().plusMinutes(CONFLICT_REACH_MINUTES));
+
+        String etag = fingerprint(restaurantId, from, to, guests, earliestBookable, version);
+        return new CalendarData(restaurantId, from, to, guests, schedule, earliestBookable, tables, windows, etag);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onBookingChanged(BookingChangedEvent event) {
+        bump(event.getRestaurantId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onTableChanged(RestaurantTableChangedEvent event) {
+        bump(event.getRestaurantId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onRestaurantProfileChanged(RestaurantProfileChangedEvent event) {
+        bump(event.getRestaurantId());
+    }
+
+    private void bump(Integer restaurantId) {
+        if (restaurantId == null) {
+            globalVersion.incrementAndGet();
+        } else {
+            versions.computeIfAbsent(restaurantId, id -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    private long version(Integer restaurantId) {
+        AtomicLong version = versions.get(restaurantId);
+        // Both counters only grow, so their sum changes whenever either one does
+        return globalVersion.get() + (version != null ? version.get() : 0);
+    }
+
+    private LocalDate[] clampRange(LocalDate from, LocalDate to, int guests) {
+        LocalDate today = LocalDate.now();
+        if (guests < 1) {
+            throw new IllegalArgumentException("Số khách phải lớn hơn 0");
+        }
+        if (from.isBefore(today)) {
+            from = today;
+        }
+        LocalDate lastBookableDay = today.plusDays(BookingConflictService.MAX_BOOKING_ADVANCE_DAYS);
+        if (to.isAfter(lastBookableDay)) {
+            to = lastBookableDay;
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Khoảng ngày không hợp lệ");
+        }
+        return new LocalDate[] { from, to };
+    }
+
+    /**
+     * Slots before this time cannot be booked; rounded up to the slot so the ETag only
+     * changes when a slot actually expires
+     */
+    private LocalDateTime earliestBookable() {
+        return ceilToSlot(LocalDateTime.now().plusMinutes(BookingConflictService.MIN_BOOKING_ADVANCE_MINUTES));
+    }
+
+    /**
+     * Build the slot grid with one sweep over the booked windows and stream it day by day as JSON:
+     * {"restaurantId":1,"guests":4,"slotMinutes":30,"days":[{"date":"...","open":"10:00","close":"22:00","free":[..]}]}
+     * "free" covers the slots from "open" to "close"; slots in a break between two opening intervals are 0.
+     * A closed day has null "open"/"close" and an empty "free" array.
+     */
+    public void writeGrid(CalendarData data, OutputStream out) throws IOException {
+        int days = (int) ChronoUnit.DAYS.between(data.from, data.to) + 1;
+        int totalSlots = days * SLOTS_PER_DAY;
+        LocalDateTime gridStart = data.from.atStartOfDay();
+
+        // Difference array: +1 where a table becomes blocked, -1 after it is free again
+        int[] blockedDelta = new int[totalSlots + 1];
+        for (RestaurantTable table : data.tables) {
+            int runStart = -1;
+            int runEnd = -1;
+            // Windows come ordered by booking time, so blocked ranges of a table can be merged in one pass
+            for (TableAvailabilityService.BookedWindow window : data.windows.getBookings(table.getTableId())) {
+                if (!TableAvailabilityService.CONFLICT_STATUSES.contains(window.status())) {
+                    continue;
+                }
+                long startMinutes = Duration.between(gridStart, window.bookingTime()).toMinutes()
+                        - CONFLICT_REACH_MINUTES;
+                long endMinutes = startMinutes + 2L * CONFLICT_REACH_MINUTES;
+                int lo = (int) Math.max(0, -Math.floorDiv(-startMinutes, SLOT_MINUTES));
+                int hi = (int) Math.min(totalSlots - 1, Math.floorDiv(endMinutes, SLOT_MINUTES));
+                if (lo > hi) {
+                    continue;
+                }
+                if (runStart < 0) {
+                    runStart = lo;
+                    runEnd = hi;
+                } else if (lo <= runEnd + 1) {
+                    runEnd = Math.max(runEnd, hi);
+                } else {
+                    blockedDelta[runStart]++;
+                    blockedDelta[runEnd + 1]--;
+                    runStart = lo;
+                    runEnd = hi;
+                }
+            }
+            if (runStart >= 0) {
+                blockedDelta[runStart]++;
+                blockedDelta[runEnd + 1]--;
+            }
+        }
+
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.writeStartObject();
+            json.writeNumberField("restaurantId", data.restaurantId);
+            json.writeNumberField("guests", data.guests);
+            json.writeNumberField("slotMinutes", SLOT_MINUTES);
+            json.writeArrayFieldStart("days");
+
+            int blocked = 0;
+            int slot = 0;
+            for (int day = 0; day < days; day++) {
+                LocalDate date = data.from.plusDays(day);
+                // Opening window of the day: an overnight tail of the previous day starts it at midnight,
+                // an overnight span of this day is cut at midnight (the next day covers the rest)
+                int openMinute = data.schedule.opensFromPreviousDay(date) ? 0 : data.schedule.firstOpeningMinute(date);
+                int closeMinute = Math.min(data.schedule.lastClosingMinute(date), 24 * 60 - 1);
+                if (closeMinute < 0 && openMinute == 0) {
+                    closeMinute = lastMinuteOfPreviousDaySpan(data.schedule, date);
+                }
+                int firstSlotOfDay = openMinute < 0 ? SLOTS_PER_DAY : -Math.floorDiv(-openMinute, SLOT_MINUTES);
+                int lastSlotOfDay = closeMinute < 0 ? -1 : closeMinute / SLOT_MINUTES;
+
+                json.writeStartObject();
+                json.writeStringField("date", date.toString());
+                if (firstSlotOfDay <= lastSlotOfDay) {
+                    json.writeStringField("open", formatMinute(firstSlotOfDay * SLOT_MINUTES));
+                    json.writeStringField("close", formatMinute(closeMinute));
+                } else {
+                    json.writeNullField("open");
+                    json.writeNullField("close");
+                }
+                json.writeArrayFieldStart("free");
+                for (int i = 0; i < SLOTS_PER_DAY; i++, slot++) {
+                    blocked += blockedDelta[slot];
+                    if (i < firstSlotOfDay || i > lastSlotOfDay) {
+                        continue;
+                    }
+                    LocalDateTime slotTime = gridStart.plusMinutes((long) slot * SLOT_MINUTES);
+                    boolean bookable = !slotTime.isBefore(data.earliestBookable)
+                            && data.schedule.isOpenAt(date, i * SLOT_MINUTES);
+                    json.writeNumber(bookable ? data.tables.size() - blocked : 0);
+                }
+                json.writeEndArray();
+                json.writeEndObject();
+                // Let the client render early days while later ones are still computed
+                json.flush();
+            }
+
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    /**
+     * Closing minute of the previous day's overnight span on a day without own opening hours
+     */
+    private int lastMinuteOfPreviousDaySpan(OpeningSchedule schedule, LocalDate date) {
+        return schedule.lastClosingMinute(date.minusDays(1)) - 24 * 60;
+    }
+
+    private String formatMinute(int minuteOfDay) {
+        return LocalTime.of(minuteOfDay / 60, minuteOfDay % 60).toString();
+    }
+
+    private LocalDateTime ceilToSlot(LocalDateTime time) {
+        LocalDateTime truncated = time.truncatedTo(ChronoUnit.MINUTES);
+        if (truncated.isBefore(time)) {
+            truncated = truncated.plusMinutes(1);
+        }
+        int minuteOfDay = truncated.getHour() * 60 + truncated.getMinute();
+        int remainder = minuteOfDay % SLOT_MINUTES;
+        return remainder == 0 ? truncated : truncated.plusMinutes(SLOT_MINUTES - remainder);
+    }
+
+    /**
+     * Hash of the request and of the data version it was answered from
+     */
+    private String fingerprint(Integer restaurantId, LocalDate from, LocalDate to, int guests,
+            LocalDateTime earliestBookable, long version) {
+        StringBuilder key = new StringBuilder();
+        key.append(restaurantId).append('|').append(from).append('|').append(to).append('|').append(guests)
+                .append('|').append(epoch).append('.').append(version)
+                .append('|').append(System.currentTimeMillis() / 1000 / Math.max(etagTtlSeconds, 1));
+        if (!earliestBookable.toLocalDate().isBefore(from)) {
+            key.append('|').append(earliestBookable);
+        }
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.toString().getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            return "\"" + Integer.toHexString(key.toString().hashCode()) + "\"";
+        }
+    }
+}
@@ -5,6 +5,7 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -44,12 +45,18 @@ public class BookingConflictService {
     @Autowired
     private RestaurantTableRepository restaurantTableRepository;
     
+    @Autowired(required = false)
+    private BookingWindowIndex bookingWindowIndex;
+
+    @Autowired(required = false)
+    private OpeningScheduleService openingScheduleService;
+    
     // Constants
-    private static final int MIN_BOOKING_ADVANCE_MINUTES = 30; // Tối thiểu 30 phút trước
-    private static final int MAX_BOOKING_ADVANCE_DAYS = 30; // Tối đa 30 ngày trước
+    public static final int MIN_BOOKING_ADVANCE_MINUTES = 30; // Tối thiểu 30 phút trước
+    public static final int MAX_BOOKING_ADVANCE_DAYS = 30; // Tối đa 30 ngày trước
     private static final int BOOKING_DURATION_HOURS = 2; // Thời gian booking mặc định
-    private static final int BUFFER_BEFORE_MINUTES = 90; // Buffer trước booking time: 1.5h = 90 phút
-    private static final int BUFFER_AFTER_MINUTES = 120; // Buffer sau booking time: 2h = 120 phút
+    public static final int BUFFER_BEFORE_MINUTES = 90; // Buffer trước booking time: 1.5h = 90 phút
+    public static final int BUFFER_AFTER_MINUTES = 120; // Buffer sau booking time: 2h = 120 phút
     
     /**
      * Kiểm tra tất cả conflicts cho một booking
@@ -211,62 +218,28 @@ public class BookingConflictService {
      * Validate restaurant operating hours
      */
     private void validateRestaurantHours(RestaurantProfile restaurant, LocalDateTime bookingTime, List<String> conflicts) {
-        LocalTime bookingTimeOfDay = bookingTime.toLocalTime();
-        LocalDate bookingDate = bookingTime.toLocalDate();
-        LocalTime nowTime = LocalTime.now();
-        LocalDate today = LocalDate.now();
-        
-        // Parse opening hours from restaurant profile
-        String openingHours = restaurant.getOpeningHours();
-        if (openingHours != null && !openingHours.trim().isEmpty()) {
-            try {
-                // Parse format like "10:00-22:00" or "10:00 - 22:00"
-                String[] hours = openingHours.replaceAll("\\s+", "").split("-");
-                if (hours.length == 2) {
-                    LocalTime openTime = LocalTime.parse(hours[0]);
-                    LocalTime closeTime = LocalTime.parse(hours[1]);
-
-                    if (isAllowablePreOpenSameDay(bookingDate, bookingTimeOfDay, today, nowTime, openTime)
-                            || isAllowableDistantPreOpen(bookingDate, bookingTimeOfDay, today, openTime)) {
-                        return;
-                    }
-
-                    if (bookingTimeOfDay.isBefore(openTime) || bookingTimeOfDay.isAfter(closeTime)) {
-                        conflicts.add("Nhà hàng chỉ hoạt động từ " + openTime + " đến " + closeTime);
-                    }
-                } else {
-                    // Fallback to default hours if parsing fails
-                    validateRestaurantHoursDefault(bookingTime, conflicts);
-                }
-            } catch (Exception e) {
-                // Fallback to default hours if parsing fails
-                System.err.println("Error parsing opening hours: " + openingHours + ", using default hours");
-                validateRestaurantHoursDefault(bookingTime, conflicts);
-            }
-        } else {
-            // Use default hours if no opening hours specified
-            validateRestaurantHoursDefault(bookingTime, conflicts);
-        }
-    }
-    
-    /**
-     * Default restaurant hours validation (fallback)
-     */
-    private void validateRestaurantHoursDefault(LocalDateTime bookingTime, List<String> conflicts) {
-        LocalTime bookingTimeOfDay = bookingTime.toLocalTime();
-        LocalDate bookingDate = bookingTime.toLocalDate();
-        LocalTime nowTime = LocalTime.now();
-        LocalDate today = LocalDate.now();
-        LocalTime openTime = LocalTime.of(10, 0);
-        LocalTime closeTime = LocalTime.of(22, 0);
+        // Compiled once per restaurant version; falls back to 10:00-22:00 when hours are missing or invalid
+        OpeningSchedule schedule = openingScheduleService != null
+                ? openingScheduleService.getScheduleOrDefault(restaurant)
+                : Optional.ofNullable(OpeningSchedule.parse(restaurant.getOpeningHours()))
+                        .orElse(OpeningScheduleService.DEFAULT_SCHEDULE);
 
-        if (isAllowablePreOpenSameDay(bookingDate, bookingTimeOfDay, today, nowTime, openTime)
-                || isAllowableDistantPreOpen(bookingDate, bookingTimeOfDay, today, openTime)) {
+        if (schedule.isOpenAt(bookingTime)) {
             return;
         }
 
-        if (bookingTimeOfDay.isBefore(openTime) || bookingTimeOfDay.isAfter(closeTime)) {
-            conflicts.add("Nhà hàng chỉ hoạt động từ " + openTime + " đến " + closeTime);
+        LocalDate bookingDate = bookingTime.toLocalDate();
+        int firstOpening = schedule.firstOpeningMinute(bookingDate);
+        if (firstOpening >= 0) {
+            LocalTime openTime = LocalTime.of(firstOpening / 60, firstOpening % 60);
+            LocalTime bookingTimeOfDay = bookingTime.toLocalTime();
+            if (isAllowablePreOpenSameDay(bookingDate, bookingTimeOfDay, LocalDate.now(), LocalTime.now(), openTime)
+                    || isAllowableDistantPreOpen(bookingDate, bookingTimeOfDay, LocalDate.now(), openTime)) {
+                return;
+            }
+            conflicts.add("Nhà hàng chỉ hoạt động từ " + schedule.describe(bookingDate));
+        } else {
+            conflicts.add("Nhà hàng không hoạt động vào ngày " + bookingDate);
         }
     }
 
@@ -304,48 +277,7 @@ public class BookingConflictService {
      * Displays buffer range of CONFIRMED or COMPLETED booking from database (NOT request time)
      */
     private void validateTableConflicts(Integer tableId, LocalDateTime requestBookingTime, Integer guestCount, List<String> conflicts) {
-        RestaurantTable table = restaurantTableRepository.findById(tableId)
-                .orElseThrow(() -> new IllegalArgumentException("Table not found"));
-        
-        // Request booking buffer range
-        LocalDateTime requestBufferStart = requestBookingTime.minusMinutes(BUFFER_BEFORE_MINUTES);
-        LocalDateTime requestBufferEnd = requestBookingTime.plusMinutes(BUFFER_AFTER_MINUTES);
-        
-        // Calculate search range to find CONFIRMED or COMPLETED bookings from database
-        // whose buffer ranges could overlap with request buffer
-        LocalDateTime searchStart = requestBufferStart.minusMinutes(BUFFER_AFTER_MINUTES);
-        LocalDateTime searchEnd = requestBufferEnd.plusMinutes(BUFFER_BEFORE_MINUTES);
-        
-        // Find CONFIRMED or COMPLETED bookings from database whose buffer ranges overlap with request buffer
-        List<Booking> conflictingBookings = bookingRepository.findTableConflictsInTimeRange(tableId, searchStart, searchEnd);
-        
-        // Filter to only bookings whose buffer ranges actually overlap
-        List<Booking> actualConflicts = conflictingBookings.stream()
-            .filter(booking -> {
-                // CONFIRMED or COMPLETED booking buffer range from database
-                LocalDateTime dbBookingTime = booking.getBookingTime(); // FROM DATABASE
-                LocalDateTime existingBufferStart = dbBookingTime.minusMinutes(BUFFER_BEFORE_MINUTES);
-                LocalDateTime existingBufferEnd = dbBookingTime.plusMinutes(BUFFER_AFTER_MINUTES);
-                
-                // Check if buffer ranges overlap
-                return !existingBufferStart.isAfter(requestBufferEnd) && !existingBufferEnd.isBefore(requestBufferStart);
-            })
-            .collect(java.util.stream.Collectors.toList());
-        
-        if (!actualConflicts.isEmpty()) {
-            // Use the first conflicting booking to display buffer range
-            Booking conflictingBooking = actualConflicts.get(0);
-            LocalDateTime dbBookingTime = conflictingBooking.getBookingTime(); // FROM DATABASE
-            LocalDateTime bufferStart = dbBookingTime.minusMinutes(BUFFER_BEFORE_MINUTES);
-            LocalDateTime bufferEnd = dbBookingTime.plusMinutes(BUFFER_AFTER_MINUTES);
-            
-            // Format time as HH:mm
-            String bufferStartStr = String.format("%02d:%02d", bufferStart.getHour(), bufferStart.getMinute());
-            String bufferEndStr = String.format("%02d:%02d", bufferEnd.getHour(), bufferEnd.getMinute());
-            
-            conflicts.add("Bàn " + table.getTableName() + " đã được đặt trong khung giờ này (" + 
-                         bufferStartStr + " - " + bufferEndStr + ")");
-        }
+        validateTableConflictsExcludingBooking(tableId, requestBookingTime, guestCount, null, conflicts);
     }
     
     /**
@@ -361,22 +293,20 @@ public class BookingConflictService {
         LocalDateTime requestBufferStart = requestBookingTime.minusMinutes(BUFFER_BEFORE_MINUTES);
         LocalDateTime requestBufferEnd = requestBookingTime.plusMinutes(BUFFER_AFTER_MINUTES);
         
-        // Calculate search range to find CONFIRMED or COMPLETED bookings from database
+        // Calculate search range to find CONFIRMED or COMPLETED bookings
         // whose buffer ranges could overlap with request buffer
         LocalDateTime searchStart = requestBufferStart.minusMinutes(BUFFER_AFTER_MINUTES);
         LocalDateTime searchEnd = requestBufferEnd.plusMinutes(BUFFER_BEFORE_MINUTES);
         
-        // Find CONFIRMED or COMPLETED bookings from database whose buffer ranges overlap with request buffer
-        List<Booking> conflictingBookings = bookingRepository.findTableConflictsInTimeRange(tableId, searchStart, searchEnd);
+        List<BookingWindowIndex.Slot> candidates = findBookedSlots(table, searchStart, searchEnd);
         
         // Filter to only bookings whose buffer ranges actually overlap, excluding the specified booking
-        List<Booking> actualConflicts = conflictingBookings.stream()
-            .filter(booking -> booking.getBookingId() != excludeBookingId) // Exclude current booking
-            .filter(booking -> {
-                // CONFIRMED or COMPLETED booking buffer range from database
-                LocalDateTime dbBookingTime = booking.getBookingTime(); // FROM DATABASE
-                LocalDateTime existingBufferStart = dbBookingTime.minusMinutes(BUFFER_BEFORE_MINUTES);
-                LocalDateTime existingBufferEnd = dbBookingTime.plusMinutes(BUFFER_AFTER_MINUTES);
+        List<BookingWindowIndex.Slot> actualConflicts = candidates.stream()
+            .filter(slot -> excludeBookingId == null || !excludeBookingId.equals(slot.bookingId())) // Exclude current booking
+            .filter(slot -> {
+                // CONFIRMED or COMPLETED booking buffer range
+                LocalDateTime existingBufferStart = slot.bookingTime().minusMinutes(BUFFER_BEFORE_MINUTES);
+                LocalDateTime existingBufferEnd = slot.bookingTime().plusMinutes(BUFFER_AFTER_MINUTES);
                 
                 // Check if buffer ranges overlap
                 return !existingBufferStart.isAfter(requestBufferEnd) && !existingBufferEnd.isBefore(requestBufferStart);
@@ -385,8 +315,7 @@ public class BookingConflictService {
         
         if (!actualConflicts.isEmpty()) {
             // Use the first conflicting booking to display buffer range
-            Booking conflictingBooking = actualConflicts.get(0);
-            LocalDateTime dbBookingTime = conflictingBooking.getBookingTime(); // FROM DATABASE
+            LocalDateTime dbBookingTime = actualConflicts.get(0).bookingTime();
             LocalDateTime bufferStart = dbBookingTime.minusMinutes(BUFFER_BEFORE_MINUTES);
             LocalDateTime bufferEnd = dbBookingTime.plusMinutes(BUFFER_AFTER_MINUTES);
             
@@ -399,6 +328,25 @@ public class BookingConflictService {
         }
     }
 
+    /**
+     * CONFIRMED/COMPLETED bookings of a table with booking time in [searchStart, searchEnd].
+     * Served from the in-memory index; the database is only used on an index miss.
+     */
+    private List<BookingWindowIndex.Slot> findBookedSlots(RestaurantTable table, LocalDateTime searchStart,
+                                                          LocalDateTime searchEnd) {
+        if (bookingWindowIndex != null && table.getRestaurant() != null) {
+            Optional<List<BookingWindowIndex.Slot>> indexed = bookingWindowIndex.findBookings(
+                    table.getRestaurant().getRestaurantId(), table.getTableId(), searchStart, searchEnd);
+            if (indexed.isPresent()) {
+                return indexed.get();
+            }
+        }
+        
+        return bookingRepository.findTableConflictsInTimeRange(table.getTableId(), searchStart, searchEnd).stream()
+                .map(booking -> new BookingWindowIndex.Slot(booking.getBookingTime(), booking.getBookingId()))
+                .collect(java.util.stream.Collectors.toList());
+    }
+
     /**
      * Get available time slots for a table - chỉ check booking overlap
      */
@@ -0,0 +1,218 @@
+package com.example.booking.service;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.booking.domain.Booking;
+import com.example.booking.domain.BookingDish;
+import com.example.booking.domain.BookingTable;
+import com.example.booking.domain.Dish;
+import com.example.booking.domain.RestaurantService;
+import com.example.booking.domain.RestaurantTable;
+import com.example.booking.event.BookingChangedEvent;
+import com.example.booking.repository.DishRepository;
+import com.example.booking.repository.RestaurantServiceRepository;
+import com.example.booking.repository.RestaurantTableRepository;
+
+/**
+ * Batched write path for booking line items (tables, dishes, services).
+ *
+ * Referenced tables, dishes and services are resolved with one IN query per type, the
+ * rows are inserted with one JDBC batch per type, and the totals are summed from the
+ * same rows, so callers never have to read their own writes back to price a booking.
+ * The booking itself must already be inserted (it has an id).
+ *
+ * Rows go straight to JDBC, so they are not added to the booking's collections in the
+ * persistence context; JPQL queries issued later in the transaction do see them.
+ */
+@Service
+@Transactional
+public class BookingLineItemWriter {
+
+    private static final String INSERT_TABLE = "INSERT INTO booking_table (booking_id, table_id, assigned_at, table_fee) "
+            + "VALUES (?, ?, ?, ?)";
+    private static final String INSERT_DISH = "INSERT INTO booking_dish (booking_id, dish_id, quantity, price) "
+            + "VALUES (?, ?, ?, ?)";
+    private static final String INSERT_SERVICE = "INSERT INTO booking_service "
+            + "(booking_id, service_id, quantity, price, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RestaurantTableRepository restaurantTableRepository;
+
+    @Autowired
+    private DishRepository dishRepository;
+
+    @Autowired
+    private RestaurantServiceRepository restaurantServiceRepository;
+
+    @Autowired(required = false)
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Totals of the rows written by one call
+     */
+    public record Totals(BigDecimal tableFees, BigDecimal dishesTotal, BigDecimal servicesTotal) {
+
+        public static final Totals EMPTY = new Totals(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+
+        public BigDecimal subtotal() {
+            return tableFees.add(dishesTotal).add(servicesTotal);
+        }
+
+        public Totals plus(Totals other) {
+            if (other == null) {
+                return this;
+            }
+            return new Totals(tableFees.add(other.tableFees), dishesTotal.add(other.dishesTotal),
+                    servicesTotal.add(other.servicesTotal));
+        }
+    }
+
+    /**
+     * Tables by id in request order (duplicates dropped), loaded with one query
+     *
+     * @throws IllegalArgumentException if an id does not exist
+     */
+    @Transactional(readOnly = true)
+    public List<RestaurantTable> findTables(Collection<Integer> tableIds) {
+        Map<Integer, RestaurantTable> byId = new HashMap<>();
+        for (RestaurantTable table : restaurantTableRepository.findAllById(new LinkedHashSet<>(tableIds))) {
+            byId.put(table.getTableId(), table);
+        }
+        List<RestaurantTable> tables = new ArrayList<>();
+        for (Integer tableId : new LinkedHashSet<>(tableIds)) {
+            RestaurantTable table = byId.get(tableId);
+            if (table == null) {
+                throw new IllegalArgumentException("Table not found: " + tableId);
+            }
+            tables.add(table);
+        }
+        return tables;
+    }
+
+    /**
+     * Booking rows for the given tables; the table fee is a snapshot of the table deposit
+     */
+    public List<BookingTable> tableItems(Booking booking, List<RestaurantTable> tables) {
+        List<BookingTable> items = new ArrayList<>();
+        for (RestaurantTable table : tables) {
+            items.add(new BookingTable(booking, table));
+        }
+        return items;
+    }
+
+    /**
+     * Booking rows for dishId -> quantity at the current dish prices, loaded with one query
+     *
+     * @throws IllegalArgumentException if a dish does not exist
+     */
+    public List<BookingDish> dishItems(Booking booking, Map<Integer, Integer> quantities) {
+        Map<Integer, Dish> byId = new HashMap<>();
+        for (Dish dish : dishRepository.findAllById(quantities.keySet())) {
+            byId.put(dish.getDishId(), dish);
+        }
+        List<BookingDish> items = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> entry : quantities.entrySet()) {
+            Dish dish = byId.get(entry.getKey());
+            if (dish == null) {
+                throw new IllegalArgumentException("Dish not found: " + entry.getKey());
+            }
+            items.add(new BookingDish(booking, dish, entry.getValue(), dish.getPrice()));
+        }
+        return items;
+    }
+
+    /**
+     * One booking row (quantity 1) per service id at the current prices, loaded with one query
+     *
+     * @throws IllegalArgumentException if a service does not exist
+     */
+    public List<com.example.booking.domain.BookingService> serviceItems(Booking booking,
+            Collection<Integer> serviceIds) {
+        Map<Integer, RestaurantService> byId = new HashMap<>();
+        for (RestaurantService service : restaurantServiceRepository.findAllById(new LinkedHashSet<>(serviceIds))) {
+            byId.put(service.getServiceId(), service);
+        }
+        List<com.example.booking.domain.BookingService> items = new ArrayList<>();
+        for (Integer serviceId : serviceIds) {
+            RestaurantService service = byId.get(serviceId);
+            if (service == null) {
+                throw new IllegalArgumentException("Service not found: " + serviceId);
+            }
+            items.add(new com.example.booking.domain.BookingService(booking, service, 1, service.getPrice()));
+        }
+        return items;
+    }
+
+    /**
+     * Insert the rows with one batch per type and return their totals.
+     * Table rows go through the overlap constraint, so a clash surfaces as a BookingConflictException.
+     */
+    public Totals write(Booking booking, List<BookingTable> tables, List<BookingDish> dishes,
+            List<com.example.booking.domain.BookingService> services) {
+        if (booking == null || booking.getBookingId() == null) {
+            throw new IllegalArgumentException("Booking must be saved before its line items");
+        }
+        Integer bookingId = booking.getBookingId();
+
+        BigDecimal tableFees = BigDecimal.ZERO;
+        if (!tables.isEmpty()) {
+            List<Object[]> rows = new ArrayList<>(tables.size());
+            for (BookingTable item : tables) {
+                rows.add(new Object[] { bookingId, item.getTable().getTableId(),
+                        Timestamp.valueOf(item.getAssignedAt()), item.getTableFee() });
+                tableFees = tableFees.add(item.getTableFee());
+            }
+            Integer firstTableId = tables.get(0).getTable().getTableId();
+            BookingOverlapConstraint.write(booking, tables.size() == 1 ? firstTableId : null,
+                    () -> jdbcTemplate.batchUpdate(INSERT_TABLE, rows));
+            // JDBC inserts skip the entity listener, so announce the table change ourselves
+            if (eventPublisher != null) {
+                Integer restaurantId = booking.getRestaurant() != null
+                        ? booking.getRestaurant().getRestaurantId()
+                        : null;
+                eventPublisher.publishEvent(new BookingChangedEvent(bookingId, restaurantId));
+            }
+        }
+
+        BigDecimal dishesTotal = BigDecimal.ZERO;
+        if (!dishes.isEmpty()) {
+            List<Object[]> rows = new ArrayList<>(dishes.size());
+            for (BookingDish item : dishes) {
+                rows.add(new Object[] { bookingId, item.getDish().getDishId(), item.getQuantity(), item.getPrice() });
+                dishesTotal = dishesTotal.add(item.getTotalPrice());
+            }
+            jdbcTemplate.batchUpdate(INSERT_DISH, rows);
+        }
+
+        BigDecimal servicesTotal = BigDecimal.ZERO;
+        if (!services.isEmpty()) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> rows = new ArrayList<>(services.size());
+            for (com.example.booking.domain.BookingService item : services) {
+                rows.add(new Object[] { bookingId, item.getService().getServiceId(), item.getQuantity(),
+                        item.getPrice(), now, now });
+                servicesTotal = servicesTotal.add(item.getTotalPrice());
+            }
+            jdbcTemplate.batchUpdate(INSERT_SERVICE, rows);
+        }
+
+        return new Totals(tableFees, dishesTotal, servicesTotal);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.booking.service;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.example.booking.domain.Booking;
+import com.example.booking.exception.BookingConflictException;
+
+/**
+ * Database-enforced non-overlap of table bookings.
+ *
+ * Every booking_table row carries booked_range = [booking_time - buffer before, booking_time + buffer after]
+ * and a blocking flag (booking is CONFIRMED or COMPLETED), both maintained by triggers. The exclusion
+ * constraint rejects two blocking rows of the same table with intersecting ranges, which is exactly the
+ * |T - B| <= buffer before + buffer after rule of BookingConflictService, but checked atomically by Postgres.
+ *
+ * Writes that can make a row blocking (confirm, payment, waitlist confirmation, time or table changes)
+ * flush through {@link #flush} / {@link #write} so a rejected write surfaces as a BookingConflictException.
+ */
+public final class BookingOverlapConstraint {
+
+    public static final String CONSTRAINT_NAME = "booking_table_no_overlap";
+
+    /** Postgres SQLSTATE exclusion_violation */
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    private static final String BUFFER_BEFORE = "interval '" + BookingConflictService.BUFFER_BEFORE_MINUTES
+            + " minutes'";
+    private static final String BUFFER_AFTER = "interval '" + BookingConflictService.BUFFER_AFTER_MINUTES
+            + " minutes'";
+    private static final String BLOCKING_STATUSES = "('CONFIRMED', 'COMPLETED')";
+
+    /**
+     * Idempotent DDL installing the columns, triggers and backfill (constraint itself is added separately)
+     */
+    public static final List<String> SCHEMA_STATEMENTS = List.of(
+            "CREATE EXTENSION IF NOT EXISTS btree_gist",
+            "ALTER TABLE booking_table ADD COLUMN IF NOT EXISTS booked_range tsrange",
+            "ALTER TABLE booking_table ADD COLUMN IF NOT EXISTS blocking boolean NOT NULL DEFAULT false",
+
+            // Row of booking_table takes range/flag from its booking
+            "CREATE OR REPLACE FUNCTION booking_table_fill_range() RETURNS trigger AS $$ "
+                    + "BEGIN "
+                    + "SELECT tsrange(b.booking_time - " + BUFFER_BEFORE + ", b.booking_time + " + BUFFER_AFTER
+                    + ", '[]'), b.status IN " + BLOCKING_STATUSES + " "
+                    + "INTO NEW.booked_range, NEW.blocking FROM booking b WHERE b.booking_id = NEW.booking_id; "
+                    + "RETURN NEW; "
+                    + "END $$ LANGUAGE plpgsql",
+            "DROP TRIGGER IF EXISTS trg_booking_table_fill_range ON booking_table",
+            "CREATE TRIGGER trg_booking_table_fill_range BEFORE INSERT OR UPDATE OF booking_id ON booking_table "
+                    + "FOR EACH ROW EXECUTE FUNCTION booking_table_fill_range()",
+
+            // Time or status change of a booking re-evaluates its table rows (and the constraint)
+            "CREATE OR REPLACE FUNCTION booking_sync_table_range() RETURNS trigger AS $$ "
+                    + "BEGIN "
+                    + "UPDATE booking_table SET "
+                    + "booked_range = tsrange(NEW.booking_time - " + BUFFER_BEFORE + ", NEW.booking_time + "
+                    + BUFFER_AFTER + ", '[]'), "
+                    + "blocking = NEW.status IN " + BLOCKING_STATUSES + " "
+                    + "WHERE booking_id = NEW.booking_id; "
+                    + "RETURN NEW; "
+                    + "END $$ LANGUAGE plpgsql",
+            "DROP TRIGGER IF EXISTS trg_booking_sync_table_range ON booking",
+            "CREATE TRIGGER trg_booking_sync_table_range AFTER UPDATE OF booking_time, status ON booking "
+                    + "FOR EACH ROW WHEN (OLD.booking_time IS DISTINCT FROM NEW.booking_time "
+                    + "OR OLD.status IS DISTINCT FROM NEW.status) "
+                    + "EXECUTE FUNCTION booking_sync_table_range()",
+
+            "UPDATE booking_table bt SET "
+                    + "booked_range = tsrange(b.booking_time - " + BUFFER_BEFORE + ", b.booking_time + "
+                    + BUFFER_AFTER + ", '[]'), "
+                    + "blocking = b.status IN " + BLOCKING_STATUSES + " "
+                    + "FROM booking b WHERE b.booking_id = bt.booking_id AND bt.booked_range IS NULL");
+
+    /**
+     * Rows of the same booking never conflict with each other (e.g. while its table is being replaced)
+     */
+    public static final String CONSTRAINT_STATEMENT = "ALTER TABLE booking_table ADD CONSTRAINT "
+            + CONSTRAINT_NAME + " EXCLUDE USING gist "
+            + "(table_id WITH =, booked_range WITH &&, booking_id WITH <>) WHERE (blocking)";
+
+    private BookingOverlapConstraint() {
+    }
+
+    /**
+     * Flush pending writes of the repository; an overlap rejected by the database becomes a BookingConflictException
+     */
+    public static void flush(JpaRepository<?, ?> repository, Booking booking) {
+        write(booking, null, () -> {
+            repository.flush();
+            return null;
+        });
+    }
+
+    /**
+     * Run a write (e.g. an IDENTITY insert of a BookingTable) translating an overlap violation
+     */
+    public static <T> T write(Booking booking, Integer tableId, Supplier<T> write) {
+        try {
+            return write.get();
+        } catch (RuntimeException e) {
+            if (isViolation(e)) {
+                throw conflict(booking, tableId);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Is this (possibly wrapped) exception a violation of the overlap constraint
+     */
+    public static boolean isViolation(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && EXCLUSION_VIOLATION.equals(sql.getSQLState())) {
+                return true;
+            }
+            if (cause.getMessage() != null && cause.getMessage().contains(CONSTRAINT_NAME)) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    public static BookingConflictException conflict(Booking booking, Integer tableId) {
+        LocalDateTime bookingTime = booking != null ? booking.getBookingTime() : null;
+        return new BookingConflictException(BookingConflictException.ConflictType.TIME_OVERLAP,
+                "Bàn đã được xác nhận cho booking khác trong khung giờ này", bookingTime, tableId);
+    }
+}
@@ -104,6 +104,18 @@ public class BookingService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired(required = false)
+    private TableAvailabilityService tableAvailabilityService;
+
+    @Autowired(required = false)
+    private SlotClaimService slotClaimService;
+
+    @Autowired(required = false)
+    private BookingLineItemWriter lineItemWriter;
+
+    @Autowired(required = false)
+    private BookingTotalsCalculator bookingTotalsCalculator;
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -167,6 +179,11 @@ public class BookingService {
             throw e; // Re-throw to be handled by controller
         }
 
+        // Hold the requested tables for this customer so concurrent requests for the same slot fail fast
+        if (slotClaimService != null) {
+            slotClaimService.claim(requestedTableIds(form), form.getBookingTime(), customerId);
+        }
+
         // Process voucher if provided
         BigDecimal voucherDiscount = BigDecimal.ZERO;
         String voucherCodeToApply = null;
@@ -231,11 +248,7 @@ public class BookingService {
                 booking.setCreatedAt(auditTimestamp);
             }
             booking.setUpdatedAt(auditTimestamp);
-
-            // Force flush to ensure booking is persisted before creating BookingTable
-            System.out.println("🔍 Flushing booking to database...");
-            entityManager.flush();
-            System.out.println("✅ Booking flushed successfully");
+            // IDENTITY id: the row is already inserted, line items can reference it without a flush
         } catch (Exception e) {
             System.err.println("❌ Error saving booking: " + e.getMessage());
             e.printStackTrace();
@@ -246,27 +259,17 @@ public class BookingService {
         // Store voucher info for later use
         boolean hasVoucher = voucherDiscount.compareTo(BigDecimal.ZERO) > 0 && voucherCodeToApply != null;
 
+        // Totals of the line items written below (batched writer only)
+        BookingLineItemWriter.Totals lineTotals = BookingLineItemWriter.Totals.EMPTY;
+
         // Assign tables if specified
         if (form.getTableIds() != null && !form.getTableIds().trim().isEmpty()) {
             System.out.println("🔍 Assigning multiple tables to booking...");
             System.out.println("   Booking ID: " + booking.getBookingId());
             System.out.println("   Table IDs: " + form.getTableIds());
             try {
-                assignMultipleTablesToBooking(booking, form.getTableIds());
+                lineTotals = lineTotals.plus(assignMultipleTablesToBooking(booking, form.getTableIds()));
                 System.out.println("✅ Tables assigned successfully");
-
-                // Verify BookingTable was created
-                System.out.println("🔍 Verifying BookingTable creation...");
-                List<BookingTable> bookingTables = bookingTableRepository.findByBooking(booking);
-                System.out.println("   Found " + bookingTables.size() + " BookingTable records");
-                if (bookingTables.isEmpty()) {
-                    System.err.println("❌ CRITICAL: No BookingTable records found after assignment!");
-                } else {
-                    for (BookingTable bt : bookingTables) {
-                        System.out.println("   BookingTable ID: " + bt.getBookingTableId() +
-                                ", Table: " + bt.getTable().getTableName());
-                    }
-                }
             } catch (Exception e) {
                 System.err.println("❌ Error assigning tables: " + e.getMessage());
                 e.printStackTrace();
@@ -278,21 +281,8 @@ public class BookingService {
             System.out.println("   Booking ID: " + booking.getBookingId());
             System.out.println("   Table ID: " + form.getTableId());
             try {
-                assignTableToBooking(booking, form.getTableId());
+                lineTotals = lineTotals.plus(assignTableToBooking(booking, form.getTableId()));
                 System.out.println("✅ Table assigned successfully");
-
-                // Verify BookingTable was created
-                System.out.println("🔍 Verifying BookingTable creation...");
-                List<BookingTable> bookingTables = bookingTableRepository.findByBooking(booking);
-                System.out.println("   Found " + bookingTables.size() + " BookingTable records");
-                if (bookingTables.isEmpty()) {
-                    System.err.println("❌ CRITICAL: No BookingTable records found after assignment!");
-                } else {
-                    for (BookingTable bt : bookingTables) {
-                        System.out.println("   BookingTable ID: " + bt.getBookingTableId() +
-                                ", Table: " + bt.getTable().getTableName());
-                    }
-                }
             } catch (Exception e) {
                 System.err.println("❌ Error assigning table: " + e.getMessage());
                 e.printStackTrace();
@@ -306,7 +296,7 @@ public class BookingService {
         if (form.getDishIds() != null && !form.getDishIds().trim().isEmpty()) {
             System.out.println("🔍 Assigning dishes to booking...");
             try {
-                assignDishesToBooking(booking, form.getDishIds());
+                lineTotals = lineTotals.plus(assignDishesToBooking(booking, form.getDishIds()));
                 System.out.println("✅ Dishes assigned successfully");
             } catch (Exception e) {
                 System.err.println("❌ Error assigning dishes: " + e.getMessage());
@@ -321,7 +311,7 @@ public class BookingService {
         if (form.getServiceIds() != null && !form.getServiceIds().trim().isEmpty()) {
             System.out.println("🔍 Assigning services to booking...");
             try {
-                assignServicesToBooking(booking, form.getServiceIds());
+                lineTotals = lineTotals.plus(assignServicesToBooking(booking, form.getServiceIds()));
                 System.out.println("✅ Services assigned successfully");
             } catch (Exception e) {
                 System.err.println("❌ Error assigning services: " + e.getMessage());
@@ -333,7 +323,8 @@ public class BookingService {
         }
 
         // Calculate subtotal = table fees + dishes + services (KHÔNG bao gồm deposit)
-        BigDecimal subtotal = calculateSubtotal(booking);
+        // The batched writer already summed its rows; otherwise read them back
+        BigDecimal subtotal = storeLineItemTotals(booking, lineTotals);
         System.out.println("💰 Subtotal (table fees + dishes + services): " + subtotal);
 
         // Calculate deposit = 10% of subtotal (BEFORE voucher discount)
@@ -509,6 +500,7 @@ public class BookingService {
 
             // Assign new table
             assignTableToBooking(booking, form.getTableId());
+            booking.clearLineItemTotals();
         }
 
         // Recalculate and update totalAmount after items changed
@@ -525,7 +517,9 @@ public class BookingService {
             booking.setDepositAmount(BigDecimal.ZERO);
         }
 
-        return bookingRepository.save(booking);
+        Booking updatedBooking = bookingRepository.save(booking);
+        BookingOverlapConstraint.flush(bookingRepository, booking);
+        return updatedBooking;
     }
 
     /**
@@ -793,6 +787,8 @@ public class BookingService {
         
         booking.setStatus(BookingStatus.CONFIRMED);
         Booking confirmedBooking = bookingRepository.save(booking);
+        // Confirmed bookings are checked for overlaps by the database constraint
+        BookingOverlapConstraint.flush(bookingRepository, booking);
         
         System.out.println("✅ Booking confirmed successfully: " + confirmedBooking.getBookingId());
         
@@ -891,6 +887,7 @@ public class BookingService {
 
         booking.setStatus(newStatus);
         Booking updatedBooking = bookingRepository.save(booking);
+        BookingOverlapConstraint.flush(bookingRepository, booking);
 
         System.out.println("✅ Booking status updated successfully");
 
@@ -998,6 +995,17 @@ public class BookingService {
         List<RestaurantTable> allTables = restaurantTableRepository
                 .findByRestaurantAndCapacityGreaterThanEqual(restaurantId, guestCount);
 
+        if (tableAvailabilityService != null) {
+            // One query for the booked windows of all tables instead of one per table
+            TableAvailabilityService.BookingWindows availability = tableAvailabilityService
+                    .getAvailability(restaurantId, startTime, endTime);
+            List<BookingStatus> blockingStatuses = List.of(BookingStatus.PENDING, BookingStatus.CONFIRMED);
+            return allTables.stream()
+                    .filter(table -> !availability.hasBooking(table.getTableId(), blockingStatuses, startTime,
+                            endTime))
+                    .toList();
+        }
+
         return allTables.stream()
                 .filter(table -> !isTableBookedInTimeRange(table, startTime, endTime))
                 .toList();
@@ -1135,10 +1143,29 @@ public class BookingService {
         System.out.println("🔍 VALIDATING TABLE CAPACITY - COMPLETED!");
     }
 
+    /**
+     * Table ids requested by the form (multi-table list or the single table)
+     */
+    private List<Integer> requestedTableIds(BookingForm form) {
+        List<Integer> tableIds = new ArrayList<>();
+        if (form.getTableIds() != null && !form.getTableIds().trim().isEmpty()) {
+            for (String tableIdStr : form.getTableIds().split(",")) {
+                try {
+                    tableIds.add(Integer.parseInt(tableIdStr.trim()));
+                } catch (NumberFormatException e) {
+                    // Reported by assignMultipleTablesToBooking
+                }
+            }
+        } else if (form.getTableId() != null) {
+            tableIds.add(form.getTableId());
+        }
+        return tableIds;
+    }
+
     /**
      * Assign multiple tables to booking
      */
-    private void assignMultipleTablesToBooking(Booking booking, String tableIds) {
+    private BookingLineItemWriter.Totals assignMultipleTablesToBooking(Booking booking, String tableIds) {
         System.out.println("🔍 assignMultipleTablesToBooking called with tableIds: " + tableIds);
         System.out.println("   Booking ID: " + booking.getBookingId());
         System.out.println("   Booking status: " + booking.getStatus());
@@ -1150,24 +1177,41 @@ public class BookingService {
         int totalCapacity = 0;
         List<RestaurantTable> tables = new ArrayList<>();
 
-        for (String tableIdStr : tableIdArray) {
-            try {
-                Integer tableId = Integer.parseInt(tableIdStr.trim());
-                System.out.println("🔍 Processing table ID: " + tableId);
+        if (lineItemWriter != null) {
+            List<Integer> parsedIds = new ArrayList<>();
+            for (String tableIdStr : tableIdArray) {
+                try {
+                    parsedIds.add(Integer.parseInt(tableIdStr.trim()));
+                } catch (NumberFormatException e) {
+                    System.err.println("❌ Invalid table ID format: " + tableIdStr);
+                    throw new IllegalArgumentException("Invalid table ID format: " + tableIdStr);
+                }
+            }
+            // One IN query for all tables
+            tables = lineItemWriter.findTables(parsedIds);
+            for (RestaurantTable table : tables) {
+                totalCapacity += table.getCapacity();
+            }
+        } else {
+            for (String tableIdStr : tableIdArray) {
+                try {
+                    Integer tableId = Integer.parseInt(tableIdStr.trim());
+                    System.out.println("🔍 Processing table ID: " + tableId);
 
-                RestaurantTable table = restaurantTableRepository.findById(tableId)
-                        .orElseThrow(() -> new IllegalArgumentException("Table not found: " + tableId));
-                System.out.println("✅ Table found: " + table.getTableName());
-                System.out.println("   Table ID: " + table.getTableId());
-                System.out.println("   Table status: " + table.getStatus());
-                System.out.println("   Table capacity: " + table.getCapacity());
+                    RestaurantTable table = restaurantTableRepository.findById(tableId)
+                            .orElseThrow(() -> new IllegalArgumentException("Table not found: " + tableId));
+                    System.out.println("✅ Table found: " + table.getTableName());
+                    System.out.println("   Table ID: " + table.getTableId());
+                    System.out.println("   Table status: " + table.getStatus());
+                    System.out.println("   Table capacity: " + table.getCapacity());
 
-                tables.add(table);
-                totalCapacity += table.getCapacity();
+                    tables.add(table);
+                    totalCapacity += table.getCapacity();
 
-            } catch (NumberFormatException e) {
-                System.err.println("❌ Invalid table ID format: " + tableIdStr);
-                throw new IllegalArgumentException("Invalid table ID format: " + tableIdStr);
+                } catch (NumberFormatException e) {
+                    System.err.println("❌ Invalid table ID format: " + tableIdStr);
+                    throw new IllegalArgumentException("Invalid table ID format: " + tableIdStr);
+                }
             }
         }
 
@@ -1184,6 +1228,13 @@ public class BookingService {
         }
         System.out.println("✅ Total table capacity validation passed");
 
+        if (lineItemWriter != null) {
+            BookingLineItemWriter.Totals totals = lineItemWriter.write(booking,
+                    lineItemWriter.tableItems(booking, tables), List.of(), List.of());
+            System.out.println("✅ " + tables.size() + " tables assigned in one batch");
+            return totals;
+        }
+
         // Now assign all tables
         for (RestaurantTable table : tables) {
             // Create booking table assignment
@@ -1198,7 +1249,10 @@ public class BookingService {
                 BookingTable savedBookingTable = bookingTableRepository.save(bookingTable);
                 System.out.println("✅ BookingTable saved successfully");
                 System.out.println("   Saved BookingTable ID: " + savedBookingTable.getBookingTableId());
-            } catch (Exception e) {
+            } catch (RuntimeException e) {
+                if (BookingOverlapConstraint.isViolation(e)) {
+                    throw BookingOverlapConstraint.conflict(booking, table.getTableId());
+                }
                 System.err.println(
                         "❌ Error saving BookingTable for table " + table.getTableName() + ": " + e.getMessage());
                 e.printStackTrace();
@@ -1207,12 +1261,13 @@ public class BookingService {
         }
 
         System.out.println("✅ Multiple table assignment completed - status will be managed automatically");
+        return BookingLineItemWriter.Totals.EMPTY;
     }
 
     /**
      * Assign table to booking
      */
-    private void assignTableToBooking(Booking booking, Integer tableId) {
+    private BookingLineItemWriter.Totals assignTableToBooking(Booking booking, Integer tableId) {
         System.out.println("🔍 assignTableToBooking called with tableId: " + tableId);
         System.out.println("   Booking ID: " + booking.getBookingId());
         System.out.println("   Booking status: " + booking.getStatus());
@@ -1235,6 +1290,11 @@ public class BookingService {
         }
         System.out.println("✅ Table capacity validation passed");
 
+        if (lineItemWriter != null) {
+            return lineItemWriter.write(booking, lineItemWriter.tableItems(booking, List.of(table)), List.of(),
+                    List.of());
+        }
+
         // Create booking table assignment
         System.out.println("🔍 Creating BookingTable assignment...");
         BookingTable bookingTable = new BookingTable(booking, table);
@@ -1247,7 +1307,10 @@ public class BookingService {
             BookingTable savedBookingTable = bookingTableRepository.save(bookingTable);
             System.out.println("✅ BookingTable saved successfully");
             System.out.println("   Saved BookingTable ID: " + savedBookingTable.getBookingTableId());
-        } catch (Exception e) {
+        } catch (RuntimeException e) {
+            if (BookingOverlapConstraint.isViolation(e)) {
+                throw BookingOverlapConstraint.conflict(booking, tableId);
+            }
             System.err.println("❌ Error saving BookingTable: " + e.getMessage());
             e.printStackTrace();
             throw e;
@@ -1256,6 +1319,7 @@ public class BookingService {
         // Không cần update table status khi tạo booking
         // Status sẽ được update tự động bởi TableStatusManagementService
         System.out.println("✅ Table assignment completed - status will be managed automatically");
+        return BookingLineItemWriter.Totals.EMPTY;
     }
 
     /**
@@ -1384,11 +1448,13 @@ public class BookingService {
 
     /**
      * Assign dishes to booking
+     *
+     * @return totals of the written rows (EMPTY when written row by row)
      */
-    public void assignDishesToBooking(Booking booking, String dishIds) {
+    public BookingLineItemWriter.Totals assignDishesToBooking(Booking booking, String dishIds) {
         if (dishIds == null || dishIds.trim().isEmpty()) {
             System.out.println("ℹ️ No dishes specified, skipping dish assignment");
-            return;
+            return BookingLineItemWriter.Totals.EMPTY;
         }
 
         System.out.println("🔍 Assigning dishes to booking: " + dishIds);
@@ -1396,6 +1462,13 @@ public class BookingService {
         // Parse dishIds: "1:2,3:1,5:3" -> Map<dishId, quantity>
         Map<Integer, Integer> dishMap = parseDishIds(dishIds);
 
+        if (lineItemWriter != null) {
+            BookingLineItemWriter.Totals totals = lineItemWriter.write(booking, List.of(),
+                    lineItemWriter.dishItems(booking, dishMap), List.of());
+            System.out.println("✅ " + dishMap.size() + " dishes assigned in one batch: " + totals.dishesTotal());
+            return totals;
+        }
+
         for (Map.Entry<Integer, Integer> entry : dishMap.entrySet()) {
             Integer dishId = entry.getKey();
             Integer quantity = entry.getValue();
@@ -1420,15 +1493,18 @@ public class BookingService {
         }
 
         System.out.println("✅ All dishes assigned successfully");
+        return BookingLineItemWriter.Totals.EMPTY;
     }
 
     /**
      * Assign services to booking
+     *
+     * @return totals of the written rows (EMPTY when written row by row)
      */
-    public void assignServicesToBooking(Booking booking, String serviceIds) {
+    public BookingLineItemWriter.Totals assignServicesToBooking(Booking booking, String serviceIds) {
         if (serviceIds == null || serviceIds.trim().isEmpty()) {
             System.out.println("ℹ️ No services specified, skipping service assignment");
-            return;
+            return BookingLineItemWriter.Totals.EMPTY;
         }
 
         System.out.println("🔍 Assigning services to booking: " + serviceIds);
@@ -1436,6 +1512,14 @@ public class BookingService {
         // Parse serviceIds: "1,2,3" -> List<serviceId>
         List<Integer> serviceIdList = parseServiceIds(serviceIds);
 
+        if (lineItemWriter != null) {
+            BookingLineItemWriter.Totals totals = lineItemWriter.write(booking, List.of(), List.of(),
+                    lineItemWriter.serviceItems(booking, serviceIdList));
+            System.out.println("✅ " + serviceIdList.size() + " services assigned in one batch: "
+                    + totals.servicesTotal());
+            return totals;
+        }
+
         for (Integer serviceId : serviceIdList) {
             try {
                 // Get service from database
@@ -1457,6 +1541,7 @@ public class BookingService {
         }
 
         System.out.println("✅ All services assigned successfully");
+        return BookingLineItemWriter.Totals.EMPTY;
     }
 
     /**
@@ -1468,12 +1553,19 @@ public class BookingService {
             throw new IllegalArgumentException("Booking cannot be null");
         }
 
+        // Totals stored by the line item write path
+        if (booking.hasLineItemTotals()) {
+            return booking.getSubtotalAmount();
+        }
+
         BigDecimal subtotal = BigDecimal.ZERO;
+        BigDecimal tableFeeTotal = BigDecimal.ZERO;
+        BigDecimal dishesTotal = BigDecimal.ZERO;
+        BigDecimal servicesTotal = BigDecimal.ZERO;
 
         // 1. Tính tổng phí bàn từ BookingTable (snapshot)
         List<BookingTable> bookingTables = bookingTableRepository.findByBooking(booking);
         if (!bookingTables.isEmpty()) {
-            BigDecimal tableFeeTotal = BigDecimal.ZERO;
             for (BookingTable bookingTable : bookingTables) {
                 tableFeeTotal = tableFeeTotal.add(bookingTable.getTableFee());
             }
@@ -1484,7 +1576,6 @@ public class BookingService {
         // 2. Cộng dishes total
         List<BookingDish> bookingDishes = bookingDishRepository.findByBooking(booking);
         if (!bookingDishes.isEmpty()) {
-            BigDecimal dishesTotal = BigDecimal.ZERO;
             for (BookingDish bookingDish : bookingDishes) {
                 dishesTotal = dishesTotal.add(bookingDish.getTotalPrice());
                 System.out.println("🍽️ Dish: " + bookingDish.getDish().getName() +
@@ -1499,7 +1590,6 @@ public class BookingService {
         List<com.example.booking.domain.BookingService> bookingServices = bookingServiceRepository
                 .findByBooking(booking);
         if (!bookingServices.isEmpty()) {
-            BigDecimal servicesTotal = BigDecimal.ZERO;
             for (com.example.booking.domain.BookingService bookingService : bookingServices) {
                 servicesTotal = servicesTotal.add(bookingService.getTotalPrice());
                 System.out.println("🔧 Service: " + bookingService.getService().getName() +
@@ -1511,9 +1601,42 @@ public class BookingService {
         }
 
         System.out.println("💰 SUBTOTAL (table fees + dishes + services): " + subtotal);
+        booking.setLineItemTotals(tableFeeTotal, dishesTotal, servicesTotal);
         return subtotal;
     }
 
+    /**
+     * Line item totals for a page of bookings with one grouped query per item type
+     * (bookings that already store their totals cost nothing). Read-write: totals computed
+     * for older bookings are stored back.
+     */
+    @Transactional
+    public Map<Integer, BookingLineItemWriter.Totals> calculateTotals(List<Booking> bookings) {
+        if (bookingTotalsCalculator == null) {
+            Map<Integer, BookingLineItemWriter.Totals> totals = new HashMap<>();
+            for (Booking booking : bookings) {
+                calculateSubtotal(booking);
+                totals.put(booking.getBookingId(), new BookingLineItemWriter.Totals(booking.getTableFeeTotal(),
+                        booking.getDishesTotal(), booking.getServicesTotal()));
+            }
+            return totals;
+        }
+        return bookingTotalsCalculator.calculate(bookings);
+    }
+
+    /**
+     * Store the totals of the line items just written on the booking and return the subtotal
+     */
+    private BigDecimal storeLineItemTotals(Booking booking, BookingLineItemWriter.Totals lineTotals) {
+        if (lineItemWriter != null) {
+            booking.setLineItemTotals(lineTotals.tableFees(), lineTotals.dishesTotal(), lineTotals.servicesTotal());
+            return booking.getSubtotalAmount();
+        }
+        // Rows were written one by one: read them back
+        booking.clearLineItemTotals();
+        return calculateSubtotal(booking);
+    }
+
     /**
      * Calculate total amount for booking
      * Total = subtotal (table fees + dishes + services)
@@ -1587,25 +1710,26 @@ public class BookingService {
             booking.setRestaurant(restaurant);
         }
 
+        BookingLineItemWriter.Totals lineTotals = BookingLineItemWriter.Totals.EMPTY;
         bookingTableRepository.deleteByBooking(booking);
         if (form.getTableIds() != null && !form.getTableIds().trim().isEmpty()) {
-            assignMultipleTablesToBooking(booking, form.getTableIds());
+            lineTotals = lineTotals.plus(assignMultipleTablesToBooking(booking, form.getTableIds()));
         } else if (form.getTableId() != null) {
-            assignTableToBooking(booking, form.getTableId());
+            lineTotals = lineTotals.plus(assignTableToBooking(booking, form.getTableId()));
         }
 
         bookingDishRepository.deleteByBooking(booking);
         if (form.getDishIds() != null && !form.getDishIds().trim().isEmpty()) {
-            assignDishesToBooking(booking, form.getDishIds());
+            lineTotals = lineTotals.plus(assignDishesToBooking(booking, form.getDishIds()));
         }
 
         bookingServiceRepository.deleteByBooking(booking);
         if (form.getServiceIds() != null && !form.getServiceIds().trim().isEmpty()) {
-            assignServicesToBooking(booking, form.getServiceIds());
+            lineTotals = lineTotals.plus(assignServicesToBooking(booking, form.getServiceIds()));
         }
 
         // Recalculate and update totalAmount after items changed
-        BigDecimal subtotal = calculateSubtotal(booking);
+        BigDecimal subtotal = storeLineItemTotals(booking, lineTotals);
         booking.setTotalAmount(subtotal);
         System.out.println("✅ Total amount updated in database: " + subtotal);
 
@@ -1659,6 +1783,8 @@ public class BookingService {
             } else if (form.getTableId() != null) {
                 assignTableToBooking(updated, form.getTableId());
             }
+            updated.clearLineItemTotals();
+            calculateSubtotal(updated);
         }
 
         System.out.println("✅ Booking updated successfully for restaurant owner: " + updated.getBookingId());
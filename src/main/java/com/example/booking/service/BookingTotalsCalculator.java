@@ -0,0 +1,111 @@
+package com.example.booking.service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.booking.domain.Booking;
+import com.example.booking.repository.BookingDishRepository;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.repository.BookingServiceRepository;
+import com.example.booking.repository.BookingTableRepository;
+
+/**
+ * Line item totals (table fees, dishes, services) for a page of bookings.
+ *
+ * Bookings carry their totals since the line item write path stores them; those are
+ * returned without any query. The remaining (older) bookings are priced together with
+ * one grouped SUM query per item type, so a list costs at most three queries instead of
+ * three per booking. Their totals are written back with a targeted UPDATE (the bookings
+ * may be detached) so the next read finds them stored.
+ */
+@Service
+@Transactional
+public class BookingTotalsCalculator {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingTableRepository bookingTableRepository;
+
+    @Autowired
+    private BookingDishRepository bookingDishRepository;
+
+    @Autowired
+    private BookingServiceRepository bookingServiceRepository;
+
+    /**
+     * Totals by booking id, in the order of the given bookings
+     */
+    public Map<Integer, BookingLineItemWriter.Totals> calculate(Collection<Booking> bookings) {
+        Map<Integer, BookingLineItemWriter.Totals> totals = new LinkedHashMap<>();
+        Map<Integer, Booking> missing = new HashMap<>();
+        for (Booking booking : bookings) {
+            if (booking == null || booking.getBookingId() == null) {
+                continue;
+            }
+            if (booking.hasLineItemTotals()) {
+                totals.put(booking.getBookingId(), stored(booking));
+            } else {
+                totals.put(booking.getBookingId(), null);
+                missing.put(booking.getBookingId(), booking);
+            }
+        }
+        if (missing.isEmpty()) {
+            return totals;
+        }
+
+        Set<Integer> ids = new LinkedHashSet<>(missing.keySet());
+        Map<Integer, BigDecimal> tableFees = sums(bookingTableRepository.sumTableFeesByBookingIds(ids));
+        Map<Integer, BigDecimal> dishes = sums(bookingDishRepository.sumDishesByBookingIds(ids));
+        Map<Integer, BigDecimal> services = sums(bookingServiceRepository.sumServicesByBookingIds(ids));
+
+        for (Map.Entry<Integer, Booking> entry : missing.entrySet()) {
+            Integer bookingId = entry.getKey();
+            Booking booking = entry.getValue();
+            booking.setLineItemTotals(tableFees.getOrDefault(bookingId, BigDecimal.ZERO),
+                    dishes.getOrDefault(bookingId, BigDecimal.ZERO),
+                    services.getOrDefault(bookingId, BigDecimal.ZERO));
+            bookingRepository.storeLineItemTotals(bookingId, booking.getTableFeeTotal(), booking.getDishesTotal(),
+                    booking.getServicesTotal(), booking.getSubtotalAmount());
+            totals.put(bookingId, stored(booking));
+        }
+        return totals;
+    }
+
+    /**
+     * Totals of one booking (stored, or computed with three grouped queries)
+     */
+    public BookingLineItemWriter.Totals calculate(Booking booking) {
+        BookingLineItemWriter.Totals totals = calculate(List.of(booking)).get(booking.getBookingId());
+        return totals != null ? totals : BookingLineItemWriter.Totals.EMPTY;
+    }
+
+    private BookingLineItemWriter.Totals stored(Booking booking) {
+        return new BookingLineItemWriter.Totals(booking.getTableFeeTotal(), booking.getDishesTotal(),
+                booking.getServicesTotal());
+    }
+
+    private Map<Integer, BigDecimal> sums(List<Object[]> rows) {
+        Map<Integer, BigDecimal> sums = new HashMap<>();
+        for (Object[] row : rows) {
+            if (row[0] == null || row[1] == null) {
+                continue;
+            }
+            Object value = row[1];
+            sums.put(((Number) row[0]).intValue(),
+                    value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString()));
+        }
+        return sums;
+    }
+}
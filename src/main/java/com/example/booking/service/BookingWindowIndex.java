@@ -0,0 +1,201 @@
+package com.example.booking.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.booking.common.enums.BookingStatus;
+import com.example.booking.event.BookingChangedEvent;
+import com.example.booking.repository.BookingTableRepository;
+
+/**
+ * In-memory index of CONFIRMED/COMPLETED booking times per restaurant and table.
+ *
+ * Every booking window has the same length (buffer before + buffer after), so
+ * "windows overlapping a request" is simply "booking times inside a range".
+ * Each table keeps its booking times in a sorted skip list, which gives
+ * O(log n) conflict lookups without an interval tree.
+ *
+ * The index is warmed on startup, refreshed after each committed booking write
+ * ({@link BookingChangedEvent}) and fully rebuilt every night to fix drift.
+ * Callers must fall back to the database when a lookup returns empty.
+ */
+@Component
+public class BookingWindowIndex extends RebuildableIndex<Integer> {
+
+    public static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.CONFIRMED,
+            BookingStatus.COMPLETED);
+
+    // Keep one day of past bookings so that windows still running are covered
+    private static final int WARM_LOOKBACK_HOURS = 24;
+
+    @Autowired
+    private BookingTableRepository bookingTableRepository;
+
+    private volatile Snapshot snapshot;
+
+    public BookingWindowIndex() {
+        super("Booking window index", "conflict checks will use the database");
+    }
+
+    /**
+     * Booking start time + booking ID, ordered by time then ID.
+     */
+    public record Slot(LocalDateTime bookingTime, Integer bookingId) implements Comparable<Slot> {
+        @Override
+        public int compareTo(Slot other) {
+            int byTime = bookingTime.compareTo(other.bookingTime);
+            return byTime != 0 ? byTime : Integer.compare(bookingId, other.bookingId);
+        }
+    }
+
+    private record Placement(Integer restaurantId, Integer tableId, Slot slot) {
+    }
+
+    private static final class Snapshot {
+        private final LocalDateTime coveredFrom;
+        private final Map<Integer, Map<Integer, NavigableSet<Slot>>> byRestaurant = new ConcurrentHashMap<>();
+        private final Map<Integer, Set<Placement>> byBooking = new ConcurrentHashMap<>();
+
+        private Snapshot(LocalDateTime coveredFrom) {
+            this.coveredFrom = coveredFrom;
+        }
+
+        private void add(Placement placement) {
+            byRestaurant.computeIfAbsent(placement.restaurantId(), id -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(placement.tableId(), id -> new ConcurrentSkipListSet<>())
+                    .add(placement.slot());
+            byBooking.computeIfAbsent(placement.slot().bookingId(), id -> ConcurrentHashMap.newKeySet())
+                    .add(placement);
+        }
+
+        private void remove(Placement placement) {
+            Map<Integer, NavigableSet<Slot>> tables = byRestaurant.get(placement.restaurantId());
+            if (tables != null) {
+                NavigableSet<Slot> slots = tables.get(placement.tableId());
+                if (slots != null) {
+                    slots.remove(placement.slot());
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Find active bookings of a table whose booking time is within [from, to].
+     *
+     * @return empty if the index cannot answer (not warmed yet or range before coverage)
+     */
+    public Optional<List<Slot>> findBookings(Integer restaurantId, Integer tableId,
+            LocalDateTime from, LocalDateTime to) {
+        Snapshot current = snapshot;
+        if (current == null || restaurantId == null || tableId == null || from.isBefore(current.coveredFrom)) {
+            return Optional.empty();
+        }
+
+        Map<Integer, NavigableSet<Slot>> tables = current.byRestaurant.get(restaurantId);
+        NavigableSet<Slot> slots = tables != null ? tables.get(tableId) : null;
+        if (slots == null) {
+            return Optional.of(List.of());
+        }
+
+        return Optional.of(new ArrayList<>(slots.subSet(
+                new Slot(from, Integer.MIN_VALUE), true,
+                new Slot(to, Integer.MAX_VALUE), true)));
+    }
+
+    /**
+     * Nightly reconciliation against the database
+     */
+    @Scheduled(cron = "0 20 3 * * *")
+    public void reconcile() {
+        reloadQuietly();
+    }
+
+    @Override
+    protected Runnable loadAll() {
+        LocalDateTime coveredFrom = LocalDateTime.now().minusHours(WARM_LOOKBACK_HOURS);
+        Snapshot fresh = new Snapshot(coveredFrom);
+        for (Object[] row : bookingTableRepository.findBookingWindowsFrom(ACTIVE_STATUSES, coveredFrom)) {
+            fresh.add(toPlacement(row));
+        }
+        return () -> snapshot = fresh;
+    }
+
+    @Override
+    protected int size() {
+        Snapshot current = snapshot;
+        return current != null ? current.byBooking.size() : 0;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        refreshQuietly(event.getBookingId(), event);
+    }
+
+    /**
+     * Reload the windows of the given bookings from the database.
+     */
+    @Override
+    protected Runnable load(Collection<Integer> bookingIds) {
+        // Read and apply under the lock: a refresh that reads later also applies later,
+        // so two refreshes of the same booking can never leave the older state behind
+        return () -> {
+            List<Object[]> rows = bookingTableRepository.findBookingWindowsByBookingIds(bookingIds, ACTIVE_STATUSES);
+            Snapshot current = snapshot;
+            Map<Integer, Set<Placement>> fresh = new ConcurrentHashMap<>();
+            for (Object[] row : rows) {
+                Placement placement = toPlacement(row);
+                fresh.computeIfAbsent(placement.slot().bookingId(), id -> new HashSet<>()).add(placement);
+            }
+
+            for (Integer bookingId : bookingIds) {
+                Set<Placement> next = fresh.getOrDefault(bookingId, Set.of());
+                // Add new windows before dropping old ones so readers never see a gap
+                next.forEach(current::add);
+
+                Set<Placement> previous = current.byBooking.get(bookingId);
+                if (previous != null) {
+                    for (Placement placement : new ArrayList<>(previous)) {
+                        if (!next.contains(placement)) {
+                            current.remove(placement);
+                            previous.remove(placement);
+                        }
+                    }
+                    if (previous.isEmpty()) {
+                        current.byBooking.remove(bookingId);
+                    }
+                }
+            }
+        };
+    }
+
+    private Placement toPlacement(Object[] row) {
+        Integer restaurantId = (Integer) row[0];
+        Integer tableId = (Integer) row[1];
+        Integer bookingId = (Integer) row[2];
+        LocalDateTime bookingTime = (LocalDateTime) row[3];
+        return new Placement(restaurantId, tableId, new Slot(bookingTime, bookingId));
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.booking.service;
+
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.booking.event.RestaurantMediaChangedEvent;
+import com.example.booking.event.RestaurantProfileChangedEvent;
+import com.example.booking.event.ReviewChangedEvent;
+import com.example.booking.repository.RestaurantMediaRepository;
+import com.example.booking.repository.RestaurantProfileRepository;
+
+/**
+ * Immutable, versioned snapshot of the approved restaurant catalog for the home page.
+ *
+ * Every committed restaurant, media or review change bumps the version; the next reader rebuilds
+ * the snapshot (two projection queries) and swaps it in atomically. Concurrent readers that miss
+ * wait for that one build instead of starting their own, and a failed build keeps serving the
+ * previous snapshot. While nothing changes, the home page is served without queries.
+ */
+@Service
+public class HomeCatalogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HomeCatalogService.class);
+
+    /** Restaurants pinned to the top of the popular list (matched by name, like findRestaurantsByName) */
+    static final List<String> PRIORITIZED_NAMES = List.of("Thai Market Restaurant", "Danh Restaurant");
+
+    @Autowired
+    private RestaurantProfileRepository restaurantProfileRepository;
+
+    @Autowired
+    private RestaurantMediaRepository restaurantMediaRepository;
+
+    private final AtomicLong version = new AtomicLong(1);
+    private final AtomicReference<CompletableFuture<CatalogSnapshot>> building = new AtomicReference<>();
+    private volatile CatalogSnapshot snapshot;
+
+    /**
+     * Card-ready projection of one approved restaurant
+     */
+    public record CatalogCard(Integer restaurantId, String restaurantName, String cuisineType, String address,
+            BigDecimal averagePrice, String priceLabel, double averageRating, int reviewCount, String coverImageUrl,
+            LocalDateTime approvedAt, OpeningSchedule schedule) {
+
+        public boolean isOpenAt(LocalDateTime time) {
+            return schedule != null && schedule.isOpenAt(time);
+        }
+    }
+
+    /**
+     * Catalog at one version: cards in home page order (pinned restaurants, then top rated)
+     */
+    public record CatalogSnapshot(long version, List<CatalogCard> popular, Map<Integer, CatalogCard> byId,
+            LocalDateTime builtAt) {
+
+        public List<CatalogCard> top(int count) {
+            return popular.subList(0, Math.min(Math.max(count, 0), popular.size()));
+        }
+    }
+
+    // ==================== QUERIES ====================
+
+    /**
+     * Current snapshot, rebuilt first if a change was committed since it was built
+     */
+    public CatalogSnapshot getSnapshot() {
+        CatalogSnapshot current = snapshot;
+        if (current != null && current.version() == version.get()) {
+            return current;
+        }
+
+        CompletableFuture<CatalogSnapshot> mine = new CompletableFuture<>();
+        CompletableFuture<CatalogSnapshot> running = building.compareAndExchange(null, mine);
+        if (running != null) {
+            return await(running, current);
+        }
+        try {
+            // Read the version before querying: a change committed meanwhile triggers another build
+            CatalogSnapshot built = build(version.get());
+            CatalogSnapshot published = snapshot;
+            if (published == null || published.version() < built.version()) {
+                snapshot = built;
+            }
+            mine.complete(built);
+            return built;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            if (current != null) {
+                logger.warn("Home catalog rebuild failed, serving version {}", current.version(), e);
+                return current;
+            }
+            throw e;
+        } finally {
+            building.set(null);
+        }
+    }
+
+    private CatalogSnapshot await(CompletableFuture<CatalogSnapshot> running, CatalogSnapshot current) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (current != null) {
+                return current;
+            }
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Version the next snapshot will be built at
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    // ==================== MAINTENANCE ====================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            getSnapshot();
+        } catch (Exception e) {
+            logger.error("Failed to build home catalog snapshot, home page will query the database", e);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRestaurantProfileChanged(RestaurantProfileChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRestaurantMediaChanged(RestaurantMediaChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Bulk updates (e.g. the rating summary backfill) publish no events: expire the snapshot every 10 minutes
+     */
+    @Scheduled(fixedDelay = 600000, initialDelay = 600000)
+    public void expire() {
+        version.incrementAndGet();
+    }
+
+    CatalogSnapshot build(long atVersion) {
+        long start = System.currentTimeMillis();
+
+        // Newest cover per restaurant: rows are ordered newest first within each restaurant
+        Map<Integer, String> covers = new HashMap<>();
+        for (Object[] row : restaurantMediaRepository.findUrlRowsOfApprovedRestaurantsByType("cover")) {
+            if (row[1] != null) {
+                covers.putIfAbsent((Integer) row[0], (String) row[1]);
+            }
+        }
+
+        NumberFormat currencyFormat = currencyFormat();
+        List<CatalogCard> cards = new ArrayList<>();
+        for (Object[] row : restaurantProfileRepository.findApprovedCatalogRows()) {
+            Integer restaurantId = (Integer) row[0];
+            BigDecimal averagePrice = (BigDecimal) row[4];
+            cards.add(new CatalogCard(
+                    restaurantId,
+                    row[1] != null ? (String) row[1] : "Nhà hàng",
+                    row[2] != null ? (String) row[2] : "",
+                    row[3] != null ? (String) row[3] : "",
+                    averagePrice,
+                    priceLabel(averagePrice, currencyFormat),
+                    ((Number) row[6]).doubleValue(),
+                    ((Number) row[7]).intValue(),
+                    covers.get(restaurantId),
+                    (LocalDateTime) row[8],
+                    OpeningSchedule.parse((String) row[5])));
+        }
+
+        // Same order as findTopRatedRestaurants, pinned restaurants first
+        cards.sort(Comparator.comparingDouble(CatalogCard::averageRating).reversed()
+                .thenComparing(Comparator.comparingInt(CatalogCard::reviewCount).reversed())
+                .thenComparing(CatalogCard::approvedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+                .thenComparing(CatalogCard::restaurantId));
+        Map<Integer, CatalogCard> byId = new LinkedHashMap<>();
+        for (String name : PRIORITIZED_NAMES) {
+            String needle = name.toLowerCase(Locale.ROOT);
+            cards.stream()
+                    .filter(card -> card.restaurantName().toLowerCase(Locale.ROOT).contains(needle))
+                    .min(Comparator.comparing(CatalogCard::restaurantId))
+                    .ifPresent(card -> byId.putIfAbsent(card.restaurantId(), card));
+        }
+        cards.forEach(card -> byId.putIfAbsent(card.restaurantId(), card));
+        List<CatalogCard> popular = new ArrayList<>(byId.values());
+
+        logger.info("Home catalog snapshot v{} built: {} restaurants in {} ms", atVersion, popular.size(),
+                System.currentTimeMillis() - start);
+        return new CatalogSnapshot(atVersion, Collections.unmodifiableList(popular),
+                Collections.unmodifiableMap(byId), LocalDateTime.now());
+    }
+
+    /**
+     * Average price formatted for a card ("150.000 ₫"), or a placeholder when unknown
+     */
+    public static String priceLabel(BigDecimal averagePrice) {
+        return priceLabel(averagePrice, currencyFormat());
+    }
+
+    private static String priceLabel(BigDecimal averagePrice, NumberFormat currencyFormat) {
+        if (averagePrice == null) {
+            return "Giá đang cập nhật";
+        }
+        return currencyFormat.format(averagePrice);
+    }
+
+    private static NumberFormat currencyFormat() {
+        NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(new Locale("vi", "VN"));
+        currencyFormat.setMaximumFractionDigits(0);
+        currencyFormat.setMinimumFractionDigits(0);
+        return currencyFormat;
+    }
+}
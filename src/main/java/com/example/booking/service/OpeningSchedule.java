@@ -0,0 +1,400 @@
+package com.example.booking.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled form of RestaurantProfile.openingHours.
+ *
+ * Supported format (rules separated by ';' or new lines, intervals by ','):
+ * <pre>
+ *   10:00-22:00                               every day
+ *   10:00-14:00, 17:00-22:00                  every day, two intervals
+ *   Mon-Fri 10:00-22:00; Sat,Sun 08:00-02:00  per weekday, overnight span
+ *   T2-T6 10:00-22:00; T7-CN 08:00-23:00      Vietnamese day names
+ *   2026-01-01 closed; 2026-02-17 10:00-14:00 holiday overrides
+ * </pre>
+ * Intervals are stored as minute ranges [start, end] with inclusive end; an overnight
+ * interval keeps end > 1440 on the day it starts. All checks only read int arrays.
+ */
+public final class OpeningSchedule {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int[] CLOSED = new int[0];
+
+    private static final Pattern INTERVAL = Pattern.compile("(\\d{1,2})[:hH.](\\d{2})\\s*[-–]\\s*(\\d{1,2})[:hH.](\\d{2})");
+    private static final Pattern HOLIDAY = Pattern.compile("(\\d{4}-\\d{2}-\\d{2})\\s*:?\\s*(.*)");
+
+    /** Own intervals per ISO day-of-week (index 0 = Monday) */
+    private final int[][] weekly;
+    /** Sorted epoch days of holiday overrides and their intervals */
+    private final long[] holidayDays;
+    private final int[][] holidayIntervals;
+    private final String source;
+
+    private OpeningSchedule(int[][] weekly, long[] holidayDays, int[][] holidayIntervals, String source) {
+        this.weekly = weekly;
+        this.holidayDays = holidayDays;
+        this.holidayIntervals = holidayIntervals;
+        this.source = source;
+    }
+
+    /**
+     * Schedule open every day between the given times
+     */
+    public static OpeningSchedule daily(LocalTime open, LocalTime close) {
+        int[] interval = toInterval(open.getHour() * 60 + open.getMinute(), close.getHour() * 60 + close.getMinute());
+        int[][] weekly = new int[7][];
+        Arrays.fill(weekly, interval);
+        return new OpeningSchedule(weekly, new long[0], new int[0][], open + "-" + close);
+    }
+
+    /**
+     * Compile an opening hours string.
+     *
+     * @return the schedule, or null if the string is empty or cannot be understood
+     */
+    public static OpeningSchedule parse(String openingHours) {
+        if (openingHours == null || openingHours.trim().isEmpty()) {
+            return null;
+        }
+
+        int[][] weekly = new int[7][];
+        TreeMap<LocalDate, int[]> holidays = new TreeMap<>();
+
+        for (String rawRule : openingHours.split("[;\\n]")) {
+            String rule = rawRule.trim();
+            if (rule.isEmpty()) {
+                continue;
+            }
+
+            Matcher holiday = HOLIDAY.matcher(rule);
+            if (holiday.matches()) {
+                LocalDate date;
+                try {
+                    date = LocalDate.parse(holiday.group(1));
+                } catch (Exception e) {
+                    return null;
+                }
+                int[] intervals = parseIntervals(holiday.group(2));
+                if (intervals == null) {
+                    return null;
+                }
+                holidays.put(date, intervals);
+                continue;
+            }
+
+            int firstInterval = firstDigitOrClosed(rule);
+            if (firstInterval < 0) {
+                return null;
+            }
+            boolean[] days = parseDays(rule.substring(0, firstInterval));
+            int[] intervals = parseIntervals(rule.substring(firstInterval));
+            if (days == null || intervals == null) {
+                return null;
+            }
+            for (int day = 0; day < 7; day++) {
+                if (days[day]) {
+                    weekly[day] = weekly[day] == null ? intervals : merge(weekly[day], intervals);
+                }
+            }
+        }
+
+        boolean anyRule = !holidays.isEmpty();
+        for (int day = 0; day < 7; day++) {
+            anyRule |= weekly[day] != null;
+            if (weekly[day] == null) {
+                weekly[day] = CLOSED;
+            }
+        }
+        if (!anyRule) {
+            return null;
+        }
+
+        long[] holidayDays = new long[holidays.size()];
+        int[][] holidayIntervals = new int[holidays.size()][];
+        int i = 0;
+        for (Map.Entry<LocalDate, int[]> entry : holidays.entrySet()) {
+            holidayDays[i] = entry.getKey().toEpochDay();
+            holidayIntervals[i] = entry.getValue();
+            i++;
+        }
+        return new OpeningSchedule(weekly, holidayDays, holidayIntervals, openingHours);
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Is the restaurant open at this moment (closing time inclusive)
+     */
+    public boolean isOpenAt(LocalDateTime time) {
+        return isOpenAt(time.toLocalDate().toEpochDay(), time.getHour() * 60 + time.getMinute());
+    }
+
+    /**
+     * Is the restaurant open on the given day at minute-of-day
+     */
+    public boolean isOpenAt(LocalDate date, int minuteOfDay) {
+        return isOpenAt(date.toEpochDay(), minuteOfDay);
+    }
+
+    private boolean isOpenAt(long epochDay, int minuteOfDay) {
+        // Own intervals of the day, then the overnight tail of the previous day
+        return contains(intervalsOf(epochDay), minuteOfDay)
+                || contains(intervalsOf(epochDay - 1), minuteOfDay + MINUTES_PER_DAY);
+    }
+
+    /**
+     * Minute of day of the first opening that starts on this date, or -1 if none
+     */
+    public int firstOpeningMinute(LocalDate date) {
+        int[] intervals = intervalsOf(date.toEpochDay());
+        return intervals.length == 0 ? -1 : intervals[0];
+    }
+
+    /**
+     * Minute (relative to the start of this date) of the last closing of intervals that start on it, or -1 if none.
+     * May exceed 1440 for overnight spans.
+     */
+    public int lastClosingMinute(LocalDate date) {
+        int[] intervals = intervalsOf(date.toEpochDay());
+        return intervals.length == 0 ? -1 : intervals[intervals.length - 1];
+    }
+
+    /**
+     * Does an overnight interval of the previous day reach into this date
+     */
+    public boolean opensFromPreviousDay(LocalDate date) {
+        int[] previous = intervalsOf(date.toEpochDay() - 1);
+        return previous.length > 0 && previous[previous.length - 1] >= MINUTES_PER_DAY;
+    }
+
+    /**
+     * Next moment at or after {@code from} when the restaurant is open, searching up to {@code maxDays} ahead
+     *
+     * @return {@code from} if already open, or null if no opening within the range
+     */
+    public LocalDateTime nextOpening(LocalDateTime from, int maxDays) {
+        long epochDay = from.toLocalDate().toEpochDay();
+        int minute = from.getHour() * 60 + from.getMinute();
+        if (isOpenAt(epochDay, minute)) {
+            return from;
+        }
+        for (int offset = 0; offset <= maxDays; offset++) {
+            int[] intervals = intervalsOf(epochDay + offset);
+            for (int i = 0; i < intervals.length; i += 2) {
+                if (offset > 0 || intervals[i] > minute) {
+                    return from.toLocalDate().plusDays(offset).atStartOfDay().plusMinutes(intervals[i]);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Human readable hours of a date, e.g. "10:00 đến 14:00, 17:00 đến 22:00"
+     */
+    public String describe(LocalDate date) {
+        int[] intervals = intervalsOf(date.toEpochDay());
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < intervals.length; i += 2) {
+            if (text.length() > 0) {
+                text.append(", ");
+            }
+            text.append(formatMinute(intervals[i])).append(" đến ").append(formatMinute(intervals[i + 1]));
+        }
+        return text.toString();
+    }
+
+    private int[] intervalsOf(long epochDay) {
+        if (holidayDays.length > 0) {
+            int index = Arrays.binarySearch(holidayDays, epochDay);
+            if (index >= 0) {
+                return holidayIntervals[index];
+            }
+        }
+        // 1970-01-01 was a Thursday (index 3)
+        return weekly[(int) Math.floorMod(epochDay + 3, 7L)];
+    }
+
+    private static boolean contains(int[] intervals, int minute) {
+        for (int i = 0; i < intervals.length; i += 2) {
+            if (minute < intervals[i]) {
+                return false;
+            }
+            if (minute <= intervals[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String formatMinute(int minute) {
+        return LocalTime.of((minute / 60) % 24, minute % 60).toString();
+    }
+
+    private static int firstDigitOrClosed(String rule) {
+        String lower = rule.toLowerCase(Locale.ROOT);
+        for (String closed : new String[] { "closed", "nghỉ", "đóng cửa" }) {
+            int index = lower.indexOf(closed);
+            if (index >= 0) {
+                return index;
+            }
+        }
+        for (int i = 0; i < rule.length(); i++) {
+            if (Character.isDigit(rule.charAt(i)) && !isDayNumber(rule, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Digits in "T2".."T7" are day names, not times */
+    private static boolean isDayNumber(String rule, int index) {
+        if (index == 0 || Character.toUpperCase(rule.charAt(index - 1)) != 'T') {
+            return false;
+        }
+        return index + 1 >= rule.length()
+                || (!Character.isDigit(rule.charAt(index + 1)) && rule.charAt(index + 1) != ':');
+    }
+
+    private static int[] parseIntervals(String text) {
+        String lower = text.trim().toLowerCase(Locale.ROOT);
+        if (lower.equals("closed") || lower.equals("nghỉ") || lower.equals("đóng cửa")) {
+            return CLOSED;
+        }
+
+        List<int[]> parsed = new ArrayList<>();
+        Matcher matcher = INTERVAL.matcher(text);
+        int consumed = 0;
+        while (matcher.find()) {
+            if (!text.substring(consumed, matcher.start()).replaceAll("[\\s,]", "").isEmpty()) {
+                return null;
+            }
+            int openHour = Integer.parseInt(matcher.group(1));
+            int openMinute = Integer.parseInt(matcher.group(2));
+            int closeHour = Integer.parseInt(matcher.group(3));
+            int closeMinute = Integer.parseInt(matcher.group(4));
+            if (openHour > 23 || openMinute > 59 || closeHour > 24 || closeMinute > 59
+                    || (closeHour == 24 && closeMinute > 0)) {
+                return null;
+            }
+            parsed.add(toInterval(openHour * 60 + openMinute, closeHour * 60 + closeMinute));
+            consumed = matcher.end();
+        }
+        if (parsed.isEmpty() || !text.substring(consumed).trim().isEmpty()) {
+            return null;
+        }
+
+        int[] intervals = CLOSED;
+        for (int[] interval : parsed) {
+            intervals = merge(intervals, interval);
+        }
+        return intervals;
+    }
+
+    private static int[] toInterval(int open, int close) {
+        // 24:00 closes at the last minute of the day; a close at or before open runs past midnight
+        if (close == MINUTES_PER_DAY) {
+            close = MINUTES_PER_DAY - 1;
+        } else if (close <= open) {
+            close += MINUTES_PER_DAY;
+        }
+        return new int[] { open, close };
+    }
+
+    /**
+     * Union of two sorted interval lists
+     */
+    private static int[] merge(int[] left, int[] right) {
+        int[] all = new int[left.length + right.length];
+        System.arraycopy(left, 0, all, 0, left.length);
+        System.arraycopy(right, 0, all, left.length, right.length);
+
+        Integer[] order = new Integer[all.length / 2];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(all[a * 2], all[b * 2]));
+
+        int[] merged = new int[all.length];
+        int size = 0;
+        for (int index : order) {
+            int start = all[index * 2];
+            int end = all[index * 2 + 1];
+            if (size > 0 && start <= merged[size - 1]) {
+                merged[size - 1] = Math.max(merged[size - 1], end);
+            } else {
+                merged[size++] = start;
+                merged[size++] = end;
+            }
+        }
+        return Arrays.copyOf(merged, size);
+    }
+
+    private static boolean[] parseDays(String text) {
+        boolean[] days = new boolean[7];
+        String spec = text.trim().replaceAll(":$", "").trim();
+        if (spec.isEmpty() || spec.equalsIgnoreCase("daily") || spec.equalsIgnoreCase("hằng ngày")
+                || spec.equalsIgnoreCase("hàng ngày")) {
+            Arrays.fill(days, true);
+            return days;
+        }
+
+        for (String part : spec.split("[,\\s]+")) {
+            if (part.isEmpty()) {
+                continue;
+            }
+            String[] range = part.split("[-–]");
+            if (range.length > 2) {
+                return null;
+            }
+            DayOfWeek first = parseDay(range[0]);
+            DayOfWeek last = range.length == 2 ? parseDay(range[1]) : first;
+            if (first == null || last == null) {
+                return null;
+            }
+            for (DayOfWeek day = first;; day = day.plus(1)) {
+                days[day.getValue() - 1] = true;
+                if (day == last) {
+                    break;
+                }
+            }
+        }
+        return days;
+    }
+
+    private static DayOfWeek parseDay(String token) {
+        String day = token.trim().toLowerCase(Locale.ROOT);
+        switch (day) {
+            case "mon": case "monday": case "t2": case "thứ2":
+                return DayOfWeek.MONDAY;
+            case "tue": case "tuesday": case "t3": case "thứ3":
+                return DayOfWeek.TUESDAY;
+            case "wed": case "wednesday": case "t4": case "thứ4":
+                return DayOfWeek.WEDNESDAY;
+            case "thu": case "thursday": case "t5": case "thứ5":
+                return DayOfWeek.THURSDAY;
+            case "fri": case "friday": case "t6": case "thứ6":
+                return DayOfWeek.FRIDAY;
+            case "sat": case "saturday": case "t7": case "thứ7":
+                return DayOfWeek.SATURDAY;
+            case "sun": case "sunday": case "cn":
+                return DayOfWeek.SUNDAY;
+            default:
+                return null;
+        }
+    }
+}
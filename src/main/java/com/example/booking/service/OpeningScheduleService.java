@@ -0,0 +1,94 @@
+package com.example.booking.service;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.booking.domain.RestaurantProfile;
+import com.example.booking.event.RestaurantProfileChangedEvent;
+
+/**
+ * Per-restaurant cache of compiled {@link OpeningSchedule}s.
+ *
+ * An entry is reused as long as the profile still carries the same openingHours string
+ * (the version of the schedule) and is dropped when the profile is updated.
+ * Unparseable strings are cached too, so they are only parsed and logged once.
+ */
+@Service
+public class OpeningScheduleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpeningScheduleService.class);
+
+    /** Fallback used by booking validation when a restaurant has no usable hours */
+    public static final OpeningSchedule DEFAULT_SCHEDULE = OpeningSchedule.daily(LocalTime.of(10, 0),
+            LocalTime.of(22, 0));
+
+    private final Map<Integer, CachedSchedule> cache = new ConcurrentHashMap<>();
+
+    private static final class CachedSchedule {
+        private final String source;
+        private final OpeningSchedule schedule;
+
+        private CachedSchedule(String source, OpeningSchedule schedule) {
+            this.source = source;
+            this.schedule = schedule;
+        }
+    }
+
+    /**
+     * Compiled schedule of a restaurant, or null if it has no (valid) opening hours
+     */
+    public OpeningSchedule getSchedule(RestaurantProfile restaurant) {
+        if (restaurant == null) {
+            return null;
+        }
+        String openingHours = restaurant.getOpeningHours();
+        Integer restaurantId = restaurant.getRestaurantId();
+        if (restaurantId == null) {
+            return OpeningSchedule.parse(openingHours);
+        }
+
+        CachedSchedule cached = cache.get(restaurantId);
+        if (cached != null && Objects.equals(cached.source, openingHours)) {
+            return cached.schedule;
+        }
+
+        OpeningSchedule schedule = OpeningSchedule.parse(openingHours);
+        if (schedule == null && openingHours != null && !openingHours.trim().isEmpty()) {
+            logger.warn("Cannot parse opening hours '{}' of restaurant {}", openingHours, restaurantId);
+        }
+        cache.put(restaurantId, new CachedSchedule(openingHours, schedule));
+        return schedule;
+    }
+
+    /**
+     * Compiled schedule of a restaurant, falling back to the default 10:00-22:00
+     */
+    public OpeningSchedule getScheduleOrDefault(RestaurantProfile restaurant) {
+        OpeningSchedule schedule = getSchedule(restaurant);
+        return schedule != null ? schedule : DEFAULT_SCHEDULE;
+    }
+
+    /**
+     * Is the restaurant open right now; false if it has no valid opening hours
+     */
+    public boolean isOpenNow(RestaurantProfile restaurant) {
+        OpeningSchedule schedule = getSchedule(restaurant);
+        return schedule != null && schedule.isOpenAt(LocalDateTime.now());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRestaurantProfileChanged(RestaurantProfileChangedEvent event) {
+        if (event.getRestaurantId() != null) {
+            cache.remove(event.getRestaurantId());
+        }
+    }
+}
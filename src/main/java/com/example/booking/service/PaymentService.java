@@ -14,10 +14,12 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.example.booking.common.enums.PaymentType;
 import com.example.booking.domain.Booking;
+import com.example.booking.domain.BookingTable;
 import com.example.booking.domain.Customer;
 import com.example.booking.domain.Payment;
 import com.example.booking.domain.PaymentMethod;
 import com.example.booking.domain.PaymentStatus;
+import com.example.booking.exception.BookingConflictException;
 import com.example.booking.repository.BookingRepository;
 import com.example.booking.repository.CustomerRepository;
 import com.example.booking.repository.PaymentRepository;
@@ -347,8 +349,12 @@ public class PaymentService {
         
         // Confirm booking when payment is successful
         try {
-            confirmBooking(payment.getBooking());
-            logger.info("Booking confirmed after cash payment. BookingId: {}", payment.getBooking().getBookingId());
+            if (confirmBooking(payment.getBooking())) {
+                logger.info("Booking confirmed after cash payment. BookingId: {}", payment.getBooking().getBookingId());
+            }
+        } catch (BookingConflictException e) {
+            // Lost a race with another confirmation: the flush failed and the transaction is rollback-only
+            throw e;
         } catch (Exception e) {
             logger.error("Failed to confirm booking after cash payment. BookingId: {}", 
                     payment.getBooking().getBookingId(), e);
@@ -392,8 +398,12 @@ public class PaymentService {
         
         // Confirm booking when payment is successful
         try {
-            confirmBooking(payment.getBooking());
-            logger.info("Booking confirmed after card payment. BookingId: {}", payment.getBooking().getBookingId());
+            if (confirmBooking(payment.getBooking())) {
+                logger.info("Booking confirmed after card payment. BookingId: {}", payment.getBooking().getBookingId());
+            }
+        } catch (BookingConflictException e) {
+            // Lost a race with another confirmation: the flush failed and the transaction is rollback-only
+            throw e;
         } catch (Exception e) {
             logger.error("Failed to confirm booking after card payment. BookingId: {}", 
                     payment.getBooking().getBookingId(), e);
@@ -624,11 +634,47 @@ public class PaymentService {
     }
 
     /**
-     * Confirm booking after payment
+     * Confirm booking after payment.
+     * A booking whose table was confirmed for another booking in the meantime is left unconfirmed:
+     * the overlap constraint would reject it at flush and roll back the payment update with it.
+     *
+     * @return true if the booking was confirmed
      */
-    private void confirmBooking(Booking booking) {
+    private boolean confirmBooking(Booking booking) {
+        if (hasConfirmedOverlap(booking)) {
+            logger.warn("Booking {} not confirmed after payment: its table is confirmed for another booking",
+                    booking.getBookingId());
+            return false;
+        }
         booking.setStatus(com.example.booking.common.enums.BookingStatus.CONFIRMED);
         bookingRepository.save(booking);
+        BookingOverlapConstraint.flush(bookingRepository, booking);
+        return true;
+    }
+
+    /**
+     * Same check as the overlap constraint: another CONFIRMED/COMPLETED booking of one of the tables
+     * within buffer before + buffer after of the booking time
+     */
+    private boolean hasConfirmedOverlap(Booking booking) {
+        if (booking.getBookingTime() == null || booking.getBookingTables() == null) {
+            return false;
+        }
+        int window = BookingConflictService.BUFFER_BEFORE_MINUTES + BookingConflictService.BUFFER_AFTER_MINUTES;
+        LocalDateTime searchStart = booking.getBookingTime().minusMinutes(window);
+        LocalDateTime searchEnd = booking.getBookingTime().plusMinutes(window);
+        for (BookingTable bookingTable : booking.getBookingTables()) {
+            if (bookingTable.getTable() == null) {
+                continue;
+            }
+            for (Booking other : bookingRepository.findTableConflictsInTimeRange(
+                    bookingTable.getTable().getTableId(), searchStart, searchEnd)) {
+                if (!other.getBookingId().equals(booking.getBookingId())) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 
     /**
@@ -0,0 +1,165 @@
+package com.example.booking.service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Maintenance shared by the in-memory indexes: built on startup, refreshed by key after each
+ * committed change, and fully rebuilt on the subclass's own schedule.
+ *
+ * A rebuild runs its queries outside the write lock. Keys refreshed while it runs are remembered
+ * and refreshed again once the fresh data is swapped in, because the rebuild query may have read
+ * them before their change committed.
+ *
+ * Subclasses only read: {@link #loadAll()} and {@link #load(Collection)} return the step that
+ * applies what they read, and that step always runs under {@link #writeLock}.
+ *
+ * @param <K> key of a refresh (booking, waitlist entry or restaurant ID)
+ */
+public abstract class RebuildableIndex<K> {
+
+    private static final Logger logger = LoggerFactory.getLogger(RebuildableIndex.class);
+
+    protected final Object writeLock = new Object();
+    private final Set<K> touchedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private boolean rebuilding;
+
+    private final String name;
+    private final String fallback;
+
+    /**
+     * @param name     index name for the logs, e.g. "Restaurant geo index"
+     * @param fallback what callers do while the index is not built, logged when warm-up fails
+     */
+    protected RebuildableIndex(String name, String fallback) {
+        this.name = name;
+        this.fallback = fallback;
+    }
+
+    /**
+     * Index is usable once the first build finished
+     */
+    public abstract boolean isReady();
+
+    /**
+     * Read everything the index holds; the returned step swaps it in
+     */
+    protected abstract Runnable loadAll();
+
+    /**
+     * Read the given keys; the returned step applies them (keys that are not read drop out)
+     */
+    protected abstract Runnable load(Collection<K> keys);
+
+    /**
+     * Number of entries, for the build log
+     */
+    protected abstract int size();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.error("Failed to build {}, {}", name, fallback, e);
+        }
+    }
+
+    /**
+     * Scheduled full rebuild; failures are logged and the current data kept
+     */
+    protected void reloadQuietly() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.error("{} reload failed", name, e);
+        }
+    }
+
+    /**
+     * Rebuild the whole index from the database and swap it in atomically.
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        synchronized (writeLock) {
+            rebuilding = true;
+            touchedDuringRebuild.clear();
+        }
+
+        Runnable install;
+        try {
+            install = loadAll();
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                rebuilding = false;
+                touchedDuringRebuild.clear();
+            }
+            throw e;
+        }
+
+        Set<K> touched;
+        synchronized (writeLock) {
+            install.run();
+            rebuilding = false;
+            touched = new HashSet<>(touchedDuringRebuild);
+            touchedDuringRebuild.clear();
+        }
+
+        // Changes committed while the rebuild queries were running may be stale in them
+        if (!touched.isEmpty()) {
+            refresh(touched);
+        }
+
+        logger.info("{} built: {} entries in {} ms", name, size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Reload the given keys from the database
+     */
+    public void refresh(Collection<K> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return;
+        }
+        markTouched(keys);
+        if (!isReady()) {
+            return;
+        }
+
+        Runnable apply = load(keys);
+
+        synchronized (writeLock) {
+            markTouched(keys);
+            apply.run();
+        }
+    }
+
+    /**
+     * Refresh one key after a committed change; failures are logged, the next rebuild repairs them
+     */
+    protected void refreshQuietly(K key, Object event) {
+        if (key == null) {
+            return;
+        }
+        try {
+            refresh(List.of(key));
+        } catch (Exception e) {
+            logger.warn("Failed to refresh {} for {}", name, event, e);
+        }
+    }
+
+    private void markTouched(Collection<K> keys) {
+        synchronized (writeLock) {
+            if (rebuilding) {
+                touchedDuringRebuild.addAll(keys);
+            }
+        }
+    }
+}
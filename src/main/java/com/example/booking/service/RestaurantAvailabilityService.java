@@ -0,0 +1,351 @@
+package com.example.booking.service;
+
+import static com.example.booking.service.BookingConflictService.BUFFER_AFTER_MINUTES;
+import static com.example.booking.service.BookingConflictService.BUFFER_BEFORE_MINUTES;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.booking.common.enums.TableStatus;
+import com.example.booking.domain.Booking;
+import com.example.booking.domain.RestaurantAvailability;
+import com.example.booking.domain.RestaurantProfile;
+import com.example.booking.domain.RestaurantTable;
+import com.example.booking.event.BookingChangedEvent;
+import com.example.booking.event.RestaurantProfileChangedEvent;
+import com.example.booking.event.RestaurantTableChangedEvent;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.repository.RestaurantAvailabilityRepository;
+import com.example.booking.repository.RestaurantProfileRepository;
+import com.example.booking.repository.RestaurantTableRepository;
+
+/**
+ * Materializes the hourly restaurant_availability grid as a read model.
+ *
+ * Each cell (restaurant, date, hour) answers "is there room at HH:00?":
+ * - availableTables: tables (not in maintenance) without a conflicting
+ *   CONFIRMED/COMPLETED booking for a request at HH:00 (buffer rule)
+ * - reservedTables: tables blocked by such a booking
+ * - maxCapacity / currentOccupancy: seats of usable tables / guests seated at HH:00
+ * Hours outside the restaurant's opening schedule are CLOSED with no available table.
+ *
+ * Cells are kept {@link #HORIZON_DAYS} days ahead, refreshed incrementally after
+ * booking and table writes, and fully rebuilt every night by
+ * {@link com.example.booking.scheduler.RestaurantAvailabilityScheduler}.
+ * Materializations of the same restaurant are serialized by a transaction-scoped
+ * lock, so an older computation can never overwrite a newer one.
+ */
+@Service
+public class RestaurantAvailabilityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantAvailabilityService.class);
+
+    public static final int HORIZON_DAYS = 30;
+
+    private static final int BOOKING_DURATION_HOURS = 2; // Thời gian booking mặc định: 2 giờ
+    private static final String DATA_SOURCE = "materializer";
+
+    @Autowired
+    private RestaurantAvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private RestaurantTableRepository restaurantTableRepository;
+
+    @Autowired
+    private RestaurantProfileRepository restaurantProfileRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private TableAvailabilityService tableAvailabilityService;
+
+    @Autowired(required = false)
+    private OpeningScheduleService openingScheduleService;
+
+    // bookingId -> ngày đã materialize lần cuối, để khi booking bị dời thì refresh cả ngày cũ
+    private final Map<Integer, LocalDate> materializedBookingDates = new ConcurrentHashMap<>();
+
+    // restaurantId -> tables signature used by the grid (count, capacity, maintenance)
+    private final Map<Integer, String> tableSignatures = new ConcurrentHashMap<>();
+
+    // restaurantId -> openingHours the grid was built with
+    private final Map<Integer, String> scheduleSources = new ConcurrentHashMap<>();
+
+    /**
+     * 24 precomputed cells of a restaurant for one day (empty if not materialized)
+     */
+    @Transactional(readOnly = true)
+    public List<RestaurantAvailability> getDay(Integer restaurantId, LocalDate date) {
+        return availabilityRepository.findByRestaurantRestaurantIdAndDateOrderByHourAsc(restaurantId, date);
+    }
+
+    /**
+     * Precomputed cell covering the given time (hour precision)
+     */
+    @Transactional(readOnly = true)
+    public Optional<RestaurantAvailability> getCell(Integer restaurantId, LocalDateTime time) {
+        return availabilityRepository.findByRestaurantRestaurantIdAndDateAndHour(restaurantId, time.toLocalDate(),
+                time.getHour());
+    }
+
+    /**
+     * Rebuild every cell of a restaurant from today to the end of the horizon
+     */
+    @Transactional
+    public void rebuildRestaurant(Integer restaurantId) {
+        LocalDate today = LocalDate.now();
+        materialize(restaurantId, today, today.plusDays(HORIZON_DAYS - 1));
+    }
+
+    /**
+     * Drop cells older than yesterday
+     */
+    @Transactional
+    public int purgePastCells() {
+        LocalDate cutoff = LocalDate.now().minusDays(1);
+        materializedBookingDates.values().removeIf(date -> date.isBefore(cutoff));
+        return availabilityRepository.deleteByDateBefore(cutoff);
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (event.getBookingId() == null) {
+            return;
+        }
+        try {
+            Set<LocalDate> dates = new TreeSet<>();
+            Integer restaurantId = event.getRestaurantId();
+
+            LocalDate previousDate = materializedBookingDates.get(event.getBookingId());
+            if (previousDate != null) {
+                dates.add(previousDate);
+            }
+
+            Optional<Booking> booking = bookingRepository.findById(event.getBookingId());
+            if (booking.isPresent()) {
+                restaurantId = booking.get().getRestaurant().getRestaurantId();
+                dates.addAll(affectedDates(booking.get().getBookingTime()));
+            }
+
+            if (restaurantId == null) {
+                return;
+            }
+            refreshDates(restaurantId, dates);
+        } catch (Exception e) {
+            logger.warn("Failed to refresh availability grid for {}", event, e);
+        }
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onTableChanged(RestaurantTableChangedEvent event) {
+        if (event.getRestaurantId() == null) {
+            return;
+        }
+        try {
+            // OCCUPIED / CLEANING / RESERVED are transient floor states and do not change
+            // the grid; only a new/removed table, capacity or maintenance change does
+            List<RestaurantTable> tables = restaurantTableRepository.findByRestaurantRestaurantId(event.getRestaurantId());
+            if (!tableSignature(tables).equals(tableSignatures.get(event.getRestaurantId()))) {
+                rebuildRestaurant(event.getRestaurantId());
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to refresh availability grid for {}", event, e);
+        }
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onRestaurantProfileChanged(RestaurantProfileChangedEvent event) {
+        if (event.getRestaurantId() == null) {
+            return;
+        }
+        try {
+            // Only a change of opening hours moves the CLOSED cells
+            RestaurantProfile restaurant = restaurantProfileRepository.findById(event.getRestaurantId()).orElse(null);
+            if (restaurant != null && scheduleSources.containsKey(event.getRestaurantId())
+                    && !Objects.toString(restaurant.getOpeningHours(), "")
+                            .equals(scheduleSources.get(event.getRestaurantId()))) {
+                rebuildRestaurant(event.getRestaurantId());
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to refresh availability grid for {}", event, e);
+        }
+    }
+
+    /**
+     * Dates whose cells depend on a booking at this time: its own day, plus the
+     * neighbouring day when the buffered window crosses midnight.
+     */
+    Set<LocalDate> affectedDates(LocalDateTime bookingTime) {
+        Set<LocalDate> dates = new HashSet<>();
+        LocalDate date = bookingTime.toLocalDate();
+        dates.add(date);
+        int reach = BUFFER_BEFORE_MINUTES + BUFFER_AFTER_MINUTES;
+        if (bookingTime.toLocalTime().isBefore(LocalTime.MIDNIGHT.plusMinutes(reach))) {
+            dates.add(date.minusDays(1));
+        }
+        if (!bookingTime.toLocalTime().isBefore(LocalTime.MIDNIGHT.minusMinutes(reach))) {
+            dates.add(date.plusDays(1));
+        }
+        return dates;
+    }
+
+    private void refreshDates(Integer restaurantId, Set<LocalDate> dates) {
+        LocalDate today = LocalDate.now();
+        LocalDate horizonEnd = today.plusDays(HORIZON_DAYS - 1);
+        for (LocalDate date : dates) {
+            if (!date.isBefore(today) && !date.isAfter(horizonEnd)) {
+                materialize(restaurantId, date, date);
+            }
+        }
+    }
+
+    /**
+     * Recompute the cells of [fromDate, toDate] with three reads (tables, booked
+     * windows, existing cells); only cells whose values changed are written.
+     */
+    private void materialize(Integer restaurantId, LocalDate fromDate, LocalDate toDate) {
+        // Held until commit: a concurrent materialization of this restaurant waits, then reads our rows
+        availabilityRepository.lockRestaurantGrid(restaurantId);
+
+        RestaurantProfile restaurant = restaurantProfileRepository.findById(restaurantId).orElse(null);
+        if (restaurant == null) {
+            return;
+        }
+
+        OpeningSchedule schedule = openingScheduleService != null
+                ? openingScheduleService.getScheduleOrDefault(restaurant)
+                : Optional.ofNullable(OpeningSchedule.parse(restaurant.getOpeningHours()))
+                        .orElse(OpeningScheduleService.DEFAULT_SCHEDULE);
+
+        List<RestaurantTable> tables = restaurantTableRepository.findByRestaurantRestaurantId(restaurantId);
+        int reach = BUFFER_BEFORE_MINUTES + BUFFER_AFTER_MINUTES;
+        TableAvailabilityService.BookingWindows windows = tableAvailabilityService.getAvailability(restaurantId,
+                fromDate.atStartOfDay().minusMinutes(reach), toDate.plusDays(1).atStartOfDay().plusMinutes(reach));
+
+        Map<LocalDateTime, RestaurantAvailability> existing = new HashMap<>();
+        for (RestaurantAvailability cell : availabilityRepository
+                .findByRestaurantRestaurantIdAndDateBetweenOrderByDateAscHourAsc(restaurantId, fromDate, toDate)) {
+            existing.put(cell.getDate().atTime(cell.getHour(), 0), cell);
+        }
+
+        List<RestaurantTable> usableTables = tables.stream()
+                .filter(table -> table.getStatus() != TableStatus.MAINTENANCE)
+                .toList();
+        int maxCapacity = usableTables.stream()
+                .mapToInt(table -> table.getCapacity() != null ? table.getCapacity() : 0)
+                .sum();
+
+        List<RestaurantAvailability> changed = new ArrayList<>();
+        for (LocalDate date = fromDate; !date.isAfter(toDate); date = date.plusDays(1)) {
+            for (int hour = 0; hour < 24; hour++) {
+                LocalDateTime slot = date.atTime(hour, 0);
+                RestaurantAvailability cell = existing.get(slot);
+                if (cell == null) {
+                    cell = new RestaurantAvailability(restaurant, date, hour);
+                }
+                boolean closed = tables.isEmpty() || !schedule.isOpenAt(slot);
+                if (computeCell(cell, tables.size(), usableTables, maxCapacity, windows, slot, closed)) {
+                    changed.add(cell);
+                }
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            availabilityRepository.saveAll(changed);
+        }
+
+        for (RestaurantTable table : tables) {
+            for (TableAvailabilityService.BookedWindow window : windows.getBookings(table.getTableId())) {
+                materializedBookingDates.put(window.bookingId(), window.bookingTime().toLocalDate());
+            }
+        }
+        tableSignatures.put(restaurantId, tableSignature(tables));
+        scheduleSources.put(restaurantId, Objects.toString(restaurant.getOpeningHours(), ""));
+    }
+
+    /**
+     * Fill one cell; returns true if any value changed.
+     * A closed cell (no tables, or outside opening hours) keeps its bookings but offers no table.
+     */
+    private boolean computeCell(RestaurantAvailability cell, int totalTables, List<RestaurantTable> usableTables,
+            int maxCapacity, TableAvailabilityService.BookingWindows windows, LocalDateTime slot, boolean closed) {
+        int reserved = 0;
+        Map<Integer, Integer> seatedGuests = new HashMap<>();
+        LocalDateTime seatedFrom = slot.minusHours(BOOKING_DURATION_HOURS);
+        for (RestaurantTable table : usableTables) {
+            if (!windows.isFree(table.getTableId(), slot)) {
+                reserved++;
+            }
+            for (TableAvailabilityService.BookedWindow window : windows.getBookings(table.getTableId())) {
+                // Guests at the table at HH:00: booking started within the last 2 hours
+                if (TableAvailabilityService.CONFLICT_STATUSES.contains(window.status())
+                        && window.bookingTime().isAfter(seatedFrom)
+                        && !window.bookingTime().isAfter(slot)) {
+                    seatedGuests.put(window.bookingId(),
+                            window.numberOfGuests() != null ? window.numberOfGuests() : 0);
+                }
+            }
+        }
+        int available = closed ? 0 : usableTables.size() - reserved;
+        int occupancy = seatedGuests.values().stream().mapToInt(Integer::intValue).sum();
+
+        boolean unchanged = cell.getId() != null
+                && DATA_SOURCE.equals(cell.getDataSource())
+                && cell.getAvailableTables() == available
+                && cell.getTotalTables() == totalTables
+                && cell.getReservedTables() == reserved
+                && cell.getMaxCapacity() == maxCapacity
+                && cell.getCurrentOccupancy() == occupancy
+                && closed == (cell.getStatus() == RestaurantAvailability.Status.CLOSED);
+        if (unchanged) {
+            return false;
+        }
+
+        cell.updateAvailability(available, totalTables, reserved);
+        cell.setMaxCapacity(maxCapacity);
+        cell.setCurrentOccupancy(occupancy);
+        cell.setDataSource(DATA_SOURCE);
+        if (closed) {
+            cell.setStatus(RestaurantAvailability.Status.CLOSED);
+        }
+        return true;
+    }
+
+    private String tableSignature(List<RestaurantTable> tables) {
+        StringBuilder signature = new StringBuilder();
+        tables.stream()
+                .sorted((a, b) -> Integer.compare(a.getTableId(), b.getTableId()))
+                .forEach(table -> signature.append(table.getTableId()).append(':')
+                        .append(table.getCapacity()).append(':')
+                        .append(table.getStatus() == TableStatus.MAINTENANCE ? 'M' : 'U').append(';'));
+        return signature.toString();
+    }
+}
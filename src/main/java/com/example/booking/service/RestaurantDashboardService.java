@@ -12,6 +12,7 @@ import com.example.booking.domain.Waitlist;
 import com.example.booking.domain.Dish;
 import com.example.booking.domain.BookingDish;
 import com.example.booking.domain.RestaurantBalance;
+import com.example.booking.domain.RestaurantAvailability;
 import com.example.booking.repository.BookingRepository;
 import com.example.booking.repository.RestaurantTableRepository;
 import com.example.booking.repository.WaitlistRepository;
@@ -19,6 +20,7 @@ import com.example.booking.repository.DishRepository;
 import com.example.booking.repository.BookingDishRepository;
 import com.example.booking.repository.RestaurantBalanceRepository;
 import com.example.booking.repository.PaymentRepository;
+import com.example.booking.repository.RestaurantAvailabilityRepository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -40,6 +42,7 @@ public class RestaurantDashboardService {
     private final BookingDishRepository bookingDishRepository;
     private final RestaurantBalanceRepository balanceRepository;
     private final PaymentRepository paymentRepository;
+    private final RestaurantAvailabilityRepository availabilityRepository;
     
     @Autowired
     public RestaurantDashboardService(
@@ -49,7 +52,8 @@ public class RestaurantDashboardService {
             DishRepository dishRepository,
             BookingDishRepository bookingDishRepository,
             RestaurantBalanceRepository balanceRepository,
-            PaymentRepository paymentRepository) {
+            PaymentRepository paymentRepository,
+            RestaurantAvailabilityRepository availabilityRepository) {
         this.bookingRepository = bookingRepository;
         this.tableRepository = tableRepository;
         this.waitlistRepository = waitlistRepository;
@@ -57,6 +61,7 @@ public class RestaurantDashboardService {
         this.bookingDishRepository = bookingDishRepository;
         this.balanceRepository = balanceRepository;
         this.paymentRepository = paymentRepository;
+        this.availabilityRepository = availabilityRepository;
     }
     
     /**
@@ -463,6 +468,23 @@ public class RestaurantDashboardService {
             restaurantId, com.example.booking.domain.WaitlistStatus.WAITING);
     }
     
+    /**
+     * Lấy tình trạng bàn trống theo giờ trong ngày từ bảng restaurant_availability
+     * (đã được tính sẵn bởi RestaurantAvailabilityService, không quét bookings)
+     */
+    public List<HourlyAvailabilityData> getHourlyAvailability(Integer restaurantId, LocalDate date) {
+        return availabilityRepository.findByRestaurantRestaurantIdAndDateOrderByHourAsc(restaurantId, date)
+            .stream()
+            .map(cell -> new HourlyAvailabilityData(
+                cell.getHour(),
+                cell.getAvailableTables(),
+                cell.getTotalTables(),
+                cell.getReservedTables(),
+                cell.getOccupancyRate(),
+                cell.getStatus()))
+            .collect(Collectors.toList());
+    }
+    
     // DTO Classes
     
     public static class DashboardStats {
@@ -566,6 +588,33 @@ public class RestaurantDashboardService {
         public BigDecimal getPrice() { return price; }
     }
     
+    public static class HourlyAvailabilityData {
+        private int hour;
+        private int availableTables;
+        private int totalTables;
+        private int reservedTables;
+        private double occupancyRate;
+        private RestaurantAvailability.Status status;
+        
+        public HourlyAvailabilityData(int hour, int availableTables, int totalTables, int reservedTables,
+                double occupancyRate, RestaurantAvailability.Status status) {
+            this.hour = hour;
+            this.availableTables = availableTables;
+            this.totalTables = totalTables;
+            this.reservedTables = reservedTables;
+            this.occupancyRate = occupancyRate;
+            this.status = status;
+        }
+        
+        // Getters
+        public int getHour() { return hour; }
+        public int getAvailableTables() { return availableTables; }
+        public int getTotalTables() { return totalTables; }
+        public int getReservedTables() { return reservedTables; }
+        public double getOccupancyRate() { return occupancyRate; }
+        public RestaurantAvailability.Status getStatus() { return status; }
+    }
+    
     public static class BookingInfo {
         private Integer bookingId;
         private String customerName;
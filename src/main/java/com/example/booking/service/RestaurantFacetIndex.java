@@ -0,0 +1,309 @@
+package com.example.booking.service;
+
+import java.math.BigDecimal;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import com.example.booking.repository.RestaurantProfileRepository;
+
+/**
+ * In-memory facet engine for the listing filters (cuisine, price range, rating) of approved restaurants.
+ *
+ * Restaurants get dense positions (by ID); every cuisine, price range and rating option keeps a
+ * bitmap of the positions it matches, with the same bounds as
+ * {@link RestaurantManagementService#priceBounds(String)} and {@link RestaurantManagementService#minRating(String)}.
+ * Filtering is an AND of the selected bitmaps, and the count shown next to each option is the
+ * cardinality of that option AND-ed with the other selected filters.
+ *
+ * Fed by {@link RestaurantLocationCatalog} like {@link RestaurantGeoIndex}: built on startup,
+ * refreshed by ID after each committed profile change and reloaded with the catalog (ratings move
+ * through bulk updates).
+ */
+@Component
+public class RestaurantFacetIndex implements RestaurantLocationCatalog.Subscriber {
+
+    /** Price range options understood by the listing, current UI first */
+    public static final List<String> PRICE_RANGES = List.of(
+            "low", "medium", "high", "under-50k", "50k-100k", "100k-200k", "over-200k");
+
+    /** Rating filter options understood by the listing */
+    public static final List<String> RATING_FILTERS = List.of("5-star", "4-star", "3-star", "2-star");
+
+    private static final Set<String> SORTABLE = Set.of("restaurantName", "averagePrice", "averageRating", "restaurantId");
+
+    private Map<Integer, Row> rows = new HashMap<>();
+    private volatile Snapshot snapshot;
+
+    /**
+     * Filter and sort columns of one restaurant
+     */
+    record Row(Integer restaurantId, String restaurantName, String cuisineKey, BigDecimal averagePrice,
+            double averageRating) {
+    }
+
+    /**
+     * Number of restaurants each option would return, given the other selected filters
+     */
+    public record FacetCounts(int total, Map<String, Integer> cuisines, Map<String, Integer> priceRanges,
+            Map<String, Integer> ratings) {
+
+        public int cuisine(String cuisineType) {
+            return cuisines.getOrDefault(cuisineKey(cuisineType), 0);
+        }
+
+        public int priceRange(String priceRange) {
+            return priceRanges.getOrDefault(priceRange, 0);
+        }
+
+        public int rating(String ratingFilter) {
+            return ratings.getOrDefault(ratingFilter, 0);
+        }
+    }
+
+    /**
+     * Immutable bitmaps over the restaurants sorted by ID
+     */
+    static final class Snapshot {
+        final Row[] rows;
+        final Map<Integer, Integer> positions;
+        final BitSet all;
+        final Map<String, BitSet> cuisines = new HashMap<>();
+        final Map<String, BitSet> priceRanges = new LinkedHashMap<>();
+        final Map<String, BitSet> ratings = new LinkedHashMap<>();
+
+        Snapshot(Collection<Row> source) {
+            rows = source.stream().sorted(Comparator.comparing(Row::restaurantId)).toArray(Row[]::new);
+            positions = new HashMap<>(rows.length * 2);
+            all = new BitSet(rows.length);
+            all.set(0, rows.length);
+            for (String priceRange : PRICE_RANGES) {
+                priceRanges.put(priceRange, new BitSet(rows.length));
+            }
+            for (String ratingFilter : RATING_FILTERS) {
+                ratings.put(ratingFilter, new BitSet(rows.length));
+            }
+
+            for (int i = 0; i < rows.length; i++) {
+                Row row = rows[i];
+                positions.put(row.restaurantId(), i);
+                if (row.cuisineKey() != null) {
+                    cuisines.computeIfAbsent(row.cuisineKey(), key -> new BitSet(rows.length)).set(i);
+                }
+                if (row.averagePrice() != null) {
+                    for (Map.Entry<String, BitSet> priceRange : priceRanges.entrySet()) {
+                        BigDecimal[] bounds = RestaurantManagementService.priceBounds(priceRange.getKey());
+                        if ((bounds[0] == null || row.averagePrice().compareTo(bounds[0]) >= 0)
+                                && (bounds[1] == null || row.averagePrice().compareTo(bounds[1]) <= 0)) {
+                            priceRange.getValue().set(i);
+                        }
+                    }
+                }
+                for (Map.Entry<String, BitSet> rating : ratings.entrySet()) {
+                    if (row.averageRating() >= RestaurantManagementService.minRating(rating.getKey())) {
+                        rating.getValue().set(i);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Positions of the given IDs, or every position when null
+         */
+        BitSet base(Collection<Integer> restaurantIds) {
+            if (restaurantIds == null) {
+                return all;
+            }
+            BitSet base = new BitSet(rows.length);
+            for (Integer restaurantId : restaurantIds) {
+                Integer position = positions.get(restaurantId);
+                if (position != null) {
+                    base.set(position);
+                }
+            }
+            return base;
+        }
+
+        /**
+         * Bitmap of a selected cuisine (empty when nothing serves it), null when not filtering
+         */
+        BitSet cuisine(String cuisineType) {
+            String key = cuisineKey(cuisineType);
+            return key == null ? null : cuisines.getOrDefault(key, new BitSet());
+        }
+    }
+
+    // ==================== QUERIES ====================
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Whether {@link #filter} can order by every property of the sort
+     */
+    public boolean supportsSort(Sort sort) {
+        return sort.stream().allMatch(order -> SORTABLE.contains(order.getProperty()));
+    }
+
+    /**
+     * IDs of the restaurants matching the filters, restricted to candidateIds unless null, in sort
+     * order (ID order when unsorted)
+     */
+    public List<Integer> filter(Collection<Integer> candidateIds, String cuisineType, String priceRange,
+            String ratingFilter, Sort sort) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return List.of();
+        }
+        BitSet matching = and(current.base(candidateIds), current.cuisine(cuisineType),
+                current.priceRanges.get(priceRange), current.ratings.get(ratingFilter));
+
+        List<Row> matched = new ArrayList<>(matching.cardinality());
+        for (int i = matching.nextSetBit(0); i >= 0; i = matching.nextSetBit(i + 1)) {
+            matched.add(current.rows[i]);
+        }
+        if (sort != null && sort.isSorted()) {
+            matched.sort(comparator(sort));
+        }
+        List<Integer> ids = new ArrayList<>(matched.size());
+        matched.forEach(row -> ids.add(row.restaurantId()));
+        return ids;
+    }
+
+    /**
+     * Option counts for the current selection, restricted to candidateIds unless null. Each facet
+     * is counted with the other facets' selections applied, so the counts show what picking that
+     * option would return.
+     */
+    public FacetCounts counts(Collection<Integer> candidateIds, String cuisineType, String priceRange,
+            String ratingFilter) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return new FacetCounts(0, Map.of(), Map.of(), Map.of());
+        }
+        BitSet base = current.base(candidateIds);
+        BitSet cuisine = current.cuisine(cuisineType);
+        BitSet price = current.priceRanges.get(priceRange);
+        BitSet rating = current.ratings.get(ratingFilter);
+
+        Map<String, Integer> cuisines = new HashMap<>();
+        BitSet withoutCuisine = and(base, price, rating);
+        current.cuisines.forEach((key, bitmap) -> {
+            int count = andCardinality(withoutCuisine, bitmap);
+            if (count > 0) {
+                cuisines.put(key, count);
+            }
+        });
+
+        Map<String, Integer> priceRanges = new LinkedHashMap<>();
+        BitSet withoutPrice = and(base, cuisine, rating);
+        current.priceRanges.forEach((key, bitmap) -> priceRanges.put(key, andCardinality(withoutPrice, bitmap)));
+
+        Map<String, Integer> ratings = new LinkedHashMap<>();
+        BitSet withoutRating = and(base, cuisine, price);
+        current.ratings.forEach((key, bitmap) -> ratings.put(key, andCardinality(withoutRating, bitmap)));
+
+        return new FacetCounts(and(base, cuisine, price, rating).cardinality(), cuisines, priceRanges, ratings);
+    }
+
+    private static BitSet and(BitSet base, BitSet... filters) {
+        BitSet result = (BitSet) base.clone();
+        for (BitSet filter : filters) {
+            if (filter != null) {
+                result.and(filter);
+            }
+        }
+        return result;
+    }
+
+    private static int andCardinality(BitSet a, BitSet b) {
+        BitSet result = (BitSet) a.clone();
+        result.and(b);
+        return result.cardinality();
+    }
+
+    private static Comparator<Row> comparator(Sort sort) {
+        Collator collator = Collator.getInstance(new Locale("vi", "VN"));
+        Comparator<Row> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<Row> next;
+            switch (order.getProperty()) {
+                case "restaurantName":
+                    next = Comparator.comparing(Row::restaurantName, Comparator.nullsLast(collator));
+                    break;
+                case "averagePrice":
+                    next = Comparator.comparing(Row::averagePrice, Comparator.nullsLast(Comparator.naturalOrder()));
+                    break;
+                case "averageRating":
+                    next = Comparator.comparingDouble(Row::averageRating);
+                    break;
+                default:
+                    next = Comparator.comparing(Row::restaurantId);
+                    break;
+            }
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator.thenComparing(Row::restaurantId);
+    }
+
+    static String cuisineKey(String cuisineType) {
+        if (cuisineType == null || cuisineType.trim().isEmpty()) {
+            return null;
+        }
+        return cuisineType.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // ==================== MAINTENANCE ====================
+
+    @Override
+    public Runnable replaceAll(List<Object[]> locationRows) {
+        Map<Integer, Row> fresh = new HashMap<>();
+        for (Object[] row : locationRows) {
+            fresh.put((Integer) row[0], toRow(row));
+        }
+        Snapshot built = new Snapshot(fresh.values());
+        return () -> {
+            rows = fresh;
+            snapshot = built;
+        };
+    }
+
+    @Override
+    public Runnable replace(Collection<Integer> restaurantIds, List<Object[]> locationRows) {
+        return () -> {
+            if (snapshot == null) {
+                return;
+            }
+            Map<Integer, Row> next = new HashMap<>(rows);
+            restaurantIds.forEach(next::remove);
+            for (Object[] row : locationRows) {
+                next.put((Integer) row[0], toRow(row));
+            }
+            rows = next;
+            snapshot = new Snapshot(next.values());
+        };
+    }
+
+    /**
+     * Row from a row of {@link RestaurantProfileRepository#findApprovedLocationRows()}
+     */
+    private static Row toRow(Object[] row) {
+        return new Row((Integer) row[0], (String) row[1], cuisineKey((String) row[3]), (BigDecimal) row[4],
+                ((Number) row[8]).doubleValue());
+    }
+}
@@ -0,0 +1,357 @@
+package com.example.booking.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.springframework.stereotype.Component;
+
+import com.example.booking.util.CityGeoResolver;
+import com.example.booking.util.TextNormalizer;
+
+/**
+ * In-memory spatial index of approved restaurants for "near me" searches.
+ *
+ * Restaurants are stored as points on the unit sphere (x, y, z) in a static k-d tree
+ * over primitive arrays. The straight-line (chord) distance between two unit vectors
+ * grows with the great-circle distance, so a radius in km becomes a chord radius and
+ * the tree answers radius and nearest-k queries exactly, without trigonometry per
+ * restaurant. The listing filters (search words, cuisine, price, rating) are evaluated on
+ * the index entries, so a page of results needs no entity loading until the page itself.
+ *
+ * Restaurants without stored coordinates are indexed at their city center and marked
+ * approximate; callers choose whether to include them.
+ *
+ * The index is fed by {@link RestaurantLocationCatalog}: built on startup, refreshed by ID after
+ * each committed profile change (approval, edit, removal) and fully reloaded with the catalog.
+ */
+@Component
+public class RestaurantGeoIndex implements RestaurantLocationCatalog.Subscriber {
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private Map<Integer, Place> places = new HashMap<>();
+    private volatile Snapshot snapshot;
+
+    /**
+     * Index entry of one approved restaurant; searchText is the folded name, cuisine and address
+     */
+    public record Place(Integer restaurantId, String restaurantName, String address, String cuisineType,
+            BigDecimal averagePrice, double latitude, double longitude, boolean approximate,
+            LocalDateTime createdAt, double averageRating, String searchText) {
+    }
+
+    /**
+     * Restaurant listing filters; null fields do not filter. Every search word must occur in the
+     * name, cuisine or address, ignoring case and diacritics (as {@link RestaurantSearchIndex}).
+     */
+    public record Filter(List<String> searchWords, String cuisineType, BigDecimal minPrice, BigDecimal maxPrice,
+            Double minRating, boolean exactLocationOnly) {
+
+        public static final Filter NONE = new Filter(null, null, null, null, null, false);
+
+        /**
+         * Same filters as {@link RestaurantManagementService#getRestaurantsWithFilters}
+         */
+        public static Filter of(String search, String cuisineType, String priceRange, String ratingFilter,
+                boolean exactLocationOnly) {
+            BigDecimal[] priceBounds = RestaurantManagementService.priceBounds(priceRange);
+            List<String> searchWords = TextNormalizer.tokens(search);
+            return new Filter(searchWords.isEmpty() ? null : searchWords, normalize(cuisineType),
+                    priceBounds[0], priceBounds[1],
+                    RestaurantManagementService.minRating(ratingFilter), exactLocationOnly);
+        }
+
+        boolean test(Place place) {
+            if (exactLocationOnly && place.approximate()) {
+                return false;
+            }
+            if (searchWords != null && !searchWords.stream().allMatch(place.searchText()::contains)) {
+                return false;
+            }
+            if (cuisineType != null && !cuisineType.equals(normalize(place.cuisineType()))) {
+                return false;
+            }
+            if (minPrice != null && (place.averagePrice() == null || place.averagePrice().compareTo(minPrice) < 0)) {
+                return false;
+            }
+            if (maxPrice != null && (place.averagePrice() == null || place.averagePrice().compareTo(maxPrice) > 0)) {
+                return false;
+            }
+            return minRating == null || place.averageRating() >= minRating;
+        }
+
+        private static String normalize(String value) {
+            return value == null || value.trim().isEmpty() ? null : value.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public record Hit(Place place, double distanceKm) {
+    }
+
+    /**
+     * One page of hits, nearest first, and the number of restaurants that matched in total
+     */
+    public record NearbyPage(List<Hit> hits, int total) {
+    }
+
+    /**
+     * Immutable k-d tree; node i of the range [lo, hi) is its middle element
+     */
+    static final class Snapshot {
+        private final Place[] places;
+        private final double[][] coords;
+
+        Snapshot(Collection<Place> source) {
+            int n = source.size();
+            Place[] input = source.toArray(new Place[0]);
+            double[][] points = new double[3][n];
+            for (int i = 0; i < n; i++) {
+                double[] unit = toUnitVector(input[i].latitude(), input[i].longitude());
+                points[0][i] = unit[0];
+                points[1][i] = unit[1];
+                points[2][i] = unit[2];
+            }
+            int[] order = new int[n];
+            for (int i = 0; i < n; i++) {
+                order[i] = i;
+            }
+            build(order, points, 0, n, 0);
+
+            this.places = new Place[n];
+            this.coords = new double[3][n];
+            for (int i = 0; i < n; i++) {
+                places[i] = input[order[i]];
+                for (int d = 0; d < 3; d++) {
+                    coords[d][i] = points[d][order[i]];
+                }
+            }
+        }
+
+        int size() {
+            return places.length;
+        }
+
+        private static void build(int[] order, double[][] points, int lo, int hi, int depth) {
+            if (hi - lo <= 1) {
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            select(order, points[depth % 3], lo, hi - 1, mid);
+            build(order, points, lo, mid, depth + 1);
+            build(order, points, mid + 1, hi, depth + 1);
+        }
+
+        /**
+         * Quickselect: order[k] gets the k-th smallest value, smaller values before it, larger after
+         */
+        private static void select(int[] order, double[] values, int lo, int hi, int k) {
+            while (lo < hi) {
+                double pivot = values[order[(lo + hi) >>> 1]];
+                int i = lo;
+                int j = hi;
+                while (i <= j) {
+                    while (values[order[i]] < pivot) {
+                        i++;
+                    }
+                    while (values[order[j]] > pivot) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        int tmp = order[i];
+                        order[i] = order[j];
+                        order[j] = tmp;
+                        i++;
+                        j--;
+                    }
+                }
+                if (k <= j) {
+                    hi = j;
+                } else if (k >= i) {
+                    lo = i;
+                } else {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Visit every point within the squared chord distance
+         */
+        void within(double[] query, double maxChord2, Visitor visitor) {
+            within(query, maxChord2, visitor, 0, places.length, 0);
+        }
+
+        private void within(double[] query, double maxChord2, Visitor visitor, int lo, int hi, int depth) {
+            if (lo >= hi) {
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            double dx = coords[0][mid] - query[0];
+            double dy = coords[1][mid] - query[1];
+            double dz = coords[2][mid] - query[2];
+            double chord2 = dx * dx + dy * dy + dz * dz;
+            if (chord2 <= maxChord2) {
+                visitor.visit(mid, chord2);
+            }
+            int dim = depth % 3;
+            double delta = query[dim] - coords[dim][mid];
+            if (delta <= 0) {
+                within(query, maxChord2, visitor, lo, mid, depth + 1);
+                if (delta * delta <= maxChord2) {
+                    within(query, maxChord2, visitor, mid + 1, hi, depth + 1);
+                }
+            } else {
+                within(query, maxChord2, visitor, mid + 1, hi, depth + 1);
+                if (delta * delta <= maxChord2) {
+                    within(query, maxChord2, visitor, lo, mid, depth + 1);
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface Visitor {
+        void visit(int index, double chord2);
+    }
+
+    static double[] toUnitVector(double latitude, double longitude) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double cosLat = Math.cos(lat);
+        return new double[] { cosLat * Math.cos(lon), cosLat * Math.sin(lon), Math.sin(lat) };
+    }
+
+    static double chordToKm(double chord2) {
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(chord2) / 2));
+    }
+
+    static double kmToChord2(double km) {
+        double chord = 2 * Math.sin(Math.min(Math.PI / 2, km / (2 * EARTH_RADIUS_KM)));
+        return chord * chord;
+    }
+
+    // ==================== QUERIES ====================
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Restaurants matching the filter within radiusKm of the point (any distance if null), nearest first
+     *
+     * @param offset hits to skip (page * size)
+     * @param limit  maximum hits to return
+     */
+    public NearbyPage findNearby(double latitude, double longitude, Double radiusKm, Filter filter, int offset,
+            int limit) {
+        Snapshot current = snapshot;
+        if (current == null || current.size() == 0 || limit <= 0) {
+            return new NearbyPage(List.of(), 0);
+        }
+        Filter active = filter != null ? filter : Filter.NONE;
+        double maxChord2 = radiusKm != null && radiusKm > 0 ? kmToChord2(radiusKm) : 4.0;
+        int keep = Math.max(0, offset) + limit;
+
+        // Bounded max-heap of the nearest matches: [chord2, index]
+        PriorityQueue<double[]> nearest = new PriorityQueue<>(Math.min(keep, 1024),
+                Comparator.comparingDouble((double[] candidate) -> candidate[0]).reversed());
+        int[] total = { 0 };
+        current.within(toUnitVector(latitude, longitude), maxChord2, (index, chord2) -> {
+            if (!active.test(current.places[index])) {
+                return;
+            }
+            total[0]++;
+            if (nearest.size() < keep) {
+                nearest.add(new double[] { chord2, index });
+            } else if (chord2 < nearest.peek()[0]) {
+                nearest.poll();
+                nearest.add(new double[] { chord2, index });
+            }
+        });
+
+        double[][] sorted = nearest.toArray(new double[0][]);
+        Arrays.sort(sorted, Comparator.comparingDouble((double[] candidate) -> candidate[0])
+                .thenComparing(candidate -> current.places[(int) candidate[1]].restaurantId()));
+        List<Hit> hits = new ArrayList<>();
+        for (int i = Math.max(0, offset); i < sorted.length; i++) {
+            hits.add(new Hit(current.places[(int) sorted[i][1]], chordToKm(sorted[i][0])));
+        }
+        return new NearbyPage(hits, total[0]);
+    }
+
+    // ==================== MAINTENANCE ====================
+
+    @Override
+    public Runnable replaceAll(List<Object[]> rows) {
+        Map<Integer, Place> fresh = new HashMap<>();
+        for (Object[] row : rows) {
+            Place place = toPlace(row);
+            if (place != null) {
+                fresh.put(place.restaurantId(), place);
+            }
+        }
+        Snapshot built = new Snapshot(fresh.values());
+        return () -> {
+            places = fresh;
+            snapshot = built;
+        };
+    }
+
+    @Override
+    public Runnable replace(Collection<Integer> restaurantIds, List<Object[]> rows) {
+        return () -> {
+            if (snapshot == null) {
+                return;
+            }
+            Map<Integer, Place> next = new HashMap<>(places);
+            restaurantIds.forEach(next::remove);
+            for (Object[] row : rows) {
+                Place place = toPlace(row);
+                if (place != null) {
+                    next.put(place.restaurantId(), place);
+                }
+            }
+            places = next;
+            snapshot = new Snapshot(next.values());
+        };
+    }
+
+    /**
+     * Index entry from a location row; null when the restaurant cannot be placed at all
+     */
+    private static Place toPlace(Object[] row) {
+        String address = (String) row[2];
+        BigDecimal latitude = (BigDecimal) row[5];
+        BigDecimal longitude = (BigDecimal) row[6];
+        double lat;
+        double lon;
+        boolean approximate;
+        if (latitude != null && longitude != null) {
+            lat = latitude.doubleValue();
+            lon = longitude.doubleValue();
+            approximate = false;
+        } else {
+            CityGeoResolver.LatLng cityCenter = CityGeoResolver.cityCenterOf(address);
+            if (cityCenter == null) {
+                return null;
+            }
+            lat = cityCenter.lat;
+            lon = cityCenter.lng;
+            approximate = true;
+        }
+        // NUL never occurs in a folded search word, so words cannot match across fields
+        String searchText = TextNormalizer.fold((String) row[1]) + '\0' + TextNormalizer.fold((String) row[3]) + '\0'
+                + TextNormalizer.fold(address);
+        return new Place((Integer) row[0], (String) row[1], address, (String) row[3], (BigDecimal) row[4], lat, lon,
+                approximate, (LocalDateTime) row[7], ((Number) row[8]).doubleValue(), searchText);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.booking.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.booking.common.enums.RestaurantApprovalStatus;
+import com.example.booking.event.RestaurantProfileChangedEvent;
+import com.example.booking.repository.RestaurantProfileRepository;
+
+/**
+ * Location rows of approved restaurants, read once and handed to every index built from them
+ * ({@link RestaurantGeoIndex}, {@link RestaurantSearchIndex}, {@link RestaurantFacetIndex},
+ * {@link RestaurantRelatedIndex}).
+ *
+ * Built on startup, refreshed by ID after each committed profile change and fully reloaded every
+ * 10 minutes to pick up rating changes (the rating summary is updated by statements that do not
+ * publish profile events). Each reload runs one catalog query for all subscribers.
+ */
+@Component
+public class RestaurantLocationCatalog extends RebuildableIndex<Integer> {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantLocationCatalog.class);
+
+    private static final int AI_RESTAURANT_ID = 37;
+
+    @Autowired
+    private RestaurantProfileRepository restaurantProfileRepository;
+
+    @Autowired(required = false)
+    private List<Subscriber> subscribers = List.of();
+
+    private volatile int size = -1;
+
+    /**
+     * Index fed with rows of {@link RestaurantProfileRepository#findApprovedLocationRows()}. Both
+     * methods run outside the catalog lock; the step they return runs under it.
+     */
+    public interface Subscriber {
+
+        /**
+         * Prepare the index from the rows of all approved restaurants
+         */
+        Runnable replaceAll(List<Object[]> rows);
+
+        /**
+         * Prepare replacing the given restaurants by the rows; restaurants without a row
+         * (no longer approved or removed) drop out
+         */
+        Runnable replace(Collection<Integer> restaurantIds, List<Object[]> rows);
+    }
+
+    public RestaurantLocationCatalog() {
+        super("Restaurant location catalog", "restaurant searches will use the database");
+    }
+
+    @Override
+    public boolean isReady() {
+        return size >= 0;
+    }
+
+    @Scheduled(fixedDelay = 600000, initialDelay = 600000)
+    public void reload() {
+        reloadQuietly();
+    }
+
+    @Override
+    protected Runnable loadAll() {
+        List<Object[]> rows = restaurantProfileRepository.findApprovedLocationRows();
+        List<Runnable> steps = new ArrayList<>();
+        for (Subscriber subscriber : subscribers) {
+            try {
+                steps.add(subscriber.replaceAll(rows));
+            } catch (RuntimeException e) {
+                logger.error("Failed to build {} from the location catalog", subscriber.getClass().getSimpleName(), e);
+            }
+        }
+        return () -> {
+            run(steps);
+            size = rows.size();
+        };
+    }
+
+    @Override
+    protected int size() {
+        return Math.max(size, 0);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onRestaurantProfileChanged(RestaurantProfileChangedEvent event) {
+        refreshQuietly(event.getRestaurantId(), event);
+    }
+
+    /**
+     * Reload the given restaurants for every subscriber: approved ones are (re)indexed, others dropped
+     */
+    @Override
+    protected Runnable load(Collection<Integer> restaurantIds) {
+        List<Object[]> approved = new ArrayList<>();
+        for (Object[] row : restaurantProfileRepository.findLocationRowsByIds(restaurantIds)) {
+            if (row[9] == RestaurantApprovalStatus.APPROVED && !Integer.valueOf(AI_RESTAURANT_ID).equals(row[0])) {
+                approved.add(row);
+            }
+        }
+        List<Runnable> steps = new ArrayList<>();
+        for (Subscriber subscriber : subscribers) {
+            steps.add(subscriber.replace(restaurantIds, approved));
+        }
+        return () -> run(steps);
+    }
+
+    /**
+     * One failing subscriber must not keep the others stale
+     */
+    private void run(List<Runnable> steps) {
+        for (Runnable step : steps) {
+            try {
+                step.run();
+            } catch (RuntimeException e) {
+                logger.error("Failed to apply location catalog change", e);
+            }
+        }
+    }
+}
@@ -2,10 +2,11 @@ package com.example.booking.service;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.time.LocalTime;
-import java.time.format.DateTimeParseException;
+import java.time.LocalDateTime;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -15,6 +16,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.booking.common.enums.RestaurantApprovalStatus;
 import com.example.booking.common.enums.ServiceStatus;
 import com.example.booking.domain.Dish;
 import com.example.booking.domain.DishStatus;
@@ -47,6 +49,26 @@ public class RestaurantManagementService {
     @Autowired
     private RestaurantMediaRepository restaurantMediaRepository;
 
+    @Autowired(required = false)
+    private OpeningScheduleService openingScheduleService;
+
+    @Autowired(required = false)
+    private RestaurantSearchIndex restaurantSearchIndex;
+
+    @Autowired(required = false)
+    private RestaurantFacetIndex restaurantFacetIndex;
+
+    @Autowired(required = false)
+    private RestaurantMediaIndex restaurantMediaIndex;
+
+    @Autowired(required = false)
+    private RestaurantRelatedIndex restaurantRelatedIndex;
+
+    /**
+     * Sort property for search results ordered by relevance (best match first)
+     */
+    public static final String RELEVANCE_SORT = "relevance";
+
     /**
      * Get all distinct cuisine types from approved restaurants
      * Used for populating filter dropdowns
@@ -79,6 +101,28 @@ public class RestaurantManagementService {
         return restaurantProfileRepository.findById(restaurantId);
     }
 
+    /**
+     * Tìm nhiều nhà hàng theo ID, giữ nguyên thứ tự của danh sách ID
+     */
+    @Transactional(readOnly = true)
+    public List<RestaurantProfile> findRestaurantsByIds(List<Integer> restaurantIds) {
+        if (restaurantIds == null || restaurantIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Integer, RestaurantProfile> byId = new HashMap<>();
+        for (RestaurantProfile restaurant : restaurantProfileRepository.findAllById(restaurantIds)) {
+            byId.put(restaurant.getRestaurantId(), restaurant);
+        }
+        List<RestaurantProfile> ordered = new ArrayList<>();
+        for (Integer restaurantId : restaurantIds) {
+            RestaurantProfile restaurant = byId.get(restaurantId);
+            if (restaurant != null) {
+                ordered.add(restaurant);
+            }
+        }
+        return ordered;
+    }
+
     /**
      * Tìm nhà hàng theo tên (chỉ APPROVED)
      */
@@ -281,6 +325,105 @@ public class RestaurantManagementService {
         }
         
         // Convert UI filter strings to database query parameters
+        java.math.BigDecimal[] priceBounds = priceBounds(priceRange);
+        java.math.BigDecimal minPrice = priceBounds[0];
+        java.math.BigDecimal maxPrice = priceBounds[1];
+        Double minRating = minRating(ratingFilter);
+        
+        boolean byRelevance = pageable.getSort().getOrderFor(RELEVANCE_SORT) != null;
+        boolean hasSearch = search != null && !search.trim().isEmpty();
+        
+        // Search text is matched by the in-memory index (accent-insensitive, ranked),
+        // the other filters by the facet bitmaps or the database
+        java.util.Map<Integer, Double> matches = null;
+        if (hasSearch && restaurantSearchIndex != null && restaurantSearchIndex.isReady()) {
+            matches = restaurantSearchIndex.search(search);
+            System.out.println("🔎 Search index matched " + matches.size() + " restaurants");
+            if (matches.isEmpty()) {
+                return new PageImpl<>(Collections.emptyList(), pageable, 0);
+            }
+        }
+        
+        if ((!hasSearch || matches != null) && restaurantFacetIndex != null && restaurantFacetIndex.isReady()
+                && (byRelevance || restaurantFacetIndex.supportsSort(pageable.getSort()))) {
+            // Without a search there is no relevance score: name order, like the database path
+            org.springframework.data.domain.Sort sort = !byRelevance ? pageable.getSort()
+                : matches == null ? org.springframework.data.domain.Sort.by("restaurantName") : null;
+            List<Integer> ids = restaurantFacetIndex.filter(matches != null ? matches.keySet() : null,
+                normalizedCuisineType, priceRange, ratingFilter, sort);
+            if (sort == null) {
+                java.util.Set<Integer> filtered = new java.util.HashSet<>(ids);
+                ids = matches.keySet().stream()
+                    .filter(filtered::contains)
+                    .collect(java.util.stream.Collectors.toList());
+            }
+            System.out.println("🧮 Facet index matched " + ids.size() + " restaurants");
+            return pageOfIds(ids, pageable);
+        }
+        
+        if (matches != null) {
+            if (!byRelevance) {
+                return restaurantProfileRepository.findApprovedWithFiltersIn(
+                    matches.keySet(), normalizedCuisineType, minPrice, maxPrice, minRating, pageable);
+            }
+            java.util.Set<Integer> filtered = new java.util.HashSet<>(restaurantProfileRepository
+                .findApprovedIdsWithFiltersIn(matches.keySet(), normalizedCuisineType, minPrice, maxPrice, minRating));
+            List<Integer> ranked = matches.keySet().stream()
+                .filter(filtered::contains)
+                .collect(java.util.stream.Collectors.toList());
+            return pageOfIds(ranked, pageable);
+        }
+        
+        if (byRelevance) {
+            // Without the index there is no relevance score: fall back to name order
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                org.springframework.data.domain.Sort.by("restaurantName"));
+        }
+        
+        // Single database query with all filters and pagination
+        Page<RestaurantProfile> result = restaurantProfileRepository.findApprovedWithFilters(
+            search, normalizedCuisineType, minPrice, maxPrice, minRating, pageable);
+        
+        System.out.println("✅ DB returned " + result.getContent().size() + " restaurants (page " + 
+                          result.getNumber() + " of " + result.getTotalPages() + ", total: " + 
+                          result.getTotalElements() + ")");
+        System.out.println("===============================");
+        
+        return result;
+    }
+
+    /**
+     * Một trang từ danh sách ID đã lọc và sắp xếp sẵn, nạp nhà hàng theo ID
+     */
+    private Page<RestaurantProfile> pageOfIds(List<Integer> ids, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
+        return new PageImpl<>(findRestaurantsByIds(ids.subList(from, to)), pageable, ids.size());
+    }
+
+    /**
+     * Số nhà hàng cho từng lựa chọn của bộ lọc (ẩm thực, khoảng giá, rating) với các bộ lọc còn lại,
+     * null khi chưa có facet index hoặc không khớp được từ khóa trong bộ nhớ
+     */
+    public RestaurantFacetIndex.FacetCounts getFacetCounts(String search, String cuisineType,
+            String priceRange, String ratingFilter) {
+        if (restaurantFacetIndex == null || !restaurantFacetIndex.isReady()) {
+            return null;
+        }
+        java.util.Collection<Integer> candidates = null;
+        if (search != null && !search.trim().isEmpty()) {
+            if (restaurantSearchIndex == null || !restaurantSearchIndex.isReady()) {
+                return null;
+            }
+            candidates = restaurantSearchIndex.search(search).keySet();
+        }
+        return restaurantFacetIndex.counts(candidates, cuisineType, priceRange, ratingFilter);
+    }
+
+    /**
+     * Khoảng giá trên UI ("low", "medium", "high", "under-50k"...) thành [minPrice, maxPrice], null = không giới hạn
+     */
+    public static java.math.BigDecimal[] priceBounds(String priceRange) {
         java.math.BigDecimal minPrice = null;
         java.math.BigDecimal maxPrice = null;
         if (priceRange != null && !priceRange.trim().isEmpty()) {
@@ -316,7 +459,13 @@ public class RestaurantManagementService {
                     break;
             }
         }
-        
+        return new java.math.BigDecimal[] { minPrice, maxPrice };
+    }
+
+    /**
+     * Bộ lọc rating trên UI ("4-star"...) thành rating tối thiểu, null = không lọc
+     */
+    public static Double minRating(String ratingFilter) {
         Double minRating = null;
         if (ratingFilter != null && !ratingFilter.trim().isEmpty()) {
             switch (ratingFilter) {
@@ -334,27 +483,7 @@ public class RestaurantManagementService {
                     break;
             }
         }
-        
-        // Single database query with all filters and pagination
-        Page<RestaurantProfile> result = restaurantProfileRepository.findApprovedWithFilters(
-            search, normalizedCuisineType, minPrice, maxPrice, minRating, pageable);
-        
-        // Apply rating filter in Java (since averageRating is computed, not a DB column)
-        if (minRating != null) {
-            final Double finalMinRating = minRating;
-            List<RestaurantProfile> filteredContent = result.getContent().stream()
-                .filter(r -> r.getAverageRating() >= finalMinRating)
-                .collect(java.util.stream.Collectors.toList());
-            result = new PageImpl<>(filteredContent, pageable, filteredContent.size());
-            System.out.println("⚠️  Rating filter applied in Java (computed field)");
-        }
-        
-        System.out.println("✅ DB returned " + result.getContent().size() + " restaurants (page " + 
-                          result.getNumber() + " of " + result.getTotalPages() + ", total: " + 
-                          result.getTotalElements() + ")");
-        System.out.println("===============================");
-        
-        return result;
+        return minRating;
     }
 
     /**
@@ -364,6 +493,10 @@ public class RestaurantManagementService {
     public List<com.example.booking.dto.DishWithImageDto> getDishesByRestaurantWithImages(Integer restaurantId) {
         List<Dish> dishes = dishRepository.findByRestaurantRestaurantIdOrderByNameAsc(restaurantId);
 
+        if (restaurantMediaIndex != null) {
+            return withDishImages(dishes, restaurantMediaIndex.getMedia(restaurantId));
+        }
+
         // Convert to DTO with image URLs
         return dishes.stream()
                 .map(dish -> {
@@ -373,9 +506,28 @@ public class RestaurantManagementService {
                 .toList();
     }
 
+    /**
+     * Same lookup as {@link #getDishImageUrl}, resolved from one media view instead of queries per dish
+     */
+    private List<com.example.booking.dto.DishWithImageDto> withDishImages(List<Dish> dishes,
+            RestaurantMediaIndex.MediaView media) {
+        List<RestaurantMedia> allDishImages = media.ofType("dish");
+        List<com.example.booking.dto.DishWithImageDto> result = new ArrayList<>(dishes.size());
+        for (int i = 0; i < dishes.size(); i++) {
+            Dish dish = dishes.get(i);
+            String imageUrl = media.dishImageUrl(dish.getDishId());
+            if (imageUrl == null && !allDishImages.isEmpty()) {
+                // Images added without the naming pattern are mapped by position
+                imageUrl = allDishImages.get(i < allDishImages.size() ? i : 0).getUrl();
+            }
+            result.add(new com.example.booking.dto.DishWithImageDto(dish, imageUrl));
+        }
+        return result;
+    }
+
     /**
      * Get dish image URL by restaurant and dish ID
-     * First tries pattern-based lookup, then falls back to type-based lookup
+     * First tries target-based lookup, then falls back to type-based lookup
      */
     private String getDishImageUrl(Integer restaurantId, Integer dishId) {
         try {
@@ -384,10 +536,9 @@ public class RestaurantManagementService {
                 return null;
             }
 
-            // Try pattern-based lookup first (for backward compatibility)
-            String dishIdPattern = "/dish_" + dishId + "_";
+            // Try target-based lookup first (images uploaded as "/dish_{dishId}_...")
             RestaurantMedia dishImage = restaurantMediaRepository
-                    .findDishImageByRestaurantAndDishId(restaurant.get(), dishIdPattern);
+                    .findDishImageByRestaurantAndDishId(restaurant.get(), dishId);
 
             if (dishImage != null) {
                 return dishImage.getUrl();
@@ -443,6 +594,14 @@ public class RestaurantManagementService {
             return Collections.emptyList();
         }
 
+        // Danh sách tính sẵn: chỉ tải các nhà hàng liên quan theo ID
+        if (restaurantRelatedIndex != null) {
+            List<Integer> relatedIds = restaurantRelatedIndex.getRelated(restaurant.getRestaurantId(), limit);
+            if (relatedIds != null) {
+                return findApprovedRestaurantsByIds(relatedIds);
+            }
+        }
+
         List<RestaurantProfile> related = new ArrayList<>();
         
         // Lấy tất cả nhà hàng đã được duyệt (trừ nhà hàng hiện tại)
@@ -504,6 +663,20 @@ public class RestaurantManagementService {
                 .collect(java.util.stream.Collectors.toList());
     }
 
+    /**
+     * Tải nhà hàng theo danh sách ID, giữ nguyên thứ tự, bỏ qua nhà hàng không còn được duyệt
+     */
+    @Transactional(readOnly = true)
+    public List<RestaurantProfile> findApprovedRestaurantsByIds(List<Integer> restaurantIds) {
+        List<RestaurantProfile> approved = new ArrayList<>();
+        for (RestaurantProfile profile : findRestaurantsByIds(restaurantIds)) {
+            if (profile.getApprovalStatus() == RestaurantApprovalStatus.APPROVED) {
+                approved.add(profile);
+            }
+        }
+        return approved;
+    }
+
     /**
      * Kiểm tra nhà hàng có đang mở cửa không dựa trên openingHours và giờ hiện tại
      * 
@@ -512,44 +685,13 @@ public class RestaurantManagementService {
      */
     @Transactional(readOnly = true)
     public boolean isRestaurantCurrentlyOpen(RestaurantProfile restaurant) {
-        if (restaurant == null || restaurant.getOpeningHours() == null || 
-            restaurant.getOpeningHours().trim().isEmpty()) {
+        if (restaurant == null) {
             return false;
         }
-
-        try {
-            LocalTime now = LocalTime.now();
-            String openingHours = restaurant.getOpeningHours().trim();
-            
-            // Parse format like "10:00-22:00" or "10:00 - 22:00"
-            String[] hours = openingHours.replaceAll("\\s+", "").split("-");
-            if (hours.length == 2) {
-                LocalTime openTime = LocalTime.parse(hours[0]);
-                LocalTime closeTime = LocalTime.parse(hours[1]);
-                
-                // Kiểm tra nếu đang trong khoảng thời gian mở cửa
-                // Trường hợp bình thường: mở cửa nếu hiện tại >= openTime và <= closeTime
-                boolean isOpen = (now.isAfter(openTime) || now.equals(openTime)) && 
-                                (now.isBefore(closeTime) || now.equals(closeTime));
-                
-                // Debug logging
-                System.out.println("Restaurant: " + restaurant.getRestaurantName() + 
-                                 " | Hours: " + openingHours + 
-                                 " | Now: " + now + 
-                                 " | Open: " + openTime + 
-                                 " | Close: " + closeTime + 
-                                 " | IsOpen: " + isOpen);
-                
-                return isOpen;
-            }
-        } catch (DateTimeParseException e) {
-            System.err.println("Error parsing opening hours: " + restaurant.getOpeningHours() + 
-                             " for restaurant: " + restaurant.getRestaurantName());
-        } catch (Exception e) {
-            System.err.println("Error checking restaurant hours: " + e.getMessage());
-            e.printStackTrace();
-        }
-        
-        return false;
+        // Compiled schedule is cached per restaurant; called once per restaurant card
+        OpeningSchedule schedule = openingScheduleService != null
+                ? openingScheduleService.getSchedule(restaurant)
+                : OpeningSchedule.parse(restaurant.getOpeningHours());
+        return schedule != null && schedule.isOpenAt(LocalDateTime.now());
     }
 }
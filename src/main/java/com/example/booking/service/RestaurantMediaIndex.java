@@ -0,0 +1,180 @@
+package com.example.booking.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.booking.domain.RestaurantMedia;
+import com.example.booking.event.RestaurantMediaChangedEvent;
+import com.example.booking.repository.RestaurantMediaRepository;
+
+/**
+ * Per-restaurant media lookup: logo, cover, gallery, dish, table and service images.
+ *
+ * All media of a restaurant is loaded with one query and grouped by type and target id
+ * (dish/table/service), so a menu page costs one query instead of one LIKE lookup per dish.
+ * Views are cached per restaurant and dropped after every committed upload or delete.
+ */
+@Service
+public class RestaurantMediaIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantMediaIndex.class);
+
+    @Autowired
+    private RestaurantMediaRepository restaurantMediaRepository;
+
+    private final Map<Integer, MediaView> views = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation: a view loaded across an invalidation is returned but not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Immutable media of one restaurant, each list oldest first
+     */
+    public static final class MediaView {
+
+        private static final MediaView EMPTY = new MediaView(List.of());
+
+        private final Map<String, List<RestaurantMedia>> byType;
+        private final Map<Integer, String> dishImages;
+        private final Map<Integer, List<RestaurantMedia>> tableImages;
+        private final Map<Integer, String> serviceImages;
+
+        MediaView(List<RestaurantMedia> media) {
+            Map<String, List<RestaurantMedia>> types = new LinkedHashMap<>();
+            Map<Integer, String> dishes = new HashMap<>();
+            Map<Integer, List<RestaurantMedia>> tables = new HashMap<>();
+            Map<Integer, String> services = new HashMap<>();
+            for (RestaurantMedia item : media) {
+                if (item.getType() == null) {
+                    continue;
+                }
+                String type = item.getType().toLowerCase(Locale.ROOT);
+                types.computeIfAbsent(type, t -> new ArrayList<>()).add(item);
+
+                Integer targetId = item.getTargetId();
+                if (targetId == null) {
+                    continue;
+                }
+                switch (item.getType()) {
+                    case "dish" -> dishes.putIfAbsent(targetId, item.getUrl());
+                    case "table" -> tables.computeIfAbsent(targetId, t -> new ArrayList<>()).add(item);
+                    // Service images are replaced in place: the newest one wins
+                    case "service" -> services.put(targetId, item.getUrl());
+                    default -> {
+                    }
+                }
+            }
+            types.replaceAll((type, list) -> Collections.unmodifiableList(list));
+            tables.replaceAll((table, list) -> Collections.unmodifiableList(list));
+            this.byType = types;
+            this.dishImages = dishes;
+            this.tableImages = tables;
+            this.serviceImages = services;
+        }
+
+        /**
+         * Media of one type (logo, cover, gallery, menu, dish...), case-insensitive
+         */
+        public List<RestaurantMedia> ofType(String type) {
+            if (type == null) {
+                return List.of();
+            }
+            return byType.getOrDefault(type.toLowerCase(Locale.ROOT), List.of());
+        }
+
+        /**
+         * Oldest media of one type, or null
+         */
+        public RestaurantMedia first(String type) {
+            List<RestaurantMedia> media = ofType(type);
+            return media.isEmpty() ? null : media.get(0);
+        }
+
+        public String dishImageUrl(Integer dishId) {
+            return dishImages.get(dishId);
+        }
+
+        public List<RestaurantMedia> tableImages(Integer tableId) {
+            return tableImages.getOrDefault(tableId, List.of());
+        }
+
+        public String serviceImageUrl(Integer serviceId) {
+            return serviceImages.get(serviceId);
+        }
+    }
+
+    // ==================== QUERIES ====================
+
+    /**
+     * Media of one restaurant, loaded with a single query on the first request after a change
+     */
+    public MediaView getMedia(Integer restaurantId) {
+        if (restaurantId == null) {
+            return MediaView.EMPTY;
+        }
+        MediaView cached = views.get(restaurantId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long loadedAt = generation.get();
+        MediaView view = new MediaView(restaurantMediaRepository.findAllByRestaurantIdOrderByCreatedAt(restaurantId));
+        if (generation.get() == loadedAt) {
+            views.put(restaurantId, view);
+        }
+        return view;
+    }
+
+    // ==================== MAINTENANCE ====================
+
+    /**
+     * Fill target_id of images uploaded before the column existed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillTargetIds() {
+        try {
+            int updated = restaurantMediaRepository.backfillTargetIds();
+            if (updated > 0) {
+                logger.info("Media target ids backfilled for {} images", updated);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to backfill media target ids, older dish/table/service images will not be found", e);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRestaurantMediaChanged(RestaurantMediaChangedEvent event) {
+        generation.incrementAndGet();
+        if (event.getRestaurantId() != null) {
+            views.remove(event.getRestaurantId());
+        } else {
+            views.clear();
+        }
+    }
+
+    /**
+     * Bulk deletes publish no events: drop all cached views every 10 minutes
+     */
+    @Scheduled(fixedDelay = 600000, initialDelay = 600000)
+    public void expire() {
+        generation.incrementAndGet();
+        views.clear();
+    }
+}
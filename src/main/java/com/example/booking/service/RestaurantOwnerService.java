@@ -74,6 +74,7 @@ public class RestaurantOwnerService {
     private final RestaurantNotificationService restaurantNotificationService;
     private final ImageUploadService imageUploadService;
     private CityGeoResolver cityGeoResolver;
+    private RestaurantMediaIndex restaurantMediaIndex;
     
     @PersistenceContext
     private EntityManager entityManager;
@@ -118,6 +119,11 @@ public class RestaurantOwnerService {
         }
     }
 
+    @Autowired(required = false)
+    public void setRestaurantMediaIndex(RestaurantMediaIndex restaurantMediaIndex) {
+        this.restaurantMediaIndex = restaurantMediaIndex;
+    }
+
     /**
      * Get restaurant owner by user ID
      */
@@ -689,9 +695,8 @@ public class RestaurantOwnerService {
         }
 
         // Check if service already has an image
-        String serviceIdPattern = "/service_" + serviceId + "_";
         List<RestaurantMedia> existingMediaList = restaurantMediaRepository
-                .findServiceImagesByRestaurantAndServiceId(restaurantOpt.get(), serviceIdPattern);
+                .findServiceImagesByRestaurantAndServiceId(restaurantOpt.get(), serviceId);
 
         String imageUrl;
         if (!existingMediaList.isEmpty()) {
@@ -756,9 +761,8 @@ public class RestaurantOwnerService {
         }
 
         // Find existing service media using repository query
-        String serviceIdPattern = "/service_" + serviceId + "_";
         List<RestaurantMedia> serviceMediaList = restaurantMediaRepository
-                .findServiceImagesByRestaurantAndServiceId(restaurantOpt.get(), serviceIdPattern);
+                .findServiceImagesByRestaurantAndServiceId(restaurantOpt.get(), serviceId);
 
         String newImageUrl;
         if (!serviceMediaList.isEmpty()) {
@@ -812,9 +816,8 @@ public class RestaurantOwnerService {
         }
 
         // Find and delete service media using repository query
-        String serviceIdPattern = "/service_" + serviceId + "_";
         List<RestaurantMedia> serviceMediaList = restaurantMediaRepository
-                .findServiceImagesByRestaurantAndServiceId(restaurantOpt.get(), serviceIdPattern);
+                .findServiceImagesByRestaurantAndServiceId(restaurantOpt.get(), serviceId);
 
         if (!serviceMediaList.isEmpty()) {
             // Delete all service media records (including duplicates)
@@ -839,17 +842,20 @@ public class RestaurantOwnerService {
     public String getServiceImageUrl(Integer restaurantId, Integer serviceId) {
         logger.info("Getting service image URL for restaurant ID: {}, service ID: {}", restaurantId, serviceId);
 
+        if (restaurantMediaIndex != null) {
+            return restaurantMediaIndex.getMedia(restaurantId).serviceImageUrl(serviceId);
+        }
+
         Optional<RestaurantProfile> restaurantOpt = restaurantProfileRepository.findById(restaurantId);
         if (restaurantOpt.isEmpty()) {
             logger.warn("Restaurant not found for ID: {}", restaurantId);
             return null;
         }
 
-        String serviceIdPattern = "/service_" + serviceId + "_";
-        logger.info("Searching for service image with pattern: {}", serviceIdPattern);
+        logger.info("Searching for service image of service ID: {}", serviceId);
 
         List<RestaurantMedia> serviceMediaList = restaurantMediaRepository
-                .findServiceImagesByRestaurantAndServiceId(restaurantOpt.get(), serviceIdPattern);
+                .findServiceImagesByRestaurantAndServiceId(restaurantOpt.get(), serviceId);
 
         if (!serviceMediaList.isEmpty()) {
             RestaurantMedia serviceMedia = serviceMediaList.get(0); // Get the most recent
@@ -863,7 +869,7 @@ public class RestaurantOwnerService {
 
             return serviceMedia.getUrl();
         } else {
-            logger.warn("No service image found for pattern: {}", serviceIdPattern);
+            logger.warn("No service image found for service ID: {}", serviceId);
         }
 
         return null;
@@ -950,16 +956,19 @@ public class RestaurantOwnerService {
      */
     public String getDishImageUrl(Integer restaurantId, Integer dishId) {
         try {
+            if (restaurantMediaIndex != null) {
+                return restaurantMediaIndex.getMedia(restaurantId).dishImageUrl(dishId);
+            }
+
             Optional<RestaurantProfile> restaurant = getRestaurantById(restaurantId);
             if (restaurant.isEmpty()) {
                 logger.warn("Restaurant not found for ID: {}", restaurantId);
                 return null;
             }
 
-            String dishIdPattern = "/dish_" + dishId + "_";
             // Use List method to avoid "Query did not return a unique result" error
             List<RestaurantMedia> dishImages = restaurantMediaRepository
-                    .findDishImagesByRestaurantAndDishId(restaurant.get(), dishIdPattern);
+                    .findDishImagesByRestaurantAndDishId(restaurant.get(), dishId);
             
             // Return first image if available
             if (dishImages != null && !dishImages.isEmpty()) {
@@ -980,14 +989,17 @@ public class RestaurantOwnerService {
      * Get all table images by restaurant and table ID
      */
     public List<RestaurantMedia> getTableImages(Integer restaurantId, Integer tableId) {
+        if (restaurantMediaIndex != null) {
+            return new ArrayList<>(restaurantMediaIndex.getMedia(restaurantId).tableImages(tableId));
+        }
+
         Optional<RestaurantProfile> restaurant = getRestaurantById(restaurantId);
         if (restaurant.isEmpty()) {
             logger.warn("Restaurant not found for ID: {}", restaurantId);
             return new ArrayList<>();
         }
 
-        String tableIdPattern = "/table_" + tableId + "_";
-        return restaurantMediaRepository.findTableImagesByRestaurantAndTableId(restaurant.get(), tableIdPattern);
+        return restaurantMediaRepository.findTableImagesByRestaurantAndTableId(restaurant.get(), tableId);
     }
 
     /**
@@ -1081,9 +1093,8 @@ public class RestaurantOwnerService {
             return;
         }
 
-        String dishIdPattern = "/dish_" + dishId + "_";
         List<RestaurantMedia> dishImages = restaurantMediaRepository
-                .findDishImagesByRestaurantAndDishId(restaurant.get(), dishIdPattern);
+                .findDishImagesByRestaurantAndDishId(restaurant.get(), dishId);
 
         for (RestaurantMedia image : dishImages) {
             // Delete from Cloudinary if it's a Cloudinary URL
@@ -1105,6 +1116,14 @@ public class RestaurantOwnerService {
     public List<DishWithImageDto> getDishesByRestaurantWithImages(Integer restaurantId) {
         List<Dish> dishes = dishRepository.findByRestaurantRestaurantIdOrderByNameAsc(restaurantId);
 
+        // One media query for the whole menu instead of one lookup per dish
+        if (restaurantMediaIndex != null) {
+            RestaurantMediaIndex.MediaView media = restaurantMediaIndex.getMedia(restaurantId);
+            return dishes.stream()
+                    .map(dish -> new DishWithImageDto(dish, media.dishImageUrl(dish.getDishId())))
+                    .toList();
+        }
+
         // Convert to DTO with image URLs
         return dishes.stream()
                 .map(dish -> {
@@ -0,0 +1,386 @@
+package com.example.booking.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.booking.common.enums.BookingStatus;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.repository.CustomerFavoriteRepository;
+import com.example.booking.repository.RestaurantProfileRepository;
+
+/**
+ * Precomputed "related restaurants" of every approved restaurant for the detail page.
+ *
+ * Each pair of restaurants is scored by cuisine, distance between stored coordinates, price
+ * band, co-booking/co-favorite signal (customers who booked or favorited both) and, as a tie
+ * breaker, rating. The best {@value #TOP_K} per restaurant are kept as a compact id/score
+ * array, so the detail page reads its list in constant time.
+ *
+ * Profiles come from {@link RestaurantLocationCatalog}: the index is built with it on startup,
+ * and a committed profile change or catalog reload re-ranks only the changed restaurants and the
+ * restaurants whose list they enter or leave. Every list is recomputed every 30 minutes, which
+ * also refreshes the co-booking signal.
+ */
+@Component
+public class RestaurantRelatedIndex implements RestaurantLocationCatalog.Subscriber {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantRelatedIndex.class);
+
+    static final int TOP_K = 12;
+
+    static final double CUISINE_WEIGHT = 3.0;
+    static final double DISTANCE_WEIGHT = 2.0;
+    static final double DISTANCE_SCALE_KM = 5.0;
+    static final double PRICE_WEIGHT = 1.0;
+    static final double CO_VISIT_WEIGHT = 3.0;
+    static final double RATING_WEIGHT = 0.25;
+
+    private static final int CO_VISIT_DAYS = 365;
+    // Customers spread over more restaurants than this say little about any pair of them
+    private static final int MAX_RESTAURANTS_PER_CUSTOMER = 30;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CustomerFavoriteRepository customerFavoriteRepository;
+
+    private final Object writeLock = new Object();
+    private Map<Integer, Profile> profiles = new HashMap<>();
+    private Map<Integer, Map<Integer, Float>> coVisits;
+    private volatile Map<Integer, Ranking> rankings;
+
+    /**
+     * Scoring features of one approved restaurant; unknown price or coordinates are NaN
+     */
+    record Profile(int restaurantId, String cuisineKey, double averagePrice, double latitude, double longitude,
+            double averageRating) {
+    }
+
+    /**
+     * Related restaurant ids of one restaurant, best first, with their scores
+     */
+    record Ranking(int[] ids, float[] scores) {
+
+        float minScore() {
+            return scores.length == 0 ? Float.NEGATIVE_INFINITY : scores[scores.length - 1];
+        }
+
+        boolean contains(int restaurantId) {
+            for (int id : ids) {
+                if (id == restaurantId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // ==================== QUERIES ====================
+
+    public boolean isReady() {
+        return rankings != null;
+    }
+
+    /**
+     * Ids of the restaurants most related to the given one, best first
+     *
+     * @return null when the index is not built or the restaurant is not an indexed (approved) one
+     */
+    public List<Integer> getRelated(Integer restaurantId, int limit) {
+        Map<Integer, Ranking> current = rankings;
+        Ranking ranking = current != null && restaurantId != null ? current.get(restaurantId) : null;
+        if (ranking == null) {
+            return null;
+        }
+        int count = Math.min(Math.max(limit, 0), ranking.ids().length);
+        List<Integer> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(ranking.ids()[i]);
+        }
+        return ids;
+    }
+
+    // ==================== MAINTENANCE ====================
+
+    /**
+     * Reload the co-booking and co-favorite signal and recompute every list
+     */
+    @Scheduled(fixedDelay = 1800000, initialDelay = 1800000)
+    public void reload() {
+        try {
+            long start = System.currentTimeMillis();
+            Map<Integer, Map<Integer, Float>> freshCoVisits = loadCoVisits();
+            int size;
+            synchronized (writeLock) {
+                coVisits = freshCoVisits;
+                if (rankings == null) {
+                    return;
+                }
+                rankings = rankAll(profiles.values(), freshCoVisits);
+                size = profiles.size();
+            }
+            logger.info("Related restaurant index recomputed: {} restaurants in {} ms", size,
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("Related restaurant index reload failed", e);
+        }
+    }
+
+    @Override
+    public Runnable replaceAll(List<Object[]> rows) {
+        Map<Integer, Profile> fresh = new HashMap<>();
+        for (Object[] row : rows) {
+            Profile profile = toProfile(row);
+            fresh.put(profile.restaurantId(), profile);
+        }
+        if (rankings != null) {
+            // Already built: re-rank only the lists that the restaurants whose profile changed can move
+            return () -> {
+                synchronized (writeLock) {
+                    Set<Integer> restaurantIds = new HashSet<>(profiles.keySet());
+                    restaurantIds.addAll(fresh.keySet());
+                    restaurantIds.removeIf(restaurantId -> Objects.equals(profiles.get(restaurantId),
+                            fresh.get(restaurantId)));
+                    List<Profile> changed = new ArrayList<>();
+                    restaurantIds.stream().map(fresh::get).filter(Objects::nonNull).forEach(changed::add);
+                    if (!restaurantIds.isEmpty()) {
+                        update(restaurantIds, changed);
+                    }
+                }
+            };
+        }
+
+        Map<Integer, Map<Integer, Float>> freshCoVisits = coVisits != null ? coVisits : loadCoVisits();
+        Map<Integer, Ranking> freshRankings = rankAll(fresh.values(), freshCoVisits);
+        return () -> {
+            synchronized (writeLock) {
+                profiles = fresh;
+                coVisits = freshCoVisits;
+                rankings = freshRankings;
+            }
+        };
+    }
+
+    @Override
+    public Runnable replace(Collection<Integer> restaurantIds, List<Object[]> rows) {
+        List<Profile> changed = new ArrayList<>();
+        for (Object[] row : rows) {
+            changed.add(toProfile(row));
+        }
+        return () -> {
+            synchronized (writeLock) {
+                if (rankings != null) {
+                    update(restaurantIds, changed);
+                }
+            }
+        };
+    }
+
+    private Map<Integer, Map<Integer, Float>> loadCoVisits() {
+        List<Object[]> visits = new ArrayList<>(bookingRepository.findCustomerRestaurantPairs(
+                List.of(BookingStatus.CONFIRMED, BookingStatus.COMPLETED),
+                LocalDateTime.now().minusDays(CO_VISIT_DAYS)));
+        visits.addAll(customerFavoriteRepository.findCustomerRestaurantPairs());
+        return coVisits(visits);
+    }
+
+    private static Map<Integer, Ranking> rankAll(Collection<Profile> profiles,
+            Map<Integer, Map<Integer, Float>> coVisits) {
+        Map<Integer, Ranking> result = new HashMap<>();
+        for (Profile profile : profiles) {
+            result.put(profile.restaurantId(), rank(profile, profiles, coVisits));
+        }
+        return result;
+    }
+
+    /**
+     * Replace the given restaurants by the changed profiles and re-rank only the lists they can
+     * change: their own, the lists that contain them, and the lists they now score into
+     */
+    private void update(Collection<Integer> restaurantIds, List<Profile> changed) {
+        Map<Integer, Profile> next = new HashMap<>(profiles);
+        restaurantIds.forEach(next::remove);
+        changed.forEach(profile -> next.put(profile.restaurantId(), profile));
+
+        Map<Integer, Ranking> nextRankings = new HashMap<>(rankings);
+        restaurantIds.forEach(nextRankings::remove);
+        Set<Integer> stale = new HashSet<>();
+        changed.forEach(profile -> stale.add(profile.restaurantId()));
+        for (Map.Entry<Integer, Ranking> entry : nextRankings.entrySet()) {
+            if (isAffected(next.get(entry.getKey()), entry.getValue(), restaurantIds, changed)) {
+                stale.add(entry.getKey());
+            }
+        }
+        for (Integer restaurantId : stale) {
+            Profile profile = next.get(restaurantId);
+            if (profile != null) {
+                nextRankings.put(restaurantId, rank(profile, next.values(), coVisits));
+            }
+        }
+
+        profiles = next;
+        rankings = nextRankings;
+    }
+
+    private boolean isAffected(Profile profile, Ranking ranking, Collection<Integer> restaurantIds,
+            List<Profile> changed) {
+        if (profile == null) {
+            return false;
+        }
+        for (Integer restaurantId : restaurantIds) {
+            if (ranking.contains(restaurantId)) {
+                return true;
+            }
+        }
+        for (Profile other : changed) {
+            if (other.restaurantId() == profile.restaurantId()) {
+                continue;
+            }
+            if (ranking.ids().length < TOP_K
+                    || score(profile, other, coVisits) >= ranking.minScore()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ==================== SCORING ====================
+
+    /**
+     * The TOP_K best-scoring other restaurants, best first (ties by lower id)
+     */
+    static Ranking rank(Profile profile, Collection<Profile> candidates, Map<Integer, Map<Integer, Float>> coVisits) {
+        PriorityQueue<Object[]> worstFirst = new PriorityQueue<>(TOP_K + 1, (a, b) -> {
+            int byScore = Float.compare((Float) a[1], (Float) b[1]);
+            return byScore != 0 ? byScore : Integer.compare((Integer) b[0], (Integer) a[0]);
+        });
+        for (Profile candidate : candidates) {
+            if (candidate.restaurantId() == profile.restaurantId()) {
+                continue;
+            }
+            worstFirst.add(new Object[] { candidate.restaurantId(), score(profile, candidate, coVisits) });
+            if (worstFirst.size() > TOP_K) {
+                worstFirst.poll();
+            }
+        }
+
+        int size = worstFirst.size();
+        int[] ids = new int[size];
+        float[] scores = new float[size];
+        for (int i = size - 1; i >= 0; i--) {
+            Object[] entry = worstFirst.poll();
+            ids[i] = (Integer) entry[0];
+            scores[i] = (Float) entry[1];
+        }
+        return new Ranking(ids, scores);
+    }
+
+    /**
+     * How related candidate is to profile: higher is more related
+     */
+    static float score(Profile profile, Profile candidate, Map<Integer, Map<Integer, Float>> coVisits) {
+        double score = 0;
+        if (profile.cuisineKey() != null && profile.cuisineKey().equals(candidate.cuisineKey())) {
+            score += CUISINE_WEIGHT;
+        }
+        if (!Double.isNaN(profile.latitude()) && !Double.isNaN(candidate.latitude())) {
+            double km = distanceKm(profile.latitude(), profile.longitude(), candidate.latitude(), candidate.longitude());
+            score += DISTANCE_WEIGHT * Math.exp(-km / DISTANCE_SCALE_KM);
+        }
+        if (profile.averagePrice() > 0 && candidate.averagePrice() > 0) {
+            // 1 at the same price, 0 at three times (or a third of) the price
+            double ratio = Math.abs(Math.log(profile.averagePrice() / candidate.averagePrice()));
+            score += PRICE_WEIGHT * Math.max(0, 1 - ratio / Math.log(3));
+        }
+        Map<Integer, Float> related = coVisits.get(profile.restaurantId());
+        if (related != null) {
+            score += CO_VISIT_WEIGHT * related.getOrDefault(candidate.restaurantId(), 0f);
+        }
+        score += RATING_WEIGHT * Math.min(Math.max(candidate.averageRating(), 0), 5) / 5;
+        return (float) score;
+    }
+
+    /**
+     * Cosine similarity of restaurants by the customers who booked or favorited them:
+     * shared customers / sqrt(customers of a * customers of b)
+     *
+     * @param visits [customerId, restaurantId] rows, duplicates allowed
+     */
+    static Map<Integer, Map<Integer, Float>> coVisits(List<Object[]> visits) {
+        Map<Object, Set<Integer>> byCustomer = new HashMap<>();
+        for (Object[] visit : visits) {
+            if (visit[0] != null && visit[1] != null) {
+                byCustomer.computeIfAbsent(visit[0], c -> new HashSet<>()).add((Integer) visit[1]);
+            }
+        }
+
+        Map<Integer, Integer> customers = new HashMap<>();
+        Map<Integer, Map<Integer, Integer>> shared = new HashMap<>();
+        for (Set<Integer> restaurants : byCustomer.values()) {
+            if (restaurants.size() > MAX_RESTAURANTS_PER_CUSTOMER) {
+                continue;
+            }
+            for (Integer a : restaurants) {
+                customers.merge(a, 1, Integer::sum);
+                for (Integer b : restaurants) {
+                    if (!a.equals(b)) {
+                        shared.computeIfAbsent(a, r -> new HashMap<>()).merge(b, 1, Integer::sum);
+                    }
+                }
+            }
+        }
+
+        Map<Integer, Map<Integer, Float>> similarity = new HashMap<>();
+        shared.forEach((a, counts) -> {
+            Map<Integer, Float> row = new HashMap<>();
+            counts.forEach((b, count) -> row.put(b,
+                    (float) (count / Math.sqrt((double) customers.get(a) * customers.get(b)))));
+            similarity.put(a, Collections.unmodifiableMap(row));
+        });
+        return similarity;
+    }
+
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double h = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * RestaurantGeoIndex.EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(h)));
+    }
+
+    /**
+     * Profile from a location row (see {@link RestaurantProfileRepository#findApprovedLocationRows()})
+     */
+    private static Profile toProfile(Object[] row) {
+        String cuisine = (String) row[3];
+        BigDecimal averagePrice = (BigDecimal) row[4];
+        BigDecimal latitude = (BigDecimal) row[5];
+        BigDecimal longitude = (BigDecimal) row[6];
+        boolean located = latitude != null && longitude != null;
+        return new Profile(
+                (Integer) row[0],
+                cuisine != null && !cuisine.isBlank() ? cuisine.trim().toLowerCase(Locale.ROOT) : null,
+                averagePrice != null ? averagePrice.doubleValue() : Double.NaN,
+                located ? latitude.doubleValue() : Double.NaN,
+                located ? longitude.doubleValue() : Double.NaN,
+                row[8] != null ? ((Number) row[8]).doubleValue() : 0);
+    }
+}
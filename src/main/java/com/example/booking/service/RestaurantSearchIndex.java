@@ -0,0 +1,248 @@
+package com.example.booking.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.example.booking.repository.RestaurantProfileRepository;
+import com.example.booking.util.TextNormalizer;
+
+/**
+ * In-memory full-text index of approved restaurants (name, cuisine, address).
+ *
+ * Text is folded with {@link TextNormalizer} so "pho da nang" finds "Phở Đà Nẵng". Every query
+ * word must occur in one of the fields (as a word, word prefix or inside a word, like the old
+ * LIKE search); a trigram index narrows the candidates before the words are checked. Results are
+ * ranked by where and how each word matched: name before cuisine before address, whole words
+ * before prefixes before infixes.
+ *
+ * Fed by {@link RestaurantLocationCatalog} like {@link RestaurantGeoIndex}: built on startup,
+ * refreshed by ID after each committed profile change and reloaded with the catalog.
+ */
+@Component
+public class RestaurantSearchIndex implements RestaurantLocationCatalog.Subscriber {
+
+    private static final double NAME_WEIGHT = 3.0;
+    private static final double CUISINE_WEIGHT = 2.0;
+    private static final double ADDRESS_WEIGHT = 1.0;
+
+    private Map<Integer, Document> documents = new HashMap<>();
+    private volatile Snapshot snapshot;
+
+    /**
+     * Folded searchable fields of one restaurant
+     */
+    record Document(Integer restaurantId, String name, String cuisine, String address) {
+
+        static Document of(Integer restaurantId, String name, String cuisineType, String address) {
+            return new Document(restaurantId, TextNormalizer.fold(name), TextNormalizer.fold(cuisineType),
+                    TextNormalizer.fold(address));
+        }
+    }
+
+    /**
+     * Immutable trigram index over the documents: trigram -> ascending document positions
+     */
+    static final class Snapshot {
+        private static final int[] NONE = new int[0];
+
+        private final Document[] documents;
+        private final Map<String, int[]> postings;
+
+        Snapshot(Collection<Document> source) {
+            this.documents = source.stream()
+                    .sorted(Comparator.comparing(Document::restaurantId))
+                    .toArray(Document[]::new);
+            Map<String, List<Integer>> lists = new HashMap<>();
+            for (int i = 0; i < documents.length; i++) {
+                Document document = documents[i];
+                // NUL never occurs in a query word, so trigrams across fields never match
+                String text = document.name() + '\0' + document.cuisine() + '\0' + document.address();
+                Set<String> seen = new HashSet<>();
+                for (int j = 0; j + 3 <= text.length(); j++) {
+                    String trigram = text.substring(j, j + 3);
+                    if (seen.add(trigram)) {
+                        lists.computeIfAbsent(trigram, key -> new ArrayList<>()).add(i);
+                    }
+                }
+            }
+            this.postings = new HashMap<>(lists.size() * 2);
+            lists.forEach((trigram, positions) -> postings.put(trigram,
+                    positions.stream().mapToInt(Integer::intValue).toArray()));
+        }
+
+        /**
+         * Documents that contain every trigram of the word (all documents for words shorter than 3)
+         */
+        int[] candidates(String word) {
+            if (word.length() < 3) {
+                int[] all = new int[documents.length];
+                Arrays.setAll(all, i -> i);
+                return all;
+            }
+            int[] result = null;
+            for (int j = 0; j + 3 <= word.length(); j++) {
+                int[] positions = postings.getOrDefault(word.substring(j, j + 3), NONE);
+                result = result == null ? positions : intersect(result, positions);
+                if (result.length == 0) {
+                    break;
+                }
+            }
+            return result;
+        }
+
+        private static int[] intersect(int[] a, int[] b) {
+            int[] out = new int[Math.min(a.length, b.length)];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] < b[j]) {
+                    i++;
+                } else if (a[i] > b[j]) {
+                    j++;
+                } else {
+                    out[n++] = a[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(out, n);
+        }
+    }
+
+    // ==================== QUERIES ====================
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Approved restaurants matching the query, best match first: restaurantId -> relevance score.
+     * Empty when the query has no words.
+     */
+    public Map<Integer, Double> search(String query) {
+        Snapshot current = snapshot;
+        List<String> words = TextNormalizer.tokens(query);
+        if (current == null || words.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        String phrase = String.join(" ", words);
+
+        // The longest word has the most trigrams, so the fewest candidates
+        String mostSelective = words.stream().max(Comparator.comparingInt(String::length)).get();
+        List<Integer> ids = new ArrayList<>();
+        List<Double> scores = new ArrayList<>();
+        for (int position : current.candidates(mostSelective)) {
+            Document document = current.documents[position];
+            double score = score(words, phrase, document);
+            if (score > 0) {
+                ids.add(document.restaurantId());
+                scores.add(score);
+            }
+        }
+
+        Integer[] order = new Integer[ids.size()];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, Comparator.comparingDouble((Integer i) -> -scores.get(i)).thenComparing(ids::get));
+        Map<Integer, Double> ranked = new LinkedHashMap<>();
+        for (Integer i : order) {
+            ranked.put(ids.get(i), scores.get(i));
+        }
+        return ranked;
+    }
+
+    /**
+     * Relevance of one restaurant for the query, 0 when it does not match. For restaurants that are
+     * not in the index (e.g. a customer's favorites that are no longer approved).
+     */
+    public static double score(String query, String name, String address, String cuisineType) {
+        List<String> words = TextNormalizer.tokens(query);
+        if (words.isEmpty()) {
+            return 0;
+        }
+        return score(words, String.join(" ", words), Document.of(null, name, cuisineType, address));
+    }
+
+    private static double score(List<String> words, String phrase, Document document) {
+        double total = 0;
+        for (String word : words) {
+            double best = Math.max(NAME_WEIGHT * matchQuality(document.name(), word),
+                    Math.max(CUISINE_WEIGHT * matchQuality(document.cuisine(), word),
+                            ADDRESS_WEIGHT * matchQuality(document.address(), word)));
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        if (document.name().equals(phrase)) {
+            total += 2 * NAME_WEIGHT;
+        } else if (words.size() > 1 && document.name().contains(phrase)) {
+            total += NAME_WEIGHT;
+        }
+        return total;
+    }
+
+    /**
+     * 1 for a whole word, 0.7 for a word prefix, 0.4 inside a word, 0 if absent
+     */
+    static double matchQuality(String field, String word) {
+        double best = 0;
+        int index = field.indexOf(word);
+        while (index >= 0 && best < 1.0) {
+            boolean startsWord = index == 0 || field.charAt(index - 1) == ' ';
+            int end = index + word.length();
+            boolean endsWord = end == field.length() || field.charAt(end) == ' ';
+            best = Math.max(best, startsWord ? (endsWord ? 1.0 : 0.7) : 0.4);
+            index = field.indexOf(word, index + 1);
+        }
+        return best;
+    }
+
+    // ==================== MAINTENANCE ====================
+
+    @Override
+    public Runnable replaceAll(List<Object[]> rows) {
+        Map<Integer, Document> fresh = new HashMap<>();
+        for (Object[] row : rows) {
+            fresh.put((Integer) row[0], toDocument(row));
+        }
+        Snapshot built = new Snapshot(fresh.values());
+        return () -> {
+            documents = fresh;
+            snapshot = built;
+        };
+    }
+
+    @Override
+    public Runnable replace(Collection<Integer> restaurantIds, List<Object[]> rows) {
+        return () -> {
+            if (snapshot == null) {
+                return;
+            }
+            Map<Integer, Document> next = new HashMap<>(documents);
+            restaurantIds.forEach(next::remove);
+            for (Object[] row : rows) {
+                next.put((Integer) row[0], toDocument(row));
+            }
+            documents = next;
+            snapshot = new Snapshot(next.values());
+        };
+    }
+
+    /**
+     * Document from a row of {@link RestaurantProfileRepository#findApprovedLocationRows()}
+     */
+    private static Document toDocument(Object[] row) {
+        return Document.of((Integer) row[0], (String) row[1], (String) row[3], (String) row[2]);
+    }
+}
@@ -0,0 +1,509 @@
+package com.example.booking.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.booking.common.enums.RestaurantApprovalStatus;
+import com.example.booking.domain.DishStatus;
+import com.example.booking.event.DishChangedEvent;
+import com.example.booking.event.RestaurantProfileChangedEvent;
+import com.example.booking.repository.DishRepository;
+import com.example.booking.repository.RestaurantProfileRepository;
+import com.example.booking.util.TextNormalizer;
+
+/**
+ * In-memory typeahead over restaurant names, cuisine types and dish names of approved restaurants.
+ *
+ * Every suggestion is inserted into a prefix trie under each of its word starts (folded with
+ * {@link TextNormalizer}, so "pho" and "ha noi" both reach "Phở Hà Nội"). Each trie node keeps the
+ * most popular suggestions of its subtree, so a lookup is one walk down the typed prefix.
+ *
+ * Popularity: restaurants by review count, cuisines by the restaurants serving them plus their
+ * reviews, dishes by the restaurants serving them plus the quantity ever booked.
+ *
+ * Built on startup, updated per restaurant after each committed profile or dish change and
+ * reloaded every 10 minutes (review and booking counts only move on reload).
+ */
+@Component
+public class RestaurantSuggestionIndex extends RebuildableIndex<Integer> {
+
+    private static final int AI_RESTAURANT_ID = 37;
+    static final int TOP_K = 10;
+    private static final int MAX_INDEXED_WORDS = 6;
+    private static final int MAX_TERM_LENGTH = 40;
+
+    public enum Type {
+        RESTAURANT, CUISINE, DISH
+    }
+
+    /**
+     * One typeahead entry; restaurantId is only set for restaurants
+     */
+    public record Suggestion(Type type, String label, Integer restaurantId, long popularity) {
+    }
+
+    @Autowired
+    private RestaurantProfileRepository restaurantProfileRepository;
+
+    @Autowired
+    private DishRepository dishRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private State state;
+
+    public RestaurantSuggestionIndex() {
+        super("Restaurant suggestion index", "typeahead disabled until reload");
+    }
+
+    // ==================== QUERIES ====================
+
+    @Override
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return state != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Most popular suggestions with a word starting with the typed prefix, at most {@value #TOP_K}
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String folded = TextNormalizer.fold(prefix);
+        if (folded.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            if (state == null) {
+                return List.of();
+            }
+            Node node = state.trie.find(folded);
+            if (node == null) {
+                return List.of();
+            }
+            int count = Math.min(limit, node.top.length);
+            List<Suggestion> result = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                result.add(node.top[i].suggestion());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ==================== MAINTENANCE ====================
+
+    @Scheduled(fixedDelay = 600000, initialDelay = 600000)
+    public void reload() {
+        reloadQuietly();
+    }
+
+    @Override
+    protected Runnable loadAll() {
+        State fresh = new State();
+        Map<Integer, List<Object[]>> dishes = groupByRestaurant(
+                dishRepository.findSuggestionRowsOfApprovedRestaurants(DishStatus.AVAILABLE));
+        for (Object[] row : restaurantProfileRepository.findApprovedSuggestionRows()) {
+            Integer restaurantId = (Integer) row[0];
+            fresh.apply(restaurantId, contributions(row, dishes.getOrDefault(restaurantId, List.of())));
+        }
+        return () -> {
+            lock.writeLock().lock();
+            try {
+                state = fresh;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+    }
+
+    @Override
+    protected int size() {
+        lock.readLock().lock();
+        try {
+            return state != null ? state.entries.size() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onRestaurantProfileChanged(RestaurantProfileChangedEvent event) {
+        refreshQuietly(event.getRestaurantId(), event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onDishChanged(DishChangedEvent event) {
+        refreshQuietly(event.getRestaurantId(), event);
+    }
+
+    /**
+     * Reload the name, cuisine and menu of the given restaurants; restaurants that are no longer
+     * approved drop out
+     */
+    @Override
+    protected Runnable load(Collection<Integer> restaurantIds) {
+        Map<Integer, Object[]> restaurants = new HashMap<>();
+        for (Object[] row : restaurantProfileRepository.findSuggestionRowsByIds(restaurantIds)) {
+            if (row[4] == RestaurantApprovalStatus.APPROVED && !Integer.valueOf(AI_RESTAURANT_ID).equals(row[0])) {
+                restaurants.put((Integer) row[0], row);
+            }
+        }
+        Map<Integer, List<Object[]>> dishes = restaurants.isEmpty() ? Map.of()
+                : groupByRestaurant(dishRepository.findSuggestionRowsByRestaurantIds(restaurants.keySet(),
+                        DishStatus.AVAILABLE));
+
+        return () -> {
+            lock.writeLock().lock();
+            try {
+                for (Integer restaurantId : restaurantIds) {
+                    Object[] row = restaurants.get(restaurantId);
+                    state.apply(restaurantId, row == null ? List.of()
+                            : contributions(row, dishes.getOrDefault(restaurantId, List.of())));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+    }
+
+    private static Map<Integer, List<Object[]>> groupByRestaurant(List<Object[]> dishRows) {
+        Map<Integer, List<Object[]>> byRestaurant = new HashMap<>();
+        for (Object[] row : dishRows) {
+            byRestaurant.computeIfAbsent((Integer) row[0], key -> new ArrayList<>()).add(row);
+        }
+        return byRestaurant;
+    }
+
+    /**
+     * What one restaurant adds to the index, from a suggestion row and its dish rows
+     */
+    private static List<Contribution> contributions(Object[] restaurant, List<Object[]> dishRows) {
+        Integer restaurantId = (Integer) restaurant[0];
+        long reviews = restaurant[3] != null ? ((Number) restaurant[3]).longValue() : 0;
+        List<Contribution> result = new ArrayList<>();
+
+        String name = trim(restaurant[1]);
+        if (name != null) {
+            result.add(new Contribution("restaurant:" + restaurantId, Type.RESTAURANT, name, restaurantId, reviews));
+        }
+        String cuisine = trim(restaurant[2]);
+        if (cuisine != null) {
+            result.add(new Contribution("cuisine:" + TextNormalizer.fold(cuisine), Type.CUISINE, cuisine, null,
+                    1 + reviews));
+        }
+
+        // A dish listed twice by one restaurant still counts that restaurant once
+        Map<String, Contribution> dishes = new HashMap<>();
+        for (Object[] row : dishRows) {
+            String dish = trim(row[1]);
+            if (dish == null) {
+                continue;
+            }
+            long booked = row[2] != null ? ((Number) row[2]).longValue() : 0;
+            dishes.merge("dish:" + TextNormalizer.fold(dish), new Contribution("dish:" + TextNormalizer.fold(dish),
+                    Type.DISH, dish, null, 1 + booked),
+                    (a, b) -> new Contribution(a.key(), a.type(), a.label(), null, a.popularity() + b.popularity() - 1));
+        }
+        result.addAll(dishes.values());
+        return result;
+    }
+
+    private static String trim(Object value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.toString().trim();
+        return trimmed.isEmpty() || TextNormalizer.fold(trimmed).isEmpty() ? null : trimmed;
+    }
+
+    // ==================== STATE ====================
+
+    private record Contribution(String key, Type type, String label, Integer restaurantId, long popularity) {
+    }
+
+    /**
+     * Suggestion plus the folded terms it is stored under in the trie
+     */
+    private record Entry(String key, Suggestion suggestion, List<String> terms) {
+
+        static Entry of(String key, Suggestion suggestion) {
+            List<String> words = TextNormalizer.tokens(suggestion.label());
+            Set<String> terms = new LinkedHashSet<>();
+            for (int i = 0; i < Math.min(words.size(), MAX_INDEXED_WORDS); i++) {
+                String term = String.join(" ", words.subList(i, words.size()));
+                terms.add(term.length() > MAX_TERM_LENGTH ? term.substring(0, MAX_TERM_LENGTH) : term);
+            }
+            return new Entry(key, suggestion, List.copyOf(terms));
+        }
+    }
+
+    private static final Comparator<Entry> BY_POPULARITY = Comparator
+            .comparingLong((Entry entry) -> -entry.suggestion().popularity())
+            .thenComparing(entry -> entry.suggestion().label())
+            .thenComparing(Entry::key);
+
+    /**
+     * Sum of the contributions of all restaurants to one suggestion; the label is the spelling
+     * used by most of them
+     */
+    private static final class Aggregate {
+        final Map<String, Integer> labels = new HashMap<>();
+        Type type;
+        Integer restaurantId;
+        long popularity;
+        int contributors;
+
+        void add(Contribution contribution, int sign) {
+            type = contribution.type();
+            restaurantId = contribution.restaurantId();
+            popularity += sign * contribution.popularity();
+            contributors += sign;
+            labels.merge(contribution.label(), sign, Integer::sum);
+            labels.values().removeIf(count -> count <= 0);
+        }
+
+        Suggestion toSuggestion() {
+            String label = labels.entrySet().stream()
+                    .max(Map.Entry.<String, Integer>comparingByValue()
+                            .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                    .map(Map.Entry::getKey)
+                    .orElseThrow();
+            return new Suggestion(type, label, restaurantId, popularity);
+        }
+    }
+
+    /**
+     * Contributions per restaurant, their aggregates and the trie built from them
+     */
+    static final class State {
+        private final Map<Integer, List<Contribution>> byRestaurant = new HashMap<>();
+        private final Map<String, Aggregate> aggregates = new HashMap<>();
+        private final Map<String, Entry> entries = new HashMap<>();
+        private final Trie trie = new Trie();
+
+        void apply(Integer restaurantId, List<Contribution> contributions) {
+            List<Contribution> previous = contributions.isEmpty() ? byRestaurant.remove(restaurantId)
+                    : byRestaurant.put(restaurantId, contributions);
+            Set<String> affected = new HashSet<>();
+            if (previous != null) {
+                for (Contribution contribution : previous) {
+                    aggregates.get(contribution.key()).add(contribution, -1);
+                    affected.add(contribution.key());
+                }
+            }
+            for (Contribution contribution : contributions) {
+                aggregates.computeIfAbsent(contribution.key(), key -> new Aggregate()).add(contribution, 1);
+                affected.add(contribution.key());
+            }
+            affected.forEach(this::reindex);
+        }
+
+        private void reindex(String key) {
+            Aggregate aggregate = aggregates.get(key);
+            if (aggregate != null && aggregate.contributors <= 0) {
+                aggregates.remove(key);
+                aggregate = null;
+            }
+            Suggestion suggestion = aggregate != null ? aggregate.toSuggestion() : null;
+            Entry previous = entries.get(key);
+            if (previous != null && previous.suggestion().equals(suggestion)) {
+                return;
+            }
+            if (previous != null) {
+                entries.remove(key);
+                trie.remove(previous);
+            }
+            if (suggestion != null) {
+                Entry entry = Entry.of(key, suggestion);
+                entries.put(key, entry);
+                trie.insert(entry);
+            }
+        }
+    }
+
+    // ==================== TRIE ====================
+
+    static final class Node {
+        private static final Entry[] NONE = new Entry[0];
+
+        char[] keys = new char[0];
+        Node[] children = new Node[0];
+        List<Entry> terminal;
+        /** Best {@value RestaurantSuggestionIndex#TOP_K} distinct entries of this subtree, most popular first */
+        Entry[] top = NONE;
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -i - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            newKeys[at] = c;
+            newChildren[at] = new Node();
+            System.arraycopy(keys, at, newKeys, at + 1, keys.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            keys = newKeys;
+            children = newChildren;
+            return newChildren[at];
+        }
+
+        void removeChild(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i < 0) {
+                return;
+            }
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, i);
+            System.arraycopy(children, 0, newChildren, 0, i);
+            System.arraycopy(keys, i + 1, newKeys, i, keys.length - i - 1);
+            System.arraycopy(children, i + 1, newChildren, i, children.length - i - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        boolean isEmpty() {
+            return keys.length == 0 && (terminal == null || terminal.isEmpty());
+        }
+
+        boolean topContains(String key) {
+            for (Entry entry : top) {
+                if (entry.key().equals(key)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Offer an entry newly added below this node
+         */
+        void offer(Entry entry) {
+            if (topContains(entry.key())) {
+                return;
+            }
+            if (top.length == TOP_K && BY_POPULARITY.compare(entry, top[TOP_K - 1]) >= 0) {
+                return;
+            }
+            int at = 0;
+            while (at < top.length && BY_POPULARITY.compare(top[at], entry) < 0) {
+                at++;
+            }
+            int size = Math.min(TOP_K, top.length + 1);
+            Entry[] next = new Entry[size];
+            System.arraycopy(top, 0, next, 0, at);
+            next[at] = entry;
+            System.arraycopy(top, at, next, at + 1, size - at - 1);
+            top = next;
+        }
+
+        /**
+         * Recompute the top entries from this node's own entries and its children's tops
+         */
+        void recomputeTop() {
+            Map<String, Entry> distinct = new HashMap<>();
+            if (terminal != null) {
+                terminal.forEach(entry -> distinct.put(entry.key(), entry));
+            }
+            for (Node child : children) {
+                for (Entry entry : child.top) {
+                    distinct.put(entry.key(), entry);
+                }
+            }
+            top = distinct.values().stream().sorted(BY_POPULARITY).limit(TOP_K).toArray(Entry[]::new);
+        }
+    }
+
+    static final class Trie {
+        final Node root = new Node();
+
+        Node find(String prefix) {
+            Node node = root;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.child(prefix.charAt(i));
+            }
+            return node;
+        }
+
+        void insert(Entry entry) {
+            for (String term : entry.terms()) {
+                Node node = root;
+                node.offer(entry);
+                for (int i = 0; i < term.length(); i++) {
+                    node = node.childOrCreate(term.charAt(i));
+                    node.offer(entry);
+                }
+                if (node.terminal == null) {
+                    node.terminal = new ArrayList<>(1);
+                }
+                node.terminal.add(entry);
+            }
+        }
+
+        void remove(Entry entry) {
+            // Detach the entry from every term first, then repair the tops bottom-up
+            List<Node[]> paths = new ArrayList<>();
+            List<String> terms = new ArrayList<>();
+            for (String term : entry.terms()) {
+                Node[] path = new Node[term.length() + 1];
+                path[0] = root;
+                for (int i = 0; i < term.length() && path[i] != null; i++) {
+                    path[i + 1] = path[i].child(term.charAt(i));
+                }
+                Node end = path[term.length()];
+                if (end == null || end.terminal == null) {
+                    continue;
+                }
+                end.terminal.removeIf(candidate -> candidate.key().equals(entry.key()));
+                paths.add(path);
+                terms.add(term);
+            }
+            for (int p = 0; p < paths.size(); p++) {
+                Node[] path = paths.get(p);
+                String term = terms.get(p);
+                for (int i = path.length - 1; i >= 0; i--) {
+                    Node node = path[i];
+                    if (node.topContains(entry.key())) {
+                        node.recomputeTop();
+                    }
+                    if (i > 0 && node.isEmpty()) {
+                        path[i - 1].removeChild(term.charAt(i - 1));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,391 @@
+package com.example.booking.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.booking.common.enums.RestaurantApprovalStatus;
+import com.example.booking.domain.DishStatus;
+import com.example.booking.event.DishChangedEvent;
+import com.example.booking.event.RestaurantProfileChangedEvent;
+import com.example.booking.repository.DishRepository;
+import com.example.booking.repository.RestaurantProfileRepository;
+import com.example.booking.util.TextNormalizer;
+
+/**
+ * Inverted token index of approved restaurants for AI search candidate generation.
+ *
+ * Name, cuisine, description and available dish names are folded once with
+ * {@link TextNormalizer} and split into tokens; each token maps to a bitset of restaurants.
+ * "Text contains term" is answered by OR-ing the postings of the tokens that contain each word
+ * of the term and AND-ing across words; multi-word terms are then verified against the stored
+ * folded text. A query touches the token vocabulary and a few bitsets instead of folding
+ * every restaurant and dish in the catalog.
+ *
+ * The index is built on startup, refreshed by ID after each committed profile or dish change
+ * and fully reloaded every 10 minutes.
+ */
+@Component
+public class RestaurantTokenIndex extends RebuildableIndex<Integer> {
+
+    private static final int AI_RESTAURANT_ID = 37;
+    private static final int MAX_CACHED_WORDS = 4096;
+
+    @Autowired
+    private RestaurantProfileRepository restaurantProfileRepository;
+
+    @Autowired
+    private DishRepository dishRepository;
+
+    private Map<Integer, Entry> entries = new HashMap<>();
+    private volatile Snapshot snapshot;
+
+    public RestaurantTokenIndex() {
+        super("Restaurant token index", "AI search will scan the catalog");
+    }
+
+    enum Field {
+        NAME, CUISINE, DESCRIPTION, DISH
+    }
+
+    /**
+     * Folded texts of one restaurant; averagePrice is NaN when unknown
+     */
+    record Entry(int restaurantId, String name, String cuisine, String description, double averagePrice,
+            List<String> dishes) {
+    }
+
+    /**
+     * Immutable index over dense ordinals (restaurant ids ascending)
+     */
+    static final class Snapshot {
+        private final int[] ids;
+        private final Entry[] entries;
+        private final Map<Field, Map<String, BitSet>> postings = new EnumMap<>(Field.class);
+        private final Map<Field, BitSet> present = new EnumMap<>(Field.class);
+        private final Map<String, BitSet> cuisines = new HashMap<>();
+        // "field:word" -> restaurants with a token containing word
+        private final Map<String, BitSet> wordCache = new ConcurrentHashMap<>();
+
+        Snapshot(Collection<Entry> all) {
+            entries = all.toArray(new Entry[0]);
+            Arrays.sort(entries, (a, b) -> Integer.compare(a.restaurantId(), b.restaurantId()));
+            ids = new int[entries.length];
+            for (Field field : Field.values()) {
+                postings.put(field, new HashMap<>());
+                present.put(field, new BitSet(entries.length));
+            }
+            for (int ordinal = 0; ordinal < entries.length; ordinal++) {
+                Entry entry = entries[ordinal];
+                ids[ordinal] = entry.restaurantId();
+                add(Field.NAME, entry.name(), ordinal);
+                add(Field.CUISINE, entry.cuisine(), ordinal);
+                add(Field.DESCRIPTION, entry.description(), ordinal);
+                for (String dish : entry.dishes()) {
+                    add(Field.DISH, dish, ordinal);
+                }
+                if (!entry.cuisine().isEmpty()) {
+                    cuisines.computeIfAbsent(entry.cuisine(), c -> new BitSet()).set(ordinal);
+                }
+            }
+        }
+
+        private void add(Field field, String text, int ordinal) {
+            if (text.isEmpty()) {
+                return;
+            }
+            present.get(field).set(ordinal);
+            Map<String, BitSet> fieldPostings = postings.get(field);
+            for (String token : text.split(" ")) {
+                fieldPostings.computeIfAbsent(token, t -> new BitSet()).set(ordinal);
+            }
+        }
+
+        /**
+         * Restaurants whose field contains the folded term (a substring, possibly spanning words)
+         */
+        BitSet containing(Field field, String term) {
+            if (term.isEmpty()) {
+                return (BitSet) present.get(field).clone();
+            }
+            String[] words = term.split(" ");
+            BitSet result = null;
+            for (String word : words) {
+                BitSet matches = withWord(field, word);
+                if (result == null) {
+                    result = matches;
+                } else {
+                    result.and(matches);
+                }
+                if (result.isEmpty()) {
+                    return result;
+                }
+            }
+            if (words.length > 1) {
+                for (int ordinal = result.nextSetBit(0); ordinal >= 0; ordinal = result.nextSetBit(ordinal + 1)) {
+                    if (!textContains(field, entries[ordinal], term)) {
+                        result.clear(ordinal);
+                    }
+                }
+            }
+            return result;
+        }
+
+        private BitSet withWord(Field field, String word) {
+            String key = field.name() + ':' + word;
+            BitSet cached = wordCache.get(key);
+            if (cached == null) {
+                cached = new BitSet(entries.length);
+                for (Map.Entry<String, BitSet> posting : postings.get(field).entrySet()) {
+                    if (posting.getKey().contains(word)) {
+                        cached.or(posting.getValue());
+                    }
+                }
+                if (wordCache.size() < MAX_CACHED_WORDS) {
+                    wordCache.put(key, cached);
+                }
+            }
+            return (BitSet) cached.clone();
+        }
+
+        private static boolean textContains(Field field, Entry entry, String term) {
+            return switch (field) {
+                case NAME -> entry.name().contains(term);
+                case CUISINE -> entry.cuisine().contains(term);
+                case DESCRIPTION -> entry.description().contains(term);
+                case DISH -> entry.dishes().stream().anyMatch(dish -> dish.contains(term));
+            };
+        }
+
+        /**
+         * Restaurants whose cuisine is contained in the folded term (e.g. cuisine "lau" in "lau thai")
+         */
+        BitSet cuisineWithin(String term) {
+            BitSet result = new BitSet(entries.length);
+            cuisines.forEach((cuisine, ordinals) -> {
+                if (term.contains(cuisine)) {
+                    result.or(ordinals);
+                }
+            });
+            return result;
+        }
+
+        BitSet all() {
+            BitSet result = new BitSet(entries.length);
+            result.set(0, entries.length);
+            return result;
+        }
+
+        List<Integer> toIds(BitSet ordinals) {
+            List<Integer> result = new ArrayList<>(ordinals.cardinality());
+            for (int ordinal = ordinals.nextSetBit(0); ordinal >= 0; ordinal = ordinals.nextSetBit(ordinal + 1)) {
+                result.add(ids[ordinal]);
+            }
+            return result;
+        }
+    }
+
+    // ==================== QUERIES ====================
+
+    @Override
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Restaurants with an available dish whose name contains any of the given dish names
+     * (ignoring case and diacritics), ids ascending
+     */
+    public List<Integer> findByDishNames(Collection<String> dishNames) {
+        Snapshot current = requireSnapshot();
+        BitSet result = new BitSet();
+        for (String dishName : dishNames) {
+            String term = TextNormalizer.fold(dishName);
+            if (!term.isEmpty()) {
+                result.or(current.containing(Field.DISH, term));
+            }
+        }
+        return current.toIds(result);
+    }
+
+    /**
+     * Restaurants whose cuisine contains or is contained in a keyword, or whose name or description
+     * contains a keyword, ids ascending
+     */
+    public List<Integer> findByKeywords(Collection<String> keywords) {
+        Snapshot current = requireSnapshot();
+        BitSet result = new BitSet();
+        for (String keyword : keywords) {
+            String term = TextNormalizer.fold(keyword);
+            if (term.isEmpty()) {
+                continue;
+            }
+            result.or(current.containing(Field.CUISINE, term));
+            result.or(current.cuisineWithin(term));
+            result.or(current.containing(Field.NAME, term));
+            result.or(current.containing(Field.DESCRIPTION, term));
+        }
+        return current.toIds(result);
+    }
+
+    /**
+     * Candidates for an AI search, ids ascending:
+     * <ul>
+     * <li>cuisine contains one of the cuisines (any cuisine when none are given);</li>
+     * <li>average price within [minPrice, maxPrice] when either bound is given;</li>
+     * <li>when there are query keywords: name or cuisine contains the whole query or one keyword.</li>
+     * </ul>
+     */
+    public List<Integer> findCandidates(Collection<String> cuisines, Double minPrice, Double maxPrice, String query,
+            Collection<String> queryKeywords) {
+        Snapshot current = requireSnapshot();
+        BitSet result = current.all();
+
+        if (cuisines != null && !cuisines.isEmpty()) {
+            BitSet byCuisine = new BitSet();
+            for (String cuisine : cuisines) {
+                byCuisine.or(current.containing(Field.CUISINE, TextNormalizer.fold(cuisine)));
+            }
+            result.and(byCuisine);
+        }
+
+        if (minPrice != null || maxPrice != null) {
+            for (int ordinal = result.nextSetBit(0); ordinal >= 0; ordinal = result.nextSetBit(ordinal + 1)) {
+                double price = current.entries[ordinal].averagePrice();
+                if (Double.isNaN(price) || (minPrice != null && price < minPrice)
+                        || (maxPrice != null && price > maxPrice)) {
+                    result.clear(ordinal);
+                }
+            }
+        }
+
+        if (queryKeywords != null && !queryKeywords.isEmpty() && !result.isEmpty()) {
+            BitSet byText = new BitSet();
+            boolean anyTerm = false;
+            List<String> terms = new ArrayList<>(queryKeywords);
+            terms.add(query);
+            for (String term : terms) {
+                String folded = TextNormalizer.fold(term);
+                if (!folded.isEmpty()) {
+                    anyTerm = true;
+                    byText.or(current.containing(Field.NAME, folded));
+                    byText.or(current.containing(Field.CUISINE, folded));
+                }
+            }
+            if (anyTerm) {
+                result.and(byText);
+            }
+        }
+        return current.toIds(result);
+    }
+
+    private Snapshot requireSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("Restaurant token index is not built yet");
+        }
+        return current;
+    }
+
+    // ==================== MAINTENANCE ====================
+
+    @Scheduled(fixedDelay = 600000, initialDelay = 600000)
+    public void reload() {
+        reloadQuietly();
+    }
+
+    @Override
+    protected Runnable loadAll() {
+        Map<Integer, Entry> fresh = toEntries(restaurantProfileRepository.findApprovedTokenRows(),
+                dishRepository.findSuggestionRowsOfApprovedRestaurants(DishStatus.AVAILABLE));
+        Snapshot built = new Snapshot(fresh.values());
+        return () -> {
+            entries = fresh;
+            snapshot = built;
+        };
+    }
+
+    @Override
+    protected int size() {
+        Snapshot current = snapshot;
+        return current != null ? current.entries.length : 0;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onRestaurantProfileChanged(RestaurantProfileChangedEvent event) {
+        refreshQuietly(event.getRestaurantId(), event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onDishChanged(DishChangedEvent event) {
+        refreshQuietly(event.getRestaurantId(), event);
+    }
+
+    /**
+     * Reload the given restaurants and their dishes: approved ones are (re)indexed, others dropped
+     */
+    @Override
+    protected Runnable load(Collection<Integer> restaurantIds) {
+        List<Object[]> approved = new ArrayList<>();
+        for (Object[] row : restaurantProfileRepository.findTokenRowsByIds(restaurantIds)) {
+            if (row[5] == RestaurantApprovalStatus.APPROVED && !Integer.valueOf(AI_RESTAURANT_ID).equals(row[0])) {
+                approved.add(row);
+            }
+        }
+        Map<Integer, Entry> changed = toEntries(approved, approved.isEmpty() ? List.of()
+                : dishRepository.findSuggestionRowsByRestaurantIds(restaurantIds, DishStatus.AVAILABLE));
+
+        return () -> {
+            Map<Integer, Entry> next = new HashMap<>(entries);
+            restaurantIds.forEach(next::remove);
+            next.putAll(changed);
+            entries = next;
+            snapshot = new Snapshot(next.values());
+        };
+    }
+
+    /**
+     * Entries from token rows ([id, name, cuisine, description, averagePrice, ...]) and dish rows
+     * ([restaurantId, dishName, ...])
+     */
+    private static Map<Integer, Entry> toEntries(List<Object[]> restaurantRows, List<Object[]> dishRows) {
+        Map<Integer, List<String>> dishes = new HashMap<>();
+        for (Object[] row : dishRows) {
+            String dish = TextNormalizer.fold((String) row[1]);
+            if (!dish.isEmpty()) {
+                dishes.computeIfAbsent((Integer) row[0], id -> new ArrayList<>()).add(dish);
+            }
+        }
+
+        Map<Integer, Entry> result = new HashMap<>();
+        for (Object[] row : restaurantRows) {
+            Integer restaurantId = (Integer) row[0];
+            BigDecimal averagePrice = (BigDecimal) row[4];
+            result.put(restaurantId, new Entry(
+                    restaurantId,
+                    TextNormalizer.fold((String) row[1]),
+                    TextNormalizer.fold((String) row[2]),
+                    TextNormalizer.fold((String) row[3]),
+                    averagePrice != null ? averagePrice.doubleValue() : Double.NaN,
+                    List.copyOf(dishes.getOrDefault(restaurantId, List.of()))));
+        }
+        return result;
+    }
+}
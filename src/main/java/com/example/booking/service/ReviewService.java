@@ -8,6 +8,8 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -60,9 +62,11 @@ public class ReviewService {
         
         Review review;
         boolean isNewReview = false;
+        int oldRating = 0;
         if (existingReview.isPresent()) {
             // Cập nhật review hiện tại
             review = existingReview.get();
+            oldRating = review.getRating() != null ? review.getRating() : 0;
             review.setRating(form.getRating());
             review.setComment(form.getComment());
             System.out.println("✅ Updating existing review: " + review.getReviewId());
@@ -76,6 +80,8 @@ public class ReviewService {
         Review savedReview = reviewRepository.save(review);
         System.out.println("✅ Review saved with ID: " + savedReview.getReviewId());
         
+        updateRatingSummary(restaurant.getRestaurantId(), oldRating, form.getRating());
+        
         // Send notification for new reviews
         if (isNewReview) {
             try {
@@ -109,10 +115,54 @@ public class ReviewService {
             throw new IllegalArgumentException("Review cannot be deleted after 30 days");
         }
         
-        reviewRepository.delete(review);
+        removeReview(review);
         System.out.println("✅ Review deleted successfully");
     }
     
+    /**
+     * Gỡ review (kể cả theo quyết định kiểm duyệt, không kiểm tra chủ sở hữu / thời hạn)
+     * và trừ nó khỏi rating summary của restaurant
+     */
+    public void removeReview(Review review) {
+        Integer restaurantId = review.getRestaurant() != null ? review.getRestaurant().getRestaurantId() : null;
+        int oldRating = review.getRating() != null ? review.getRating() : 0;
+        reviewRepository.delete(review);
+        updateRatingSummary(restaurantId, oldRating, 0);
+    }
+    
+    /**
+     * Cập nhật rating summary của restaurant trong cùng transaction với review.
+     * oldRating/newRating = 0 khi review chưa tồn tại / đã bị xóa.
+     */
+    private void updateRatingSummary(Integer restaurantId, int oldRating, Integer newRating) {
+        int newValue = newRating != null ? newRating : 0;
+        if (restaurantId == null || oldRating == newValue) {
+            return;
+        }
+        int countDelta = (newValue > 0 ? 1 : 0) - (oldRating > 0 ? 1 : 0);
+        int updated = restaurantProfileRepository.applyRatingChange(restaurantId, countDelta, oldRating, newValue);
+        if (updated == 0) {
+            // Summary chưa được tính cho restaurant này: tính lại từ các review (đã flush)
+            reviewRepository.flush();
+            restaurantProfileRepository.recomputeRatingSummary(restaurantId);
+        }
+    }
+    
+    /**
+     * Tính rating summary cho các restaurant chưa có (dữ liệu cũ) khi ứng dụng khởi động
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillRatingSummaries() {
+        try {
+            int updated = restaurantProfileRepository.backfillRatingSummaries();
+            if (updated > 0) {
+                System.out.println("✅ Rating summary computed for " + updated + " restaurants");
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Failed to backfill rating summaries: " + e.getMessage());
+        }
+    }
+    
     /**
      * Lấy review theo ID
      */
@@ -216,6 +266,9 @@ public class ReviewService {
     public double getAverageRatingByRestaurant(Integer restaurantId) {
         RestaurantProfile restaurant = restaurantProfileRepository.findById(restaurantId)
                 .orElseThrow(() -> new IllegalArgumentException("Restaurant not found"));
+        if (restaurant.hasRatingSummary()) {
+            return restaurant.getAverageRating();
+        }
         
         Double avgRating = reviewRepository.getAverageRatingByRestaurant(restaurant);
         return avgRating != null ? avgRating : 0.0;
@@ -228,6 +281,9 @@ public class ReviewService {
     public long getReviewCountByRestaurant(Integer restaurantId) {
         RestaurantProfile restaurant = restaurantProfileRepository.findById(restaurantId)
                 .orElseThrow(() -> new IllegalArgumentException("Restaurant not found"));
+        if (restaurant.hasRatingSummary()) {
+            return restaurant.getReviewCount();
+        }
         
         return reviewRepository.countByRestaurant(restaurant);
     }
@@ -240,6 +296,16 @@ public class ReviewService {
         RestaurantProfile restaurant = restaurantProfileRepository.findById(restaurantId)
                 .orElseThrow(() -> new IllegalArgumentException("Restaurant not found"));
         
+        if (restaurant.hasRatingSummary()) {
+            Map<Integer, Integer> ratingDistribution = new HashMap<>();
+            for (int stars = 1; stars <= 5; stars++) {
+                if (restaurant.getRatingCount(stars) > 0) {
+                    ratingDistribution.put(stars, restaurant.getRatingCount(stars));
+                }
+            }
+            return new ReviewStatisticsDto(restaurant.getAverageRating(), restaurant.getReviewCount(), ratingDistribution);
+        }
+        
         // Tính rating trung bình
         double averageRating = getAverageRatingByRestaurant(restaurantId);
         
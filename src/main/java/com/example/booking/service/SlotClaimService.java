@@ -0,0 +1,298 @@
+package com.example.booking.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.booking.exception.BookingConflictException;
+
+/**
+ * In-process claim layer for table slots while bookings are being created.
+ *
+ * A claim puts a short-lived hold on (table, booking time). Holds are stored per
+ * (tableId, time bucket) where a bucket is as wide as the conflict reach of a booking
+ * (buffer before + buffer after), so every hold that can conflict with a request lies in
+ * at most three neighbouring buckets. Those buckets are guarded by a fixed array of
+ * striped locks: requests for other tables (or far away times) use other stripes and
+ * never wait on each other, and the locks are only held for the in-memory check itself,
+ * never across database work. A request that cannot get its stripes quickly, or that
+ * overlaps a live hold of another customer, fails immediately with a BookingConflictException.
+ *
+ * A hold is dropped when the creating transaction rolls back and otherwise expires after
+ * the hold time, which keeps the slot for the winner while they go on to payment.
+ */
+@Service
+public class SlotClaimService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotClaimService.class);
+
+    private static final int STRIPES = 64;
+    private static final long LOCK_WAIT_MILLIS = 200;
+
+    static final long CONFLICT_REACH_MINUTES = BookingConflictService.BUFFER_BEFORE_MINUTES
+            + BookingConflictService.BUFFER_AFTER_MINUTES;
+    private static final long BUCKET_MINUTES = CONFLICT_REACH_MINUTES;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    /** Holds per slot; values are immutable lists replaced under the slot's stripe lock */
+    private final Map<SlotKey, List<Hold>> holds = new ConcurrentHashMap<>();
+
+    @Value("${booking.slot-hold.seconds:120}")
+    private long holdSeconds = 120;
+
+    public SlotClaimService() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    record SlotKey(Integer tableId, long bucket) {
+    }
+
+    private record Hold(UUID holder, Integer tableId, long bookingMinute, long expiresAtMillis) {
+        boolean isLive(long nowMillis) {
+            return expiresAtMillis > nowMillis;
+        }
+    }
+
+    /**
+     * A held table slot visible to availability searches
+     */
+    public record HeldSlot(Integer tableId, LocalDateTime bookingTime) {
+    }
+
+    /**
+     * Holds taken by one successful claim
+     */
+    public final class Claim {
+        private final List<Hold> claimed;
+
+        private Claim(List<Hold> claimed) {
+            this.claimed = claimed;
+        }
+
+        /** Drop the holds now instead of waiting for them to expire */
+        public void release() {
+            for (Hold hold : claimed) {
+                removeHold(hold);
+            }
+        }
+    }
+
+    /**
+     * Claim the given tables at the booking time for the holder.
+     *
+     * @throws BookingConflictException TABLE_OCCUPIED when another customer holds a conflicting slot
+     *                                  or the slot is busy being claimed
+     */
+    public Claim claim(Collection<Integer> tableIds, LocalDateTime bookingTime, UUID holder) {
+        TreeSet<Integer> tables = new TreeSet<>();
+        for (Integer tableId : tableIds) {
+            if (tableId != null) {
+                tables.add(tableId);
+            }
+        }
+        if (tables.isEmpty() || bookingTime == null) {
+            return new Claim(List.of());
+        }
+
+        long bookingMinute = toMinute(bookingTime);
+        long firstBucket = Math.floorDiv(bookingMinute - CONFLICT_REACH_MINUTES, BUCKET_MINUTES);
+        long lastBucket = Math.floorDiv(bookingMinute + CONFLICT_REACH_MINUTES, BUCKET_MINUTES);
+
+        TreeSet<Integer> stripeIndexes = new TreeSet<>();
+        for (Integer tableId : tables) {
+            for (long bucket = firstBucket; bucket <= lastBucket; bucket++) {
+                stripeIndexes.add(stripeOf(new SlotKey(tableId, bucket)));
+            }
+        }
+
+        List<ReentrantLock> locked = new ArrayList<>();
+        try {
+            // Stripes are always taken in index order, so two claims can never deadlock
+            for (Integer index : stripeIndexes) {
+                ReentrantLock lock = stripes[index];
+                if (!lock.tryLock(LOCK_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    throw busy(bookingTime, tables.first());
+                }
+                locked.add(lock);
+            }
+
+            long now = System.currentTimeMillis();
+            for (Integer tableId : tables) {
+                for (long bucket = firstBucket; bucket <= lastBucket; bucket++) {
+                    for (Hold hold : liveHolds(new SlotKey(tableId, bucket), now)) {
+                        if (!Objects.equals(hold.holder(), holder)
+                                && Math.abs(hold.bookingMinute() - bookingMinute) <= CONFLICT_REACH_MINUTES) {
+                            throw held(bookingTime, tableId);
+                        }
+                    }
+                }
+            }
+
+            long expiresAt = now + TimeUnit.SECONDS.toMillis(holdSeconds);
+            List<Hold> claimed = new ArrayList<>();
+            for (Integer tableId : tables) {
+                Hold hold = new Hold(holder, tableId, bookingMinute, expiresAt);
+                SlotKey key = new SlotKey(tableId, Math.floorDiv(bookingMinute, BUCKET_MINUTES));
+                List<Hold> updated = new ArrayList<>(holds.getOrDefault(key, List.of()));
+                updated.add(hold);
+                holds.put(key, List.copyOf(updated));
+                claimed.add(hold);
+            }
+
+            Claim claim = new Claim(claimed);
+            releaseOnRollback(claim);
+            return claim;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw busy(bookingTime, tables.first());
+        } finally {
+            for (int i = locked.size() - 1; i >= 0; i--) {
+                locked.get(i).unlock();
+            }
+        }
+    }
+
+    /**
+     * Live holds of the tables with booking time in [from, to]; read without locking from the snapshots
+     */
+    public List<HeldSlot> findHeldSlots(Collection<Integer> tableIds, LocalDateTime from, LocalDateTime to) {
+        List<HeldSlot> result = new ArrayList<>();
+        if (holds.isEmpty()) {
+            return result;
+        }
+        long fromMinute = toMinute(from);
+        long toMinute = toMinute(to);
+        long now = System.currentTimeMillis();
+        for (Integer tableId : tableIds) {
+            for (long bucket = Math.floorDiv(fromMinute, BUCKET_MINUTES); bucket <= Math.floorDiv(toMinute,
+                    BUCKET_MINUTES); bucket++) {
+                for (Hold hold : holds.getOrDefault(new SlotKey(tableId, bucket), List.of())) {
+                    if (hold.isLive(now) && hold.bookingMinute() >= fromMinute && hold.bookingMinute() <= toMinute) {
+                        result.add(new HeldSlot(tableId, fromMinute(hold.bookingMinute())));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drop expired holds of slots nobody has claimed again
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        int purged = 0;
+        for (SlotKey key : new ArrayList<>(holds.keySet())) {
+            ReentrantLock lock = stripes[stripeOf(key)];
+            if (!lock.tryLock()) {
+                continue;
+            }
+            try {
+                int before = holds.getOrDefault(key, List.of()).size();
+                purged += before - liveHolds(key, now).size();
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (purged > 0) {
+            logger.debug("Purged {} expired slot holds", purged);
+        }
+    }
+
+    int heldSlotCount() {
+        return holds.values().stream().mapToInt(List::size).sum();
+    }
+
+    /** Must be called with the key's stripe held; drops expired holds of the slot */
+    private List<Hold> liveHolds(SlotKey key, long now) {
+        List<Hold> current = holds.get(key);
+        if (current == null) {
+            return List.of();
+        }
+        List<Hold> live = current.stream().filter(hold -> hold.isLive(now)).toList();
+        if (live.isEmpty()) {
+            holds.remove(key);
+        } else if (live.size() != current.size()) {
+            holds.put(key, live);
+        }
+        return live;
+    }
+
+    private void removeHold(Hold hold) {
+        SlotKey key = new SlotKey(hold.tableId(), Math.floorDiv(hold.bookingMinute(), BUCKET_MINUTES));
+        ReentrantLock lock = stripes[stripeOf(key)];
+        lock.lock();
+        try {
+            List<Hold> current = holds.get(key);
+            if (current == null) {
+                return;
+            }
+            List<Hold> remaining = current.stream().filter(existing -> existing != hold).toList();
+            if (remaining.isEmpty()) {
+                holds.remove(key);
+            } else {
+                holds.put(key, remaining);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void releaseOnRollback(Claim claim) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    claim.release();
+                }
+            }
+        });
+    }
+
+    private int stripeOf(SlotKey key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    private static long toMinute(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static LocalDateTime fromMinute(long minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC);
+    }
+
+    private BookingConflictException held(LocalDateTime bookingTime, Integer tableId) {
+        return new BookingConflictException(BookingConflictException.ConflictType.TABLE_OCCUPIED,
+                "Bàn đang được giữ cho một yêu cầu đặt bàn khác trong khung giờ này", bookingTime, tableId);
+    }
+
+    private BookingConflictException busy(LocalDateTime bookingTime, Integer tableId) {
+        return new BookingConflictException(BookingConflictException.ConflictType.TABLE_OCCUPIED,
+                "Bàn đang được nhiều khách đặt cùng lúc, vui lòng chọn khung giờ khác", bookingTime, tableId);
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.booking.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.booking.common.enums.TableStatus;
+import com.example.booking.domain.RestaurantProfile;
+import com.example.booking.domain.RestaurantTable;
+import com.example.booking.repository.RestaurantProfileRepository;
+import com.example.booking.repository.RestaurantTableRepository;
+
+/**
+ * Suggests the nearest bookable start times of a day after a booking conflict.
+ *
+ * The booked windows of the day are loaded with one query and swept once in time
+ * order: every CONFIRMED/COMPLETED booking at B blocks its table for requests in
+ * [B - (buffer before + buffer after), B + (buffer before + buffer after)], the same
+ * rule BookingConflictService applies. Candidate start times are visited in the
+ * same pass, so the cost is O((bookings + slots) log) for the whole day.
+ */
+@Service
+@Transactional(readOnly = true)
+public class SlotSuggestionService {
+
+    public static final int SLOT_MINUTES = 30;
+    public static final int DEFAULT_LIMIT = 5;
+    private static final int MAX_LIMIT = 20;
+
+    private static final int CONFLICT_REACH_MINUTES = BookingConflictService.BUFFER_BEFORE_MINUTES
+            + BookingConflictService.BUFFER_AFTER_MINUTES;
+
+    @Autowired
+    private RestaurantProfileRepository restaurantProfileRepository;
+
+    @Autowired
+    private RestaurantTableRepository restaurantTableRepository;
+
+    @Autowired
+    private TableAvailabilityService tableAvailabilityService;
+
+    @Autowired(required = false)
+    private OpeningScheduleService openingScheduleService;
+
+    @Autowired(required = false)
+    private SlotClaimService slotClaimService;
+
+    /**
+     * A bookable start time with the number of suitable free tables and the best fitting one
+     */
+    public record SuggestedSlot(LocalDateTime bookingTime, int freeTables, Integer tableId, String tableName) {
+    }
+
+    /**
+     * N bookable start times of the day closest to the preferred time, in chronological order.
+     *
+     * @param preferredTime time the customer asked for; null means "as early as possible"
+     */
+    public List<SuggestedSlot> suggestSlots(Integer restaurantId, LocalDate date, int guests,
+            LocalDateTime preferredTime, int limit) {
+        if (guests < 1) {
+            throw new IllegalArgumentException("Số khách phải lớn hơn 0");
+        }
+        int maxResults = Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime earliest = now.plusMinutes(BookingConflictService.MIN_BOOKING_ADVANCE_MINUTES);
+        LocalDateTime latest = now.plusDays(BookingConflictService.MAX_BOOKING_ADVANCE_DAYS);
+        if (date.isBefore(earliest.toLocalDate()) || date.isAfter(latest.toLocalDate())) {
+            return new ArrayList<>();
+        }
+
+        RestaurantProfile restaurant = restaurantProfileRepository.findById(restaurantId)
+                .orElseThrow(() -> new IllegalArgumentException("Restaurant not found"));
+        OpeningSchedule schedule = openingScheduleService != null
+                ? openingScheduleService.getScheduleOrDefault(restaurant)
+                : Optional.ofNullable(OpeningSchedule.parse(restaurant.getOpeningHours()))
+                        .orElse(OpeningScheduleService.DEFAULT_SCHEDULE);
+
+        // Smallest suitable table first, so the suggested table is the best fit
+        List<RestaurantTable> tables = new ArrayList<>();
+        for (RestaurantTable table : restaurantTableRepository.findByRestaurantRestaurantId(restaurantId)) {
+            if (table.getCapacity() != null && table.getCapacity() >= guests
+                    && table.getStatus() != TableStatus.MAINTENANCE) {
+                tables.add(table);
+            }
+        }
+        if (tables.isEmpty()) {
+            return new ArrayList<>();
+        }
+        tables.sort(Comparator.comparing(RestaurantTable::getCapacity).thenComparing(RestaurantTable::getTableId));
+
+        TableAvailabilityService.BookingWindows windows = tableAvailabilityService.getDayAvailability(restaurantId,
+                date);
+        long[] events = buildEvents(tables, windows, date.atStartOfDay());
+
+        List<SuggestedSlot> candidates = sweep(tables, events, date, schedule, earliest, latest);
+        if (candidates.size() > maxResults) {
+            LocalDateTime target = preferredTime != null ? preferredTime : date.atStartOfDay();
+            candidates.sort(Comparator.comparingLong(
+                    (SuggestedSlot slot) -> Math.abs(Duration.between(target, slot.bookingTime()).getSeconds()))
+                    .thenComparing(SuggestedSlot::bookingTime));
+            candidates = new ArrayList<>(candidates.subList(0, maxResults));
+            candidates.sort(Comparator.comparing(SuggestedSlot::bookingTime));
+        }
+        return candidates;
+    }
+
+    /**
+     * Encode block/unblock events as sortable longs: (second offset from day start) << 32 | kind << 16 | table index.
+     * Kind 0 = unblock, 1 = block, so at equal times a table is released before it is taken again.
+     */
+    private long[] buildEvents(List<RestaurantTable> tables, TableAvailabilityService.BookingWindows windows,
+            LocalDateTime dayStart) {
+        List<Long> events = new ArrayList<>();
+        for (int index = 0; index < tables.size(); index++) {
+            for (TableAvailabilityService.BookedWindow window : windows.getBookings(tables.get(index).getTableId())) {
+                if (!TableAvailabilityService.CONFLICT_STATUSES.contains(window.status())) {
+                    continue;
+                }
+                long booked = Duration.between(dayStart, window.bookingTime()).getSeconds();
+                long blockFrom = booked - CONFLICT_REACH_MINUTES * 60L;
+                // Inclusive end: released one second after the last conflicting request time
+                long blockUntil = booked + CONFLICT_REACH_MINUTES * 60L + 1;
+                events.add(encode(blockFrom, 1, index));
+                events.add(encode(blockUntil, 0, index));
+            }
+        }
+        // Slots held by bookings still being created block their table like confirmed bookings
+        if (slotClaimService != null) {
+            Map<Integer, Integer> indexByTable = new HashMap<>();
+            for (int index = 0; index < tables.size(); index++) {
+                indexByTable.put(tables.get(index).getTableId(), index);
+            }
+            for (SlotClaimService.HeldSlot held : slotClaimService.findHeldSlots(indexByTable.keySet(),
+                    dayStart.minusMinutes(CONFLICT_REACH_MINUTES),
+                    dayStart.plusDays(1).plusMinutes(CONFLICT_REACH_MINUTES))) {
+                long booked = Duration.between(dayStart, held.bookingTime()).getSeconds();
+                int index = indexByTable.get(held.tableId());
+                events.add(encode(booked - CONFLICT_REACH_MINUTES * 60L, 1, index));
+                events.add(encode(booked + CONFLICT_REACH_MINUTES * 60L + 1, 0, index));
+            }
+        }
+        long[] sorted = new long[events.size()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = events.get(i);
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private long encode(long second, int kind, int tableIndex) {
+        // Offsets are within a few days of the day start, so they fit in the upper 32 bits
+        return (second << 32) | ((long) kind << 16) | tableIndex;
+    }
+
+    private List<SuggestedSlot> sweep(List<RestaurantTable> tables, long[] events, LocalDate date,
+            OpeningSchedule schedule, LocalDateTime earliest, LocalDateTime latest) {
+        int[] activeBlocks = new int[tables.size()];
+        int blockedTables = 0;
+        int next = 0;
+
+        List<SuggestedSlot> slots = new ArrayList<>();
+        for (int minute = 0; minute < 24 * 60; minute += SLOT_MINUTES) {
+            long candidateSecond = minute * 60L;
+            while (next < events.length && (events[next] >> 32) <= candidateSecond) {
+                int tableIndex = (int) (events[next] & 0xFFFF);
+                if (((events[next] >> 16) & 1) == 1) {
+                    if (activeBlocks[tableIndex]++ == 0) {
+                        blockedTables++;
+                    }
+                } else if (--activeBlocks[tableIndex] == 0) {
+                    blockedTables--;
+                }
+                next++;
+            }
+
+            LocalDateTime candidate = date.atStartOfDay().plusMinutes(minute);
+            if (blockedTables == tables.size() || candidate.isBefore(earliest) || candidate.isAfter(latest)
+                    || !schedule.isOpenAt(date, minute)) {
+                continue;
+            }
+            int bestFit = 0;
+            while (activeBlocks[bestFit] > 0) {
+                bestFit++;
+            }
+            RestaurantTable table = tables.get(bestFit);
+            slots.add(new SuggestedSlot(candidate, tables.size() - blockedTables, table.getTableId(),
+                    table.getTableName()));
+        }
+        return slots;
+    }
+}
@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,6 +32,15 @@ public class SmartWaitlistService {
     @Autowired
     private RestaurantTableRepository restaurantTableRepository;
     
+    @Autowired(required = false)
+    private TableAvailabilityService tableAvailabilityService;
+    
+    @Autowired(required = false)
+    private RestaurantAvailabilityService restaurantAvailabilityService;
+    
+    @Autowired(required = false)
+    private TableCombinationService tableCombinationService;
+    
     private static final int BUFFER_BEFORE_MINUTES = 90; // Buffer trước booking time: 1.5h = 90 phút
     private static final int BUFFER_AFTER_MINUTES = 120; // Buffer sau booking time: 2h = 120 phút
     private static final int BOOKING_DURATION_HOURS = 2; // Thời gian booking mặc định: 2 giờ
@@ -72,23 +82,90 @@ public class SmartWaitlistService {
         // Find all tables with capacity >= guestCount
         List<RestaurantTable> suitableTables = restaurantTableRepository.findByRestaurantAndCapacityGreaterThanEqual(restaurantId, guestCount);
         
+        // Fast path: the precomputed hourly cell says no table is blocked at this exact hour.
+        // The grid is refreshed asynchronously, so the hint is confirmed against the booking
+        // table for one suitable table before it is trusted.
+        if (!suitableTables.isEmpty() && isHourUnreserved(restaurantId, bookingTime)
+                && findTableConflicts(suitableTables.get(0).getTableId(), bookingTime).isEmpty()) {
+            return buildSuccessResponse();
+        }
+        
+        Function<Integer, List<BookingConflict>> conflictFinder = conflictFinderFor(restaurantId, bookingTime);
+        
         // Check which ones are available
         List<RestaurantTable> availableTables = suitableTables.stream()
-            .filter(table -> !hasConflicts(table.getTableId(), bookingTime))
+            .filter(table -> conflictFinder.apply(table.getTableId()).isEmpty())
             .collect(Collectors.toList());
             
         if (availableTables.isEmpty()) {
+            // Large party: several free tables of one group may seat it together
+            AvailabilityCheckResponse combined = buildCombinationResponse(restaurantId, bookingTime, guestCount);
+            if (combined != null) {
+                return combined;
+            }
+            
             // Find smaller tables that could work
             List<RestaurantTable> allTables = restaurantTableRepository.findByRestaurantRestaurantId(restaurantId);
             List<RestaurantTable> smallerTables = allTables.stream()
                 .filter(table -> table.getCapacity() < guestCount)
                 .collect(Collectors.toList());
-            return buildNoAvailableTablesResponse(suitableTables, smallerTables, bookingTime, guestCount);
+            return buildNoAvailableTablesResponse(suitableTables, smallerTables, bookingTime, guestCount, conflictFinder);
         }
         
         return buildSuccessResponse();
     }
     
+    /**
+     * Success response carrying the best table combination, or null when no combination seats the party
+     */
+    private AvailabilityCheckResponse buildCombinationResponse(Integer restaurantId, LocalDateTime bookingTime, Integer guestCount) {
+        if (tableCombinationService == null) {
+            return null;
+        }
+        return tableCombinationService.findBestCombination(restaurantId, bookingTime, guestCount)
+                .map(combination -> {
+                    AvailabilityCheckResponse response = buildSuccessResponse();
+                    response.setTableCombination(new AvailabilityCheckResponse.TableCombination(
+                            combination.tableIds(), combination.tableNames(), combination.capacity()));
+                    return response;
+                })
+                .orElse(null);
+    }
+    
+    /**
+     * Whether the availability grid has a cell for this exact hour where every table is free
+     */
+    private boolean isHourUnreserved(Integer restaurantId, LocalDateTime bookingTime) {
+        if (restaurantAvailabilityService == null || bookingTime.getMinute() != 0 || bookingTime.getSecond() != 0) {
+            return false;
+        }
+        return restaurantAvailabilityService.getCell(restaurantId, bookingTime)
+                .map(cell -> cell.getReservedTables() == 0 && cell.getAvailableTables().equals(cell.getTotalTables()))
+                .orElse(false);
+    }
+    
+    /**
+     * Conflict lookup for every table of a restaurant at one booking time.
+     * Uses the bulk availability engine (one query for all tables) when available,
+     * otherwise falls back to one query per table.
+     */
+    private Function<Integer, List<BookingConflict>> conflictFinderFor(Integer restaurantId, LocalDateTime bookingTime) {
+        if (tableAvailabilityService == null) {
+            return tableId -> findTableConflicts(tableId, bookingTime);
+        }
+        
+        TableAvailabilityService.BookingWindows availability = tableAvailabilityService
+                .getDayAvailability(restaurantId, bookingTime.toLocalDate());
+        return tableId -> availability.findConflicts(tableId, bookingTime).stream()
+                .map(window -> new BookingConflict(
+                        window.bookingId(),
+                        window.bookingTime(),
+                        window.bookingTime().plusHours(BOOKING_DURATION_HOURS),
+                        window.numberOfGuests(),
+                        window.status().toString()))
+                .collect(Collectors.toList());
+    }
+    
     /**
      * Find conflicts for a specific table in buffer time
      * Checks both CONFIRMED and COMPLETED bookings
@@ -175,13 +252,6 @@ public class SmartWaitlistService {
         return actualConflicts;
     }
     
-    /**
-     * Check if table has conflicts
-     */
-    private boolean hasConflicts(Integer tableId, LocalDateTime bookingTime) {
-        return !findTableConflicts(tableId, bookingTime).isEmpty();
-    }
-    
     /**
      * Build response for specific table conflicts
      */
@@ -275,14 +345,15 @@ public class SmartWaitlistService {
     /**
      * Build response when no tables are available
      */
-    private AvailabilityCheckResponse buildNoAvailableTablesResponse(List<RestaurantTable> suitableTables, List<RestaurantTable> smallerTables, LocalDateTime bookingTime, Integer guestCount) {
+    private AvailabilityCheckResponse buildNoAvailableTablesResponse(List<RestaurantTable> suitableTables, List<RestaurantTable> smallerTables, LocalDateTime bookingTime, Integer guestCount,
+            Function<Integer, List<BookingConflict>> conflictFinder) {
         AvailabilityCheckResponse response = new AvailabilityCheckResponse(true, "NO_AVAILABLE_TABLES");
         
         // Find the latest booking end time among suitable tables
         // Note: getEndTime() returns booking end time (bookingTime + duration), not
         // buffer end time
         LocalDateTime latestBookingEndTime = suitableTables.stream()
-            .map(table -> findTableConflicts(table.getTableId(), bookingTime))
+            .map(table -> conflictFinder.apply(table.getTableId()))
             .flatMap(List::stream)
                 .map(BookingConflict::getEndTime) // This is booking end time (bookingTime + duration)
             .max(LocalDateTime::compareTo)
@@ -296,7 +367,7 @@ public class SmartWaitlistService {
         String reason = "Tất cả các bàn phù hợp đã được đặt";
         if (!suitableTables.isEmpty()) {
             List<BookingConflict> allConflicts = suitableTables.stream()
-                    .map(table -> findTableConflicts(table.getTableId(), bookingTime))
+                    .map(table -> conflictFinder.apply(table.getTableId()))
                     .flatMap(List::stream)
                     .collect(Collectors.toList());
 
@@ -330,7 +401,7 @@ public class SmartWaitlistService {
         
         // Find alternative tables (smaller tables that could work)
         List<AlternativeTable> alternatives = smallerTables.stream()
-            .filter(table -> !hasConflicts(table.getTableId(), bookingTime))
+            .filter(table -> conflictFinder.apply(table.getTableId()).isEmpty())
             .map(table -> new AlternativeTable(
                 table.getTableId(),
                 table.getTableName(),
@@ -366,9 +437,11 @@ public class SmartWaitlistService {
         System.out.println("   Total tables: " + allTables.size());
         System.out.println("   Booking time: " + bookingTime);
         
+        Function<Integer, List<BookingConflict>> conflictFinder = conflictFinderFor(restaurantId, bookingTime);
+        
         return allTables.stream()
             .map(table -> {
-                boolean hasConflicts = hasConflicts(table.getTableId(), bookingTime);
+                boolean hasConflicts = !conflictFinder.apply(table.getTableId()).isEmpty();
                 System.out.println("   Table " + table.getTableId() + " (" + table.getTableName() + "): " + 
                     (hasConflicts ? "HAS CONFLICTS" : "AVAILABLE"));
                 
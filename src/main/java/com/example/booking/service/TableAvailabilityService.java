@@ -0,0 +1,173 @@
+package com.example.booking.service;
+
+import static com.example.booking.service.BookingConflictService.BUFFER_AFTER_MINUTES;
+import static com.example.booking.service.BookingConflictService.BUFFER_BEFORE_MINUTES;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.booking.common.enums.BookingStatus;
+import com.example.booking.repository.BookingTableRepository;
+
+/**
+ * Bulk availability engine: loads the booked windows of every table of a
+ * restaurant with a single set-based query instead of one query per table.
+ *
+ * The returned {@link BookingWindows} answers per-table questions in
+ * memory, so a caller checking N tables pays one round trip instead of N.
+ * Buffers come from {@link BookingConflictService} so both agree on conflicts.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TableAvailabilityService {
+
+    /**
+     * Bookings that may block a table. PENDING is kept so that callers using the
+     * legacy "PENDING/CONFIRMED in ±2h" rule can be answered from the same data.
+     */
+    public static final List<BookingStatus> BLOCKING_STATUSES = List.of(BookingStatus.PENDING,
+            BookingStatus.CONFIRMED, BookingStatus.COMPLETED);
+
+    /**
+     * Statuses that count as conflicts for the buffer overlap rule
+     * (same as BookingConflictService / SmartWaitlistService)
+     */
+    public static final List<BookingStatus> CONFLICT_STATUSES = List.of(BookingStatus.CONFIRMED,
+            BookingStatus.COMPLETED);
+
+    @Autowired
+    private BookingTableRepository bookingTableRepository;
+
+    /**
+     * Booked windows of all tables of a restaurant for a whole day.
+     * The range is widened by the buffers so that any request time on that day
+     * can be checked against bookings made late the day before or early the next day.
+     */
+    public BookingWindows getDayAvailability(Integer restaurantId, LocalDate date) {
+        LocalDateTime from = date.atStartOfDay().minusMinutes(BUFFER_BEFORE_MINUTES + BUFFER_AFTER_MINUTES);
+        LocalDateTime to = date.plusDays(1).atStartOfDay().plusMinutes(BUFFER_BEFORE_MINUTES + BUFFER_AFTER_MINUTES);
+        return getAvailability(restaurantId, from, to);
+    }
+
+    /**
+     * Booked windows of all tables of a restaurant whose booking time is within [from, to]
+     */
+    public BookingWindows getAvailability(Integer restaurantId, LocalDateTime from, LocalDateTime to) {
+        List<Object[]> rows = bookingTableRepository.findRestaurantBookingWindows(restaurantId, BLOCKING_STATUSES,
+                from, to);
+
+        Map<Integer, List<BookedWindow>> byTable = new HashMap<>();
+        for (Object[] row : rows) {
+            BookedWindow window = new BookedWindow(
+                    (Integer) row[0],
+                    (Integer) row[1],
+                    (LocalDateTime) row[2],
+                    (Integer) row[3],
+                    (BookingStatus) row[4]);
+            byTable.computeIfAbsent(window.tableId(), id -> new ArrayList<>()).add(window);
+        }
+        return new BookingWindows(restaurantId, from, to, byTable);
+    }
+
+    /**
+     * One booking placed on one table
+     */
+    public record BookedWindow(Integer tableId, Integer bookingId, LocalDateTime bookingTime,
+            Integer numberOfGuests, BookingStatus status) {
+
+        /** Start of the blocked range (booking time - 1.5h) */
+        public LocalDateTime blockedFrom() {
+            return bookingTime.minusMinutes(BUFFER_BEFORE_MINUTES);
+        }
+
+        /** End of the blocked range (booking time + 2h) */
+        public LocalDateTime blockedUntil() {
+            return bookingTime.plusMinutes(BUFFER_AFTER_MINUTES);
+        }
+    }
+
+    /**
+     * Booked windows of a restaurant, grouped by table and ordered by booking time
+     */
+    public static final class BookingWindows {
+
+        private final Integer restaurantId;
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final Map<Integer, List<BookedWindow>> byTable;
+
+        BookingWindows(Integer restaurantId, LocalDateTime from, LocalDateTime to,
+                Map<Integer, List<BookedWindow>> byTable) {
+            this.restaurantId = restaurantId;
+            this.from = from;
+            this.to = to;
+            this.byTable = byTable;
+        }
+
+        public Integer getRestaurantId() {
+            return restaurantId;
+        }
+
+        public LocalDateTime getFrom() {
+            return from;
+        }
+
+        public LocalDateTime getTo() {
+            return to;
+        }
+
+        /**
+         * All loaded bookings of a table (PENDING, CONFIRMED and COMPLETED)
+         */
+        public List<BookedWindow> getBookings(Integer tableId) {
+            return byTable.getOrDefault(tableId, List.of());
+        }
+
+        /**
+         * Whether the table has a booking with one of the statuses and a booking time within [start, end]
+         */
+        public boolean hasBooking(Integer tableId, Collection<BookingStatus> statuses, LocalDateTime start,
+                LocalDateTime end) {
+            for (BookedWindow window : getBookings(tableId)) {
+                if (statuses.contains(window.status())
+                        && !window.bookingTime().isBefore(start)
+                        && !window.bookingTime().isAfter(end)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * CONFIRMED/COMPLETED bookings whose buffer range overlaps the buffer range of the request:
+         * [requestTime - 1.5h, requestTime + 2h]
+         */
+        public List<BookedWindow> findConflicts(Integer tableId, LocalDateTime requestTime) {
+            LocalDateTime requestBufferStart = requestTime.minusMinutes(BUFFER_BEFORE_MINUTES);
+            LocalDateTime requestBufferEnd = requestTime.plusMinutes(BUFFER_AFTER_MINUTES);
+
+            List<BookedWindow> conflicts = new ArrayList<>();
+            for (BookedWindow window : getBookings(tableId)) {
+                if (CONFLICT_STATUSES.contains(window.status())
+                        && !window.blockedFrom().isAfter(requestBufferEnd)
+                        && !window.blockedUntil().isBefore(requestBufferStart)) {
+                    conflicts.add(window);
+                }
+            }
+            return conflicts;
+        }
+
+        public boolean isFree(Integer tableId, LocalDateTime requestTime) {
+            return findConflicts(tableId, requestTime).isEmpty();
+        }
+    }
+}
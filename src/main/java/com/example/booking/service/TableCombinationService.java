@@ -0,0 +1,331 @@
+package com.example.booking.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.booking.common.enums.TableStatus;
+import com.example.booking.domain.RestaurantTable;
+import com.example.booking.repository.RestaurantTableRepository;
+
+/**
+ * Finds the set of free tables that seats a (large) party with the fewest empty seats.
+ *
+ * The tables of a restaurant and their free windows for one day are kept as bitsets:
+ * every table has one bit per minute of the day that is set while a booking (or a live
+ * slot hold) blocks it, using the same ±(buffer before + buffer after) rule as
+ * BookingConflictService. The free tables at a time are one column of that matrix, and
+ * the combination search is a branch-and-bound over those bits, largest table first,
+ * that stops at a fixed time budget and returns the best combination found so far.
+ *
+ * Tables are only combined inside one adjacency group. Tables carry no zone column, so
+ * the group is read from the table name: "A1", "A2" and "A 3" are group "A", "VIP-1" is
+ * group "VIP", names without a prefix ("12") share the default group.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TableCombinationService {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int CONFLICT_REACH_MINUTES = BookingConflictService.BUFFER_BEFORE_MINUTES
+            + BookingConflictService.BUFFER_AFTER_MINUTES;
+    private static final int DEADLINE_CHECK_MASK = 0x3FF; // check the clock every 1024 nodes
+
+    @Autowired
+    private RestaurantTableRepository restaurantTableRepository;
+
+    @Autowired
+    private TableAvailabilityService tableAvailabilityService;
+
+    @Autowired(required = false)
+    private SlotClaimService slotClaimService;
+
+    @Value("${booking.table-combination.max-tables:3}")
+    private int maxTables = 3;
+
+    @Value("${booking.table-combination.budget-millis:5}")
+    private long budgetMillis = 5;
+
+    @Value("${booking.table-combination.same-group:true}")
+    private boolean sameGroup = true;
+
+    /**
+     * Tables to seat a party together. {@code exhaustive} is false when the time budget ran
+     * out before the whole search space was visited (the result is then the best found).
+     */
+    public record TableCombination(List<Integer> tableIds, List<String> tableNames, int capacity, int guests,
+            String group, boolean exhaustive) {
+
+        public int waste() {
+            return capacity - guests;
+        }
+
+        public int tableCount() {
+            return tableIds.size();
+        }
+    }
+
+    /**
+     * Tables of a restaurant (largest first) with their blocked minutes of one day
+     */
+    public static final class FloorPlan {
+
+        private final LocalDateTime dayStart;
+        private final List<RestaurantTable> tables;
+        private final int[] capacities;
+        private final String[] groups;
+        private final Map<String, BitSet> groupMasks;
+        private final BitSet[] blockedMinutes;
+
+        FloorPlan(LocalDate date, List<RestaurantTable> tables) {
+            this.dayStart = date.atStartOfDay();
+            this.tables = tables;
+            this.capacities = new int[tables.size()];
+            this.groups = new String[tables.size()];
+            this.groupMasks = new LinkedHashMap<>();
+            this.blockedMinutes = new BitSet[tables.size()];
+            for (int i = 0; i < tables.size(); i++) {
+                capacities[i] = tables.get(i).getCapacity();
+                groups[i] = groupOf(tables.get(i).getTableName());
+                groupMasks.computeIfAbsent(groups[i], group -> new BitSet()).set(i);
+                blockedMinutes[i] = new BitSet(MINUTES_PER_DAY);
+            }
+        }
+
+        /**
+         * Mark the table as blocked for every request time within the conflict reach of a booking at bookingTime
+         */
+        void block(int index, LocalDateTime bookingTime) {
+            long minute = ChronoUnit.MINUTES.between(dayStart, bookingTime);
+            int from = (int) Math.max(0, minute - CONFLICT_REACH_MINUTES);
+            int to = (int) Math.min(MINUTES_PER_DAY, minute + CONFLICT_REACH_MINUTES + 1);
+            if (from < to) {
+                blockedMinutes[index].set(from, to);
+            }
+        }
+
+        public int size() {
+            return tables.size();
+        }
+
+        public RestaurantTable getTable(int index) {
+            return tables.get(index);
+        }
+
+        /**
+         * Indexes of the tables that are free for a booking starting at the given time of this day
+         */
+        public BitSet freeTablesAt(LocalDateTime time) {
+            BitSet free = new BitSet(tables.size());
+            long minute = ChronoUnit.MINUTES.between(dayStart, time);
+            if (minute < 0 || minute >= MINUTES_PER_DAY) {
+                return free;
+            }
+            for (int i = 0; i < tables.size(); i++) {
+                if (!blockedMinutes[i].get((int) minute)) {
+                    free.set(i);
+                }
+            }
+            return free;
+        }
+    }
+
+    /**
+     * Adjacency group of a table: its name without the trailing number
+     */
+    static String groupOf(String tableName) {
+        if (tableName == null) {
+            return "";
+        }
+        return tableName.trim().replaceAll("[\\s\\-_#.]*\\d+$", "").trim().toUpperCase();
+    }
+
+    /**
+     * Bookable tables of a restaurant with their blocked windows on a day (one availability query)
+     */
+    public FloorPlan loadFloorPlan(Integer restaurantId, LocalDate date) {
+        List<RestaurantTable> tables = new ArrayList<>();
+        for (RestaurantTable table : restaurantTableRepository.findByRestaurantRestaurantId(restaurantId)) {
+            if (table.getCapacity() != null && table.getCapacity() > 0
+                    && table.getStatus() != TableStatus.MAINTENANCE) {
+                tables.add(table);
+            }
+        }
+        tables.sort(Comparator.comparing(RestaurantTable::getCapacity).reversed()
+                .thenComparing(RestaurantTable::getTableId));
+
+        FloorPlan plan = new FloorPlan(date, tables);
+        if (tables.isEmpty()) {
+            return plan;
+        }
+
+        TableAvailabilityService.BookingWindows windows = tableAvailabilityService.getDayAvailability(restaurantId,
+                date);
+        Map<Integer, Integer> indexById = new LinkedHashMap<>();
+        for (int i = 0; i < tables.size(); i++) {
+            indexById.put(tables.get(i).getTableId(), i);
+            for (TableAvailabilityService.BookedWindow window : windows.getBookings(tables.get(i).getTableId())) {
+                if (TableAvailabilityService.CONFLICT_STATUSES.contains(window.status())) {
+                    plan.block(i, window.bookingTime());
+                }
+            }
+        }
+        if (slotClaimService != null) {
+            for (SlotClaimService.HeldSlot held : slotClaimService.findHeldSlots(indexById.keySet(),
+                    windows.getFrom(), windows.getTo())) {
+                plan.block(indexById.get(held.tableId()), held.bookingTime());
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Best set of tables free at bookingTime for the party: least empty seats, then fewest tables
+     */
+    public Optional<TableCombination> findBestCombination(Integer restaurantId, LocalDateTime bookingTime,
+            int guests) {
+        if (guests < 1) {
+            throw new IllegalArgumentException("Số khách phải lớn hơn 0");
+        }
+        return solve(loadFloorPlan(restaurantId, bookingTime.toLocalDate()), bookingTime, guests);
+    }
+
+    /**
+     * Search a loaded floor plan; see {@link #findBestCombination}
+     */
+    public Optional<TableCombination> solve(FloorPlan plan, LocalDateTime bookingTime, int guests) {
+        BitSet free = plan.freeTablesAt(bookingTime);
+        if (free.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Search search = new Search(plan, guests, Math.max(1, maxTables),
+                System.nanoTime() + budgetMillis * 1_000_000L);
+        if (sameGroup) {
+            for (BitSet groupMask : plan.groupMasks.values()) {
+                BitSet candidates = (BitSet) groupMask.clone();
+                candidates.and(free);
+                search.run(candidates);
+            }
+        } else {
+            search.run(free);
+        }
+
+        if (search.best == null) {
+            return Optional.empty();
+        }
+        List<Integer> tableIds = new ArrayList<>();
+        List<String> tableNames = new ArrayList<>();
+        for (int i = search.best.nextSetBit(0); i >= 0; i = search.best.nextSetBit(i + 1)) {
+            tableIds.add(plan.getTable(i).getTableId());
+            tableNames.add(plan.getTable(i).getTableName());
+        }
+        int first = search.best.nextSetBit(0);
+        return Optional.of(new TableCombination(tableIds, tableNames, search.bestCapacity, guests,
+                plan.groups[first], !search.timedOut));
+    }
+
+    /**
+     * Branch-and-bound over a candidate bitset. Candidates are visited largest first; a
+     * branch stops as soon as the party is seated (more tables only add waste), when the
+     * remaining capacity cannot seat it, or at the table limit. Tables of equal capacity are
+     * interchangeable, so skipping one skips its equals as well.
+     */
+    private static final class Search {
+
+        private final FloorPlan plan;
+        private final int guests;
+        private final int maxTables;
+        private final long deadline;
+
+        private int[] candidates;
+        private int[] remaining;
+        private final int[] chosen;
+        private long nodes;
+        private boolean timedOut;
+
+        private BitSet best;
+        private int bestCapacity;
+        private int bestCount;
+
+        Search(FloorPlan plan, int guests, int maxTables, long deadline) {
+            this.plan = plan;
+            this.guests = guests;
+            this.maxTables = maxTables;
+            this.deadline = deadline;
+            this.chosen = new int[maxTables];
+        }
+
+        void run(BitSet candidateMask) {
+            if (timedOut || candidateMask.isEmpty()) {
+                return;
+            }
+            candidates = candidateMask.stream().toArray();
+            remaining = new int[candidates.length + 1];
+            for (int i = candidates.length - 1; i >= 0; i--) {
+                remaining[i] = remaining[i + 1] + plan.capacities[candidates[i]];
+            }
+            if (remaining[0] < guests) {
+                return;
+            }
+            dfs(0, 0, 0);
+        }
+
+        private void dfs(int position, int count, int seats) {
+            if ((++nodes & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() > deadline) {
+                timedOut = true;
+            }
+            if (timedOut || count == maxTables || seats + remaining[position] < guests) {
+                return;
+            }
+            // Nothing can beat a perfect fit with fewer tables
+            if (best != null && bestCapacity == guests && count + 1 >= bestCount) {
+                return;
+            }
+
+            for (int i = position; i < candidates.length; i++) {
+                int capacity = plan.capacities[candidates[i]];
+                if (i > position && capacity == plan.capacities[candidates[i - 1]]) {
+                    continue;
+                }
+                if (seats + remaining[i] < guests) {
+                    return;
+                }
+                chosen[count] = candidates[i];
+                int total = seats + capacity;
+                if (total >= guests) {
+                    record(count + 1, total);
+                } else {
+                    dfs(i + 1, count + 1, total);
+                }
+                if (timedOut) {
+                    return;
+                }
+            }
+        }
+
+        private void record(int count, int capacity) {
+            if (best != null && (capacity > bestCapacity || (capacity == bestCapacity && count >= bestCount))) {
+                return;
+            }
+            best = new BitSet(plan.size());
+            for (int i = 0; i < count; i++) {
+                best.set(chosen[i]);
+            }
+            bestCapacity = capacity;
+            bestCount = count;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,6 +15,7 @@ import com.example.booking.common.enums.TableStatus;
 import com.example.booking.domain.Booking;
 import com.example.booking.domain.BookingTable;
 import com.example.booking.domain.RestaurantTable;
+import com.example.booking.event.TableTurnEvent;
 import com.example.booking.repository.BookingRepository;
 import com.example.booking.repository.BookingTableRepository;
 import com.example.booking.repository.RestaurantTableRepository;
@@ -36,6 +38,10 @@ public class TableStatusManagementService {
     
     @Autowired
     private BookingService bookingService;
+
+    // Transitions feed the turn-time model, which applies them after commit
+    @Autowired(required = false)
+    private ApplicationEventPublisher eventPublisher;
     
     // Constants
     private static final int NO_SHOW_MINUTES = 15; // 15 phút sau booking time
@@ -107,6 +113,7 @@ public class TableStatusManagementService {
             // Trong thực tế, có thể lưu thời gian checkout vào một field riêng
             table.setStatus(TableStatus.AVAILABLE);
             restaurantTableRepository.save(table);
+            publishTurn(TableTurnEvent.cleaningFinished(table, LocalDateTime.now()));
             System.out.println(
                     "🧹 Table " + table.getTableName() + " cleaning completed after 20 minutes, setting to AVAILABLE");
         }
@@ -257,6 +264,9 @@ public class TableStatusManagementService {
                 throw new IllegalArgumentException("Cannot check-in: No tables were updated. Please check table status and booking time.");
             }
         }
+
+        // Thời điểm khách ngồi vào bàn - bắt đầu một lượt (turn) cho turn-time model
+        publishTurn(TableTurnEvent.seated(booking, now));
     }
     
     /**
@@ -315,6 +325,7 @@ public class TableStatusManagementService {
                 // Chỉ check-out table nếu không có booking khác đang sử dụng
                 table.setStatus(TableStatus.CLEANING);
                 restaurantTableRepository.save(table);
+                publishTurn(TableTurnEvent.cleaningStarted(table, LocalDateTime.now()));
                 tableUpdated = true;
                 System.out.println("✅ Customer checked out - Table " + table.getTableName() + " set to CLEANING");
             }
@@ -330,6 +341,9 @@ public class TableStatusManagementService {
             }
         }
         
+        // Khách rời bàn - kết thúc lượt (turn) cho turn-time model
+        publishTurn(TableTurnEvent.left(booking, LocalDateTime.now()));
+
         // Sau khi check-out thành công, nếu booking đang ở CONFIRMED thì chuyển sang COMPLETED
         // (COMPLETED = thanh toán thành công, đã check-out)
         if (booking.getStatus() == BookingStatus.CONFIRMED) {
@@ -353,6 +367,7 @@ public class TableStatusManagementService {
         if (table.getStatus() == TableStatus.CLEANING) {
             table.setStatus(TableStatus.AVAILABLE);
             restaurantTableRepository.save(table);
+            publishTurn(TableTurnEvent.cleaningFinished(table, LocalDateTime.now()));
             System.out.println("✅ Cleaning completed - Table " + table.getTableName() + " set to AVAILABLE");
         } else {
             throw new IllegalArgumentException("Table is not in CLEANING status");
@@ -382,4 +397,10 @@ public class TableStatusManagementService {
         restaurantTableRepository.save(table);
         System.out.println("✅ Table " + table.getTableName() + " set to AVAILABLE");
     }
+
+    private void publishTurn(TableTurnEvent event) {
+        if (eventPublisher != null) {
+            eventPublisher.publishEvent(event);
+        }
+    }
 }
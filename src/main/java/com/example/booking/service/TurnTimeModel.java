@@ -0,0 +1,368 @@
+package com.example.booking.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.booking.common.enums.BookingStatus;
+import com.example.booking.common.enums.TableStatus;
+import com.example.booking.domain.RestaurantTable;
+import com.example.booking.event.RestaurantTableChangedEvent;
+import com.example.booking.event.TableTurnEvent;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.repository.RestaurantTableRepository;
+
+/**
+ * Streaming turn-time statistics for waitlist wait estimates.
+ *
+ * A turn is the time a party holds its table, from check-in (or the booking time when
+ * the check-in was not seen) to check-out. Turns are kept per restaurant, party size
+ * bucket (1-2, 3-4, ..., 9+) and hour of the week, with rollups per restaurant + party
+ * size and per restaurant for cells that have too few samples. Each cell keeps an EWMA
+ * and a 5-minute histogram from which the median and p90 are precomputed on write, so
+ * an estimate is a few map lookups. Cleaning time (CLEANING -> AVAILABLE) is tracked
+ * per restaurant the same way.
+ *
+ * Wait estimate for position p: p * (turn + cleaning) / tables that seat the party,
+ * i.e. one suitable table frees up every (turn + cleaning) / tables minutes. Without
+ * data the legacy 30 minutes per position is used.
+ *
+ * History is backfilled on startup from COMPLETED bookings in one query (booking time
+ * to last update, kept only when it looks like a real turn). Live transitions arrive as
+ * {@link TableTurnEvent}s after their transaction commits; turns completed while a
+ * backfill runs are replayed into its result unless the history already holds them.
+ */
+@Component
+public class TurnTimeModel {
+
+    private static final Logger logger = LoggerFactory.getLogger(TurnTimeModel.class);
+
+    public static final int DEFAULT_MINUTES_PER_POSITION = 30;
+    static final int DEFAULT_CLEANING_MINUTES = 20;
+    static final int MIN_SAMPLES = 5;
+    static final double EWMA_ALPHA = 0.2;
+
+    private static final int BIN_MINUTES = 5;
+    private static final int MIN_TURN_MINUTES = 15;
+    private static final int MAX_TURN_MINUTES = 360;
+    private static final int MAX_CLEANING_MINUTES = 120;
+    private static final int ANY = -1;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RestaurantTableRepository restaurantTableRepository;
+
+    private volatile Map<CellKey, Cell> turns = new ConcurrentHashMap<>();
+    private final Map<Integer, Cell> cleaning = new ConcurrentHashMap<>();
+    private final Map<Integer, int[]> tableCapacities = new ConcurrentHashMap<>();
+
+    // Transitions seen by this instance, used to time turns and cleanings precisely
+    private final Map<Integer, LocalDateTime> seatedAt = new ConcurrentHashMap<>();
+    private final Map<Integer, LocalDateTime> cleaningSince = new ConcurrentHashMap<>();
+    private final Map<Integer, LocalDateTime> observedTurns = new ConcurrentHashMap<>();
+
+    // Live turns completed while a backfill runs (null otherwise), guarded by backfillLock
+    private final Object backfillLock = new Object();
+    private List<LiveTurn> liveDuringBackfill;
+
+    private record LiveTurn(Integer bookingId, Integer restaurantId, Integer partySize, LocalDateTime start,
+            LocalDateTime end) {
+    }
+
+    /**
+     * Statistics of one cell, in minutes
+     */
+    public record TurnStats(long samples, double ewmaMinutes, int medianMinutes, int p90Minutes) {
+
+        static final TurnStats EMPTY = new TurnStats(0, 0, 0, 0);
+
+        /**
+         * Recent central estimate: the EWMA, capped at the p90 so that a burst of slow tables does not dominate
+         */
+        public double expectedMinutes() {
+            return Math.min(ewmaMinutes, p90Minutes);
+        }
+    }
+
+    record CellKey(Integer restaurantId, int partyBucket, int hourOfWeek) {
+    }
+
+    /**
+     * EWMA + fixed-width histogram; stats are recomputed on every observation
+     */
+    static final class Cell {
+        private final int[] bins;
+        private long samples;
+        private double ewma;
+        private volatile TurnStats stats = TurnStats.EMPTY;
+
+        Cell(int maxMinutes) {
+            this.bins = new int[maxMinutes / BIN_MINUTES + 1];
+        }
+
+        synchronized void observe(double minutes) {
+            samples++;
+            ewma = samples == 1 ? minutes : EWMA_ALPHA * minutes + (1 - EWMA_ALPHA) * ewma;
+            bins[Math.min(bins.length - 1, (int) (minutes / BIN_MINUTES))]++;
+            stats = new TurnStats(samples, ewma, quantile(0.5), quantile(0.9));
+        }
+
+        private int quantile(double q) {
+            long target = (long) Math.ceil(q * samples);
+            long seen = 0;
+            for (int i = 0; i < bins.length; i++) {
+                seen += bins[i];
+                if (seen >= target) {
+                    return i * BIN_MINUTES + BIN_MINUTES / 2;
+                }
+            }
+            return (bins.length - 1) * BIN_MINUTES;
+        }
+
+        TurnStats stats() {
+            return stats;
+        }
+    }
+
+    static int partyBucket(Integer partySize) {
+        int size = partySize != null ? Math.max(1, Math.min(partySize, 9)) : 2;
+        return (size + 1) / 2;
+    }
+
+    static int hourOfWeek(LocalDateTime time) {
+        return (time.getDayOfWeek().getValue() - 1) * 24 + time.getHour();
+    }
+
+    // ==================== ESTIMATES ====================
+
+    /**
+     * Turn statistics for a party at a time: the most specific cell with enough samples
+     */
+    public TurnStats getTurnStats(Integer restaurantId, Integer partySize, LocalDateTime at) {
+        Map<CellKey, Cell> current = turns;
+        int bucket = partyBucket(partySize);
+        for (CellKey key : List.of(new CellKey(restaurantId, bucket, hourOfWeek(at)),
+                new CellKey(restaurantId, bucket, ANY), new CellKey(restaurantId, ANY, ANY))) {
+            Cell cell = current.get(key);
+            if (cell != null && cell.stats().samples() >= MIN_SAMPLES) {
+                return cell.stats();
+            }
+        }
+        return TurnStats.EMPTY;
+    }
+
+    /**
+     * Expected minutes a table stays in CLEANING after a turn
+     */
+    public double getCleaningMinutes(Integer restaurantId) {
+        Cell cell = cleaning.get(restaurantId);
+        return cell != null && cell.stats().samples() >= MIN_SAMPLES
+                ? cell.stats().expectedMinutes()
+                : DEFAULT_CLEANING_MINUTES;
+    }
+
+    /**
+     * Estimated wait for the party at the given 1-based queue position
+     */
+    public int estimateWaitMinutes(Integer restaurantId, Integer partySize, int position, LocalDateTime at) {
+        if (position <= 0) {
+            return 0;
+        }
+        TurnStats turn = getTurnStats(restaurantId, partySize, at);
+        if (turn.samples() == 0) {
+            return position * DEFAULT_MINUTES_PER_POSITION;
+        }
+        double turnaround = turn.expectedMinutes() + getCleaningMinutes(restaurantId);
+        int tables = Math.max(1, countTablesSeating(restaurantId, partySize));
+        return (int) Math.ceil(position * turnaround / tables);
+    }
+
+    /**
+     * Number of tables of the restaurant that seat the party (capacities cached per restaurant)
+     */
+    int countTablesSeating(Integer restaurantId, Integer partySize) {
+        int[] capacities = tableCapacities.computeIfAbsent(restaurantId, this::loadCapacities);
+        int guests = partySize != null ? partySize : 1;
+        int index = Arrays.binarySearch(capacities, guests);
+        if (index < 0) {
+            return capacities.length - (-index - 1);
+        }
+        while (index > 0 && capacities[index - 1] == guests) {
+            index--;
+        }
+        return capacities.length - index;
+    }
+
+    private int[] loadCapacities(Integer restaurantId) {
+        return restaurantTableRepository.findByRestaurantRestaurantId(restaurantId).stream()
+                .filter(table -> table.getCapacity() != null && table.getStatus() != TableStatus.MAINTENANCE)
+                .mapToInt(RestaurantTable::getCapacity)
+                .sorted()
+                .toArray();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTableChanged(RestaurantTableChangedEvent event) {
+        if (event.getRestaurantId() != null) {
+            tableCapacities.remove(event.getRestaurantId());
+        } else {
+            tableCapacities.clear();
+        }
+    }
+
+    // ==================== OBSERVATIONS ====================
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTableTurn(TableTurnEvent event) {
+        switch (event.getType()) {
+            case SEATED -> seated(event.getBookingId(), event.getAt());
+            case LEFT -> turnCompleted(event.getBookingId(), event.getRestaurantId(), event.getPartySize(),
+                    event.getBookingTime(), event.getAt());
+            case CLEANING_STARTED -> cleaningStarted(event.getTableId(), event.getAt());
+            case CLEANING_FINISHED -> cleaningFinished(event.getTableId(), event.getRestaurantId(), event.getAt());
+        }
+    }
+
+    private void seated(Integer bookingId, LocalDateTime at) {
+        if (bookingId != null) {
+            seatedAt.put(bookingId, at);
+        }
+    }
+
+    private void turnCompleted(Integer bookingId, Integer restaurantId, Integer partySize, LocalDateTime bookingTime,
+            LocalDateTime at) {
+        if (bookingId == null || restaurantId == null) {
+            return;
+        }
+        if (observedTurns.putIfAbsent(bookingId, at) != null) {
+            return;
+        }
+        LocalDateTime start = seatedAt.remove(bookingId);
+        LiveTurn turn = new LiveTurn(bookingId, restaurantId, partySize, start != null ? start : bookingTime, at);
+        synchronized (backfillLock) {
+            if (liveDuringBackfill != null) {
+                liveDuringBackfill.add(turn);
+            }
+            observeTurn(turns, turn.restaurantId(), turn.partySize(), turn.start(), turn.end());
+        }
+    }
+
+    private void cleaningStarted(Integer tableId, LocalDateTime at) {
+        if (tableId != null) {
+            cleaningSince.put(tableId, at);
+        }
+    }
+
+    private void cleaningFinished(Integer tableId, Integer restaurantId, LocalDateTime at) {
+        if (tableId == null || restaurantId == null) {
+            return;
+        }
+        LocalDateTime start = cleaningSince.remove(tableId);
+        if (start == null) {
+            return;
+        }
+        long minutes = Duration.between(start, at).toMinutes();
+        if (minutes >= 0 && minutes <= MAX_CLEANING_MINUTES) {
+            cleaning.computeIfAbsent(restaurantId, id -> new Cell(MAX_CLEANING_MINUTES)).observe(minutes);
+        }
+    }
+
+    private static boolean observeTurn(Map<CellKey, Cell> target, Integer restaurantId, Integer partySize,
+            LocalDateTime start, LocalDateTime end) {
+        if (restaurantId == null || start == null || end == null) {
+            return false;
+        }
+        long minutes = Duration.between(start, end).toMinutes();
+        if (minutes < MIN_TURN_MINUTES || minutes > MAX_TURN_MINUTES) {
+            return false;
+        }
+        int bucket = partyBucket(partySize);
+        for (CellKey key : List.of(new CellKey(restaurantId, bucket, hourOfWeek(start)),
+                new CellKey(restaurantId, bucket, ANY), new CellKey(restaurantId, ANY, ANY))) {
+            target.computeIfAbsent(key, k -> new Cell(MAX_TURN_MINUTES)).observe(minutes);
+        }
+        return true;
+    }
+
+    // ==================== BACKFILL ====================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            backfill();
+        } catch (Exception e) {
+            logger.error("Failed to backfill turn-time model, wait estimates use {} minutes per position",
+                    DEFAULT_MINUTES_PER_POSITION, e);
+        }
+    }
+
+    /**
+     * Rebuild the turn statistics from the booking history in one pass and swap them in.
+     * Live turns completed meanwhile are merged into the new statistics, except those
+     * whose booking the history already returned.
+     */
+    public void backfill() {
+        long start = System.currentTimeMillis();
+        synchronized (backfillLock) {
+            liveDuringBackfill = new ArrayList<>();
+        }
+        try {
+            Map<CellKey, Cell> fresh = new ConcurrentHashMap<>();
+            Set<Integer> historyBookings = new HashSet<>();
+            int used = 0;
+            List<Object[]> rows = bookingRepository.findTurnHistory(BookingStatus.COMPLETED);
+            for (Object[] row : rows) {
+                historyBookings.add((Integer) row[4]);
+                if (observeTurn(fresh, (Integer) row[0], (Integer) row[1], (LocalDateTime) row[2],
+                        (LocalDateTime) row[3])) {
+                    used++;
+                }
+            }
+            int merged = 0;
+            synchronized (backfillLock) {
+                for (LiveTurn turn : liveDuringBackfill) {
+                    if (!historyBookings.contains(turn.bookingId())
+                            && observeTurn(fresh, turn.restaurantId(), turn.partySize(), turn.start(), turn.end())) {
+                        merged++;
+                    }
+                }
+                turns = fresh;
+            }
+            logger.info("Turn-time model backfilled from {} of {} completed bookings and {} live turns in {} ms",
+                    used, rows.size(), merged, System.currentTimeMillis() - start);
+        } finally {
+            synchronized (backfillLock) {
+                liveDuringBackfill = null;
+            }
+        }
+    }
+
+    /**
+     * Drop transition timestamps that never got their closing event
+     */
+    @Scheduled(cron = "0 40 4 * * *")
+    public void purgeStaleTransitions() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(1);
+        for (Map<Integer, LocalDateTime> transitions : List.of(seatedAt, cleaningSince, observedTurns)) {
+            transitions.values().removeIf(time -> time.isBefore(cutoff));
+        }
+    }
+}
@@ -0,0 +1,436 @@
+package com.example.booking.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.booking.domain.WaitlistStatus;
+import com.example.booking.event.WaitlistChangedEvent;
+import com.example.booking.event.WaitlistQueueChangedEvent;
+import com.example.booking.repository.WaitlistRepository;
+
+/**
+ * In-memory WAITING queue per restaurant, ordered by join time.
+ *
+ * Each restaurant's queue is an order-statistic tree (a treap whose nodes know
+ * their subtree size), so the position of an entry is an O(log n) rank lookup
+ * instead of loading and scanning the whole queue on every customer poll.
+ *
+ * The index is warmed on startup, refreshed after each committed waitlist write
+ * ({@link WaitlistChangedEvent}), and compared with per-restaurant counts from the
+ * database every minute; restaurants that drifted are rebuilt. Callers must fall
+ * back to the database when a lookup returns empty.
+ *
+ * Every applied change is published as a {@link WaitlistQueueChangedEvent} carrying
+ * the entry's position before and after, so that clients can be pushed deltas.
+ */
+@Component
+public class WaitlistQueueIndex extends RebuildableIndex<Integer> {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitlistQueueIndex.class);
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    @Autowired(required = false)
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Set<Integer> suspectRestaurants = ConcurrentHashMap.newKeySet();
+    private volatile Snapshot snapshot;
+
+    public WaitlistQueueIndex() {
+        super("Waitlist queue index", "queue positions will use the database");
+    }
+
+    /**
+     * Queue key: join time, then waitlist ID
+     */
+    public record Entry(LocalDateTime joinTime, Integer waitlistId) implements Comparable<Entry> {
+        @Override
+        public int compareTo(Entry other) {
+            int byTime = joinTime.compareTo(other.joinTime);
+            return byTime != 0 ? byTime : Integer.compare(waitlistId, other.waitlistId);
+        }
+    }
+
+    private record Placement(Integer restaurantId, Integer partySize, Entry entry) {
+    }
+
+    /**
+     * Where a WAITING entry stands: its restaurant, party size and 1-based position
+     */
+    public record QueuePosition(Integer restaurantId, Integer partySize, int position) {
+    }
+
+    private static final class Snapshot {
+        private final Map<Integer, OrderedQueue> byRestaurant = new ConcurrentHashMap<>();
+        private final Map<Integer, Placement> byWaitlist = new ConcurrentHashMap<>();
+
+        private void add(Placement placement) {
+            byRestaurant.computeIfAbsent(placement.restaurantId(), id -> new OrderedQueue()).add(placement.entry());
+            byWaitlist.put(placement.entry().waitlistId(), placement);
+        }
+
+        private void remove(Integer waitlistId) {
+            Placement placement = byWaitlist.remove(waitlistId);
+            if (placement != null) {
+                OrderedQueue queue = byRestaurant.get(placement.restaurantId());
+                if (queue != null) {
+                    queue.remove(placement.entry());
+                }
+            }
+        }
+    }
+
+    /**
+     * Order-statistic treap: insert, remove and rank in O(log n) expected time
+     */
+    static final class OrderedQueue {
+
+        private static final class Node {
+            private final Entry key;
+            private final int priority;
+            private int size = 1;
+            private Node left;
+            private Node right;
+
+            private Node(Entry key) {
+                this.key = key;
+                this.priority = ThreadLocalRandom.current().nextInt();
+            }
+        }
+
+        private Node root;
+
+        synchronized void add(Entry key) {
+            Node[] parts = split(root, key);
+            root = merge(merge(parts[0], new Node(key)), parts[1]);
+        }
+
+        synchronized void remove(Entry key) {
+            root = remove(root, key);
+        }
+
+        /**
+         * Number of entries ordered before the key
+         */
+        synchronized int rank(Entry key) {
+            int rank = 0;
+            Node node = root;
+            while (node != null) {
+                if (key.compareTo(node.key) <= 0) {
+                    node = node.left;
+                } else {
+                    rank += size(node.left) + 1;
+                    node = node.right;
+                }
+            }
+            return rank;
+        }
+
+        synchronized int size() {
+            return size(root);
+        }
+
+        private static int size(Node node) {
+            return node != null ? node.size : 0;
+        }
+
+        private static void update(Node node) {
+            node.size = 1 + size(node.left) + size(node.right);
+        }
+
+        /**
+         * [keys before key, key and keys after it]
+         */
+        private static Node[] split(Node node, Entry key) {
+            if (node == null) {
+                return new Node[] { null, null };
+            }
+            if (node.key.compareTo(key) < 0) {
+                Node[] parts = split(node.right, key);
+                node.right = parts[0];
+                update(node);
+                return new Node[] { node, parts[1] };
+            }
+            Node[] parts = split(node.left, key);
+            node.left = parts[1];
+            update(node);
+            return new Node[] { parts[0], node };
+        }
+
+        /**
+         * Join two treaps where every key of {@code lower} is before every key of {@code upper}
+         */
+        private static Node merge(Node lower, Node upper) {
+            if (lower == null) {
+                return upper;
+            }
+            if (upper == null) {
+                return lower;
+            }
+            if (lower.priority > upper.priority) {
+                lower.right = merge(lower.right, upper);
+                update(lower);
+                return lower;
+            }
+            upper.left = merge(lower, upper.left);
+            update(upper);
+            return upper;
+        }
+
+        private static Node remove(Node node, Entry key) {
+            if (node == null) {
+                return null;
+            }
+            int compare = key.compareTo(node.key);
+            if (compare == 0) {
+                return merge(node.left, node.right);
+            }
+            if (compare < 0) {
+                node.left = remove(node.left, key);
+            } else {
+                node.right = remove(node.right, key);
+            }
+            update(node);
+            return node;
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * 1-based position of a WAITING entry in its restaurant queue
+     *
+     * @return empty if the index cannot answer (not warmed yet or entry not WAITING / not known)
+     */
+    public OptionalInt findPosition(Integer waitlistId) {
+        return findQueuePosition(waitlistId)
+                .map(position -> OptionalInt.of(position.position()))
+                .orElse(OptionalInt.empty());
+    }
+
+    /**
+     * Restaurant, party size and position of a WAITING entry
+     *
+     * @return empty if the index cannot answer (not warmed yet or entry not WAITING / not known)
+     */
+    public Optional<QueuePosition> findQueuePosition(Integer waitlistId) {
+        Snapshot current = snapshot;
+        if (current == null || waitlistId == null) {
+            return Optional.empty();
+        }
+        Placement placement = current.byWaitlist.get(waitlistId);
+        OrderedQueue queue = placement != null ? current.byRestaurant.get(placement.restaurantId()) : null;
+        if (queue == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new QueuePosition(placement.restaurantId(), placement.partySize(),
+                queue.rank(placement.entry()) + 1));
+    }
+
+    /**
+     * Number of WAITING entries of a restaurant
+     *
+     * @return empty if the index is not warmed yet
+     */
+    public OptionalInt findQueueLength(Integer restaurantId) {
+        Snapshot current = snapshot;
+        if (current == null || restaurantId == null) {
+            return OptionalInt.empty();
+        }
+        OrderedQueue queue = current.byRestaurant.get(restaurantId);
+        return OptionalInt.of(queue != null ? queue.size() : 0);
+    }
+
+    /**
+     * The database knows a WAITING entry that the index does not; rebuild the restaurant at the next check
+     */
+    public void reportDrift(Integer restaurantId) {
+        if (restaurantId != null && snapshot != null) {
+            suspectRestaurants.add(restaurantId);
+        }
+    }
+
+    /**
+     * Compare queue lengths with the database and rebuild the restaurants that drifted
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void reconcile() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        try {
+            Set<Integer> drifted = new HashSet<>(suspectRestaurants);
+            suspectRestaurants.removeAll(drifted);
+
+            Map<Integer, Long> counts = new HashMap<>();
+            for (Object[] row : waitlistRepository.countByStatusGroupByRestaurant(WaitlistStatus.WAITING)) {
+                counts.put((Integer) row[0], ((Number) row[1]).longValue());
+            }
+            counts.forEach((restaurantId, count) -> {
+                OrderedQueue queue = current.byRestaurant.get(restaurantId);
+                if ((queue != null ? queue.size() : 0) != count) {
+                    drifted.add(restaurantId);
+                }
+            });
+            current.byRestaurant.forEach((restaurantId, queue) -> {
+                if (queue.size() > 0 && !counts.containsKey(restaurantId)) {
+                    drifted.add(restaurantId);
+                }
+            });
+
+            for (Integer restaurantId : drifted) {
+                logger.info("Waitlist queue of restaurant {} drifted from the database, rebuilding", restaurantId);
+                rebuildRestaurant(restaurantId);
+            }
+        } catch (Exception e) {
+            logger.error("Waitlist queue index reconciliation failed", e);
+        }
+    }
+
+    @Override
+    protected Runnable loadAll() {
+        Snapshot fresh = new Snapshot();
+        for (Object[] row : waitlistRepository.findQueueEntriesByStatus(WaitlistStatus.WAITING)) {
+            fresh.add(toPlacement(row));
+        }
+        return () -> snapshot = fresh;
+    }
+
+    @Override
+    protected int size() {
+        Snapshot current = snapshot;
+        return current != null ? current.byWaitlist.size() : 0;
+    }
+
+    /**
+     * Reload the queue of one restaurant from the database
+     */
+    public void rebuildRestaurant(Integer restaurantId) {
+        List<Object[]> rows = waitlistRepository.findQueueEntriesByRestaurantAndStatus(restaurantId,
+                WaitlistStatus.WAITING);
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            if (current == null) {
+                return;
+            }
+            OrderedQueue queue = new OrderedQueue();
+            List<Placement> placements = new ArrayList<>();
+            for (Object[] row : rows) {
+                Placement placement = toPlacement(row);
+                queue.add(placement.entry());
+                placements.add(placement);
+            }
+            current.byWaitlist.values().removeIf(placement -> placement.restaurantId().equals(restaurantId));
+            placements.forEach(placement -> current.byWaitlist.put(placement.entry().waitlistId(), placement));
+            current.byRestaurant.put(restaurantId, queue);
+            publish(List.of(WaitlistQueueChangedEvent.resync(restaurantId, queue.size())));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onWaitlistChanged(WaitlistChangedEvent event) {
+        refreshQuietly(event.getWaitlistId(), event);
+    }
+
+    /**
+     * Reload the given entries from the database: WAITING entries are (re)queued, others dropped.
+     */
+    @Override
+    protected Runnable load(Collection<Integer> waitlistIds) {
+        List<Object[]> rows = waitlistRepository.findQueueEntriesByIds(waitlistIds);
+
+        return () -> {
+            List<WaitlistQueueChangedEvent> changes = new ArrayList<>();
+            Snapshot current = snapshot;
+            Map<Integer, Placement> waiting = new HashMap<>();
+            Map<Integer, Object[]> rowsById = new HashMap<>();
+            for (Object[] row : rows) {
+                rowsById.put((Integer) row[0], row);
+                if (row[4] == WaitlistStatus.WAITING) {
+                    Placement placement = toPlacement(row);
+                    waiting.put(placement.entry().waitlistId(), placement);
+                }
+            }
+            for (Integer waitlistId : waitlistIds) {
+                Placement previous = current.byWaitlist.get(waitlistId);
+                Placement next = waiting.get(waitlistId);
+                if (next != null && next.equals(previous)) {
+                    continue;
+                }
+                int previousPosition = positionOf(current, previous);
+                current.remove(waitlistId);
+                if (next != null) {
+                    current.add(next);
+                }
+
+                // Entries that were not and are not WAITING do not move any queue
+                Placement changed = next != null ? next : previous;
+                if (changed != null) {
+                    Object[] row = rowsById.get(waitlistId);
+                    OrderedQueue queue = current.byRestaurant.get(changed.restaurantId());
+                    changes.add(new WaitlistQueueChangedEvent(changed.restaurantId(), waitlistId,
+                            row != null ? (WaitlistStatus) row[4] : null, changed.partySize(), previousPosition,
+                            positionOf(current, next), queue != null ? queue.size() : 0));
+                }
+            }
+            // Published under the lock so that deltas leave in the order they were applied
+            publish(changes);
+        };
+    }
+
+    private static int positionOf(Snapshot current, Placement placement) {
+        if (placement == null) {
+            return 0;
+        }
+        OrderedQueue queue = current.byRestaurant.get(placement.restaurantId());
+        return queue != null ? queue.rank(placement.entry()) + 1 : 0;
+    }
+
+    private void publish(List<WaitlistQueueChangedEvent> changes) {
+        if (eventPublisher == null) {
+            return;
+        }
+        for (WaitlistQueueChangedEvent change : changes) {
+            try {
+                eventPublisher.publishEvent(change);
+            } catch (Exception e) {
+                logger.warn("Failed to publish {}", change, e);
+            }
+        }
+    }
+
+    private Placement toPlacement(Object[] row) {
+        Integer waitlistId = (Integer) row[0];
+        Integer restaurantId = (Integer) row[1];
+        LocalDateTime joinTime = (LocalDateTime) row[2];
+        Integer partySize = (Integer) row[3];
+        return new Placement(restaurantId, partySize, new Entry(joinTime, waitlistId));
+    }
+}
@@ -2,8 +2,10 @@ package com.example.booking.service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -91,6 +93,15 @@ public class WaitlistService {
     @Autowired
     private WaitlistNotificationService waitlistNotificationService;
 
+    @Autowired(required = false)
+    private BookingLineItemWriter lineItemWriter;
+
+    @Autowired(required = false)
+    private WaitlistQueueIndex queueIndex;
+
+    @Autowired(required = false)
+    private TurnTimeModel turnTimeModel;
+
     /**
      * Thêm customer vào waitlist với validation cải thiện
      */
@@ -128,7 +139,7 @@ public class WaitlistService {
         
         // Calculate estimated wait time based on current queue position
         long queuePosition = waitlistRepository.countByRestaurantIdAndStatus(restaurantId, WaitlistStatus.WAITING) + 1;
-        int estimatedWaitMinutes = (int) (queuePosition * 30); // 30 minutes per position
+        int estimatedWaitMinutes = estimateWaitMinutes(restaurantId, partySize, (int) queuePosition);
         waitlist.setEstimatedWaitTime(estimatedWaitMinutes);
         
         System.out.println("🎯 Creating waitlist entry:");
@@ -254,14 +265,28 @@ public class WaitlistService {
      * Calculate estimated wait time for customer (compatibility method)
      */
     public Integer calculateEstimatedWaitTimeForCustomer(Integer restaurantId) {
+        if (queueIndex != null) {
+            OptionalInt queueLength = queueIndex.findQueueLength(restaurantId);
+            if (queueLength.isPresent()) {
+                return estimateWaitMinutes(restaurantId, null, queueLength.getAsInt());
+            }
+        }
         long queuePosition = waitlistRepository.countByRestaurantIdAndStatus(restaurantId, WaitlistStatus.WAITING);
-        return (int) (queuePosition * 30); // 30 minutes per position
+        return estimateWaitMinutes(restaurantId, null, (int) queuePosition);
     }
 
     /**
      * Get queue position (compatibility method)
      */
     public Integer getQueuePosition(Integer waitlistId) {
+        // O(log n) rank in the in-memory queue, no query
+        if (queueIndex != null) {
+            OptionalInt position = queueIndex.findPosition(waitlistId);
+            if (position.isPresent()) {
+                return position.getAsInt();
+            }
+        }
+
         Waitlist waitlist = waitlistRepository.findById(waitlistId)
                 .orElseThrow(() -> new IllegalArgumentException("Waitlist entry not found"));
 
@@ -271,6 +296,9 @@ public class WaitlistService {
         
         for (int i = 0; i < earlierEntries.size(); i++) {
             if (earlierEntries.get(i).getWaitlistId().equals(waitlistId)) {
+                if (queueIndex != null) {
+                    queueIndex.reportDrift(waitlist.getRestaurant().getRestaurantId());
+                }
                 return i + 1;
             }
         }
@@ -281,8 +309,25 @@ public class WaitlistService {
      * Calculate estimated wait time (compatibility method)
      */
     public Integer calculateEstimatedWaitTime(Integer waitlistId) {
+        if (queueIndex != null && turnTimeModel != null) {
+            Optional<WaitlistQueueIndex.QueuePosition> position = queueIndex.findQueuePosition(waitlistId);
+            if (position.isPresent()) {
+                return estimateWaitMinutes(position.get().restaurantId(), position.get().partySize(),
+                        position.get().position());
+            }
+        }
         Integer queuePosition = getQueuePosition(waitlistId);
-        return queuePosition * 30; // 30 minutes per position
+        return queuePosition * TurnTimeModel.DEFAULT_MINUTES_PER_POSITION;
+    }
+
+    /**
+     * Wait for a queue position from the turn-time model, or 30 minutes per position without it
+     */
+    private int estimateWaitMinutes(Integer restaurantId, Integer partySize, int queuePosition) {
+        if (turnTimeModel != null) {
+            return turnTimeModel.estimateWaitMinutes(restaurantId, partySize, queuePosition, LocalDateTime.now());
+        }
+        return queuePosition * TurnTimeModel.DEFAULT_MINUTES_PER_POSITION;
     }
     
     /**
@@ -494,7 +539,7 @@ public class WaitlistService {
             // Calculate estimated wait time based on current queue position
             long queuePosition = waitlistRepository.countByRestaurantIdAndStatus(restaurantId, WaitlistStatus.WAITING)
                     + 1;
-            int estimatedWaitMinutes = (int) (queuePosition * 30); // 30 minutes per position
+            int estimatedWaitMinutes = estimateWaitMinutes(restaurantId, partySize, (int) queuePosition);
             waitlist.setEstimatedWaitTime(estimatedWaitMinutes);
 
             // Save waitlist first
@@ -766,6 +811,87 @@ public class WaitlistService {
         Booking savedBooking = bookingRepository.save(booking);
         System.out.println("✅ Booking created from waitlist: " + savedBooking.getBookingId());
 
+        BigDecimal subtotal;
+        if (lineItemWriter != null) {
+            // Copy dishes, services and tables with their snapshot prices in one batch per type
+            BookingLineItemWriter.Totals totals = copyWaitlistItems(waitlist, savedBooking);
+            savedBooking.setLineItemTotals(totals.tableFees(), totals.dishesTotal(), totals.servicesTotal());
+            subtotal = totals.subtotal();
+        } else {
+            copyWaitlistItemsRowByRow(waitlist, savedBooking);
+            // Tính subtotal (table fees + dishes + services)
+            subtotal = calculateTotalAmount(savedBooking);
+        }
+
+        // Lưu totalAmount vào database để tối ưu performance
+        savedBooking.setTotalAmount(subtotal);
+
+        // Tính deposit = 10% của subtotal
+        BigDecimal depositAmount = BigDecimal.ZERO;
+        if (subtotal.compareTo(BigDecimal.ZERO) > 0) {
+            depositAmount = subtotal.multiply(new BigDecimal("0.10"));
+            depositAmount = depositAmount.setScale(0, java.math.RoundingMode.HALF_UP);
+        }
+        savedBooking.setDepositAmount(depositAmount);
+        bookingRepository.save(savedBooking);
+
+        // Cập nhật waitlist status
+        WaitlistStatus oldStatus = waitlist.getStatus();
+        waitlist.setStatus(WaitlistStatus.SEATED);
+        Waitlist savedWaitlist = waitlistRepository.save(waitlist);
+        
+        // Send notification to customer
+        try {
+            waitlistNotificationService.notifyWaitlistStatusChanged(savedWaitlist, oldStatus);
+        } catch (Exception e) {
+            System.err.println("❌ Failed to send waitlist seated notification: " + e.getMessage());
+        }
+
+        System.out.println("✅ Waitlist confirmed to booking successfully");
+        System.out.println("   Waitlist ID: " + waitlistId);
+        System.out.println("   Booking ID: " + savedBooking.getBookingId());
+        System.out.println("   Booking Time: " + confirmedBookingTime);
+        System.out.println("   Total Amount: " + subtotal);
+        System.out.println("   Deposit Amount: " + depositAmount);
+
+        return savedBooking;
+    }
+
+    /**
+     * Copy waitlist items to the booking through the batched line item writer
+     */
+    private BookingLineItemWriter.Totals copyWaitlistItems(Waitlist waitlist, Booking savedBooking) {
+        List<BookingTable> tables = new ArrayList<>();
+        if (waitlist.getWaitlistTables() != null) {
+            for (WaitlistTable waitlistTable : waitlist.getWaitlistTables()) {
+                BookingTable bookingTable = new BookingTable(savedBooking, waitlistTable.getTable());
+                // Set tableFee từ waitlistTable (snapshot tại thời điểm join waitlist)
+                bookingTable.setTableFee(waitlistTable.getTableFee());
+                tables.add(bookingTable);
+            }
+        }
+        List<BookingDish> dishes = new ArrayList<>();
+        if (waitlist.getWaitlistDishes() != null) {
+            for (WaitlistDish waitlistDish : waitlist.getWaitlistDishes()) {
+                dishes.add(new BookingDish(savedBooking, waitlistDish.getDish(), waitlistDish.getQuantity(),
+                        waitlistDish.getPrice()));
+            }
+        }
+        List<BookingService> services = new ArrayList<>();
+        if (waitlist.getWaitlistServices() != null) {
+            for (WaitlistServiceItem waitlistService : waitlist.getWaitlistServices()) {
+                services.add(new BookingService(savedBooking, waitlistService.getService(),
+                        waitlistService.getQuantity(), waitlistService.getPrice()));
+            }
+        }
+        // Booking is already CONFIRMED, so the table rows are checked by the overlap constraint
+        BookingLineItemWriter.Totals totals = lineItemWriter.write(savedBooking, tables, dishes, services);
+        System.out.println("✅ Copied " + tables.size() + " tables, " + dishes.size() + " dishes, "
+                + services.size() + " services to booking");
+        return totals;
+    }
+
+    private void copyWaitlistItemsRowByRow(Waitlist waitlist, Booking savedBooking) {
         // Copy dishes từ waitlist
         if (waitlist.getWaitlistDishes() != null && !waitlist.getWaitlistDishes().isEmpty()) {
             for (WaitlistDish waitlistDish : waitlist.getWaitlistDishes()) {
@@ -798,46 +924,12 @@ public class WaitlistService {
                 BookingTable bookingTable = new BookingTable(savedBooking, waitlistTable.getTable());
                 // Set tableFee từ waitlistTable (snapshot tại thời điểm join waitlist)
                 bookingTable.setTableFee(waitlistTable.getTableFee());
-                bookingTableRepository.save(bookingTable);
+                // Booking is already CONFIRMED, so the insert is checked by the overlap constraint
+                BookingOverlapConstraint.write(savedBooking, waitlistTable.getTable().getTableId(),
+                        () -> bookingTableRepository.save(bookingTable));
             }
             System.out.println("✅ Copied " + waitlist.getWaitlistTables().size() + " tables to booking");
         }
-
-        // Tính subtotal (table fees + dishes + services)
-        BigDecimal subtotal = calculateTotalAmount(savedBooking);
-
-        // Lưu totalAmount vào database để tối ưu performance
-        savedBooking.setTotalAmount(subtotal);
-
-        // Tính deposit = 10% của subtotal
-        BigDecimal depositAmount = BigDecimal.ZERO;
-        if (subtotal.compareTo(BigDecimal.ZERO) > 0) {
-            depositAmount = subtotal.multiply(new BigDecimal("0.10"));
-            depositAmount = depositAmount.setScale(0, java.math.RoundingMode.HALF_UP);
-        }
-        savedBooking.setDepositAmount(depositAmount);
-        bookingRepository.save(savedBooking);
-
-        // Cập nhật waitlist status
-        WaitlistStatus oldStatus = waitlist.getStatus();
-        waitlist.setStatus(WaitlistStatus.SEATED);
-        Waitlist savedWaitlist = waitlistRepository.save(waitlist);
-        
-        // Send notification to customer
-        try {
-            waitlistNotificationService.notifyWaitlistStatusChanged(savedWaitlist, oldStatus);
-        } catch (Exception e) {
-            System.err.println("❌ Failed to send waitlist seated notification: " + e.getMessage());
-        }
-
-        System.out.println("✅ Waitlist confirmed to booking successfully");
-        System.out.println("   Waitlist ID: " + waitlistId);
-        System.out.println("   Booking ID: " + savedBooking.getBookingId());
-        System.out.println("   Booking Time: " + confirmedBookingTime);
-        System.out.println("   Total Amount: " + subtotal);
-        System.out.println("   Deposit Amount: " + depositAmount);
-
-        return savedBooking;
     }
 
     /**
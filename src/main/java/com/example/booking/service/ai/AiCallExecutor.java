@@ -0,0 +1,419 @@
+package com.example.booking.service.ai;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Dedicated execution layer for blocking OpenAI calls (English + Vietnamese)
+ * Tầng thực thi riêng cho các lời gọi OpenAI: giới hạn đồng thời, ngắt mạch và gửi yêu cầu dự phòng.
+ *
+ * Each operation type gets its own bounded thread pool (bulkhead), so a slow operation cannot
+ * starve the others or the common pool. Timed-out and losing attempts are cancelled with an
+ * interrupt, which disposes the blocking OpenAI client call and cancels the HTTP request.
+ * A per-operation circuit breaker counts failed and slow calls over a sliding window and fails
+ * fast while open, letting callers fall back immediately.
+ */
+@Component
+public class AiCallExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiCallExecutor.class);
+
+    public enum Operation {
+        PING(false),
+        INTENT(true),
+        SUGGEST(true),
+        EXPLAIN(true),
+        IMPROVE(false),
+        PARSE_INFO(false);
+
+        private final boolean hedgeable;
+
+        Operation(boolean hedgeable) {
+            this.hedgeable = hedgeable;
+        }
+
+        public String tag() {
+            return name().toLowerCase();
+        }
+    }
+
+    /**
+     * Thrown without calling upstream while the circuit of an operation is open
+     */
+    public static class CircuitOpenException extends RuntimeException {
+        public CircuitOpenException(Operation operation) {
+            super("AI circuit open for " + operation.tag());
+        }
+    }
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${ai.execution.max-concurrent:8}")
+    private int maxConcurrent = 8;
+
+    @Value("${ai.execution.queue-capacity:16}")
+    private int queueCapacity = 16;
+
+    @Value("${ai.execution.slow-call-ms:4000}")
+    private long slowCallMs = 4000;
+
+    @Value("${ai.execution.window-size:20}")
+    private int windowSize = 20;
+
+    @Value("${ai.execution.minimum-calls:10}")
+    private int minimumCalls = 10;
+
+    @Value("${ai.execution.failure-rate-threshold:50}")
+    private int failureRateThreshold = 50;
+
+    @Value("${ai.execution.open-ms:30000}")
+    private long openMs = 30000;
+
+    /** Delay before a second attempt is sent for hedgeable operations; 0 disables hedging */
+    @Value("${ai.execution.hedge-delay-ms:0}")
+    private long hedgeDelayMs = 0;
+
+    private final Map<Operation, Lane> lanes = new ConcurrentHashMap<>();
+
+    private final ScheduledThreadPoolExecutor scheduler = createScheduler();
+
+    /**
+     * Run a blocking upstream call for the operation with its bulkhead, breaker, timeout and hedging
+     */
+    public <T> CompletableFuture<T> submit(Operation operation, Duration timeout, Callable<T> call) {
+        Lane lane = lane(operation);
+        if (!lane.breaker.tryAcquire()) {
+            count(operation, "short_circuited");
+            return CompletableFuture.failedFuture(new CircuitOpenException(operation));
+        }
+
+        Call<T> attempt = new Call<>(lane, call);
+        try {
+            attempt.launch();
+        } catch (RejectedExecutionException e) {
+            lane.breaker.release();
+            count(operation, "rejected");
+            return CompletableFuture.failedFuture(e);
+        }
+
+        List<ScheduledFuture<?>> timers = new CopyOnWriteArrayList<>();
+        timers.add(scheduler.schedule(() -> attempt.fail(
+                new TimeoutException("AI " + operation.tag() + " timed out after " + timeout.toMillis() + "ms")),
+                timeout.toMillis(), TimeUnit.MILLISECONDS));
+        if (operation.hedgeable && hedgeDelayMs > 0 && hedgeDelayMs < timeout.toMillis()) {
+            timers.add(scheduler.schedule(attempt::hedge, hedgeDelayMs, TimeUnit.MILLISECONDS));
+        }
+
+        // Callers see the result only after the breaker and metrics have recorded it
+        return attempt.result.whenComplete((value, error) -> {
+            timers.forEach(timer -> timer.cancel(false));
+            attempt.cancelRemaining();
+            attempt.finish(error);
+        });
+    }
+
+    /**
+     * Current breaker state of an operation, for health pages and tests
+     */
+    public CircuitBreaker.State circuitState(Operation operation) {
+        return lane(operation).breaker.state();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        lanes.values().forEach(lane -> lane.executor.shutdownNow());
+    }
+
+    private Lane lane(Operation operation) {
+        return lanes.computeIfAbsent(operation, this::createLane);
+    }
+
+    private Lane createLane(Operation operation) {
+        int threads = Math.max(1, maxConcurrent);
+        BlockingQueue<Runnable> queue = queueCapacity > 0
+                ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, queue,
+                daemonThreads("ai-" + operation.tag() + "-"));
+        executor.allowCoreThreadTimeOut(true);
+
+        Lane lane = new Lane(operation, executor, new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold,
+                TimeUnit.MILLISECONDS.toNanos(openMs)));
+        if (meterRegistry != null) {
+            Gauge.builder("ai.circuit.state", lane.breaker, breaker -> breaker.state().ordinal())
+                .description("0 closed, 1 open, 2 half open")
+                .tag("operation", operation.tag())
+                .register(meterRegistry);
+            Gauge.builder("ai.bulkhead.active", executor, ThreadPoolExecutor::getActiveCount)
+                .tag("operation", operation.tag())
+                .register(meterRegistry);
+            Gauge.builder("ai.bulkhead.queued", executor, pool -> pool.getQueue().size())
+                .tag("operation", operation.tag())
+                .register(meterRegistry);
+        }
+        return lane;
+    }
+
+    private void count(Operation operation, String outcome) {
+        if (meterRegistry != null) {
+            meterRegistry.counter("ai.call.requests", "operation", operation.tag(), "outcome", outcome).increment();
+        }
+    }
+
+    private void countHedge(Operation operation, String result) {
+        if (meterRegistry != null) {
+            meterRegistry.counter("ai.call.hedges", "operation", operation.tag(), "result", result).increment();
+        }
+    }
+
+    private static ScheduledThreadPoolExecutor createScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, daemonThreads("ai-timer-"));
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Lane {
+        final Operation operation;
+        final ThreadPoolExecutor executor;
+        final CircuitBreaker breaker;
+
+        Lane(Operation operation, ThreadPoolExecutor executor, CircuitBreaker breaker) {
+            this.operation = operation;
+            this.executor = executor;
+            this.breaker = breaker;
+        }
+    }
+
+    /**
+     * One logical call: the primary attempt plus an optional hedge, racing to complete result
+     */
+    private final class Call<T> {
+        final Lane lane;
+        final Callable<T> call;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final List<Future<?>> attempts = new CopyOnWriteArrayList<>();
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicBoolean settled = new AtomicBoolean();
+        final long started = System.nanoTime();
+        volatile boolean hedgeWon;
+
+        Call(Lane lane, Callable<T> call) {
+            this.lane = lane;
+            this.call = call;
+        }
+
+        void launch() {
+            boolean hedge = !attempts.isEmpty();
+            running.incrementAndGet();
+            try {
+                attempts.add(lane.executor.submit(() -> run(hedge)));
+            } catch (RejectedExecutionException e) {
+                running.decrementAndGet();
+                throw e;
+            }
+        }
+
+        void hedge() {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                launch();
+                countHedge(lane.operation, "launched");
+            } catch (RejectedExecutionException e) {
+                countHedge(lane.operation, "rejected");
+            }
+        }
+
+        private void run(boolean hedge) {
+            try {
+                T value = call.call();
+                if (settled.compareAndSet(false, true)) {
+                    hedgeWon = hedge;
+                    result.complete(value);
+                }
+            } catch (Throwable e) {
+                // The last attempt standing reports the failure; an earlier one leaves room for the hedge
+                if (running.decrementAndGet() == 0) {
+                    fail(e);
+                }
+            }
+        }
+
+        void fail(Throwable error) {
+            if (settled.compareAndSet(false, true)) {
+                result.completeExceptionally(error);
+            }
+        }
+
+        void cancelRemaining() {
+            attempts.forEach(attempt -> attempt.cancel(true));
+        }
+
+        void finish(Throwable error) {
+            long elapsed = System.nanoTime() - started;
+            String outcome = error == null ? "success" : error instanceof TimeoutException ? "timeout" : "failure";
+            boolean slow = elapsed > TimeUnit.MILLISECONDS.toNanos(slowCallMs);
+            lane.breaker.record(error != null || slow);
+            count(lane.operation, outcome);
+            if (hedgeWon) {
+                countHedge(lane.operation, "won");
+            }
+            if (meterRegistry != null) {
+                Timer.builder("ai.call.latency")
+                    .tag("operation", lane.operation.tag())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            }
+            if (error != null) {
+                logger.debug("AI {} call failed: {}", lane.operation.tag(), error.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Count-based circuit breaker. Opens when failed or slow calls reach the threshold rate over
+     * the last windowSize calls, rejects calls for the open duration, then lets one trial call
+     * through: success closes it, failure opens it again.
+     */
+    public static final class CircuitBreaker {
+
+        public enum State { CLOSED, OPEN, HALF_OPEN }
+
+        private final boolean[] window;
+        private final int minimumCalls;
+        private final int failureRateThreshold;
+        private final long openNanos;
+
+        private State state = State.CLOSED;
+        private int next;
+        private int recorded;
+        private int failures;
+        private long openedAt;
+        private boolean trialInFlight;
+
+        CircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold, long openNanos) {
+            this.window = new boolean[Math.max(1, windowSize)];
+            this.minimumCalls = Math.max(1, Math.min(minimumCalls, window.length));
+            this.failureRateThreshold = failureRateThreshold;
+            this.openNanos = openNanos;
+        }
+
+        synchronized State state() {
+            return state;
+        }
+
+        synchronized boolean tryAcquire() {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAt < openNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                trialInFlight = false;
+            }
+            if (state == State.HALF_OPEN) {
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+            }
+            return true;
+        }
+
+        /**
+         * Give back a permission whose call never reached upstream
+         */
+        synchronized void release() {
+            if (state == State.HALF_OPEN) {
+                trialInFlight = false;
+            }
+        }
+
+        synchronized void record(boolean failed) {
+            if (state == State.HALF_OPEN) {
+                if (failed) {
+                    open();
+                } else {
+                    close();
+                }
+                return;
+            }
+            if (state == State.OPEN) {
+                return;
+            }
+            if (recorded == window.length) {
+                if (window[next]) {
+                    failures--;
+                }
+            } else {
+                recorded++;
+            }
+            window[next] = failed;
+            if (failed) {
+                failures++;
+            }
+            next = (next + 1) % window.length;
+            if (recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+                open();
+            }
+        }
+
+        private void open() {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            trialInFlight = false;
+            logger.warn("AI circuit opened after {} failed or slow calls out of {}", failures, recorded);
+        }
+
+        private void close() {
+            state = State.CLOSED;
+            next = 0;
+            recorded = 0;
+            failures = 0;
+            trialInFlight = false;
+            Arrays.fill(window, false);
+        }
+    }
+}
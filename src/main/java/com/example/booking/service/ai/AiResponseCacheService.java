@@ -0,0 +1,394 @@
+package com.example.booking.service.ai;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.booking.domain.AiResponseCache;
+import com.example.booking.repository.AiResponseCacheRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Two-tier cache in front of the OpenAI calls (English + Vietnamese)
+ * Bộ nhớ đệm hai tầng cho các lời gọi OpenAI: Caffeine trong bộ nhớ và bảng ai_response_cache dùng chung.
+ *
+ * Entries are keyed on a normalized fingerprint of the prompt input. Concurrent identical requests
+ * on one node share a single in-flight call; across nodes, the first node takes a lease row and the
+ * others poll for its result before calling the model themselves. Failed calls are never cached.
+ *
+ * Lookups and polls run on the cache's own bounded pool (threads "ai-cache-"), not the common
+ * pool; when that pool is saturated the model is called directly instead of queueing behind the
+ * database.
+ */
+@Service
+public class AiResponseCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiResponseCacheService.class);
+
+    public static final String INTENT = "aiIntent";
+    public static final String EXPLAIN = "aiExplain";
+
+    static final int WARM_LIMIT = 2000;
+    static final Duration LEASE = Duration.ofSeconds(30);
+    private static final long POLL_INTERVAL_MS = 200;
+
+    @Autowired
+    private AiResponseCacheRepository aiResponseCacheRepository;
+
+    @Autowired
+    @Qualifier("aiCacheManager")
+    private CacheManager aiCacheManager;
+
+    @Autowired
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${ai.cache.peer-wait-ms:2500}")
+    private long peerWaitMs = 2500;
+
+    @Value("${ai.cache.lookup-threads:4}")
+    private int lookupThreads = 4;
+
+    @Value("${ai.cache.lookup-queue-capacity:64}")
+    private int lookupQueueCapacity = 64;
+
+    private final ConcurrentHashMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor pollTimer = createPollTimer();
+    private volatile ThreadPoolExecutor lookupExecutor;
+
+    /**
+     * Value kept in the in-memory tier; carries the persisted expiry so both tiers agree
+     */
+    record CachedResponse(String payload, LocalDateTime expiresAt) {
+    }
+
+    /**
+     * Return the cached response for the input, or call the loader once and cache its result for ttl.
+     * Every caller gets its own deserialized copy, so results can be modified freely.
+     */
+    public <T> CompletableFuture<T> getOrLoad(String kind, String input, Duration ttl, TypeReference<T> type,
+            Supplier<CompletableFuture<T>> loader) {
+        String fingerprint = fingerprint(input);
+        String key = cacheKey(kind, fingerprint);
+
+        CachedResponse cached = fromMemory(kind, key);
+        if (cached != null && cached.expiresAt().isAfter(LocalDateTime.now())) {
+            count(kind, "memory");
+            return CompletableFuture.completedFuture(cached.payload()).thenApply(payload -> read(payload, type));
+        }
+
+        CompletableFuture<String> flight = new CompletableFuture<>();
+        CompletableFuture<String> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            count(kind, "coalesced");
+            return leader.thenApply(payload -> read(payload, type));
+        }
+
+        Load load = new Load(kind, key, fingerprint, ttl, flight, () -> loader.get().thenApply(this::write));
+        dispatch(load, () -> resolve(load));
+        return flight.thenApply(payload -> read(payload, type));
+    }
+
+    /**
+     * Normalized form of the input: NFC, lower case, punctuation and repeated spaces collapsed.
+     * Diacritics are kept because they change meaning in Vietnamese ("gà" vs "ga"); lines are kept
+     * apart so list inputs cannot collide by regrouping words.
+     */
+    static String fingerprint(String input) {
+        if (input == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(input, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+        StringBuilder fingerprint = new StringBuilder(normalized.length());
+        for (String line : normalized.split("\n", -1)) {
+            if (fingerprint.length() > 0) {
+                fingerprint.append('\n');
+            }
+            fingerprint.append(line.replaceAll("[^\\p{L}\\p{M}\\p{N}]+", " ").trim());
+        }
+        return fingerprint.toString();
+    }
+
+    static String cacheKey(String kind, String fingerprint) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(fingerprint.getBytes(StandardCharsets.UTF_8));
+            return kind + ":" + HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            List<AiResponseCache> entries = aiResponseCacheRepository.findLiveEntries(LocalDateTime.now(),
+                    PageRequest.of(0, WARM_LIMIT));
+            int warmed = 0;
+            for (AiResponseCache entry : entries) {
+                Cache memory = aiCacheManager.getCache(entry.getKind());
+                if (memory != null) {
+                    memory.put(entry.getCacheKey(), new CachedResponse(entry.getPayload(), entry.getExpiresAt()));
+                    warmed++;
+                }
+            }
+            logger.info("AI response cache warmed with {} entries", warmed);
+        } catch (Exception e) {
+            logger.error("Failed to warm AI response cache, entries will load on demand", e);
+        }
+    }
+
+    @Scheduled(fixedDelay = 3600000, initialDelay = 3600000)
+    public void purgeExpired() {
+        try {
+            int removed = aiResponseCacheRepository.deleteExpired(LocalDateTime.now());
+            if (removed > 0) {
+                logger.info("Purged {} expired AI response cache entries", removed);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to purge expired AI response cache entries", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pollTimer.shutdownNow();
+        ThreadPoolExecutor executor = lookupExecutor;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Run a lookup on the lookup pool; if it is full, skip the shared tier and call the model
+     */
+    private void dispatch(Load load, Runnable lookup) {
+        try {
+            lookups().execute(lookup);
+        } catch (RejectedExecutionException e) {
+            count(load.kind, "rejected");
+            callUpstream(load);
+        }
+    }
+
+    private void resolve(Load load) {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            AiResponseCache stored = aiResponseCacheRepository.findById(load.key).orElse(null);
+            if (stored != null && stored.isLiveAt(now)) {
+                count(load.kind, "database");
+                finish(load, stored.getPayload(), stored.getExpiresAt());
+                return;
+            }
+            if (aiResponseCacheRepository.claim(load.key, load.kind, load.fingerprint, now, now.plus(LEASE)) == 0) {
+                awaitPeer(load, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(peerWaitMs));
+                return;
+            }
+            load.claimed = true;
+        } catch (Exception e) {
+            logger.warn("AI response cache lookup failed for {}, calling the model directly: {}", load.kind,
+                    e.getMessage());
+        }
+        callUpstream(load);
+    }
+
+    /**
+     * Another node holds the lease: poll for its result until peerWaitMs, then call the model ourselves
+     */
+    private void awaitPeer(Load load, long deadline) {
+        try {
+            // The timer thread only hands the poll over to the lookup pool
+            pollTimer.schedule(() -> dispatch(load, () -> poll(load, deadline)), POLL_INTERVAL_MS,
+                    TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            callUpstream(load);
+        }
+    }
+
+    private void poll(Load load, long deadline) {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            AiResponseCache stored = aiResponseCacheRepository.findById(load.key).orElse(null);
+            if (stored != null && stored.isLiveAt(now)) {
+                count(load.kind, "peer");
+                finish(load, stored.getPayload(), stored.getExpiresAt());
+                return;
+            }
+            boolean leased = stored != null && stored.getPayload() == null && stored.getExpiresAt().isAfter(now);
+            if (leased && System.nanoTime() < deadline) {
+                awaitPeer(load, deadline);
+                return;
+            }
+        } catch (Exception e) {
+            logger.warn("AI response cache poll failed for {}: {}", load.kind, e.getMessage());
+        }
+        callUpstream(load);
+    }
+
+    private void callUpstream(Load load) {
+        count(load.kind, "miss");
+        long started = System.nanoTime();
+        CompletableFuture<String> call;
+        try {
+            call = load.upstream.get().orTimeout(LEASE.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        call.whenComplete((payload, error) -> {
+            if (meterRegistry != null) {
+                Timer.builder("ai.cache.upstream")
+                    .tag("kind", load.kind)
+                    .tag("outcome", error == null ? "success" : "error")
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+            if (error != null) {
+                if (load.claimed) {
+                    releaseLease(load.key);
+                }
+                inFlight.remove(load.key, load.flight);
+                load.flight.completeExceptionally(error);
+                return;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime expiresAt = now.plus(load.ttl);
+            try {
+                aiResponseCacheRepository.save(
+                        new AiResponseCache(load.key, load.kind, load.fingerprint, payload, now, expiresAt));
+            } catch (Exception e) {
+                logger.warn("Failed to persist AI response cache entry for {}: {}", load.kind, e.getMessage());
+            }
+            finish(load, payload, expiresAt);
+        });
+    }
+
+    private void finish(Load load, String payload, LocalDateTime expiresAt) {
+        Cache memory = aiCacheManager.getCache(load.kind);
+        if (memory != null) {
+            memory.put(load.key, new CachedResponse(payload, expiresAt));
+        }
+        inFlight.remove(load.key, load.flight);
+        load.flight.complete(payload);
+    }
+
+    private void releaseLease(String key) {
+        try {
+            aiResponseCacheRepository.releaseLease(key);
+        } catch (Exception e) {
+            logger.warn("Failed to release AI response cache lease: {}", e.getMessage());
+        }
+    }
+
+    private ThreadPoolExecutor lookups() {
+        ThreadPoolExecutor executor = lookupExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                if (lookupExecutor == null) {
+                    int threads = Math.max(1, lookupThreads);
+                    ThreadPoolExecutor created = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                            new ArrayBlockingQueue<>(Math.max(1, lookupQueueCapacity)),
+                            AiCallExecutor.daemonThreads("ai-cache-"));
+                    created.allowCoreThreadTimeOut(true);
+                    lookupExecutor = created;
+                }
+                executor = lookupExecutor;
+            }
+        }
+        return executor;
+    }
+
+    private static ScheduledThreadPoolExecutor createPollTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1,
+                AiCallExecutor.daemonThreads("ai-cache-timer-"));
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    private CachedResponse fromMemory(String kind, String key) {
+        Cache memory = aiCacheManager.getCache(kind);
+        return memory != null ? memory.get(key, CachedResponse.class) : null;
+    }
+
+    private void count(String kind, String result) {
+        if (meterRegistry != null) {
+            meterRegistry.counter("ai.cache.requests", "kind", kind, "result", result).increment();
+        }
+    }
+
+    private String write(Object value) {
+        if (value == null) {
+            throw new IllegalStateException("Empty AI response");
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize AI response", e);
+        }
+    }
+
+    private <T> T read(String payload, TypeReference<T> type) {
+        try {
+            return objectMapper.readValue(payload, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read cached AI response", e);
+        }
+    }
+
+    /**
+     * One pending cache fill: the shared future callers wait on and how to fill it
+     */
+    private static final class Load {
+        final String kind;
+        final String key;
+        final String fingerprint;
+        final Duration ttl;
+        final CompletableFuture<String> flight;
+        final Supplier<CompletableFuture<String>> upstream;
+        volatile boolean claimed;
+
+        Load(String kind, String key, String fingerprint, Duration ttl, CompletableFuture<String> flight,
+                Supplier<CompletableFuture<String>> upstream) {
+            this.kind = kind;
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.ttl = ttl;
+            this.flight = flight;
+            this.upstream = upstream;
+        }
+    }
+}
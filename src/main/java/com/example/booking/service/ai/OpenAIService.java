@@ -1,15 +1,21 @@
 package com.example.booking.service.ai;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.theokanning.openai.completion.chat.ChatCompletionRequest;
 import com.theokanning.openai.completion.chat.ChatMessage;
@@ -22,6 +28,8 @@ import com.theokanning.openai.service.OpenAiService;
 @Service
 public class OpenAIService {
     
+    private static final Logger logger = LoggerFactory.getLogger(OpenAIService.class);
+    
     @Autowired
     private OpenAiService openAiService;
     
@@ -34,11 +42,26 @@ public class OpenAIService {
     @Value("${ai.openai.timeout-ms:5000}")
     private int timeoutMs = 5000;
     
+    @Autowired(required = false)
+    private AiResponseCacheService aiResponseCacheService;
+    
+    @Autowired(required = false)
+    private AiCallExecutor aiCallExecutor;
+    
+    @Value("${ai.cache.intent-ttl-minutes:1440}")
+    private long intentCacheTtlMinutes = 1440;
+    
+    @Value("${ai.cache.explain-ttl-minutes:720}")
+    private long explainCacheTtlMinutes = 720;
+    
+    private static final TypeReference<Map<String, Object>> INTENT_TYPE = new TypeReference<>() {};
+    private static final TypeReference<List<String>> EXPLAIN_TYPE = new TypeReference<>() {};
+    
     /**
      * Lightweight ping to verify OpenAI API connectivity and key validity
      */
     public CompletableFuture<String> ping() {
-        return CompletableFuture.supplyAsync(() -> {
+        return callModel(AiCallExecutor.Operation.PING, Math.max(timeoutMs * 4L, 6000L), () -> {
             try {
                 String systemPrompt = "Bạn là dịch vụ health-check. Nếu nhận 'ping' hãy trả về đúng chữ 'pong'.";
                 String userPrompt = "ping";
@@ -58,18 +81,32 @@ public class OpenAIService {
                 // Surface error message to caller for diagnostics
                 throw new RuntimeException("OpenAI ping failed: " + e.getMessage(), e);
             }
-        }).orTimeout(Math.max(timeoutMs * 4L, 6000L), TimeUnit.MILLISECONDS);
+        });
     }
 
     /**
-     * Parse user intent - enhanced version with food suggestions
+     * Parse user intent - enhanced version with food suggestions.
+     * The prompt only depends on the query, so results are shared between users through the response cache.
      */
     public CompletableFuture<Map<String, Object>> parseIntent(String query, String userId) {
         if (query == null || query.trim().isEmpty()) {
             return CompletableFuture.completedFuture(defaultIntentFallback());
         }
 
-        return CompletableFuture.supplyAsync(() -> {
+        CompletableFuture<Map<String, Object>> intent = aiResponseCacheService != null
+            ? aiResponseCacheService.getOrLoad(AiResponseCacheService.INTENT, query,
+                Duration.ofMinutes(intentCacheTtlMinutes), INTENT_TYPE, () -> requestIntent(query))
+            : requestIntent(query);
+        return intent
+            .orTimeout(Math.max(timeoutMs, 5000), TimeUnit.MILLISECONDS)
+            .exceptionally(e -> defaultIntentFallback());
+    }
+    
+    /**
+     * Call the model for an intent; fails instead of falling back so that fallbacks are never cached
+     */
+    private CompletableFuture<Map<String, Object>> requestIntent(String query) {
+        return callModel(AiCallExecutor.Operation.INTENT, Math.max(timeoutMs, 5000), () -> {
             try {
                 String systemPrompt = """
                     Bạn là AI chuyên phân tích ý định tìm kiếm nhà hàng và tư vấn món ăn.
@@ -224,11 +261,10 @@ public class OpenAIService {
                 return result;
                 
             } catch (Exception e) {
-                System.err.println("Error parsing intent: " + e.getMessage());
-                e.printStackTrace();
-                return defaultIntentFallback();
+                logger.warn("Error parsing intent", e);
+                throw new IllegalStateException("Error parsing intent", e);
             }
-        }).orTimeout(Math.max(timeoutMs, 5000), TimeUnit.MILLISECONDS);
+        });
     }
     
     /**
@@ -240,7 +276,7 @@ public class OpenAIService {
             return CompletableFuture.completedFuture(java.util.Collections.emptyList());
         }
 
-        return CompletableFuture.supplyAsync(() -> {
+        return callModel(AiCallExecutor.Operation.SUGGEST, timeoutMs, () -> {
             try {
                 String systemPrompt = """
                     Bạn là chuyên gia dinh dưỡng AI. Dựa vào yêu cầu của người dùng, đề xuất 3-5 món ăn cụ thể phù hợp.
@@ -282,18 +318,27 @@ public class OpenAIService {
                 return foods;
                 
             } catch (Exception e) {
-                System.err.println("Error suggesting food items: " + e.getMessage());
-                e.printStackTrace();
-                return new java.util.ArrayList<String>();
+                logger.warn("Error suggesting food items", e);
+                throw new IllegalStateException("Error suggesting food items", e);
             }
-        }, java.util.concurrent.ForkJoinPool.commonPool()).orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+        }).exceptionally(e -> new java.util.ArrayList<String>());
     }
     
     /**
      * Generate simple explanations for restaurants
      */
     public CompletableFuture<List<String>> explainRestaurants(List<String> restaurantNames) {
-        return CompletableFuture.supplyAsync(() -> {
+        CompletableFuture<List<String>> explanations = aiResponseCacheService != null
+            ? aiResponseCacheService.getOrLoad(AiResponseCacheService.EXPLAIN, String.join("\n", restaurantNames),
+                Duration.ofMinutes(explainCacheTtlMinutes), EXPLAIN_TYPE, () -> requestExplanations(restaurantNames))
+            : requestExplanations(restaurantNames);
+        return explanations
+            .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+            .exceptionally(e -> fallbackExplanations(restaurantNames));
+    }
+    
+    private CompletableFuture<List<String>> requestExplanations(List<String> restaurantNames) {
+        return callModel(AiCallExecutor.Operation.EXPLAIN, timeoutMs, () -> {
             try {
                 String systemPrompt = """
                     Bạn là AI chuyên giải thích lý do recommend nhà hàng.
@@ -320,12 +365,34 @@ public class OpenAIService {
                 return List.of(response.split("\n"));
                 
             } catch (Exception e) {
-                // Fallback explanations
-                return restaurantNames.stream()
-                    .map(name -> "Nhà hàng " + name + " phù hợp với yêu cầu của bạn")
-                    .toList();
+                throw new IllegalStateException("Error explaining restaurants", e);
+            }
+        });
+    }
+    
+    private List<String> fallbackExplanations(List<String> restaurantNames) {
+        return restaurantNames.stream()
+            .map(name -> "Nhà hàng " + name + " phù hợp với yêu cầu của bạn")
+            .toList();
+    }
+    
+    /**
+     * Run a blocking model call on the AI execution layer (bulkhead, circuit breaker, cancelling timeout).
+     * Without it the call runs on the default async pool and is only abandoned on timeout.
+     */
+    private <T> CompletableFuture<T> callModel(AiCallExecutor.Operation operation, long timeout, Callable<T> call) {
+        if (aiCallExecutor != null) {
+            return aiCallExecutor.submit(operation, Duration.ofMillis(timeout), call);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return call.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
             }
-        }).orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+        }).orTimeout(timeout, TimeUnit.MILLISECONDS);
     }
     
     /**
@@ -372,7 +439,7 @@ public class OpenAIService {
             return CompletableFuture.completedFuture("");
         }
 
-        return CompletableFuture.supplyAsync(() -> {
+        return callModel(AiCallExecutor.Operation.IMPROVE, Math.max(timeoutMs * 6L, 10000L), () -> {
             try {
                 String fieldDescription = context != null && !context.isEmpty() 
                     ? context 
@@ -416,11 +483,10 @@ public class OpenAIService {
                 return cleanedResponse;
                 
             } catch (Exception e) {
-                System.err.println("Error improving text: " + e.getMessage());
-                e.printStackTrace();
-                return originalText; // Return original text on error
+                logger.warn("Error improving text", e);
+                throw new IllegalStateException("Error improving text", e);
             }
-        }).orTimeout(Math.max(timeoutMs * 6L, 10000L), TimeUnit.MILLISECONDS); // Longer timeout for text improvement
+        }).exceptionally(e -> originalText); // Return original text on error; longer timeout for text improvement
     }
     
     /**
@@ -433,7 +499,7 @@ public class OpenAIService {
             return CompletableFuture.completedFuture(new HashMap<>());
         }
 
-        return CompletableFuture.supplyAsync(() -> {
+        return callModel(AiCallExecutor.Operation.PARSE_INFO, Math.max(timeoutMs * 6L, 8000L), () -> {
             try {
                 String systemPrompt = """
                     Bạn là AI chuyên phân tích thông tin nhà hàng.
@@ -530,11 +596,10 @@ public class OpenAIService {
                 return result;
                 
             } catch (Exception e) {
-                System.err.println("Error parsing restaurant info: " + e.getMessage());
-                e.printStackTrace();
-                return new HashMap<String, Object>(); // Return empty map on error with explicit types
+                logger.warn("Error parsing restaurant info", e);
+                throw new IllegalStateException("Error parsing restaurant info", e);
             }
-        }).orTimeout(Math.max(timeoutMs * 6L, 8000L), TimeUnit.MILLISECONDS); // Longer timeout for parsing long texts
+        }).exceptionally(e -> new HashMap<String, Object>()); // Return empty map on error with explicit types
     }
     
     /**
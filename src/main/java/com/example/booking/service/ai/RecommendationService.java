@@ -22,6 +22,7 @@ import com.example.booking.dto.ai.AISearchRequest;
 import com.example.booking.dto.ai.AISearchResponse;
 import com.example.booking.repository.DishRepository;
 import com.example.booking.service.RestaurantManagementService;
+import com.example.booking.service.RestaurantTokenIndex;
 import com.example.booking.util.CityGeoResolver;
 import com.example.booking.util.GeoUtils;
 
@@ -45,6 +46,9 @@ public class RecommendationService {
     @Autowired
     private org.springframework.web.client.RestTemplate restTemplate;
 
+    @Autowired(required = false)
+    private RestaurantTokenIndex restaurantTokenIndex;
+
     private CityGeoResolver cityGeoResolver;
     
     @PostConstruct
@@ -191,6 +195,13 @@ public class RecommendationService {
         if (dishNames == null || dishNames.isEmpty()) {
             return List.of();
         }
+
+        if (isTokenIndexReady()) {
+            List<Integer> restaurantIds = restaurantTokenIndex.findByDishNames(
+                dishNames.stream().filter(name -> name != null).collect(Collectors.toList()));
+            System.out.println("✅ Found " + restaurantIds.size() + " unique restaurants with suggested dishes");
+            return restaurantService.findApprovedRestaurantsByIds(restaurantIds);
+        }
         
         List<RestaurantProfile> restaurants = new ArrayList<>();
         
@@ -271,6 +282,12 @@ public class RecommendationService {
         }
         
         System.out.println("🔎 Extracted keywords: " + keywords);
+
+        if (isTokenIndexReady()) {
+            List<Integer> restaurantIds = restaurantTokenIndex.findByKeywords(keywords);
+            System.out.println("✅ Found " + restaurantIds.size() + " restaurants by keyword matching");
+            return restaurantService.findApprovedRestaurantsByIds(restaurantIds);
+        }
         
         // Search restaurants by keywords
         List<RestaurantProfile> allRestaurants = restaurantService.findAllRestaurants();
@@ -343,6 +360,9 @@ public class RecommendationService {
      */
     private List<RestaurantProfile> findCandidates(Map<String, Object> intent, AISearchRequest request, PricePreference pricePreference) {
         System.out.println("🔍 Finding restaurant candidates...");
+        if (isTokenIndexReady()) {
+            return findCandidatesFromIndex(intent, request, pricePreference);
+        }
         List<RestaurantProfile> allRestaurants = restaurantService.findAllRestaurants();
         if (allRestaurants == null) {
             allRestaurants = List.of();
@@ -361,6 +381,32 @@ public class RecommendationService {
         return queryFiltered;
     }
     
+    /**
+     * Same filters as {@link #findCandidates}, evaluated on the token index: only the matching
+     * restaurants are loaded
+     */
+    private List<RestaurantProfile> findCandidatesFromIndex(Map<String, Object> intent, AISearchRequest request,
+            PricePreference pricePreference) {
+        if (pricePreference != null && pricePreference.isInvalid()) {
+            return List.of();
+        }
+        boolean priced = pricePreference != null && !pricePreference.isEmpty();
+
+        @SuppressWarnings("unchecked")
+        List<String> cuisines = (List<String>) intent.get("cuisine");
+        String query = request.getQuery();
+        List<String> keywords = query == null || query.isBlank() ? List.of() : extractKeywords(normalize(query));
+
+        List<Integer> restaurantIds = restaurantTokenIndex.findCandidates(cuisines,
+            priced ? pricePreference.min() : null, priced ? pricePreference.max() : null, query, keywords);
+        System.out.println("✅ Filtered restaurants: " + restaurantIds.size());
+        return restaurantService.findApprovedRestaurantsByIds(restaurantIds);
+    }
+
+    private boolean isTokenIndexReady() {
+        return restaurantTokenIndex != null && restaurantTokenIndex.isReady();
+    }
+    
     /**
      * Generate recommendations with explanations
      */
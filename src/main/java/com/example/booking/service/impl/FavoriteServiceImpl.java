@@ -1,7 +1,9 @@
 package com.example.booking.service.impl;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -27,6 +29,8 @@ import com.example.booking.repository.RestaurantProfileRepository;
 import com.example.booking.repository.RestaurantMediaRepository;
 import com.example.booking.domain.RestaurantMedia;
 import com.example.booking.service.FavoriteService;
+import com.example.booking.service.RestaurantManagementService;
+import com.example.booking.service.RestaurantSearchIndex;
 import com.example.booking.service.ReviewService;
 
 @Service
@@ -192,11 +196,16 @@ public class FavoriteServiceImpl implements FavoriteService {
         System.out.println("Rating Filter: " + ratingFilter);
         System.out.println("Sort By: " + pageable.getSort());
         
+        // Relevance is not a column: sort by search score after filtering instead
+        boolean byRelevance = pageable.getSort().getOrderFor(RestaurantManagementService.RELEVANCE_SORT) != null;
+        Sort dbSort = byRelevance ? Sort.unsorted() : pageable.getSort();
+        
         // Get all favorites first (without pagination to apply filters first)
-        Pageable allPageable = PageRequest.of(0, Integer.MAX_VALUE, pageable.getSort());
+        Pageable allPageable = PageRequest.of(0, Integer.MAX_VALUE, dbSort);
         Page<CustomerFavorite> allFavorites = favoriteRepository.findByCustomerCustomerId(customerId, allPageable);
         
         List<FavoriteRestaurantDto> favoriteDtos = new ArrayList<>();
+        Map<Integer, Double> relevance = new HashMap<>();
         for (CustomerFavorite favorite : allFavorites.getContent()) {
             RestaurantProfile restaurant = favorite.getRestaurant();
             FavoriteRestaurantDto dto = convertToFavoriteRestaurantDto(restaurant, favorite.getCreatedAt(), true);
@@ -204,6 +213,10 @@ public class FavoriteServiceImpl implements FavoriteService {
             // Apply filters
             if (matchesFilters(dto, search, cuisineType, priceRange, ratingFilter)) {
                 favoriteDtos.add(dto);
+                if (search != null && !search.trim().isEmpty()) {
+                    relevance.put(dto.getRestaurantId(), RestaurantSearchIndex.score(
+                        search, dto.getRestaurantName(), dto.getAddress(), dto.getCuisineType()));
+                }
                 System.out.println("✅ Matched: " + dto.getRestaurantName());
             } else {
                 System.out.println("❌ Filtered out: " + dto.getRestaurantName());
@@ -211,7 +224,13 @@ public class FavoriteServiceImpl implements FavoriteService {
         }
         
         // Apply sorting to filtered results
-        favoriteDtos = applySorting(favoriteDtos, pageable.getSort());
+        if (byRelevance) {
+            favoriteDtos.sort((dto1, dto2) -> Double.compare(
+                relevance.getOrDefault(dto2.getRestaurantId(), 0.0),
+                relevance.getOrDefault(dto1.getRestaurantId(), 0.0)));
+        } else {
+            favoriteDtos = applySorting(favoriteDtos, pageable.getSort());
+        }
         
         // Apply pagination to sorted results
         int start = (int) pageable.getOffset();
@@ -281,10 +300,9 @@ public class FavoriteServiceImpl implements FavoriteService {
         
         // Search filter
         if (search != null && !search.trim().isEmpty()) {
-            String searchLower = search.toLowerCase();
-            boolean matchesSearch = (dto.getRestaurantName() != null && dto.getRestaurantName().toLowerCase().contains(searchLower)) ||
-                                  (dto.getAddress() != null && dto.getAddress().toLowerCase().contains(searchLower)) ||
-                                  (dto.getCuisineType() != null && dto.getCuisineType().toLowerCase().contains(searchLower));
+            // Same matching as the restaurant search index: every word, accents ignored
+            boolean matchesSearch = RestaurantSearchIndex.score(
+                search, dto.getRestaurantName(), dto.getAddress(), dto.getCuisineType()) > 0;
             if (!matchesSearch) {
                 return false;
             }
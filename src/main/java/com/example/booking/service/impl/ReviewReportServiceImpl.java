@@ -190,7 +190,8 @@ public class ReviewReportServiceImpl implements ReviewReportService {
             }
 
             if (review != null) {
-                reviewRepository.delete(review);
+                // Qua ReviewService để rating summary của restaurant được cập nhật cùng transaction
+                reviewService.removeReview(review);
             }
         }
 
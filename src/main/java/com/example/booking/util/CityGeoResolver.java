@@ -115,6 +115,21 @@ public class CityGeoResolver {
         return null;
     }
     
+    /**
+     * City-center coordinates for an address, without any network call.
+     * Returns null if the address does not name a known city.
+     */
+    public static LatLng cityCenterOf(String address) {
+        if (address == null || address.isBlank()) return null;
+        String normalizedAddress = address.toLowerCase(Locale.ROOT);
+        for (Map.Entry<String, LatLng> e : CITY_COORDS.entrySet()) {
+            if (normalizedAddress.contains(e.getKey())) {
+                return e.getValue();
+            }
+        }
+        return null;
+    }
+
     /**
      * Check if two coordinates are significantly different (more than 1km apart)
      */
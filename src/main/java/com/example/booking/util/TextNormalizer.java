@@ -0,0 +1,53 @@
+package com.example.booking.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Folds Vietnamese text for search: lower case, no diacritics ("Phở Đà Nẵng" -> "pho da nang"),
+ * punctuation replaced by single spaces.
+ */
+public final class TextNormalizer {
+
+    private TextNormalizer() {}
+
+    public static String fold(String input) {
+        if (input == null || input.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(input.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (c == 'đ') {
+                c = 'd';
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && folded.length() > 0) {
+                    folded.append(' ');
+                }
+                folded.append(c);
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return folded.toString();
+    }
+
+    public static List<String> tokens(String input) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : fold(input).split(" ")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -50,6 +50,7 @@ import com.example.booking.service.WaitlistService;
 import com.example.booking.service.SimpleUserService;
 import com.example.booking.service.RestaurantOwnerService;
 import com.example.booking.service.PaymentService;
+import com.example.booking.service.SlotSuggestionService;
 import com.example.booking.annotation.RateLimited;
 
 import com.example.booking.exception.BookingConflictException;
@@ -93,6 +94,9 @@ public class BookingController {
     @Autowired
     private PaymentService paymentService;
 
+    @Autowired(required = false)
+    private SlotSuggestionService slotSuggestionService;
+
     /**
      * Show booking form - Only for customers and guests
      */
@@ -249,6 +253,11 @@ public class BookingController {
             // Keep form data and reload form with error message
             redirectAttributes.addFlashAttribute("bookingForm", form);
             redirectAttributes.addFlashAttribute("errorMessage", "Booking conflict: " + e.getMessage());
+            // Offer the nearest free start times so the customer does not have to guess and resubmit
+            List<SlotSuggestionService.SuggestedSlot> suggestedSlots = suggestSlots(form);
+            if (!suggestedSlots.isEmpty()) {
+                redirectAttributes.addFlashAttribute("suggestedSlots", suggestedSlots);
+            }
             return "redirect:/booking/new";
 
         } catch (Exception e) {
@@ -1030,6 +1039,23 @@ public class BookingController {
         throw new RuntimeException("Unsupported authentication principal type: " + principal.getClass().getName());
     }
 
+    /**
+     * Nearest free start times on the requested day, empty if they cannot be computed
+     */
+    private List<SlotSuggestionService.SuggestedSlot> suggestSlots(BookingForm form) {
+        if (slotSuggestionService == null || form.getRestaurantId() == null || form.getBookingTime() == null
+                || form.getGuestCount() == null) {
+            return Collections.emptyList();
+        }
+        try {
+            return slotSuggestionService.suggestSlots(form.getRestaurantId(), form.getBookingTime().toLocalDate(),
+                    form.getGuestCount(), form.getBookingTime(), SlotSuggestionService.DEFAULT_LIMIT);
+        } catch (Exception e) {
+            logger.warn("Cannot suggest booking slots: {}", e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
 
 
     
@@ -1,11 +1,9 @@
 package com.example.booking.web.controller;
 
-import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -40,8 +38,11 @@ import com.example.booking.dto.ReviewStatisticsDto;
 import com.example.booking.repository.RestaurantMediaRepository;
 
 import com.example.booking.service.CustomerService;
+import com.example.booking.service.HomeCatalogService;
 import com.example.booking.service.NotificationService;
 import com.example.booking.service.RestaurantManagementService;
+import com.example.booking.service.RestaurantGeoIndex;
+import com.example.booking.service.RestaurantMediaIndex;
 import com.example.booking.service.RestaurantOwnerService;
 import com.example.booking.service.ReviewService;
 import com.example.booking.service.SimpleUserService;
@@ -84,6 +85,15 @@ public class HomeController {
     @Autowired
     private SimpleUserService userService;
 
+    @Autowired(required = false)
+    private RestaurantGeoIndex restaurantGeoIndex;
+
+    @Autowired(required = false)
+    private HomeCatalogService homeCatalogService;
+
+    @Autowired(required = false)
+    private RestaurantMediaIndex restaurantMediaIndex;
+
     /**
      * Home page - main landing page
      * Shows home page for all users, with additional options for authenticated users
@@ -146,6 +156,16 @@ public class HomeController {
      * Ưu tiên: Thai Market Restaurant và Danh Restaurant -> findTopRatedRestaurants -> findApprovedRestaurantsSimple -> empty list
      */
     private List<PopularRestaurantDto> loadPopularRestaurants() {
+        // Served from the versioned catalog snapshot: no queries until a restaurant, media or review changes
+        if (homeCatalogService != null) {
+            try {
+                return buildCatalogCards(homeCatalogService.getSnapshot().top(DEFAULT_TOP_RESTAURANTS_COUNT));
+            } catch (Exception e) {
+                log.warn("Home catalog snapshot unavailable, loading popular restaurants from the database: {}",
+                        e.getMessage());
+            }
+        }
+        
         try {
             // Step 1: Tìm và prioritize 2 nhà hàng cụ thể
             List<RestaurantProfile> prioritizedRestaurants = new ArrayList<>();
@@ -268,6 +288,26 @@ public class HomeController {
         }
     }
     
+    private List<PopularRestaurantDto> buildCatalogCards(List<HomeCatalogService.CatalogCard> cards) {
+        List<PopularRestaurantDto> result = new ArrayList<>(cards.size());
+        for (int i = 0; i < cards.size(); i++) {
+            HomeCatalogService.CatalogCard card = cards.get(i);
+            result.add(new PopularRestaurantDto(
+                    card.restaurantId(),
+                    card.restaurantName(),
+                    card.cuisineType(),
+                    card.address(),
+                    card.averageRating(),
+                    card.reviewCount(),
+                    card.priceLabel(),
+                    resolveBadge(i, card.reviewCount()),
+                    card.coverImageUrl(),
+                    POPULAR_CARD_GRADIENTS[i % POPULAR_CARD_GRADIENTS.length]
+            ));
+        }
+        return result;
+    }
+    
     private List<PopularRestaurantDto> buildPopularRestaurantCards(List<RestaurantProfile> restaurants) {
         if (restaurants == null || restaurants.isEmpty()) {
             return Collections.emptyList();
@@ -359,13 +399,7 @@ public class HomeController {
     }
 
     private String resolvePriceLabel(RestaurantProfile restaurant) {
-        if (restaurant.getAveragePrice() == null) {
-            return "Giá đang cập nhật";
-        }
-        NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(new Locale("vi", "VN"));
-        currencyFormat.setMaximumFractionDigits(0);
-        currencyFormat.setMinimumFractionDigits(0);
-        return currencyFormat.format(restaurant.getAveragePrice());
+        return HomeCatalogService.priceLabel(restaurant.getAveragePrice());
     }
     
     
@@ -376,7 +410,7 @@ public class HomeController {
     public String restaurants(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "12") int size,
-            @RequestParam(defaultValue = "restaurantName") String sortBy,
+            @RequestParam(required = false) String sortBy,
             @RequestParam(defaultValue = "asc") String sortDir,
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String cuisineType,
@@ -392,6 +426,12 @@ public class HomeController {
             model.addAttribute("pageTitle", "Nhà hàng - Book Eat");
             model.addAttribute("activeNav", "restaurants");
             
+            // Searches are ranked by relevance unless a sort is chosen
+            if (sortBy == null || sortBy.trim().isEmpty()) {
+                sortBy = search != null && !search.trim().isEmpty()
+                        ? RestaurantManagementService.RELEVANCE_SORT : "restaurantName";
+            }
+            
             Page<RestaurantProfile> restaurants = null;
             
             // If nearby search is requested and coordinates are provided
@@ -474,6 +514,30 @@ public class HomeController {
                         // Still proceed, but log warning
                     }
                     
+                    if (restaurants == null && restaurantGeoIndex != null && restaurantGeoIndex.isReady()) {
+                        // Spatial index: nearest-first page without loading every restaurant
+                        RestaurantGeoIndex.NearbyPage nearbyPage = restaurantGeoIndex.findNearby(latitude, longitude,
+                            maxDistance, RestaurantGeoIndex.Filter.of(search, cuisineType, priceRange, ratingFilter, true),
+                            page * size, size);
+                        List<Integer> pageIds = nearbyPage.hits().stream()
+                            .map(hit -> hit.place().restaurantId())
+                            .collect(Collectors.toList());
+                        Map<Integer, Double> distanceById = nearbyPage.hits().stream()
+                            .collect(Collectors.toMap(hit -> hit.place().restaurantId(), RestaurantGeoIndex.Hit::distanceKm));
+                        List<RestaurantProfile> pagedContent = restaurantService.findRestaurantsByIds(pageIds);
+                        pagedContent.forEach(r -> r.setDistance(distanceById.get(r.getRestaurantId())));
+                        log.info("✅ Nearby search (geo index): {} restaurants within {} km, page {} has {}",
+                            nearbyPage.total(), maxDistance != null && maxDistance > 0 ? maxDistance : "any", page, pagedContent.size());
+
+                        restaurants = new org.springframework.data.domain.PageImpl<>(
+                            pagedContent, PageRequest.of(page, size), nearbyPage.total());
+
+                        model.addAttribute("userLatitude", latitude);
+                        model.addAttribute("userLongitude", longitude);
+                        model.addAttribute("nearbySearch", true);
+                        model.addAttribute("maxDistance", maxDistance);
+                    }
+
                     if (restaurants == null) { // Only proceed if we haven't set restaurants in error case above
                     // Get all restaurants first (we'll filter and sort by distance)
                     Pageable allPageable = PageRequest.of(0, Integer.MAX_VALUE, Sort.by("restaurantName"));
@@ -679,6 +743,11 @@ public class HomeController {
             model.addAttribute("cuisineType", cuisineType);
             model.addAttribute("priceRange", priceRange);
             model.addAttribute("ratingFilter", ratingFilter);
+            // Option counts for the filter dropdowns (null when the facet index is not ready)
+            if (!Boolean.TRUE.equals(model.getAttribute("nearbySearch"))) {
+                model.addAttribute("facetCounts",
+                        restaurantService.getFacetCounts(search, cuisineType, priceRange, ratingFilter));
+            }
             model.addAttribute("sortBy", sortBy);
             model.addAttribute("sortDir", sortDir);
             if (latitude != null) model.addAttribute("latitude", latitude);
@@ -708,38 +777,55 @@ public class HomeController {
             
             RestaurantProfile restaurant = restaurantOpt.get();
             
-            // Get restaurant media
-            List<RestaurantMedia> allMedia = restaurantOwnerService.getMediaByRestaurant(restaurant);
-            
-            // Organize media by type
-            List<RestaurantMedia> logos = allMedia.stream()
-                .filter(m -> "logo".equalsIgnoreCase(m.getType()))
-                .toList();
-            List<RestaurantMedia> covers = allMedia.stream()
-                .filter(m -> "cover".equalsIgnoreCase(m.getType()))
-                .toList();
-            List<RestaurantMedia> gallery = allMedia.stream()
-                .filter(m -> "gallery".equalsIgnoreCase(m.getType()))
-                .toList();
-            List<RestaurantMedia> exterior = allMedia.stream()
-                    .filter(m -> "exterior".equalsIgnoreCase(m.getType()))
+            // Get restaurant media: one cached view grouped by type, or all media filtered per type
+            List<RestaurantMedia> logos;
+            List<RestaurantMedia> covers;
+            List<RestaurantMedia> gallery;
+            List<RestaurantMedia> exterior;
+            List<RestaurantMedia> interior;
+            List<RestaurantMedia> menus;
+            List<RestaurantMedia> tableLayouts;
+            List<DishWithImageDto> dishesWithImages = new ArrayList<>();
+            List<Dish> dishes = restaurant.getDishes() != null ? restaurant.getDishes() : new ArrayList<>();
+            if (restaurantMediaIndex != null) {
+                RestaurantMediaIndex.MediaView media = restaurantMediaIndex.getMedia(id);
+                logos = media.ofType("logo");
+                covers = media.ofType("cover");
+                gallery = media.ofType("gallery");
+                exterior = media.ofType("exterior");
+                interior = media.ofType("interior");
+                menus = media.ofType("menu");
+                tableLayouts = media.ofType("table_layout");
+                for (Dish dish : dishes) {
+                    dishesWithImages.add(new DishWithImageDto(dish, media.dishImageUrl(dish.getDishId())));
+                }
+            } else {
+                List<RestaurantMedia> allMedia = restaurantOwnerService.getMediaByRestaurant(restaurant);
+                logos = allMedia.stream()
+                    .filter(m -> "logo".equalsIgnoreCase(m.getType()))
                     .toList();
-            List<RestaurantMedia> interior = allMedia.stream()
-                    .filter(m -> "interior".equalsIgnoreCase(m.getType()))
+                covers = allMedia.stream()
+                    .filter(m -> "cover".equalsIgnoreCase(m.getType()))
                     .toList();
-            List<RestaurantMedia> menus = allMedia.stream()
-                .filter(m -> "menu".equalsIgnoreCase(m.getType()))
-                .toList();
-            List<RestaurantMedia> tableLayouts = allMedia.stream()
-                    .filter(m -> "table_layout".equalsIgnoreCase(m.getType()))
+                gallery = allMedia.stream()
+                    .filter(m -> "gallery".equalsIgnoreCase(m.getType()))
                     .toList();
-            
-            // Get dishes with images
-            List<DishWithImageDto> dishesWithImages = new ArrayList<>();
-            List<Dish> dishes = restaurant.getDishes() != null ? restaurant.getDishes() : new ArrayList<>();
-            for (Dish dish : dishes) {
-                String dishImageUrl = restaurantOwnerService.getDishImageUrl(id, dish.getDishId());
-                dishesWithImages.add(new DishWithImageDto(dish, dishImageUrl));
+                exterior = allMedia.stream()
+                        .filter(m -> "exterior".equalsIgnoreCase(m.getType()))
+                        .toList();
+                interior = allMedia.stream()
+                        .filter(m -> "interior".equalsIgnoreCase(m.getType()))
+                        .toList();
+                menus = allMedia.stream()
+                    .filter(m -> "menu".equalsIgnoreCase(m.getType()))
+                    .toList();
+                tableLayouts = allMedia.stream()
+                        .filter(m -> "table_layout".equalsIgnoreCase(m.getType()))
+                        .toList();
+                for (Dish dish : dishes) {
+                    String dishImageUrl = restaurantOwnerService.getDishImageUrl(id, dish.getDishId());
+                    dishesWithImages.add(new DishWithImageDto(dish, dishImageUrl));
+                }
             }
             
             // Get tables (images will be loaded via getTableImages() method)
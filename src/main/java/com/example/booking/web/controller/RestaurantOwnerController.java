@@ -66,6 +66,7 @@ import jakarta.validation.Valid;
 import org.springframework.validation.BindingResult;
 import org.springframework.security.core.Authentication;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -205,6 +206,8 @@ public class RestaurantOwnerController {
                    .limit(5)
                    .collect(Collectors.toList());
                List<Waitlist> waitingCustomers = dashboardService.getWaitingCustomers(finalSelectedRestaurantId);
+               List<RestaurantDashboardService.HourlyAvailabilityData> hourlyAvailability = dashboardService
+                       .getHourlyAvailability(finalSelectedRestaurantId, LocalDate.now());
 
                System.out.println("[Dashboard] recentBookings size = " + recentBookings.size());
                System.out.println("[Dashboard] dailyRevenueData size = " + dailyRevenueData.size());
@@ -232,6 +235,7 @@ public class RestaurantOwnerController {
                model.addAttribute("dashboardStats", dashboardStats);
                model.addAttribute("recentBookings", recentBookings);
                model.addAttribute("waitingCustomers", waitingCustomers);
+               model.addAttribute("hourlyAvailability", hourlyAvailability);
 
                // Serialize chart data to JSON for JavaScript
                try {
@@ -1209,6 +1213,7 @@ public class RestaurantOwnerController {
             }
 
             model.addAttribute("bookings", allBookings);
+            model.addAttribute("bookingTotals", bookingService.calculateTotals(allBookings));
             model.addAttribute("waitlists", allWaitlists);
             model.addAttribute("waitlistQueuePositions", waitlistQueuePositions);
             model.addAttribute("restaurants", restaurants);
@@ -1276,6 +1281,7 @@ public class RestaurantOwnerController {
             long cancelledBookings = bookings.stream().filter(b -> b.getStatus() == BookingStatus.CANCELLED).count();
 
             model.addAttribute("bookings", bookings);
+            model.addAttribute("bookingTotals", bookingService.calculateTotals(bookings));
             model.addAttribute("restaurants", ownedRestaurants);
             model.addAttribute("currentRestaurant", targetRestaurant.get());
             model.addAttribute("totalBookings", totalBookings);
@@ -1707,8 +1713,9 @@ public class RestaurantOwnerController {
             // Save the new booking table assignment
             bookingTableRepository.save(newBookingTable);
             
-            // Update booking timestamp
+            // Update booking timestamp; table fee total is recomputed on next read
             bookingEntity.setUpdatedAt(LocalDateTime.now());
+            bookingEntity.clearLineItemTotals();
             bookingRepository.save(bookingEntity);
             
             // Log the change for debugging
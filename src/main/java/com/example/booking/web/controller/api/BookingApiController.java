@@ -1,6 +1,8 @@
 package com.example.booking.web.controller.api;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -8,12 +10,19 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.booking.domain.Booking;
 import com.example.booking.domain.Customer;
@@ -25,8 +34,13 @@ import com.example.booking.dto.BookingDetailsDto;
 import com.example.booking.dto.BookingDishDto;
 import com.example.booking.dto.BookingServiceDto;
 import com.example.booking.dto.DishWithImageDto;
+import com.example.booking.service.RestaurantGeoIndex;
 import com.example.booking.service.RestaurantManagementService;
+import com.example.booking.service.RestaurantSuggestionIndex;
 import com.example.booking.service.SimpleUserService;
+import com.example.booking.service.AvailabilityCalendarService;
+import com.example.booking.service.RestaurantAvailabilityService;
+import com.example.booking.service.TableAvailabilityService;
 import com.example.booking.util.CityGeoResolver;
 
 import jakarta.annotation.PostConstruct;
@@ -35,6 +49,7 @@ import java.util.HashMap;
 import com.example.booking.service.BookingService;
 import com.example.booking.service.CustomerService;
 import com.example.booking.domain.RestaurantMedia;
+import com.example.booking.domain.RestaurantAvailability;
 import com.example.booking.dto.RestaurantDto;
 import com.example.booking.dto.NearbyRestaurantDto;
 import com.example.booking.util.GeoUtils;
@@ -58,6 +73,21 @@ public class BookingApiController {
     @Autowired
     private org.springframework.web.client.RestTemplate restTemplate;
 
+    @Autowired
+    private TableAvailabilityService tableAvailabilityService;
+
+    @Autowired
+    private RestaurantAvailabilityService restaurantAvailabilityService;
+
+    @Autowired
+    private AvailabilityCalendarService availabilityCalendarService;
+
+    @Autowired(required = false)
+    private RestaurantGeoIndex restaurantGeoIndex;
+
+    @Autowired(required = false)
+    private RestaurantSuggestionIndex restaurantSuggestionIndex;
+
     private CityGeoResolver cityGeoResolver;
     
     @PostConstruct
@@ -157,6 +187,132 @@ public class BookingApiController {
         }
     }
     
+    /**
+     * API endpoint để lấy lịch đặt bàn trong ngày của tất cả bàn trong nhà hàng
+     * (một query cho cả nhà hàng, dùng để hiển thị khung giờ đã bị chặn)
+     */
+    @GetMapping("/restaurants/{restaurantId}/tables/availability")
+    public ResponseEntity<List<Map<String, Object>>> getTableAvailabilityByRestaurant(
+            @PathVariable("restaurantId") Integer restaurantId,
+            @RequestParam("date") String date) {
+        try {
+            LocalDate day = LocalDate.parse(date);
+            List<RestaurantTable> tables = restaurantService.findTablesByRestaurant(restaurantId);
+            TableAvailabilityService.BookingWindows availability = tableAvailabilityService
+                    .getDayAvailability(restaurantId, day);
+
+            List<Map<String, Object>> tableMaps = new ArrayList<>();
+            for (RestaurantTable table : tables) {
+                List<Map<String, Object>> bookedSlots = availability.getBookings(table.getTableId()).stream()
+                        .filter(window -> TableAvailabilityService.CONFLICT_STATUSES.contains(window.status()))
+                        .map(window -> {
+                            Map<String, Object> slotMap = new HashMap<>();
+                            slotMap.put("bookingTime", window.bookingTime());
+                            slotMap.put("blockedFrom", window.blockedFrom());
+                            slotMap.put("blockedUntil", window.blockedUntil());
+                            return slotMap;
+                        })
+                        .collect(Collectors.toList());
+
+                Map<String, Object> tableMap = new HashMap<>();
+                tableMap.put("tableId", table.getTableId());
+                tableMap.put("tableName", table.getTableName());
+                tableMap.put("capacity", table.getCapacity());
+                tableMap.put("status", table.getStatus());
+                tableMap.put("bookedSlots", bookedSlots);
+                tableMaps.add(tableMap);
+            }
+
+            return ResponseEntity.ok(tableMaps);
+        } catch (Exception e) {
+            System.err.println("❌ API Error: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * API endpoint để lấy số bàn trống theo từng giờ trong ngày (đọc từ grid đã tính sẵn)
+     */
+    @GetMapping("/restaurants/{restaurantId}/availability/hourly")
+    public ResponseEntity<List<Map<String, Object>>> getHourlyAvailability(
+            @PathVariable("restaurantId") Integer restaurantId,
+            @RequestParam("date") String date) {
+        try {
+            List<Map<String, Object>> hours = restaurantAvailabilityService
+                    .getDay(restaurantId, LocalDate.parse(date)).stream()
+                    .map(cell -> {
+                        Map<String, Object> hourMap = new HashMap<>();
+                        hourMap.put("hour", cell.getHour());
+                        hourMap.put("availableTables", cell.getAvailableTables());
+                        hourMap.put("totalTables", cell.getTotalTables());
+                        hourMap.put("status", cell.getStatus());
+                        hourMap.put("available", cell.getAvailableTables() > 0
+                                && cell.getStatus() != RestaurantAvailability.Status.CLOSED);
+                        return hourMap;
+                    })
+                    .collect(Collectors.toList());
+
+            return ResponseEntity.ok(hours);
+        } catch (Exception e) {
+            System.err.println("❌ API Error: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * API endpoint lịch trống nhiều ngày cho date picker (tối đa MAX_BOOKING_ADVANCE_DAYS ngày).
+     * Grid được stream theo từng ngày; hỗ trợ ETag / If-None-Match để không phải tính lại khi không đổi.
+     */
+    @GetMapping("/restaurants/{restaurantId}/availability")
+    public ResponseEntity<StreamingResponseBody> getAvailabilityCalendar(
+            @PathVariable("restaurantId") Integer restaurantId,
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to,
+            @RequestParam(value = "guests", defaultValue = "1") Integer guests,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            LocalDate fromDate = from != null ? LocalDate.parse(from) : LocalDate.now();
+            LocalDate toDate = to != null ? LocalDate.parse(to) : fromDate;
+
+            // ETag comes from the restaurant's data version (expires after the ETag TTL): answer 304 before loading anything
+            String etag = availabilityCalendarService.etag(restaurantId, fromDate, toDate, guests);
+            if (matchesEtag(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .cacheControl(CacheControl.noCache().cachePrivate())
+                        .build();
+            }
+
+            AvailabilityCalendarService.CalendarData calendar = availabilityCalendarService.load(restaurantId,
+                    fromDate, toDate, guests);
+
+            return ResponseEntity.ok()
+                    .eTag(calendar.getEtag())
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> availabilityCalendarService.writeGrid(calendar, out));
+        } catch (Exception e) {
+            System.err.println("❌ API Error: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * API endpoint để lấy logo của nhà hàng
      */
@@ -274,10 +430,28 @@ public class BookingApiController {
         }
     }
 
+    /**
+     * API: Typeahead suggestions (restaurants, cuisines, dishes) for the search box
+     * Example: /api/booking/restaurants/suggest?q=pho&limit=8
+     * Served from memory; empty until the suggestion index is built.
+     */
+    @GetMapping("/restaurants/suggest")
+    public ResponseEntity<List<RestaurantSuggestionIndex.Suggestion>> suggestRestaurants(
+            @RequestParam(value = "q", required = false) String query,
+            @RequestParam(value = "limit", required = false, defaultValue = "8") int limit) {
+        if (restaurantSuggestionIndex == null || query == null || query.isBlank()) {
+            return ResponseEntity.ok(List.of());
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(60)).cachePublic())
+                .body(restaurantSuggestionIndex.suggest(query, Math.max(limit, 1)));
+    }
+
     /**
      * API: Get restaurants near a given location (approximate, city-level)
      * Example: /api/booking/restaurants/nearby?lat=10.77&lng=106.70&radius=3000&limit=10
-     * radius in meters (default 3000m). Uses city-center approximation derived from address.
+     * radius in meters (default 3000m). Uses the stored restaurant coordinates, or the
+     * city-center approximation derived from the address when a restaurant has none.
      */
     @GetMapping("/restaurants/nearby")
     public ResponseEntity<List<NearbyRestaurantDto>> getNearbyRestaurants(
@@ -287,10 +461,28 @@ public class BookingApiController {
             @org.springframework.web.bind.annotation.RequestParam(value = "limit", required = false, defaultValue = "10") int limit
     ) {
         try {
-            List<?> restaurants = restaurantService.findAllRestaurants();
-
             double radiusKm = Math.max(0, radiusMeters) / 1000.0;
 
+            if (restaurantGeoIndex != null && restaurantGeoIndex.isReady()) {
+                List<NearbyRestaurantDto> results = restaurantGeoIndex
+                    .findNearby(lat, lng, radiusKm, RestaurantGeoIndex.Filter.NONE, 0, Math.max(1, limit))
+                    .hits().stream()
+                    .map(hit -> new NearbyRestaurantDto(
+                        hit.place().restaurantId(),
+                        hit.place().restaurantName(),
+                        hit.place().address(),
+                        hit.place().cuisineType(),
+                        hit.place().averagePrice(),
+                        null,
+                        hit.distanceKm(),
+                        hit.place().createdAt()
+                    ))
+                    .collect(java.util.stream.Collectors.toList());
+                return ResponseEntity.ok(results);
+            }
+
+            List<?> restaurants = restaurantService.findAllRestaurants();
+
             List<NearbyRestaurantDto> results = restaurants.stream()
                 .map(r -> (com.example.booking.domain.RestaurantProfile) r)
                 .map(r -> {
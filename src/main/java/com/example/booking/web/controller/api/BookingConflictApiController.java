@@ -1,6 +1,8 @@
 package com.example.booking.web.controller.api;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,6 +19,8 @@ import org.springframework.web.bind.annotation.RestController;
 import com.example.booking.dto.BookingForm;
 import com.example.booking.exception.BookingConflictException;
 import com.example.booking.service.BookingConflictService;
+import com.example.booking.service.SlotSuggestionService;
+import com.example.booking.service.TableCombinationService;
 
 /**
  * API Controller để kiểm tra conflicts trong booking
@@ -27,6 +31,12 @@ public class BookingConflictApiController {
     
     @Autowired
     private BookingConflictService conflictService;
+
+    @Autowired(required = false)
+    private SlotSuggestionService slotSuggestionService;
+
+    @Autowired(required = false)
+    private TableCombinationService tableCombinationService;
     
     /**
      * Kiểm tra conflicts cho booking mới
@@ -38,7 +48,10 @@ public class BookingConflictApiController {
             conflictService.validateBookingConflicts(form, customerId);
             return ResponseEntity.ok().body(new ConflictCheckResponse(true, "No conflicts found"));
         } catch (BookingConflictException e) {
-            return ResponseEntity.badRequest().body(new ConflictCheckResponse(false, e.getMessage(), e.getConflictType()));
+            ConflictCheckResponse response = new ConflictCheckResponse(false, e.getMessage(), e.getConflictType());
+            response.setSuggestedSlots(suggestSlots(form));
+            response.setSuggestedCombination(suggestCombination(form));
+            return ResponseEntity.badRequest().body(response);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(new ConflictCheckResponse(false, "Internal server error: " + e.getMessage()));
         }
@@ -76,6 +89,75 @@ public class BookingConflictApiController {
         }
     }
     
+    /**
+     * Gợi ý các khung giờ còn bàn gần nhất trong ngày cho số khách
+     */
+    @GetMapping("/suggestions")
+    public ResponseEntity<?> getSuggestedSlots(@RequestParam Integer restaurantId,
+                                               @RequestParam String date,
+                                               @RequestParam Integer guests,
+                                               @RequestParam(required = false) String time,
+                                               @RequestParam(defaultValue = "5") int limit) {
+        if (slotSuggestionService == null) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Slot suggestions are not available"));
+        }
+        try {
+            LocalDate day = LocalDate.parse(date);
+            LocalDateTime preferredTime = time != null && !time.isBlank() ? day.atTime(LocalTime.parse(time)) : null;
+            return ResponseEntity.ok().body(new SuggestedSlotsResponse(
+                    slotSuggestionService.suggestSlots(restaurantId, day, guests, preferredTime, limit)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Error getting suggested slots: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Gợi ý ghép nhiều bàn trống cho nhóm đông khách
+     */
+    @GetMapping("/combination")
+    public ResponseEntity<?> getTableCombination(@RequestParam Integer restaurantId,
+                                                 @RequestParam String date,
+                                                 @RequestParam String time,
+                                                 @RequestParam Integer guests) {
+        if (tableCombinationService == null) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Table combinations are not available"));
+        }
+        try {
+            LocalDateTime bookingTime = LocalDate.parse(date).atTime(LocalTime.parse(time));
+            return tableCombinationService.findBestCombination(restaurantId, bookingTime, guests)
+                    .<ResponseEntity<?>>map(combination -> ResponseEntity.ok().body(combination))
+                    .orElseGet(() -> ResponseEntity.noContent().build());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Error finding table combination: " + e.getMessage()));
+        }
+    }
+
+    private TableCombinationService.TableCombination suggestCombination(BookingForm form) {
+        if (tableCombinationService == null || form.getRestaurantId() == null || form.getBookingTime() == null
+                || form.getGuestCount() == null) {
+            return null;
+        }
+        try {
+            return tableCombinationService.findBestCombination(form.getRestaurantId(), form.getBookingTime(),
+                    form.getGuestCount()).orElse(null);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private List<SlotSuggestionService.SuggestedSlot> suggestSlots(BookingForm form) {
+        if (slotSuggestionService == null || form.getRestaurantId() == null || form.getBookingTime() == null
+                || form.getGuestCount() == null) {
+            return null;
+        }
+        try {
+            return slotSuggestionService.suggestSlots(form.getRestaurantId(), form.getBookingTime().toLocalDate(),
+                    form.getGuestCount(), form.getBookingTime(), SlotSuggestionService.DEFAULT_LIMIT);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     /**
      * Response classes
      */
@@ -83,6 +165,8 @@ public class BookingConflictApiController {
         private boolean valid;
         private String message;
         private BookingConflictException.ConflictType conflictType;
+        private List<SlotSuggestionService.SuggestedSlot> suggestedSlots;
+        private TableCombinationService.TableCombination suggestedCombination;
         
         public ConflictCheckResponse(boolean valid, String message) {
             this.valid = valid;
@@ -99,6 +183,20 @@ public class BookingConflictApiController {
         public boolean isValid() { return valid; }
         public String getMessage() { return message; }
         public BookingConflictException.ConflictType getConflictType() { return conflictType; }
+        public List<SlotSuggestionService.SuggestedSlot> getSuggestedSlots() { return suggestedSlots; }
+        public void setSuggestedSlots(List<SlotSuggestionService.SuggestedSlot> suggestedSlots) { this.suggestedSlots = suggestedSlots; }
+        public TableCombinationService.TableCombination getSuggestedCombination() { return suggestedCombination; }
+        public void setSuggestedCombination(TableCombinationService.TableCombination suggestedCombination) { this.suggestedCombination = suggestedCombination; }
+    }
+    
+    public static class SuggestedSlotsResponse {
+        private List<SlotSuggestionService.SuggestedSlot> slots;
+        
+        public SuggestedSlotsResponse(List<SlotSuggestionService.SuggestedSlot> slots) {
+            this.slots = slots;
+        }
+        
+        public List<SlotSuggestionService.SuggestedSlot> getSlots() { return slots; }
     }
     
     public static class AvailableSlotsResponse {
@@ -6,6 +6,7 @@ import java.util.UUID;
 import java.lang.IllegalArgumentException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -206,6 +207,39 @@ public class SmartWaitlistApiController {
         }
     }
     
+    /**
+     * Get queue position and estimated wait (loaded once per page, then kept up to date by /topic/waitlist pushes)
+     */
+    @GetMapping("/waitlist/{waitlistId}/position")
+    public ResponseEntity<?> getWaitlistPosition(@PathVariable Integer waitlistId, Authentication authentication) {
+        try {
+            if (authentication == null) {
+                return ResponseEntity.badRequest().body(new ErrorResponse("Authentication required"));
+            }
+
+            // Only the customer who joined the waitlist may follow its position
+            Waitlist waitlist = waitlistService.findById(waitlistId);
+            if (waitlist == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse("Waitlist entry not found"));
+            }
+            UUID customerId = customerService.findByUsername(authentication.getName())
+                .map(customer -> customer.getCustomerId())
+                .orElse(null);
+            if (customerId == null || waitlist.getCustomer() == null
+                    || !customerId.equals(waitlist.getCustomer().getCustomerId())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new ErrorResponse("Access denied"));
+            }
+
+            Integer queuePosition = waitlistService.getQueuePosition(waitlistId);
+            Integer estimatedWaitTime = waitlistService.calculateEstimatedWaitTime(waitlistId);
+            return ResponseEntity.ok(new QueuePositionResponse(waitlistId, queuePosition, estimatedWaitTime));
+
+        } catch (Exception e) {
+            System.err.println("❌ Error getting waitlist position: " + e.getMessage());
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+    
     // DTOs for Join Waitlist
     public static class JoinWaitlistRequest {
         public Integer restaurantId;
@@ -234,6 +268,18 @@ public class SmartWaitlistApiController {
         }
     }
     
+    public static class QueuePositionResponse {
+        public Integer waitlistId;
+        public Integer queuePosition;
+        public Integer estimatedWaitTime;
+
+        public QueuePositionResponse(Integer waitlistId, Integer queuePosition, Integer estimatedWaitTime) {
+            this.waitlistId = waitlistId;
+            this.queuePosition = queuePosition;
+            this.estimatedWaitTime = estimatedWaitTime;
+        }
+    }
+    
     public static class ErrorResponse {
         public boolean success = false;
         public String error;
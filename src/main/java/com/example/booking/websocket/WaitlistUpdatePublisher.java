@@ -0,0 +1,110 @@
+package com.example.booking.websocket;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.booking.domain.WaitlistStatus;
+import com.example.booking.event.WaitlistQueueChangedEvent;
+
+/**
+ * Pushes waitlist queue changes to /topic/waitlist/{restaurantId} so that the owner
+ * waitlist page and customers' queue positions update without polling.
+ *
+ * Messages are deltas of one entry (no customer data): JOINED, CALLED, SEATED,
+ * CANCELLED, REMOVED or MOVED with the position before and after. Everyone behind
+ * {@code previousPosition} moves up one when an entry leaves, everyone at or behind
+ * {@code position} moves down one when an entry joins. {@code seq} increases by one
+ * per restaurant; a client that sees a gap (or a RESYNC) reloads its positions.
+ */
+@Component
+public class WaitlistUpdatePublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitlistUpdatePublisher.class);
+
+    public static final String TOPIC_PREFIX = "/topic/waitlist/";
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    private final Map<Integer, AtomicLong> sequences = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onQueueChanged(WaitlistQueueChangedEvent event) {
+        if (event.getRestaurantId() == null) {
+            return;
+        }
+        WaitlistUpdateMessage message = toMessage(event);
+        try {
+            messagingTemplate.convertAndSend(TOPIC_PREFIX + event.getRestaurantId(), message);
+        } catch (Exception e) {
+            logger.warn("Failed to push waitlist update {} of restaurant {}", message.getType(),
+                    event.getRestaurantId(), e);
+        }
+    }
+
+    WaitlistUpdateMessage toMessage(WaitlistQueueChangedEvent event) {
+        WaitlistUpdateMessage message = new WaitlistUpdateMessage();
+        message.setType(typeOf(event));
+        message.setRestaurantId(event.getRestaurantId());
+        message.setWaitlistId(event.getWaitlistId());
+        message.setPartySize(event.getPartySize());
+        message.setPreviousPosition(event.getPreviousPosition());
+        message.setPosition(event.getPosition());
+        message.setQueueLength(event.getQueueLength());
+        message.setSeq(sequences.computeIfAbsent(event.getRestaurantId(), id -> new AtomicLong()).incrementAndGet());
+        return message;
+    }
+
+    static String typeOf(WaitlistQueueChangedEvent event) {
+        if (event.isResync()) {
+            return "RESYNC";
+        }
+        if (event.getPreviousPosition() == 0) {
+            return "JOINED";
+        }
+        if (event.getPosition() > 0) {
+            return "MOVED";
+        }
+        WaitlistStatus status = event.getStatus();
+        return status != null && status != WaitlistStatus.WAITING ? status.name() : "REMOVED";
+    }
+
+    /**
+     * STOMP payload of one queue change
+     */
+    public static class WaitlistUpdateMessage {
+        private String type;
+        private Integer restaurantId;
+        private Integer waitlistId;
+        private Integer partySize;
+        private int previousPosition;
+        private int position;
+        private int queueLength;
+        private long seq;
+
+        public String getType() { return type; }
+        public void setType(String type) { this.type = type; }
+        public Integer getRestaurantId() { return restaurantId; }
+        public void setRestaurantId(Integer restaurantId) { this.restaurantId = restaurantId; }
+        public Integer getWaitlistId() { return waitlistId; }
+        public void setWaitlistId(Integer waitlistId) { this.waitlistId = waitlistId; }
+        public Integer getPartySize() { return partySize; }
+        public void setPartySize(Integer partySize) { this.partySize = partySize; }
+        public int getPreviousPosition() { return previousPosition; }
+        public void setPreviousPosition(int previousPosition) { this.previousPosition = previousPosition; }
+        public int getPosition() { return position; }
+        public void setPosition(int position) { this.position = position; }
+        public int getQueueLength() { return queueLength; }
+        public void setQueueLength(int queueLength) { this.queueLength = queueLength; }
+        public long getSeq() { return seq; }
+        public void setSeq(long seq) { this.seq = seq; }
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.booking.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.booking.common.enums.BookingStatus;
+import com.example.booking.common.enums.TableStatus;
+import com.example.booking.domain.RestaurantProfile;
+import com.example.booking.domain.RestaurantTable;
+import com.example.booking.event.BookingChangedEvent;
+import com.example.booking.event.RestaurantProfileChangedEvent;
+import com.example.booking.event.RestaurantTableChangedEvent;
+import com.example.booking.repository.RestaurantProfileRepository;
+import com.example.booking.repository.RestaurantTableRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Unit tests for AvailabilityCalendarService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AvailabilityCalendarService Tests")
+public class AvailabilityCalendarServiceTest {
+
+    @Mock
+    private RestaurantProfileRepository restaurantProfileRepository;
+
+    @Mock
+    private RestaurantTableRepository restaurantTableRepository;
+
+    @Mock
+    private TableAvailabilityService tableAvailabilityService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private AvailabilityCalendarService calendarService;
+
+    private RestaurantProfile restaurant;
+    private List<RestaurantTable> tables;
+    private final LocalDate day = LocalDate.now().plusDays(3);
+
+    @BeforeEach
+    void setUp() {
+        restaurant = new RestaurantProfile();
+        restaurant.setRestaurantId(1);
+        restaurant.setOpeningHours("10:00-22:00");
+
+        tables = new ArrayList<>();
+        tables.add(table(10, 4));
+        tables.add(table(11, 6));
+        tables.add(table(12, 2));
+    }
+
+    private RestaurantTable table(Integer id, Integer capacity) {
+        RestaurantTable table = new RestaurantTable();
+        table.setTableId(id);
+        table.setCapacity(capacity);
+        table.setStatus(TableStatus.AVAILABLE);
+        return table;
+    }
+
+    private void stubReads(TableAvailabilityService.BookedWindow... booked) {
+        Map<Integer, List<TableAvailabilityService.BookedWindow>> byTable = new HashMap<>();
+        for (TableAvailabilityService.BookedWindow window : booked) {
+            byTable.computeIfAbsent(window.tableId(), id -> new ArrayList<>()).add(window);
+        }
+        when(restaurantProfileRepository.findById(1)).thenReturn(Optional.of(restaurant));
+        when(restaurantTableRepository.findByRestaurantRestaurantId(1)).thenReturn(tables);
+        when(tableAvailabilityService.getAvailability(eq(1), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(new TableAvailabilityService.BookingWindows(1, day.atStartOfDay(),
+                        day.plusDays(1).atStartOfDay(), byTable));
+    }
+
+    private JsonNode render(AvailabilityCalendarService.CalendarData data) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        calendarService.writeGrid(data, out);
+        return new ObjectMapper().readTree(out.toByteArray());
+    }
+
+    /** Index of HH:mm in the "free" array of a 10:00-22:00 day */
+    private int slot(int hour, int minute) {
+        return ((hour - 10) * 60 + minute) / AvailabilityCalendarService.SLOT_MINUTES;
+    }
+
+    @Test
+    @DisplayName("grid has one row per day with a slot every 30 minutes between opening and closing")
+    void writeGrid_ShouldEmitOneRowPerDay() throws Exception {
+        stubReads();
+
+        JsonNode grid = render(calendarService.load(1, day, day.plusDays(2), 4));
+
+        assertEquals(3, grid.get("days").size());
+        JsonNode first = grid.get("days").get(0);
+        assertEquals(day.toString(), first.get("date").asText());
+        assertEquals(25, first.get("free").size());
+        // Only tables 10 and 11 seat 4 guests
+        assertEquals(2, first.get("free").get(0).asInt());
+    }
+
+    @Test
+    @DisplayName("a confirmed booking blocks its table for requests within the buffers")
+    void writeGrid_WithBooking_ShouldBlockBufferedSlots() throws Exception {
+        stubReads(new TableAvailabilityService.BookedWindow(10, 100, day.atTime(18, 0), 4,
+                BookingStatus.CONFIRMED));
+
+        JsonNode free = render(calendarService.load(1, day, day, 4)).get("days").get(0).get("free");
+
+        // 18:00 booking conflicts with requests in [14:30, 21:30]
+        assertEquals(2, free.get(slot(14, 0)).asInt());
+        assertEquals(1, free.get(slot(14, 30)).asInt());
+        assertEquals(1, free.get(slot(18, 0)).asInt());
+        assertEquals(1, free.get(slot(21, 30)).asInt());
+        assertEquals(2, free.get(slot(22, 0)).asInt());
+    }
+
+    @Test
+    @DisplayName("overlapping bookings on the same table are counted once")
+    void writeGrid_OverlappingBookings_ShouldNotDoubleCount() throws Exception {
+        stubReads(
+                new TableAvailabilityService.BookedWindow(10, 100, day.atTime(12, 0), 4, BookingStatus.CONFIRMED),
+                new TableAvailabilityService.BookedWindow(10, 101, day.atTime(13, 0), 4, BookingStatus.COMPLETED),
+                new TableAvailabilityService.BookedWindow(10, 102, day.atTime(14, 0), 4, BookingStatus.PENDING));
+
+        JsonNode free = render(calendarService.load(1, day, day, 4)).get("days").get(0).get("free");
+
+        assertEquals(1, free.get(slot(13, 0)).asInt());
+        assertEquals(1, free.get(slot(16, 30)).asInt());
+        // Pending booking at 14:00 does not block
+        assertEquals(2, free.get(slot(17, 0)).asInt());
+    }
+
+    @Test
+    @DisplayName("ETag is computed without reads and matches the one of the loaded data")
+    void etag_ShouldNotLoadData() {
+        String etag = calendarService.etag(1, day, day, 4);
+
+        verifyNoInteractions(restaurantProfileRepository, restaurantTableRepository, tableAvailabilityService);
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+        assertEquals(etag, calendarService.etag(1, day, day, 4));
+        assertNotEquals(etag, calendarService.etag(1, day, day, 2));
+
+        stubReads();
+        assertEquals(etag, calendarService.load(1, day, day, 4).getEtag());
+    }
+
+    @Test
+    @DisplayName("ETag changes after a booking, table or profile change of the restaurant only")
+    void etag_ShouldFollowRestaurantChanges() {
+        String first = calendarService.etag(1, day, day, 4);
+
+        calendarService.onBookingChanged(new BookingChangedEvent(100, 2));
+        assertEquals(first, calendarService.etag(1, day, day, 4));
+
+        calendarService.onBookingChanged(new BookingChangedEvent(100, 1));
+        String afterBooking = calendarService.etag(1, day, day, 4);
+        assertNotEquals(first, afterBooking);
+
+        calendarService.onTableChanged(new RestaurantTableChangedEvent(10, 1));
+        String afterTable = calendarService.etag(1, day, day, 4);
+        assertNotEquals(afterBooking, afterTable);
+
+        calendarService.onRestaurantProfileChanged(new RestaurantProfileChangedEvent(1));
+        String afterProfile = calendarService.etag(1, day, day, 4);
+        assertNotEquals(afterTable, afterProfile);
+
+        // Restaurant unknown (uninitialized booking proxy): every calendar changes
+        calendarService.onBookingChanged(new BookingChangedEvent(101, null));
+        assertNotEquals(afterProfile, calendarService.etag(1, day, day, 4));
+    }
+
+    @Test
+    @DisplayName("range is clamped to the booking horizon")
+    void load_RangeBeyondHorizon_ShouldClamp() throws Exception {
+        stubReads();
+
+        JsonNode grid = render(calendarService.load(1, LocalDate.now().minusDays(5),
+                LocalDate.now().plusDays(90), 2));
+
+        assertEquals(BookingConflictService.MAX_BOOKING_ADVANCE_DAYS + 1, grid.get("days").size());
+    }
+
+    @Test
+    @DisplayName("invalid guest count is rejected")
+    void load_InvalidGuests_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> calendarService.load(1, day, day, 0));
+    }
+}
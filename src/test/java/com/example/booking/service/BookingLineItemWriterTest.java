@@ -0,0 +1,164 @@
+package com.example.booking.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.booking.domain.Booking;
+import com.example.booking.domain.BookingDish;
+import com.example.booking.domain.Dish;
+import com.example.booking.domain.RestaurantService;
+import com.example.booking.domain.RestaurantTable;
+import com.example.booking.exception.BookingConflictException;
+import com.example.booking.repository.DishRepository;
+import com.example.booking.repository.RestaurantServiceRepository;
+import com.example.booking.repository.RestaurantTableRepository;
+
+/**
+ * Unit tests for BookingLineItemWriter
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BookingLineItemWriter Tests")
+public class BookingLineItemWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private RestaurantTableRepository restaurantTableRepository;
+
+    @Mock
+    private DishRepository dishRepository;
+
+    @Mock
+    private RestaurantServiceRepository restaurantServiceRepository;
+
+    @InjectMocks
+    private BookingLineItemWriter lineItemWriter;
+
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        booking = new Booking();
+        booking.setBookingId(42);
+    }
+
+    private Dish dish(Integer id, String price) {
+        Dish dish = new Dish();
+        dish.setDishId(id);
+        dish.setName("Dish " + id);
+        dish.setPrice(new BigDecimal(price));
+        return dish;
+    }
+
+    private RestaurantTable table(Integer id, String fee) {
+        RestaurantTable table = new RestaurantTable();
+        table.setTableId(id);
+        table.setCapacity(4);
+        table.setDepositAmount(new BigDecimal(fee));
+        return table;
+    }
+
+    @Test
+    @DisplayName("ten dishes are resolved with one query and inserted with one batch")
+    @SuppressWarnings("unchecked")
+    void writeDishes_ShouldUseOneQueryAndOneBatch() {
+        Map<Integer, Integer> quantities = new LinkedHashMap<>();
+        for (int id = 1; id <= 10; id++) {
+            quantities.put(id, 2);
+        }
+        when(dishRepository.findAllById(any())).thenAnswer(invocation -> {
+            Iterable<Integer> ids = invocation.getArgument(0);
+            List<Dish> dishes = new java.util.ArrayList<>();
+            ids.forEach(id -> dishes.add(dish(id, "10000")));
+            return dishes;
+        });
+
+        List<BookingDish> items = lineItemWriter.dishItems(booking, quantities);
+        BookingLineItemWriter.Totals totals = lineItemWriter.write(booking, List.of(), items, List.of());
+
+        verify(dishRepository, times(1)).findAllById(any());
+        verify(dishRepository, never()).findById(any());
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith("INSERT INTO booking_dish"), rows.capture());
+        assertEquals(10, rows.getValue().size());
+        assertArrayEquals(new Object[] { 42, 1, 2, new BigDecimal("10000") }, rows.getValue().get(0));
+        assertEquals(new BigDecimal("200000"), totals.dishesTotal());
+        assertEquals(new BigDecimal("200000"), totals.subtotal());
+    }
+
+    @Test
+    @DisplayName("missing ids are reported by id")
+    void resolve_MissingIds_ShouldThrow() {
+        when(dishRepository.findAllById(any())).thenReturn(List.of(dish(1, "5000")));
+        when(restaurantTableRepository.findAllById(any())).thenReturn(List.of(table(3, "0")));
+
+        IllegalArgumentException dishError = assertThrows(IllegalArgumentException.class,
+                () -> lineItemWriter.dishItems(booking, Map.of(1, 1, 99, 1)));
+        assertEquals("Dish not found: 99", dishError.getMessage());
+        IllegalArgumentException tableError = assertThrows(IllegalArgumentException.class,
+                () -> lineItemWriter.findTables(List.of(3, 4)));
+        assertEquals("Table not found: 4", tableError.getMessage());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("tables, services and totals are written in one pass")
+    void write_AllTypes_ShouldSumTotals() {
+        RestaurantService service = new RestaurantService();
+        service.setServiceId(7);
+        service.setPrice(new BigDecimal("50000"));
+        when(restaurantTableRepository.findAllById(any())).thenReturn(List.of(table(4, "30000"), table(3, "20000")));
+        when(restaurantServiceRepository.findAllById(any())).thenReturn(List.of(service));
+
+        List<RestaurantTable> tables = lineItemWriter.findTables(List.of(3, 4, 3));
+        BookingLineItemWriter.Totals totals = lineItemWriter.write(booking,
+                lineItemWriter.tableItems(booking, tables), List.of(),
+                lineItemWriter.serviceItems(booking, List.of(7)));
+
+        assertEquals(List.of(3, 4), tables.stream().map(RestaurantTable::getTableId).toList());
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO booking_table"), anyList());
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO booking_service"), anyList());
+        assertEquals(new BigDecimal("50000"), totals.tableFees());
+        assertEquals(new BigDecimal("50000"), totals.servicesTotal());
+        assertEquals(new BigDecimal("100000"), totals.subtotal());
+    }
+
+    @Test
+    @DisplayName("overlap rejected by the database becomes a booking conflict")
+    void write_OverlapViolation_ShouldThrowConflict() {
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO booking_table"), anyList()))
+                .thenThrow(new DataIntegrityViolationException("batch failed",
+                        new SQLException("conflicting key value violates exclusion constraint", "23P01")));
+
+        BookingConflictException conflict = assertThrows(BookingConflictException.class,
+                () -> lineItemWriter.write(booking,
+                        lineItemWriter.tableItems(booking, List.of(table(5, "0"))), List.of(), List.of()));
+        assertEquals(5, conflict.getTableId());
+    }
+
+    @Test
+    @DisplayName("line items need a saved booking")
+    void write_UnsavedBooking_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class,
+                () -> lineItemWriter.write(new Booking(), List.of(), List.of(), List.of()));
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.booking.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.example.booking.domain.Booking;
+import com.example.booking.exception.BookingConflictException;
+import com.example.booking.repository.BookingRepository;
+
+/**
+ * Unit tests for BookingOverlapConstraint
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BookingOverlapConstraint Tests")
+public class BookingOverlapConstraintTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private Booking booking(LocalDateTime time) {
+        Booking booking = new Booking();
+        booking.setBookingId(1);
+        booking.setBookingTime(time);
+        return booking;
+    }
+
+    private DataIntegrityViolationException exclusionViolation() {
+        SQLException sql = new SQLException("conflicting key value violates exclusion constraint", "23P01");
+        return new DataIntegrityViolationException("could not execute statement", sql);
+    }
+
+    @Test
+    @DisplayName("exclusion violation at flush becomes a TIME_OVERLAP booking conflict")
+    void flush_ExclusionViolation_ShouldThrowBookingConflict() {
+        LocalDateTime time = LocalDateTime.now().plusDays(1);
+        doThrow(exclusionViolation()).when(bookingRepository).flush();
+
+        BookingConflictException conflict = assertThrows(BookingConflictException.class,
+                () -> BookingOverlapConstraint.flush(bookingRepository, booking(time)));
+
+        assertEquals(BookingConflictException.ConflictType.TIME_OVERLAP, conflict.getConflictType());
+        assertEquals(time, conflict.getBookingTime());
+    }
+
+    @Test
+    @DisplayName("other integrity errors are not translated")
+    void write_OtherViolation_ShouldRethrow() {
+        DataIntegrityViolationException notNull = new DataIntegrityViolationException("null value",
+                new SQLException("null value in column", "23502"));
+
+        DataIntegrityViolationException thrown = assertThrows(DataIntegrityViolationException.class,
+                () -> BookingOverlapConstraint.write(booking(LocalDateTime.now()), 5, () -> {
+                    throw notNull;
+                }));
+        assertSame(notNull, thrown);
+    }
+
+    @Test
+    @DisplayName("violation is recognised by constraint name when no SQLSTATE is available")
+    void isViolation_ByConstraintName() {
+        RuntimeException wrapped = new RuntimeException("commit failed",
+                new IllegalStateException("violates exclusion constraint \"booking_table_no_overlap\""));
+
+        assertTrue(BookingOverlapConstraint.isViolation(wrapped));
+        assertFalse(BookingOverlapConstraint.isViolation(new RuntimeException("timeout")));
+    }
+
+    @Test
+    @DisplayName("successful write returns its result and the table id is kept on conflict")
+    void write_ShouldReturnResultOrCarryTableId() {
+        assertEquals("saved", BookingOverlapConstraint.write(booking(LocalDateTime.now()), 5, () -> "saved"));
+
+        BookingConflictException conflict = assertThrows(BookingConflictException.class,
+                () -> BookingOverlapConstraint.write(booking(LocalDateTime.now()), 5, () -> {
+                    throw exclusionViolation();
+                }));
+        assertEquals(5, conflict.getTableId());
+    }
+
+    @Test
+    @DisplayName("constraint ignores rows of the same booking and only covers blocking rows")
+    void constraintStatement_ShouldMatchConflictRule() {
+        String ddl = BookingOverlapConstraint.CONSTRAINT_STATEMENT;
+
+        assertTrue(ddl.contains("table_id WITH ="));
+        assertTrue(ddl.contains("booked_range WITH &&"));
+        assertTrue(ddl.contains("booking_id WITH <>"));
+        assertTrue(ddl.endsWith("WHERE (blocking)"));
+        assertTrue(BookingOverlapConstraint.SCHEMA_STATEMENTS.stream()
+                .anyMatch(sql -> sql.contains("interval '90 minutes'") && sql.contains("interval '120 minutes'")
+                        && sql.contains("'[]'")));
+    }
+}
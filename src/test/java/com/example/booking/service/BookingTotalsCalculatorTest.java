@@ -0,0 +1,126 @@
+package com.example.booking.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.booking.domain.Booking;
+import com.example.booking.repository.BookingDishRepository;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.repository.BookingServiceRepository;
+import com.example.booking.repository.BookingTableRepository;
+
+/**
+ * Unit tests for BookingTotalsCalculator
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BookingTotalsCalculator Tests")
+public class BookingTotalsCalculatorTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private BookingTableRepository bookingTableRepository;
+
+    @Mock
+    private BookingDishRepository bookingDishRepository;
+
+    @Mock
+    private BookingServiceRepository bookingServiceRepository;
+
+    @InjectMocks
+    private BookingTotalsCalculator calculator;
+
+    private Booking booking(Integer id) {
+        Booking booking = new Booking();
+        booking.setBookingId(id);
+        return booking;
+    }
+
+    @Test
+    @DisplayName("bookings with stored totals are returned without any query")
+    void calculate_StoredTotals_ShouldNotQuery() {
+        Booking stored = booking(1);
+        stored.setLineItemTotals(new BigDecimal("50000"), new BigDecimal("120000"), BigDecimal.ZERO);
+
+        Map<Integer, BookingLineItemWriter.Totals> totals = calculator.calculate(List.of(stored));
+
+        assertEquals(new BigDecimal("170000"), totals.get(1).subtotal());
+        verifyNoInteractions(bookingRepository, bookingTableRepository, bookingDishRepository, bookingServiceRepository);
+    }
+
+    @Test
+    @DisplayName("a page of bookings costs one grouped query per item type")
+    void calculate_Page_ShouldUseThreeGroupedQueries() {
+        Booking first = booking(1);
+        Booking second = booking(2);
+        Booking stored = booking(3);
+        stored.setLineItemTotals(BigDecimal.TEN, BigDecimal.ZERO, BigDecimal.ZERO);
+        when(bookingTableRepository.sumTableFeesByBookingIds(Set.of(1, 2)))
+                .thenReturn(List.<Object[]>of(new Object[] { 1, new BigDecimal("30000") }));
+        when(bookingDishRepository.sumDishesByBookingIds(Set.of(1, 2)))
+                .thenReturn(List.<Object[]>of(new Object[] { 1, new BigDecimal("200000") },
+                        new Object[] { 2, new BigDecimal("80000") }));
+        when(bookingServiceRepository.sumServicesByBookingIds(Set.of(1, 2)))
+                .thenReturn(List.<Object[]>of(new Object[] { 2, 15000L }));
+
+        Map<Integer, BookingLineItemWriter.Totals> totals = calculator.calculate(List.of(first, second, stored));
+
+        assertEquals(List.of(1, 2, 3), List.copyOf(totals.keySet()));
+        assertEquals(new BigDecimal("230000"), totals.get(1).subtotal());
+        assertEquals(new BigDecimal("95000"), totals.get(2).subtotal());
+        assertEquals(BigDecimal.TEN, totals.get(3).subtotal());
+        verify(bookingTableRepository, times(1)).sumTableFeesByBookingIds(any());
+        verify(bookingDishRepository, times(1)).sumDishesByBookingIds(any());
+        verify(bookingServiceRepository, times(1)).sumServicesByBookingIds(any());
+    }
+
+    @Test
+    @DisplayName("computed totals are stored back on the booking and in the database")
+    void calculate_ShouldStoreTotalsOnBooking() {
+        Booking booking = booking(7);
+        when(bookingTableRepository.sumTableFeesByBookingIds(any())).thenReturn(List.of());
+        when(bookingDishRepository.sumDishesByBookingIds(any()))
+                .thenReturn(List.<Object[]>of(new Object[] { 7, new BigDecimal("40000") }));
+        when(bookingServiceRepository.sumServicesByBookingIds(any())).thenReturn(List.of());
+
+        BookingLineItemWriter.Totals totals = calculator.calculate(booking);
+
+        assertEquals(new BigDecimal("40000"), totals.subtotal());
+        assertTrue(booking.hasLineItemTotals());
+        assertEquals(BigDecimal.ZERO, booking.getTableFeeTotal());
+        assertEquals(new BigDecimal("40000"), booking.getSubtotalAmount());
+        verify(bookingRepository).storeLineItemTotals(7, BigDecimal.ZERO, new BigDecimal("40000"), BigDecimal.ZERO,
+                new BigDecimal("40000"));
+
+        // Second read is served from the booking
+        calculator.calculate(booking);
+        verify(bookingDishRepository, times(1)).sumDishesByBookingIds(any());
+    }
+
+    @Test
+    @DisplayName("cleared totals are recomputed")
+    void clearLineItemTotals_ShouldForceRecompute() {
+        Booking booking = booking(8);
+        booking.setLineItemTotals(BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE);
+        booking.clearLineItemTotals();
+        when(bookingTableRepository.sumTableFeesByBookingIds(any())).thenReturn(List.of());
+        when(bookingDishRepository.sumDishesByBookingIds(any())).thenReturn(List.of());
+        when(bookingServiceRepository.sumServicesByBookingIds(any())).thenReturn(List.of());
+
+        assertEquals(BigDecimal.ZERO, calculator.calculate(booking).subtotal());
+    }
+}
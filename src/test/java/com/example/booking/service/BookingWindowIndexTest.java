@@ -0,0 +1,193 @@
+package com.example.booking.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.booking.event.BookingChangedEvent;
+import com.example.booking.repository.BookingTableRepository;
+
+/**
+ * Unit tests for BookingWindowIndex
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BookingWindowIndex Tests")
+public class BookingWindowIndexTest {
+
+    @Mock
+    private BookingTableRepository bookingTableRepository;
+
+    @InjectMocks
+    private BookingWindowIndex bookingWindowIndex;
+
+    private LocalDateTime tomorrowAt(int hour, int minute) {
+        return LocalDate.now().plusDays(1).atTime(hour, minute);
+    }
+
+    private Object[] row(Integer restaurantId, Integer tableId, Integer bookingId, LocalDateTime time) {
+        return new Object[] { restaurantId, tableId, bookingId, time };
+    }
+
+    private void warmIndex() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(row(1, 10, 100, tomorrowAt(18, 0)));
+        rows.add(row(1, 10, 101, tomorrowAt(12, 0)));
+        rows.add(row(1, 11, 102, tomorrowAt(18, 0)));
+        when(bookingTableRepository.findBookingWindowsFrom(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(rows);
+        bookingWindowIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("lookup before warm-up should be a miss")
+    void findBookings_NotWarmed_ShouldReturnEmpty() {
+        Optional<List<BookingWindowIndex.Slot>> result = bookingWindowIndex.findBookings(1, 10,
+                tomorrowAt(15, 0), tomorrowAt(21, 0));
+
+        assertFalse(bookingWindowIndex.isReady());
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    @DisplayName("lookup returns only bookings of the table inside the range")
+    void findBookings_AfterRebuild_ShouldReturnSlotsInRange() {
+        warmIndex();
+
+        Optional<List<BookingWindowIndex.Slot>> result = bookingWindowIndex.findBookings(1, 10,
+                tomorrowAt(15, 0), tomorrowAt(21, 0));
+
+        assertTrue(result.isPresent());
+        assertEquals(1, result.get().size());
+        assertEquals(100, result.get().get(0).bookingId());
+    }
+
+    @Test
+    @DisplayName("range boundaries are inclusive")
+    void findBookings_BoundaryTimes_ShouldBeInclusive() {
+        warmIndex();
+
+        Optional<List<BookingWindowIndex.Slot>> result = bookingWindowIndex.findBookings(1, 10,
+                tomorrowAt(12, 0), tomorrowAt(18, 0));
+
+        assertEquals(2, result.get().size());
+    }
+
+    @Test
+    @DisplayName("unknown table is a hit with no bookings")
+    void findBookings_UnknownTable_ShouldReturnEmptyList() {
+        warmIndex();
+
+        Optional<List<BookingWindowIndex.Slot>> result = bookingWindowIndex.findBookings(2, 99,
+                tomorrowAt(0, 0), tomorrowAt(23, 0));
+
+        assertTrue(result.isPresent());
+        assertTrue(result.get().isEmpty());
+    }
+
+    @Test
+    @DisplayName("range starting before coverage falls back to database")
+    void findBookings_BeforeCoverage_ShouldReturnEmpty() {
+        warmIndex();
+
+        Optional<List<BookingWindowIndex.Slot>> result = bookingWindowIndex.findBookings(1, 10,
+                LocalDateTime.now().minusDays(3), tomorrowAt(21, 0));
+
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    @DisplayName("booking change moves the booking to its new time")
+    void onBookingChanged_TimeMoved_ShouldReplaceSlot() {
+        warmIndex();
+        List<Object[]> moved = new ArrayList<>();
+        moved.add(row(1, 10, 100, tomorrowAt(9, 0)));
+        when(bookingTableRepository.findBookingWindowsByBookingIds(eq(List.of(100)), anyCollection()))
+                .thenReturn(moved);
+
+        bookingWindowIndex.onBookingChanged(new BookingChangedEvent(100, 1));
+
+        assertTrue(bookingWindowIndex.findBookings(1, 10, tomorrowAt(15, 0), tomorrowAt(21, 0)).get().isEmpty());
+        assertEquals(100, bookingWindowIndex.findBookings(1, 10, tomorrowAt(8, 0), tomorrowAt(10, 0))
+                .get().get(0).bookingId());
+    }
+
+    @Test
+    @DisplayName("cancelled booking is removed from every table")
+    void onBookingChanged_Cancelled_ShouldRemoveSlots() {
+        warmIndex();
+        when(bookingTableRepository.findBookingWindowsByBookingIds(eq(List.of(102)), anyCollection()))
+                .thenReturn(new ArrayList<>());
+
+        bookingWindowIndex.onBookingChanged(new BookingChangedEvent(102, 1));
+
+        assertTrue(bookingWindowIndex.findBookings(1, 11, tomorrowAt(0, 0), tomorrowAt(23, 0)).get().isEmpty());
+    }
+
+    @Test
+    @DisplayName("new booking on another table is added")
+    void onBookingChanged_NewBooking_ShouldAddSlot() {
+        warmIndex();
+        List<Object[]> created = new ArrayList<>();
+        created.add(row(1, 12, 103, tomorrowAt(19, 0)));
+        created.add(row(1, 13, 103, tomorrowAt(19, 0)));
+        when(bookingTableRepository.findBookingWindowsByBookingIds(eq(List.of(103)), anyCollection()))
+                .thenReturn(created);
+
+        bookingWindowIndex.onBookingChanged(new BookingChangedEvent(103, 1));
+
+        assertEquals(1, bookingWindowIndex.findBookings(1, 12, tomorrowAt(18, 0), tomorrowAt(20, 0)).get().size());
+        assertEquals(1, bookingWindowIndex.findBookings(1, 13, tomorrowAt(18, 0), tomorrowAt(20, 0)).get().size());
+    }
+
+    @Test
+    @DisplayName("concurrent refreshes of one booking apply in the order they read")
+    void refresh_Concurrent_ShouldKeepLatestState() throws Exception {
+        warmIndex();
+        AtomicInteger reads = new AtomicInteger();
+        AtomicInteger concurrentReads = new AtomicInteger();
+        AtomicInteger maxConcurrentReads = new AtomicInteger();
+        when(bookingTableRepository.findBookingWindowsByBookingIds(eq(List.of(100)), anyCollection()))
+                .thenAnswer(invocation -> {
+                    maxConcurrentReads.accumulateAndGet(concurrentReads.incrementAndGet(), Math::max);
+                    try {
+                        List<Object[]> rows = new ArrayList<>();
+                        if (reads.incrementAndGet() == 1) {
+                            // First reader sees the old time and is slow to apply it
+                            Thread.sleep(200);
+                            rows.add(row(1, 10, 100, tomorrowAt(18, 0)));
+                        } else {
+                            rows.add(row(1, 10, 100, tomorrowAt(9, 0)));
+                        }
+                        return rows;
+                    } finally {
+                        concurrentReads.decrementAndGet();
+                    }
+                });
+
+        Thread first = new Thread(() -> bookingWindowIndex.refresh(List.of(100)));
+        first.start();
+        while (reads.get() == 0) {
+            Thread.onSpinWait();
+        }
+        bookingWindowIndex.refresh(List.of(100));
+        first.join(2000);
+
+        assertEquals(1, maxConcurrentReads.get());
+        assertTrue(bookingWindowIndex.findBookings(1, 10, tomorrowAt(15, 0), tomorrowAt(21, 0)).get().isEmpty());
+        assertEquals(1, bookingWindowIndex.findBookings(1, 10, tomorrowAt(8, 0), tomorrowAt(10, 0)).get().size());
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.booking.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.booking.event.RestaurantMediaChangedEvent;
+import com.example.booking.event.RestaurantProfileChangedEvent;
+import com.example.booking.event.ReviewChangedEvent;
+import com.example.booking.repository.RestaurantMediaRepository;
+import com.example.booking.repository.RestaurantProfileRepository;
+
+/**
+ * Unit tests for HomeCatalogService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HomeCatalogService Tests")
+public class HomeCatalogServiceTest {
+
+    @Mock
+    private RestaurantProfileRepository restaurantProfileRepository;
+
+    @Mock
+    private RestaurantMediaRepository restaurantMediaRepository;
+
+    @InjectMocks
+    private HomeCatalogService homeCatalogService;
+
+    private Object[] row(int id, String name, Integer price, double rating, int reviews, int approvedDay) {
+        return new Object[] { id, name, "Việt", "Đà Nẵng", price != null ? BigDecimal.valueOf(price) : null,
+                "10:00-22:00", rating, reviews, LocalDateTime.of(2025, 1, approvedDay, 0, 0) };
+    }
+
+    private List<Integer> ids(List<HomeCatalogService.CatalogCard> cards) {
+        return cards.stream().map(HomeCatalogService.CatalogCard::restaurantId).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("cards are ordered like findTopRatedRestaurants with the pinned restaurants first")
+    void getSnapshot_ShouldBuildCardsInHomeOrder() {
+        when(restaurantProfileRepository.findApprovedCatalogRows()).thenReturn(List.of(
+                row(1, "Quán Ngon", 150000, 4.8, 20, 1),
+                row(2, "Danh Restaurant", null, 3.9, 4, 2),
+                row(3, "Bếp Nhà", 90000, 4.8, 20, 5),
+                row(4, "Thai Market Restaurant", 300000, 4.0, 9, 3),
+                row(5, "Hải Sản", 200000, 4.8, 31, 4)));
+        when(restaurantMediaRepository.findUrlRowsOfApprovedRestaurantsByType("cover")).thenReturn(List.of(
+                new Object[] { 1, "https://img/1-new.jpg" }, new Object[] { 1, "https://img/1-old.jpg" },
+                new Object[] { 5, "https://img/5.jpg" }));
+
+        HomeCatalogService.CatalogSnapshot snapshot = homeCatalogService.getSnapshot();
+
+        assertEquals(List.of(4, 2, 5, 3, 1), ids(snapshot.popular()));
+        assertEquals(List.of(4, 2, 5), ids(snapshot.top(3)));
+        HomeCatalogService.CatalogCard card = snapshot.byId().get(1);
+        assertEquals("https://img/1-new.jpg", card.coverImageUrl());
+        assertEquals(4.8, card.averageRating(), 0.001);
+        assertEquals(20, card.reviewCount());
+        assertTrue(card.isOpenAt(LocalDateTime.of(2025, 6, 1, 12, 0)));
+        assertFalse(card.isOpenAt(LocalDateTime.of(2025, 6, 1, 23, 0)));
+        assertEquals("Giá đang cập nhật", snapshot.byId().get(2).priceLabel());
+        assertNull(snapshot.byId().get(3).coverImageUrl());
+    }
+
+    @Test
+    @DisplayName("steady state is served without queries, committed changes trigger one rebuild")
+    void getSnapshot_ShouldRebuildOnlyAfterVersionBump() {
+        when(restaurantProfileRepository.findApprovedCatalogRows()).thenReturn(List.<Object[]>of(row(1, "A", 1, 4.0, 1, 1)));
+        when(restaurantMediaRepository.findUrlRowsOfApprovedRestaurantsByType("cover")).thenReturn(List.of());
+
+        HomeCatalogService.CatalogSnapshot first = homeCatalogService.getSnapshot();
+        assertSame(first, homeCatalogService.getSnapshot());
+        assertSame(first, homeCatalogService.getSnapshot());
+        verify(restaurantProfileRepository, times(1)).findApprovedCatalogRows();
+
+        homeCatalogService.onReviewChanged(new ReviewChangedEvent(7, 1));
+        HomeCatalogService.CatalogSnapshot second = homeCatalogService.getSnapshot();
+        assertNotSame(first, second);
+        assertTrue(second.version() > first.version());
+        homeCatalogService.onRestaurantMediaChanged(new RestaurantMediaChangedEvent(3, 1));
+        homeCatalogService.onRestaurantProfileChanged(new RestaurantProfileChangedEvent(1));
+        homeCatalogService.getSnapshot();
+        homeCatalogService.getSnapshot();
+        verify(restaurantProfileRepository, times(3)).findApprovedCatalogRows();
+    }
+
+    @Test
+    @DisplayName("concurrent misses share one build")
+    void getSnapshot_ConcurrentMisses_ShouldBuildOnce() throws Exception {
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(restaurantMediaRepository.findUrlRowsOfApprovedRestaurantsByType("cover")).thenReturn(List.of());
+        when(restaurantProfileRepository.findApprovedCatalogRows()).thenAnswer(invocation -> {
+            queryStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.<Object[]>of(row(1, "A", 1, 4.0, 1, 1));
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<HomeCatalogService.CatalogSnapshot>> results = new ArrayList<>();
+            results.add(pool.submit(homeCatalogService::getSnapshot));
+            assertTrue(queryStarted.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                results.add(pool.submit(homeCatalogService::getSnapshot));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            HomeCatalogService.CatalogSnapshot built = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<HomeCatalogService.CatalogSnapshot> result : results) {
+                assertSame(built, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        verify(restaurantProfileRepository, times(1)).findApprovedCatalogRows();
+    }
+
+    @Test
+    @DisplayName("a failed rebuild keeps serving the previous snapshot")
+    void getSnapshot_WhenRebuildFails_ShouldServePrevious() {
+        when(restaurantMediaRepository.findUrlRowsOfApprovedRestaurantsByType(anyString())).thenReturn(List.of());
+        when(restaurantProfileRepository.findApprovedCatalogRows())
+                .thenReturn(List.<Object[]>of(row(1, "A", 1, 4.0, 1, 1)))
+                .thenThrow(new RuntimeException("database down"));
+
+        HomeCatalogService.CatalogSnapshot first = homeCatalogService.getSnapshot();
+        homeCatalogService.expire();
+        assertSame(first, homeCatalogService.getSnapshot());
+    }
+
+    @Test
+    @DisplayName("the first build failing propagates so the caller can fall back")
+    void getSnapshot_WhenFirstBuildFails_ShouldThrow() {
+        when(restaurantMediaRepository.findUrlRowsOfApprovedRestaurantsByType(anyString()))
+                .thenThrow(new RuntimeException("database down"));
+
+        assertThrows(RuntimeException.class, () -> homeCatalogService.getSnapshot());
+    }
+}
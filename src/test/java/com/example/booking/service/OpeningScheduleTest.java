@@ -0,0 +1,121 @@
+package com.example.booking.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.booking.domain.RestaurantProfile;
+import com.example.booking.event.RestaurantProfileChangedEvent;
+
+/**
+ * Unit tests for OpeningSchedule and OpeningScheduleService
+ */
+@DisplayName("OpeningSchedule Tests")
+public class OpeningScheduleTest {
+
+    private final LocalDate monday = LocalDate.of(2026, 11, 2);
+
+    @Test
+    @DisplayName("legacy single interval is open with inclusive bounds")
+    void parse_SingleInterval_ShouldMatchLegacyFormat() {
+        OpeningSchedule schedule = OpeningSchedule.parse("10:00 - 22:00");
+
+        assertNotNull(schedule);
+        assertFalse(schedule.isOpenAt(monday.atTime(9, 59)));
+        assertTrue(schedule.isOpenAt(monday.atTime(10, 0)));
+        assertTrue(schedule.isOpenAt(monday.atTime(22, 0)));
+        assertFalse(schedule.isOpenAt(monday.atTime(22, 1)));
+        assertEquals("10:00 đến 22:00", schedule.describe(monday));
+    }
+
+    @Test
+    @DisplayName("empty or invalid hours are not a schedule")
+    void parse_Invalid_ShouldReturnNull() {
+        assertNull(OpeningSchedule.parse(null));
+        assertNull(OpeningSchedule.parse("  "));
+        assertNull(OpeningSchedule.parse("invalid"));
+        assertNull(OpeningSchedule.parse("25:00-22:00"));
+        assertNull(OpeningSchedule.parse("Mon-Fri sometimes"));
+    }
+
+    @Test
+    @DisplayName("split shift has a closed break")
+    void parse_MultipleIntervals_ShouldCloseInBreak() {
+        OpeningSchedule schedule = OpeningSchedule.parse("10:00-14:00, 17:00-22:00");
+
+        assertTrue(schedule.isOpenAt(monday.atTime(13, 0)));
+        assertFalse(schedule.isOpenAt(monday.atTime(15, 0)));
+        assertTrue(schedule.isOpenAt(monday.atTime(18, 0)));
+        assertEquals("10:00 đến 14:00, 17:00 đến 22:00", schedule.describe(monday));
+    }
+
+    @Test
+    @DisplayName("per-weekday rules with an overnight span")
+    void parse_WeekdaysAndOvernight_ShouldSpillIntoNextDay() {
+        OpeningSchedule schedule = OpeningSchedule.parse("T2-T6 10:00-22:00; T7-CN 18:00-02:00");
+        LocalDate saturday = monday.plusDays(5);
+
+        assertTrue(schedule.isOpenAt(monday.atTime(12, 0)));
+        assertFalse(schedule.isOpenAt(saturday.atTime(12, 0)));
+        assertTrue(schedule.isOpenAt(saturday.atTime(23, 30)));
+        assertTrue(schedule.isOpenAt(saturday.plusDays(1).atTime(1, 30)));
+        // Sunday night spills into Monday morning
+        assertTrue(schedule.isOpenAt(monday.plusDays(7).atTime(2, 0)));
+        assertFalse(schedule.isOpenAt(monday.plusDays(7).atTime(2, 1)));
+        assertFalse(schedule.isOpenAt(saturday.atTime(1, 0)));
+        assertTrue(schedule.opensFromPreviousDay(saturday.plusDays(1)));
+    }
+
+    @Test
+    @DisplayName("holiday overrides replace the weekly rule of that date")
+    void parse_Holidays_ShouldOverrideWeekday() {
+        LocalDate holiday = monday.plusDays(2);
+        OpeningSchedule schedule = OpeningSchedule.parse("Mon-Sun 10:00-22:00; " + holiday + " closed; "
+                + holiday.plusDays(1) + ": 10:00-14:00");
+
+        assertFalse(schedule.isOpenAt(holiday.atTime(12, 0)));
+        assertEquals(-1, schedule.firstOpeningMinute(holiday));
+        assertTrue(schedule.isOpenAt(holiday.plusDays(1).atTime(12, 0)));
+        assertFalse(schedule.isOpenAt(holiday.plusDays(1).atTime(18, 0)));
+        assertTrue(schedule.isOpenAt(holiday.plusDays(2).atTime(18, 0)));
+    }
+
+    @Test
+    @DisplayName("next opening skips breaks and closed days")
+    void nextOpening_ShouldFindNextInterval() {
+        OpeningSchedule schedule = OpeningSchedule.parse("Mon-Fri 10:00-14:00, 17:00-22:00");
+        LocalDate friday = monday.plusDays(4);
+
+        assertEquals(monday.atTime(12, 0), schedule.nextOpening(monday.atTime(12, 0), 7));
+        assertEquals(monday.atTime(17, 0), schedule.nextOpening(monday.atTime(15, 0), 7));
+        assertEquals(monday.plusDays(7).atTime(10, 0), schedule.nextOpening(friday.atTime(23, 0), 7));
+        assertNull(schedule.nextOpening(friday.atTime(23, 0), 1));
+    }
+
+    @Test
+    @DisplayName("schedule is compiled once per openingHours version and dropped on profile update")
+    void service_ShouldCacheUntilProfileChanges() {
+        OpeningScheduleService service = new OpeningScheduleService();
+        RestaurantProfile restaurant = new RestaurantProfile();
+        restaurant.setRestaurantId(1);
+        restaurant.setOpeningHours("10:00-22:00");
+
+        OpeningSchedule first = service.getSchedule(restaurant);
+        assertSame(first, service.getSchedule(restaurant));
+
+        restaurant.setOpeningHours("08:00-23:00");
+        OpeningSchedule changed = service.getSchedule(restaurant);
+        assertNotSame(first, changed);
+        assertTrue(changed.isOpenAt(monday.atTime(8, 30)));
+
+        service.onRestaurantProfileChanged(new RestaurantProfileChangedEvent(1));
+        assertNotSame(changed, service.getSchedule(restaurant));
+
+        restaurant.setOpeningHours("invalid");
+        assertNull(service.getSchedule(restaurant));
+        assertSame(OpeningScheduleService.DEFAULT_SCHEDULE, service.getScheduleOrDefault(restaurant));
+    }
+}
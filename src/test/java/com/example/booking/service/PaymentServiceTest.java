@@ -2,6 +2,7 @@ package com.example.booking.service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -20,19 +21,24 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import com.example.booking.common.enums.PaymentType;
 import com.example.booking.domain.Booking;
+import com.example.booking.domain.BookingTable;
 import com.example.booking.domain.Customer;
 import com.example.booking.domain.Payment;
 import com.example.booking.domain.PaymentMethod;
 import com.example.booking.domain.PaymentStatus;
 import com.example.booking.domain.RestaurantProfile;
+import com.example.booking.domain.RestaurantTable;
 import com.example.booking.domain.User;
+import com.example.booking.exception.BookingConflictException;
 import com.example.booking.repository.BookingRepository;
 import com.example.booking.repository.CustomerRepository;
 import com.example.booking.repository.PaymentRepository;
@@ -462,6 +468,58 @@ class PaymentServiceTest {
         assertEquals("Payment method is not cash", exception.getMessage());
     }
 
+    @Test
+    @DisplayName("testProcessCashPayment_WithTableConfirmedForAnotherBooking_ShouldCompletePaymentOnly")
+    void testProcessCashPayment_WithTableConfirmedForAnotherBooking_ShouldCompletePaymentOnly() {
+        // Given
+        Payment payment = cashPaymentWithTable(1, 5);
+        Booking other = new Booking();
+        other.setBookingId(2);
+        other.setStatus(com.example.booking.common.enums.BookingStatus.CONFIRMED);
+
+        when(paymentRepository.findById(1)).thenReturn(Optional.of(payment));
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(bookingRepository.findTableConflictsInTimeRange(eq(5), any(), any())).thenReturn(List.of(other));
+
+        // When
+        Payment result = paymentService.processCashPayment(1);
+
+        // Then
+        assertEquals(PaymentStatus.COMPLETED, result.getStatus());
+        assertEquals(com.example.booking.common.enums.BookingStatus.PENDING, booking.getStatus());
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(bookingRepository, never()).flush();
+    }
+
+    @Test
+    @DisplayName("testProcessCashPayment_WhenOverlapConstraintRejectsConfirm_ShouldThrowConflict")
+    void testProcessCashPayment_WhenOverlapConstraintRejectsConfirm_ShouldThrowConflict() {
+        // Given
+        Payment payment = cashPaymentWithTable(1, 5);
+
+        when(paymentRepository.findById(1)).thenReturn(Optional.of(payment));
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(bookingRepository.findTableConflictsInTimeRange(eq(5), any(), any())).thenReturn(List.of(booking));
+        doThrow(new DataIntegrityViolationException("violates exclusion constraint \""
+                + BookingOverlapConstraint.CONSTRAINT_NAME + "\"")).when(bookingRepository).flush();
+
+        // When & Then
+        assertThrows(BookingConflictException.class, () -> paymentService.processCashPayment(1));
+    }
+
+    private Payment cashPaymentWithTable(Integer paymentId, Integer tableId) {
+        RestaurantTable table = new RestaurantTable();
+        table.setTableId(tableId);
+        booking.setBookingTables(new ArrayList<>(List.of(new BookingTable(booking, table))));
+
+        Payment payment = new Payment();
+        payment.setPaymentId(paymentId);
+        payment.setPaymentMethod(PaymentMethod.CASH);
+        payment.setStatus(PaymentStatus.PENDING);
+        payment.setBooking(booking);
+        return payment;
+    }
+
     // ==================== PROCESS CARD PAYMENT TESTS ====================
 
     @Test
@@ -0,0 +1,254 @@
+package com.example.booking.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.booking.common.enums.BookingStatus;
+import com.example.booking.common.enums.TableStatus;
+import com.example.booking.domain.Booking;
+import com.example.booking.domain.RestaurantAvailability;
+import com.example.booking.domain.RestaurantProfile;
+import com.example.booking.domain.RestaurantTable;
+import com.example.booking.event.BookingChangedEvent;
+import com.example.booking.event.RestaurantProfileChangedEvent;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.repository.RestaurantAvailabilityRepository;
+import com.example.booking.repository.RestaurantProfileRepository;
+import com.example.booking.repository.RestaurantTableRepository;
+
+/**
+ * Unit tests for RestaurantAvailabilityService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RestaurantAvailabilityService Tests")
+public class RestaurantAvailabilityServiceTest {
+
+    @Mock
+    private RestaurantAvailabilityRepository availabilityRepository;
+
+    @Mock
+    private RestaurantTableRepository restaurantTableRepository;
+
+    @Mock
+    private RestaurantProfileRepository restaurantProfileRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private TableAvailabilityService tableAvailabilityService;
+
+    @InjectMocks
+    private RestaurantAvailabilityService availabilityService;
+
+    private RestaurantProfile restaurant;
+    private List<RestaurantTable> tables;
+    private final LocalDate day = LocalDate.now().plusDays(2);
+
+    @BeforeEach
+    void setUp() {
+        restaurant = new RestaurantProfile();
+        restaurant.setRestaurantId(1);
+
+        tables = new ArrayList<>();
+        tables.add(table(10, 4, TableStatus.AVAILABLE));
+        tables.add(table(11, 6, TableStatus.OCCUPIED));
+        tables.add(table(12, 2, TableStatus.MAINTENANCE));
+    }
+
+    private RestaurantTable table(Integer id, Integer capacity, TableStatus status) {
+        RestaurantTable table = new RestaurantTable();
+        table.setTableId(id);
+        table.setCapacity(capacity);
+        table.setStatus(status);
+        table.setRestaurant(restaurant);
+        return table;
+    }
+
+    private TableAvailabilityService.BookingWindows windows(TableAvailabilityService.BookedWindow... booked) {
+        Map<Integer, List<TableAvailabilityService.BookedWindow>> byTable = new HashMap<>();
+        for (TableAvailabilityService.BookedWindow window : booked) {
+            byTable.computeIfAbsent(window.tableId(), id -> new ArrayList<>()).add(window);
+        }
+        return new TableAvailabilityService.BookingWindows(1, day.atStartOfDay(), day.plusDays(1).atStartOfDay(),
+                byTable);
+    }
+
+    private void stubReads(TableAvailabilityService.BookingWindows windows, List<RestaurantAvailability> existing) {
+        when(restaurantProfileRepository.findById(1)).thenReturn(Optional.of(restaurant));
+        when(restaurantTableRepository.findByRestaurantRestaurantId(1)).thenReturn(tables);
+        when(tableAvailabilityService.getAvailability(eq(1), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(windows);
+        when(availabilityRepository.findByRestaurantRestaurantIdAndDateBetweenOrderByDateAscHourAsc(eq(1), any(),
+                any())).thenReturn(existing);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<RestaurantAvailability> captureSaved() {
+        ArgumentCaptor<List<RestaurantAvailability>> captor = ArgumentCaptor.forClass(List.class);
+        verify(availabilityRepository).saveAll(captor.capture());
+        return captor.getValue();
+    }
+
+    private RestaurantAvailability cellAt(List<RestaurantAvailability> cells, LocalDate date, int hour) {
+        return cells.stream()
+                .filter(cell -> cell.getDate().equals(date) && cell.getHour() == hour)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    @DisplayName("rebuild fills the whole horizon with one read of each kind")
+    void rebuildRestaurant_ShouldMaterializeHorizon() {
+        stubReads(windows(), new ArrayList<>());
+
+        availabilityService.rebuildRestaurant(1);
+
+        List<RestaurantAvailability> saved = captureSaved();
+        assertEquals(RestaurantAvailabilityService.HORIZON_DAYS * 24, saved.size());
+        verify(tableAvailabilityService, times(1)).getAvailability(eq(1), any(), any());
+    }
+
+    @Test
+    @DisplayName("booked table is reserved around the booking and guests are seated")
+    void rebuildRestaurant_WithBooking_ShouldReserveTable() {
+        stubReads(windows(new TableAvailabilityService.BookedWindow(10, 100, day.atTime(19, 0), 4,
+                BookingStatus.CONFIRMED)), new ArrayList<>());
+
+        availabilityService.rebuildRestaurant(1);
+
+        List<RestaurantAvailability> saved = captureSaved();
+        RestaurantAvailability at19 = cellAt(saved, day, 19);
+        assertEquals(3, at19.getTotalTables());
+        assertEquals(1, at19.getReservedTables());
+        // Maintenance table is not available
+        assertEquals(1, at19.getAvailableTables());
+        assertEquals(10, at19.getMaxCapacity());
+        assertEquals(4, at19.getCurrentOccupancy());
+
+        RestaurantAvailability at12 = cellAt(saved, day, 12);
+        assertEquals(0, at12.getReservedTables());
+        assertEquals(2, at12.getAvailableTables());
+        assertEquals(0, at12.getCurrentOccupancy());
+    }
+
+    @Test
+    @DisplayName("pending bookings do not reserve a table")
+    void rebuildRestaurant_WithPendingBooking_ShouldNotReserve() {
+        stubReads(windows(new TableAvailabilityService.BookedWindow(10, 100, day.atTime(19, 0), 4,
+                BookingStatus.PENDING)), new ArrayList<>());
+
+        availabilityService.rebuildRestaurant(1);
+
+        assertEquals(0, cellAt(captureSaved(), day, 19).getReservedTables());
+    }
+
+    @Test
+    @DisplayName("unchanged cells are not written again")
+    void rebuildRestaurant_SecondRun_ShouldSkipUnchangedCells() {
+        stubReads(windows(), new ArrayList<>());
+        availabilityService.rebuildRestaurant(1);
+        List<RestaurantAvailability> firstRun = captureSaved();
+        firstRun.forEach(cell -> cell.setId(UUID.randomUUID()));
+
+        reset(availabilityRepository);
+        when(availabilityRepository.findByRestaurantRestaurantIdAndDateBetweenOrderByDateAscHourAsc(eq(1), any(),
+                any())).thenReturn(firstRun);
+
+        availabilityService.rebuildRestaurant(1);
+
+        verify(availabilityRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("booking change refreshes only the days it touches")
+    void onBookingChanged_ShouldRefreshBookingDay() {
+        Booking booking = new Booking();
+        booking.setBookingId(100);
+        booking.setRestaurant(restaurant);
+        booking.setBookingTime(day.atTime(12, 0));
+        when(bookingRepository.findById(100)).thenReturn(Optional.of(booking));
+        stubReads(windows(), new ArrayList<>());
+
+        availabilityService.onBookingChanged(new BookingChangedEvent(100, 1));
+
+        verify(availabilityRepository).findByRestaurantRestaurantIdAndDateBetweenOrderByDateAscHourAsc(1, day, day);
+        assertEquals(24, captureSaved().size());
+    }
+
+    @Test
+    @DisplayName("hours outside the opening schedule are closed")
+    void rebuildRestaurant_OutsideOpeningHours_ShouldBeClosed() {
+        restaurant.setOpeningHours("11:00-14:00, 17:00-22:00");
+        stubReads(windows(), new ArrayList<>());
+
+        availabilityService.rebuildRestaurant(1);
+
+        List<RestaurantAvailability> saved = captureSaved();
+        for (int hour : new int[] { 3, 10, 15, 23 }) {
+            RestaurantAvailability closed = cellAt(saved, day, hour);
+            assertEquals(RestaurantAvailability.Status.CLOSED, closed.getStatus(), "hour " + hour);
+            assertEquals(0, closed.getAvailableTables());
+        }
+        RestaurantAvailability open = cellAt(saved, day, 12);
+        assertEquals(RestaurantAvailability.Status.OPEN, open.getStatus());
+        assertEquals(2, open.getAvailableTables());
+    }
+
+    @Test
+    @DisplayName("materialization takes the restaurant lock before reading anything")
+    void rebuildRestaurant_ShouldLockBeforeReading() {
+        stubReads(windows(), new ArrayList<>());
+
+        availabilityService.rebuildRestaurant(1);
+
+        InOrder inOrder = inOrder(availabilityRepository, restaurantProfileRepository, tableAvailabilityService);
+        inOrder.verify(availabilityRepository).lockRestaurantGrid(1);
+        inOrder.verify(restaurantProfileRepository).findById(1);
+        inOrder.verify(tableAvailabilityService).getAvailability(eq(1), any(), any());
+        inOrder.verify(availabilityRepository).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("a change of opening hours rebuilds the grid, other profile edits do not")
+    void onRestaurantProfileChanged_ShouldRebuildOnlyWhenHoursChange() {
+        stubReads(windows(), new ArrayList<>());
+        availabilityService.rebuildRestaurant(1);
+
+        availabilityService.onRestaurantProfileChanged(new RestaurantProfileChangedEvent(1));
+        verify(availabilityRepository, times(1)).saveAll(any());
+
+        restaurant.setOpeningHours("17:00-23:00");
+        availabilityService.onRestaurantProfileChanged(new RestaurantProfileChangedEvent(1));
+        verify(availabilityRepository, times(2)).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("late and early bookings also touch the neighbouring day")
+    void affectedDates_NearMidnight_ShouldIncludeNeighbour() {
+        assertEquals(Set.of(day), availabilityService.affectedDates(day.atTime(12, 0)));
+        assertEquals(Set.of(day, day.plusDays(1)), availabilityService.affectedDates(day.atTime(21, 0)));
+        assertEquals(Set.of(day, day.minusDays(1)), availabilityService.affectedDates(day.atTime(2, 0)));
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.booking.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.booking.common.enums.RestaurantApprovalStatus;
+import com.example.booking.event.RestaurantProfileChangedEvent;
+import com.example.booking.repository.RestaurantProfileRepository;
+
+/**
+ * Unit tests for RestaurantFacetIndex
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RestaurantFacetIndex Tests")
+public class RestaurantFacetIndexTest {
+
+    @Mock
+    private RestaurantProfileRepository restaurantProfileRepository;
+
+    @InjectMocks
+    private RestaurantFacetIndex facetIndex;
+
+    private RestaurantLocationCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new RestaurantLocationCatalog();
+        ReflectionTestUtils.setField(catalog, "restaurantProfileRepository", restaurantProfileRepository);
+        ReflectionTestUtils.setField(catalog, "subscribers", List.of(facetIndex));
+    }
+
+    private Object[] row(int id, String name, String cuisine, Integer price, double rating) {
+        return new Object[] { id, name, "Đà Nẵng", cuisine, price != null ? BigDecimal.valueOf(price) : null,
+                null, null, LocalDateTime.of(2025, 1, 1, 0, 0), rating, RestaurantApprovalStatus.APPROVED };
+    }
+
+    private void build(List<Object[]> rows) {
+        when(restaurantProfileRepository.findApprovedLocationRows()).thenReturn(rows);
+        catalog.rebuild();
+    }
+
+    /**
+     * Same conditions as RestaurantProfileRepository#findApprovedWithFilters
+     */
+    private Predicate<Object[]> matches(String cuisine, String priceRange, String ratingFilter) {
+        BigDecimal[] bounds = RestaurantManagementService.priceBounds(priceRange);
+        Double minRating = RestaurantManagementService.minRating(ratingFilter);
+        return row -> (cuisine == null || (row[3] != null && ((String) row[3]).trim().equalsIgnoreCase(cuisine.trim())))
+                && (bounds[0] == null || (row[4] != null && ((BigDecimal) row[4]).compareTo(bounds[0]) >= 0))
+                && (bounds[1] == null || (row[4] != null && ((BigDecimal) row[4]).compareTo(bounds[1]) <= 0))
+                && (minRating == null || (Double) row[8] >= minRating);
+    }
+
+    @Test
+    @DisplayName("filters and option counts match a brute-force scan")
+    void filterAndCounts_ShouldMatchBruteForce() {
+        String[] cuisines = { "Việt", " việt ", "Nhật", "Hàn", null };
+        Random random = new Random(3);
+        List<Object[]> rows = new ArrayList<>();
+        for (int id = 1; id <= 400; id++) {
+            rows.add(row(id, "R" + id, cuisines[random.nextInt(cuisines.length)],
+                    random.nextInt(8) == 0 ? null : 10000 * random.nextInt(80), random.nextInt(51) / 10.0));
+        }
+        build(rows);
+
+        List<String> priceRanges = new ArrayList<>(RestaurantFacetIndex.PRICE_RANGES);
+        priceRanges.add(null);
+        List<String> ratingFilters = new ArrayList<>(RestaurantFacetIndex.RATING_FILTERS);
+        ratingFilters.add(null);
+        List<Integer> candidates = List.of(5, 17, 40, 41, 99, 100, 250, 399, 1000);
+
+        for (String cuisine : Arrays.asList("viet", "Việt", "NHẬT", null)) {
+            for (String priceRange : priceRanges) {
+                for (String ratingFilter : ratingFilters) {
+                    List<Integer> expected = rows.stream().filter(matches(cuisine, priceRange, ratingFilter))
+                            .map(r -> (Integer) r[0]).collect(Collectors.toList());
+                    assertEquals(expected, facetIndex.filter(null, cuisine, priceRange, ratingFilter, Sort.unsorted()));
+                    assertEquals(expected.stream().filter(candidates::contains).collect(Collectors.toList()),
+                            facetIndex.filter(candidates, cuisine, priceRange, ratingFilter, null));
+
+                    RestaurantFacetIndex.FacetCounts counts = facetIndex.counts(null, cuisine, priceRange, ratingFilter);
+                    assertEquals(expected.size(), counts.total());
+                    assertEquals(count(rows, matches("việt", priceRange, ratingFilter)), counts.cuisine("VIỆT"));
+                    for (String option : RestaurantFacetIndex.PRICE_RANGES) {
+                        assertEquals(count(rows, matches(cuisine, option, ratingFilter)), counts.priceRange(option));
+                    }
+                    for (String option : RestaurantFacetIndex.RATING_FILTERS) {
+                        assertEquals(count(rows, matches(cuisine, priceRange, option)), counts.rating(option));
+                    }
+                }
+            }
+        }
+    }
+
+    private int count(List<Object[]> rows, Predicate<Object[]> predicate) {
+        return (int) rows.stream().filter(predicate).count();
+    }
+
+    @Test
+    @DisplayName("matches are sorted by name, price or rating with ID as tie-breaker")
+    void filter_ShouldSort() {
+        build(List.of(
+                row(1, "Ốc Đào", "Việt", 90000, 4.5),
+                row(2, "Bún Bò", "Việt", null, 4.5),
+                row(3, "An Nhiên", "Việt", 150000, 3.0),
+                row(4, "Bánh Xèo", "Việt", 90000, 4.9)));
+
+        assertEquals(List.of(3, 4, 2, 1), facetIndex.filter(null, null, null, null, Sort.by("restaurantName")));
+        assertEquals(List.of(1, 4, 3, 2), facetIndex.filter(null, null, null, null, Sort.by("averagePrice")));
+        assertEquals(List.of(4, 1, 2, 3),
+                facetIndex.filter(null, null, null, null, Sort.by(Sort.Direction.DESC, "averageRating")));
+        assertTrue(facetIndex.supportsSort(Sort.by("restaurantName", "averagePrice")));
+        assertFalse(facetIndex.supportsSort(Sort.by("createdAt")));
+    }
+
+    @Test
+    @DisplayName("committed profile changes move restaurants between bitmaps")
+    void onRestaurantProfileChanged_ShouldRefreshBitmaps() {
+        build(List.of(row(1, "A", "Việt", 100000, 4.2), row(2, "B", "Việt", 100000, 3.1)));
+
+        when(restaurantProfileRepository.findLocationRowsByIds(anyCollection())).thenAnswer(invocation -> {
+            Integer id = ((Collection<Integer>) invocation.getArgument(0)).iterator().next();
+            if (id == 1) {
+                return List.<Object[]>of(row(1, "A", "Nhật", 600000, 4.2));
+            }
+            Object[] suspended = row(2, "B", "Việt", 100000, 3.1);
+            suspended[9] = RestaurantApprovalStatus.SUSPENDED;
+            return List.<Object[]>of(suspended);
+        });
+        catalog.onRestaurantProfileChanged(new RestaurantProfileChangedEvent(1));
+        catalog.onRestaurantProfileChanged(new RestaurantProfileChangedEvent(2));
+
+        RestaurantFacetIndex.FacetCounts counts = facetIndex.counts(null, null, null, null);
+        assertEquals(1, counts.total());
+        assertEquals(0, counts.cuisine("Việt"));
+        assertEquals(1, counts.cuisine("Nhật"));
+        assertEquals(1, counts.priceRange("high"));
+        assertEquals(0, counts.priceRange("low"));
+        assertEquals(List.of(1), facetIndex.filter(null, "nhật", "high", "4-star", null));
+    }
+
+    @Test
+    @DisplayName("queries before the first build return nothing")
+    void filter_BeforeBuild_ShouldBeEmpty() {
+        assertFalse(facetIndex.isReady());
+        assertTrue(facetIndex.filter(null, null, null, null, null).isEmpty());
+        assertEquals(0, facetIndex.counts(null, null, null, null).total());
+        catalog.refresh(List.of(1));
+        verifyNoInteractions(restaurantProfileRepository);
+    }
+}
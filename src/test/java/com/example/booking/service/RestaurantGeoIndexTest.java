@@ -0,0 +1,192 @@
+package com.example.booking.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.booking.common.enums.RestaurantApprovalStatus;
+import com.example.booking.event.RestaurantProfileChangedEvent;
+import com.example.booking.repository.RestaurantProfileRepository;
+import com.example.booking.util.GeoUtils;
+
+/**
+ * Unit tests for RestaurantGeoIndex
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RestaurantGeoIndex Tests")
+public class RestaurantGeoIndexTest {
+
+    @Mock
+    private RestaurantProfileRepository restaurantProfileRepository;
+
+    @InjectMocks
+    private RestaurantGeoIndex geoIndex;
+
+    private RestaurantLocationCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new RestaurantLocationCatalog();
+        ReflectionTestUtils.setField(catalog, "restaurantProfileRepository", restaurantProfileRepository);
+        ReflectionTestUtils.setField(catalog, "subscribers", List.of(geoIndex));
+    }
+
+    // Da Nang city center area
+    private static final double USER_LAT = 16.0544;
+    private static final double USER_LON = 108.2022;
+
+    private Object[] row(int id, String name, String address, String cuisine, Integer price, Double lat, Double lon) {
+        return new Object[] { id, name, address, cuisine, price != null ? BigDecimal.valueOf(price) : null,
+                lat != null ? BigDecimal.valueOf(lat) : null, lon != null ? BigDecimal.valueOf(lon) : null,
+                LocalDateTime.of(2025, 1, 1, 0, 0), 0.0 };
+    }
+
+    private Object[] rated(Object[] row, double averageRating) {
+        row[8] = averageRating;
+        return row;
+    }
+
+    private Object[] withStatus(Object[] row, RestaurantApprovalStatus status) {
+        Object[] extended = java.util.Arrays.copyOf(row, 10);
+        extended[9] = status;
+        return extended;
+    }
+
+    private void build(List<Object[]> rows) {
+        when(restaurantProfileRepository.findApprovedLocationRows()).thenReturn(rows);
+        catalog.rebuild();
+    }
+
+    private List<Integer> ids(RestaurantGeoIndex.NearbyPage page) {
+        return page.hits().stream().map(hit -> hit.place().restaurantId()).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("nearest restaurants match a brute-force haversine scan")
+    void findNearby_ShouldMatchBruteForce() {
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>();
+        for (int id = 1; id <= 500; id++) {
+            rows.add(row(id, "R" + id, "Đà Nẵng", "Việt", 100000, 15.9 + random.nextDouble() * 0.3,
+                    108.0 + random.nextDouble() * 0.4));
+        }
+        build(rows);
+
+        RestaurantGeoIndex.NearbyPage page = geoIndex.findNearby(USER_LAT, USER_LON, 8.0,
+                RestaurantGeoIndex.Filter.NONE, 10, 20);
+
+        List<Object[]> within = rows.stream()
+                .filter(r -> haversine(r) <= 8.0)
+                .sorted(Comparator.comparingDouble(this::haversine))
+                .collect(Collectors.toList());
+        assertEquals(within.size(), page.total());
+        assertEquals(within.subList(10, 30).stream().map(r -> (Integer) r[0]).collect(Collectors.toList()),
+                ids(page));
+        for (RestaurantGeoIndex.Hit hit : page.hits()) {
+            assertEquals(GeoUtils.haversineKm(USER_LAT, USER_LON, hit.place().latitude(), hit.place().longitude()),
+                    hit.distanceKm(), 1e-6);
+        }
+    }
+
+    private double haversine(Object[] row) {
+        return GeoUtils.haversineKm(USER_LAT, USER_LON, ((BigDecimal) row[5]).doubleValue(),
+                ((BigDecimal) row[6]).doubleValue());
+    }
+
+    @Test
+    @DisplayName("listing filters apply before paging and counting")
+    void findNearby_ShouldApplyFilters() {
+        build(List.of(
+                rated(row(1, "Phở Hà Nội", "12 Lê Duẩn, Đà Nẵng", "Việt", 80000, 16.06, 108.21), 4.6),
+                row(2, "Sushi Bar", "5 Bạch Đằng, Đà Nẵng", "Nhật", 600000, 16.07, 108.22),
+                rated(row(3, "Phở Bò", "9 Trần Phú, Đà Nẵng", " việt ", 60000, 16.05, 108.20), 3.2),
+                row(4, "Nhà hàng không giá", "Đà Nẵng", "Việt", null, 16.05, 108.20)));
+
+        assertEquals(List.of(3, 1), ids(geoIndex.findNearby(USER_LAT, USER_LON, null,
+                RestaurantGeoIndex.Filter.of("PHỞ", null, null, null, true), 0, 10)));
+        assertEquals(3, geoIndex.findNearby(USER_LAT, USER_LON, null,
+                RestaurantGeoIndex.Filter.of(null, "Việt", null, null, true), 0, 10).total());
+        assertEquals(List.of(2), ids(geoIndex.findNearby(USER_LAT, USER_LON, null,
+                RestaurantGeoIndex.Filter.of(null, null, "high", null, true), 0, 10)));
+        assertEquals(List.of(1), ids(geoIndex.findNearby(USER_LAT, USER_LON, null,
+                RestaurantGeoIndex.Filter.of(null, null, null, "4-star", true), 0, 10)));
+    }
+
+    @Test
+    @DisplayName("restaurants without coordinates are indexed at their city center as approximate")
+    void rebuild_WithoutCoordinates_ShouldUseCityCenter() {
+        build(List.of(
+                row(1, "A", "Đà Nẵng", "Việt", 100000, 16.06, 108.21),
+                row(2, "B", "1 Nguyễn Văn Linh, Đà Nẵng", "Việt", 100000, null, null),
+                row(3, "C", "Không rõ địa chỉ", "Việt", 100000, null, null)));
+
+        RestaurantGeoIndex.NearbyPage all = geoIndex.findNearby(USER_LAT, USER_LON, 50.0,
+                RestaurantGeoIndex.Filter.NONE, 0, 10);
+        assertEquals(2, all.total());
+        assertTrue(all.hits().stream().anyMatch(hit -> hit.place().approximate()));
+
+        assertEquals(List.of(1), ids(geoIndex.findNearby(USER_LAT, USER_LON, 50.0,
+                RestaurantGeoIndex.Filter.of(null, null, null, null, true), 0, 10)));
+    }
+
+    @Test
+    @DisplayName("committed profile changes add, move and drop restaurants")
+    void onRestaurantProfileChanged_ShouldRefreshEntries() {
+        build(List.of(
+                row(1, "A", "Đà Nẵng", "Việt", 100000, 16.06, 108.21),
+                row(2, "B", "Đà Nẵng", "Việt", 100000, 16.07, 108.22)));
+
+        // 1 moves far away, 2 is suspended, 3 is approved
+        when(restaurantProfileRepository.findLocationRowsByIds(anyCollection())).thenAnswer(invocation -> {
+            Integer id = ((java.util.Collection<Integer>) invocation.getArgument(0)).iterator().next();
+            switch (id) {
+                case 1:
+                    return List.<Object[]>of(withStatus(rated(row(1, "A", "Hà Nội", "Việt", 100000, 21.03, 105.85), 4.0),
+                            RestaurantApprovalStatus.APPROVED));
+                case 2:
+                    return List.<Object[]>of(withStatus(row(2, "B", "Đà Nẵng", "Việt", 100000, 16.07, 108.22),
+                            RestaurantApprovalStatus.SUSPENDED));
+                default:
+                    return List.<Object[]>of(withStatus(row(3, "C", "Đà Nẵng", "Việt", 100000, 16.05, 108.20),
+                            RestaurantApprovalStatus.APPROVED));
+            }
+        });
+        catalog.onRestaurantProfileChanged(new RestaurantProfileChangedEvent(1));
+        catalog.onRestaurantProfileChanged(new RestaurantProfileChangedEvent(2));
+        catalog.onRestaurantProfileChanged(new RestaurantProfileChangedEvent(3));
+
+        assertEquals(List.of(3), ids(geoIndex.findNearby(USER_LAT, USER_LON, 10.0,
+                RestaurantGeoIndex.Filter.NONE, 0, 10)));
+        RestaurantGeoIndex.NearbyPage all = geoIndex.findNearby(USER_LAT, USER_LON, null,
+                RestaurantGeoIndex.Filter.NONE, 0, 10);
+        assertEquals(List.of(3, 1), ids(all));
+        assertEquals(4.0, all.hits().get(1).place().averageRating(), 0.001);
+        assertTrue(all.hits().get(1).distanceKm() > 600);
+    }
+
+    @Test
+    @DisplayName("queries before the first build return nothing")
+    void findNearby_BeforeBuild_ShouldBeEmpty() {
+        assertFalse(geoIndex.isReady());
+        assertEquals(0, geoIndex.findNearby(USER_LAT, USER_LON, 5.0, null, 0, 10).total());
+        catalog.refresh(List.of(1));
+        verifyNoInteractions(restaurantProfileRepository);
+    }
+}
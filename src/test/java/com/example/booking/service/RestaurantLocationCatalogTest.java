@@ -0,0 +1,137 @@
+package com.example.booking.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.booking.common.enums.RestaurantApprovalStatus;
+import com.example.booking.event.RestaurantProfileChangedEvent;
+import com.example.booking.repository.RestaurantProfileRepository;
+
+/**
+ * Unit tests for RestaurantLocationCatalog
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RestaurantLocationCatalog Tests")
+public class RestaurantLocationCatalogTest {
+
+    @Mock
+    private RestaurantProfileRepository restaurantProfileRepository;
+
+    @Mock
+    private RestaurantLocationCatalog.Subscriber first;
+
+    @Mock
+    private RestaurantLocationCatalog.Subscriber second;
+
+    @InjectMocks
+    private RestaurantLocationCatalog catalog;
+
+    private final List<String> applied = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(catalog, "subscribers", List.of(first, second));
+        lenient().when(first.replaceAll(anyList())).thenReturn(() -> applied.add("first"));
+        lenient().when(second.replaceAll(anyList())).thenReturn(() -> applied.add("second"));
+        lenient().when(first.replace(anyCollection(), anyList())).thenReturn(() -> applied.add("first"));
+        lenient().when(second.replace(anyCollection(), anyList())).thenReturn(() -> applied.add("second"));
+    }
+
+    private Object[] row(int id, RestaurantApprovalStatus status) {
+        return new Object[] { id, "Nhà hàng " + id, "Đà Nẵng", "Việt", BigDecimal.valueOf(150000),
+                BigDecimal.valueOf(16.06), BigDecimal.valueOf(108.22), LocalDateTime.of(2025, 1, 1, 0, 0), 4.0,
+                status };
+    }
+
+    @Test
+    @DisplayName("one catalog query feeds every subscriber")
+    void rebuild_ShouldQueryOnceForAllSubscribers() {
+        List<Object[]> rows = List.<Object[]>of(row(1, null), row(2, null));
+        when(restaurantProfileRepository.findApprovedLocationRows()).thenReturn(rows);
+
+        catalog.rebuild();
+
+        assertTrue(catalog.isReady());
+        verify(restaurantProfileRepository, times(1)).findApprovedLocationRows();
+        verify(first).replaceAll(rows);
+        verify(second).replaceAll(rows);
+        assertEquals(List.of("first", "second"), applied);
+    }
+
+    @Test
+    @DisplayName("profile changes pass only approved rows, other restaurants drop out")
+    @SuppressWarnings("unchecked")
+    void onRestaurantProfileChanged_ShouldPassApprovedRowsOnly() {
+        when(restaurantProfileRepository.findApprovedLocationRows()).thenReturn(List.of());
+        catalog.rebuild();
+        when(restaurantProfileRepository.findLocationRowsByIds(List.of(2)))
+                .thenReturn(List.<Object[]>of(row(2, RestaurantApprovalStatus.SUSPENDED)));
+        when(restaurantProfileRepository.findLocationRowsByIds(List.of(37)))
+                .thenReturn(List.<Object[]>of(row(37, RestaurantApprovalStatus.APPROVED)));
+        when(restaurantProfileRepository.findLocationRowsByIds(List.of(3)))
+                .thenReturn(List.<Object[]>of(row(3, RestaurantApprovalStatus.APPROVED)));
+
+        catalog.onRestaurantProfileChanged(new RestaurantProfileChangedEvent(2));
+        catalog.onRestaurantProfileChanged(new RestaurantProfileChangedEvent(37));
+        catalog.onRestaurantProfileChanged(new RestaurantProfileChangedEvent(3));
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(second, times(3)).replace(anyCollection(), rows.capture());
+        assertTrue(rows.getAllValues().get(0).isEmpty());
+        assertTrue(rows.getAllValues().get(1).isEmpty());
+        assertEquals(3, rows.getAllValues().get(2).get(0)[0]);
+    }
+
+    @Test
+    @DisplayName("a failing subscriber does not keep the others stale")
+    void rebuild_ShouldIsolateFailingSubscriber() {
+        when(restaurantProfileRepository.findApprovedLocationRows()).thenReturn(List.of());
+        when(first.replaceAll(anyList())).thenThrow(new IllegalStateException("broken"));
+
+        catalog.rebuild();
+
+        assertTrue(catalog.isReady());
+        assertEquals(List.of("second"), applied);
+    }
+
+    @Test
+    @DisplayName("restaurants changed while the catalog query runs are refreshed after it")
+    void rebuild_ShouldReplayChangesDuringQuery() {
+        when(restaurantProfileRepository.findApprovedLocationRows()).thenAnswer(invocation -> {
+            catalog.refresh(List.of(5));
+            return List.of();
+        });
+        when(restaurantProfileRepository.findLocationRowsByIds(anyCollection()))
+                .thenReturn(List.<Object[]>of(row(5, RestaurantApprovalStatus.APPROVED)));
+
+        catalog.rebuild();
+
+        verify(first).replace(eq(Set.of(5)), anyList());
+        assertEquals(List.of("first", "second", "first", "second"), applied);
+    }
+
+    @Test
+    @DisplayName("changes before the first build do not query")
+    void refresh_BeforeBuild_ShouldNotQuery() {
+        assertFalse(catalog.isReady());
+        catalog.refresh(List.of(1));
+        verifyNoInteractions(restaurantProfileRepository, first, second);
+    }
+}
@@ -921,7 +921,7 @@ public class RestaurantManagementServiceTest {
         when(restaurantProfileRepository.findById(restaurantId))
             .thenReturn(Optional.of(approvedRestaurant1));
         when(restaurantMediaRepository.findDishImageByRestaurantAndDishId(
-            eq(approvedRestaurant1), anyString()))
+            eq(approvedRestaurant1), any()))
             .thenReturn(media1);
 
         // When
@@ -0,0 +1,126 @@
+package com.example.booking.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.booking.domain.RestaurantMedia;
+import com.example.booking.event.RestaurantMediaChangedEvent;
+import com.example.booking.repository.RestaurantMediaRepository;
+
+/**
+ * Unit tests for RestaurantMediaIndex
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RestaurantMediaIndex Tests")
+public class RestaurantMediaIndexTest {
+
+    @Mock
+    private RestaurantMediaRepository restaurantMediaRepository;
+
+    @InjectMocks
+    private RestaurantMediaIndex restaurantMediaIndex;
+
+    private RestaurantMedia media(int mediaId, String type, String url, int minute) {
+        RestaurantMedia media = new RestaurantMedia(null, type, url);
+        media.setMediaId(mediaId);
+        media.setCreatedAt(LocalDateTime.of(2025, 1, 1, 10, minute));
+        // Set on persist from the upload name
+        media.setTargetId(RestaurantMedia.parseTargetId(type, url));
+        return media;
+    }
+
+    private List<String> urls(List<RestaurantMedia> media) {
+        return media.stream().map(RestaurantMedia::getUrl).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("one query resolves dish, table, service and gallery images of a restaurant")
+    void getMedia_ShouldGroupByTypeAndTarget() {
+        RestaurantMedia stored = media(7, "dish", "https://img/restaurants/1/media/dish/dish_12_170.jpg", 4);
+        stored.setTargetId(12);
+        when(restaurantMediaRepository.findAllByRestaurantIdOrderByCreatedAt(1)).thenReturn(List.of(
+                media(1, "logo", "https://img/logo.png", 0),
+                media(2, "Gallery", "https://img/g1.jpg", 1),
+                media(3, "gallery", "https://img/g2.jpg", 2),
+                media(4, "table", "https://img/restaurants/1/media/table/table_5_100_0.jpg", 3),
+                stored,
+                media(5, "table", "https://img/restaurants/1/media/table/table_5_100_1.jpg", 5),
+                media(6, "service", "https://img/restaurants/1/service_3_old.jpg", 6),
+                media(8, "service", "https://img/restaurants/1/service_3_new.jpg", 7),
+                media(9, "dish", "https://img/restaurants/1/media/dish/plain.jpg", 8)));
+
+        RestaurantMediaIndex.MediaView view = restaurantMediaIndex.getMedia(1);
+
+        assertEquals("https://img/logo.png", view.first("logo").getUrl());
+        assertEquals(List.of("https://img/g1.jpg", "https://img/g2.jpg"), urls(view.ofType("GALLERY")));
+        assertEquals("https://img/restaurants/1/media/dish/dish_12_170.jpg", view.dishImageUrl(12));
+        assertNull(view.dishImageUrl(1));
+        assertEquals(2, view.ofType("dish").size());
+        assertEquals(List.of("https://img/restaurants/1/media/table/table_5_100_0.jpg",
+                "https://img/restaurants/1/media/table/table_5_100_1.jpg"), urls(view.tableImages(5)));
+        assertTrue(view.tableImages(6).isEmpty());
+        assertEquals("https://img/restaurants/1/service_3_new.jpg", view.serviceImageUrl(3));
+        assertNull(view.first("cover"));
+    }
+
+    @Test
+    @DisplayName("views are cached per restaurant until a media change of that restaurant commits")
+    void getMedia_ShouldCacheUntilMediaChanges() {
+        when(restaurantMediaRepository.findAllByRestaurantIdOrderByCreatedAt(1))
+                .thenReturn(List.of(media(1, "dish", "https://img/dish_4_1.jpg", 0)));
+        when(restaurantMediaRepository.findAllByRestaurantIdOrderByCreatedAt(2))
+                .thenReturn(List.of(media(2, "cover", "https://img/c.jpg", 0)));
+
+        restaurantMediaIndex.getMedia(1);
+        restaurantMediaIndex.getMedia(2);
+        assertEquals("https://img/dish_4_1.jpg", restaurantMediaIndex.getMedia(1).dishImageUrl(4));
+        verify(restaurantMediaRepository, times(1)).findAllByRestaurantIdOrderByCreatedAt(1);
+
+        when(restaurantMediaRepository.findAllByRestaurantIdOrderByCreatedAt(1))
+                .thenReturn(List.of(media(3, "dish", "https://img/dish_4_2.jpg", 1)));
+        restaurantMediaIndex.onRestaurantMediaChanged(new RestaurantMediaChangedEvent(3, 1));
+
+        assertEquals("https://img/dish_4_2.jpg", restaurantMediaIndex.getMedia(1).dishImageUrl(4));
+        restaurantMediaIndex.getMedia(2);
+        verify(restaurantMediaRepository, times(2)).findAllByRestaurantIdOrderByCreatedAt(1);
+        verify(restaurantMediaRepository, times(1)).findAllByRestaurantIdOrderByCreatedAt(2);
+    }
+
+    @Test
+    @DisplayName("a view loaded while a change commits is not cached")
+    void getMedia_ShouldNotCacheViewLoadedAcrossInvalidation() {
+        when(restaurantMediaRepository.findAllByRestaurantIdOrderByCreatedAt(1)).thenAnswer(invocation -> {
+            restaurantMediaIndex.onRestaurantMediaChanged(new RestaurantMediaChangedEvent(9, 1));
+            return List.of();
+        });
+
+        restaurantMediaIndex.getMedia(1);
+        restaurantMediaIndex.getMedia(1);
+
+        verify(restaurantMediaRepository, times(2)).findAllByRestaurantIdOrderByCreatedAt(1);
+    }
+
+    @Test
+    @DisplayName("target ids are parsed from the upload naming convention only")
+    void parseTargetId_ShouldFollowNamingConvention() {
+        assertEquals(12, RestaurantMedia.parseTargetId("dish", "https://res.cloudinary.com/x/restaurants/1/dish_12_1700.jpg"));
+        assertEquals(5, RestaurantMedia.parseTargetId("table", "/uploads/table_x/table_5_1700_0.png"));
+        assertEquals(3, RestaurantMedia.parseTargetId("service", "https://img/service_3_abc.jpg"));
+        assertNull(RestaurantMedia.parseTargetId("dish", "https://img/dish_12.jpg"));
+        assertNull(RestaurantMedia.parseTargetId("dish", "https://img/table_5_1.jpg"));
+        assertNull(RestaurantMedia.parseTargetId("gallery", "https://img/dish_12_1.jpg"));
+        assertNull(RestaurantMedia.parseTargetId("dish", "https://img/dish_99999999999_1.jpg"));
+        assertNull(RestaurantMedia.parseTargetId("dish", null));
+    }
+}
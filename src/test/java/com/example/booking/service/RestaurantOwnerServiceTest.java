@@ -756,7 +756,7 @@ public class RestaurantOwnerServiceTest {
                     .thenReturn(dishes);
             when(restaurantProfileRepository.findById(1))
                     .thenReturn(Optional.of(testRestaurant));
-            when(restaurantMediaRepository.findDishImageByRestaurantAndDishId(any(), anyString()))
+            when(restaurantMediaRepository.findDishImageByRestaurantAndDishId(any(), any()))
                     .thenReturn(null);
 
             // When
@@ -1119,7 +1119,7 @@ public class RestaurantOwnerServiceTest {
             
             when(restaurantProfileRepository.findById(1))
                     .thenReturn(Optional.of(testRestaurant));
-            when(restaurantMediaRepository.findServiceImagesByRestaurantAndServiceId(any(), anyString()))
+            when(restaurantMediaRepository.findServiceImagesByRestaurantAndServiceId(any(), any()))
                     .thenReturn(new ArrayList<>());
             when(imageUploadService.uploadServiceImage(any(), eq(1), eq(10)))
                     .thenReturn("http://example.com/service_image.jpg");
@@ -1144,7 +1144,7 @@ public class RestaurantOwnerServiceTest {
             
             when(restaurantProfileRepository.findById(1))
                     .thenReturn(Optional.of(testRestaurant));
-            when(restaurantMediaRepository.findServiceImagesByRestaurantAndServiceId(any(), anyString()))
+            when(restaurantMediaRepository.findServiceImagesByRestaurantAndServiceId(any(), any()))
                     .thenReturn(new ArrayList<>());
             when(imageUploadService.uploadServiceImage(any(), eq(1), eq(10)))
                     .thenThrow(new java.io.IOException("Upload failed"));
@@ -1165,7 +1165,7 @@ public class RestaurantOwnerServiceTest {
 
             when(restaurantProfileRepository.findById(1))
                     .thenReturn(Optional.of(testRestaurant));
-            when(restaurantMediaRepository.findServiceImagesByRestaurantAndServiceId(any(), anyString()))
+            when(restaurantMediaRepository.findServiceImagesByRestaurantAndServiceId(any(), any()))
                     .thenReturn(List.of(media));
 
             // When
@@ -1182,7 +1182,7 @@ public class RestaurantOwnerServiceTest {
             // Given
             when(restaurantProfileRepository.findById(1))
                     .thenReturn(Optional.of(testRestaurant));
-            when(restaurantMediaRepository.findServiceImagesByRestaurantAndServiceId(any(), anyString()))
+            when(restaurantMediaRepository.findServiceImagesByRestaurantAndServiceId(any(), any()))
                     .thenReturn(new ArrayList<>());
 
             // When
@@ -1202,7 +1202,7 @@ public class RestaurantOwnerServiceTest {
 
             when(restaurantProfileRepository.findById(1))
                     .thenReturn(Optional.of(testRestaurant));
-            when(restaurantMediaRepository.findServiceImagesByRestaurantAndServiceId(any(), anyString()))
+            when(restaurantMediaRepository.findServiceImagesByRestaurantAndServiceId(any(), any()))
                     .thenReturn(List.of(media));
             doNothing().when(imageUploadService).deleteImage(anyString());
             doNothing().when(restaurantMediaRepository).delete(any(com.example.booking.domain.RestaurantMedia.class));
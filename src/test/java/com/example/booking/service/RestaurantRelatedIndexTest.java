@@ -0,0 +1,194 @@
+package com.example.booking.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.booking.common.enums.RestaurantApprovalStatus;
+import com.example.booking.event.RestaurantProfileChangedEvent;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.repository.CustomerFavoriteRepository;
+import com.example.booking.repository.RestaurantProfileRepository;
+
+/**
+ * Unit tests for RestaurantRelatedIndex
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RestaurantRelatedIndex Tests")
+public class RestaurantRelatedIndexTest {
+
+    @Mock
+    private RestaurantProfileRepository restaurantProfileRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private CustomerFavoriteRepository customerFavoriteRepository;
+
+    @InjectMocks
+    private RestaurantRelatedIndex restaurantRelatedIndex;
+
+    private RestaurantLocationCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = catalogOf(restaurantRelatedIndex);
+    }
+
+    private RestaurantLocationCatalog catalogOf(RestaurantRelatedIndex index) {
+        RestaurantLocationCatalog result = new RestaurantLocationCatalog();
+        ReflectionTestUtils.setField(result, "restaurantProfileRepository", restaurantProfileRepository);
+        ReflectionTestUtils.setField(result, "subscribers", List.of(index));
+        return result;
+    }
+
+    private Object[] row(int id, String cuisine, Integer price, Double lat, Double lon, double rating) {
+        return new Object[] { id, "Nhà hàng " + id, "Đà Nẵng", cuisine,
+                price != null ? BigDecimal.valueOf(price) : null,
+                lat != null ? BigDecimal.valueOf(lat) : null, lon != null ? BigDecimal.valueOf(lon) : null,
+                LocalDateTime.of(2025, 1, 1, 0, 0), rating };
+    }
+
+    private Object[] withStatus(Object[] row, RestaurantApprovalStatus status) {
+        Object[] copy = Arrays.copyOf(row, 10);
+        copy[9] = status;
+        return copy;
+    }
+
+    private void givenRestaurants(List<Object[]> rows, List<Object[]> bookings, List<Object[]> favorites) {
+        when(restaurantProfileRepository.findApprovedLocationRows()).thenReturn(rows);
+        when(bookingRepository.findCustomerRestaurantPairs(anyCollection(), any())).thenReturn(bookings);
+        when(customerFavoriteRepository.findCustomerRestaurantPairs()).thenReturn(favorites);
+    }
+
+    @Test
+    @DisplayName("related restaurants are ranked by cuisine, distance, price and co-booking")
+    void getRelated_ShouldRankBySimilarity() {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        givenRestaurants(List.of(
+                row(1, "Việt", 150000, 16.06, 108.22, 4.0),
+                row(2, "việt ", 150000, 16.07, 108.22, 3.0),    // same cuisine, near, same price
+                row(3, "Nhật", 150000, 16.06, 108.22, 4.0),     // near, same price
+                row(4, "Việt", 900000, 21.03, 105.85, 5.0),     // same cuisine, far, expensive
+                row(5, "Hàn", null, null, null, 4.5),           // nothing in common
+                row(6, "Ý", 500000, 21.03, 105.85, 1.0)),        // nothing in common but co-booked
+                List.<Object[]>of(new Object[] { alice, 1 }, new Object[] { alice, 6 }),
+                List.<Object[]>of(new Object[] { bob, 1 }, new Object[] { bob, 6 }, new Object[] { bob, 1 }));
+
+        catalog.rebuild();
+
+        assertTrue(restaurantRelatedIndex.isReady());
+        assertEquals(List.of(2, 4, 3, 6, 5), restaurantRelatedIndex.getRelated(1, 6));
+        assertEquals(List.of(2, 4), restaurantRelatedIndex.getRelated(1, 2));
+        assertNull(restaurantRelatedIndex.getRelated(99, 6));
+    }
+
+    @Test
+    @DisplayName("a restaurant that is no longer approved disappears from every list")
+    void onRestaurantProfileChanged_ShouldDropUnapprovedRestaurant() {
+        Object[] second = row(2, "Việt", 150000, 16.07, 108.22, 3.0);
+        givenRestaurants(List.of(row(1, "Việt", 150000, 16.06, 108.22, 4.0), second,
+                row(3, "Nhật", 150000, 16.06, 108.22, 5.0)), List.of(), List.of());
+        catalog.rebuild();
+        assertEquals(List.of(2, 3), restaurantRelatedIndex.getRelated(1, 6));
+
+        when(restaurantProfileRepository.findLocationRowsByIds(List.of(2)))
+                .thenReturn(List.<Object[]>of(withStatus(second, RestaurantApprovalStatus.SUSPENDED)));
+        catalog.onRestaurantProfileChanged(new RestaurantProfileChangedEvent(2));
+
+        assertEquals(List.of(3), restaurantRelatedIndex.getRelated(1, 6));
+        assertNull(restaurantRelatedIndex.getRelated(2, 6));
+    }
+
+    @Test
+    @DisplayName("a catalog reload re-ranks changed ratings without reloading the co-booking signal")
+    void catalogReload_ShouldReRankChangedProfiles() {
+        givenRestaurants(List.of(row(1, "Việt", 150000, 16.06, 108.22, 4.0),
+                row(2, "Nhật", 150000, 16.06, 108.22, 1.0), row(3, "Hàn", 150000, 16.06, 108.22, 2.0)),
+                List.of(), List.of());
+        catalog.rebuild();
+        assertEquals(List.of(3, 2), restaurantRelatedIndex.getRelated(1, 6));
+
+        when(restaurantProfileRepository.findApprovedLocationRows()).thenReturn(List.of(
+                row(1, "Việt", 150000, 16.06, 108.22, 4.0), row(2, "Nhật", 150000, 16.06, 108.22, 5.0),
+                row(3, "Hàn", 150000, 16.06, 108.22, 2.0)));
+        catalog.rebuild();
+
+        assertEquals(List.of(2, 3), restaurantRelatedIndex.getRelated(1, 6));
+        verify(bookingRepository, times(1)).findCustomerRestaurantPairs(anyCollection(), any());
+        verify(customerFavoriteRepository, times(1)).findCustomerRestaurantPairs();
+    }
+
+    @Test
+    @DisplayName("incremental refreshes give the same lists as a full rebuild")
+    void refresh_ShouldMatchFullRebuild() {
+        Random random = new Random(42);
+        String[] cuisines = { "Việt", "Nhật", "Hàn", "Ý", null };
+        Map<Integer, Object[]> current = new HashMap<>();
+        for (int id = 101; id <= 160; id++) {
+            current.put(id, randomRow(random, id, cuisines));
+        }
+        List<Object[]> favorites = new ArrayList<>();
+        for (int i = 0; i < 80; i++) {
+            favorites.add(new Object[] { "customer-" + random.nextInt(20), 101 + random.nextInt(60) });
+        }
+        givenRestaurants(new ArrayList<>(current.values()), List.of(), favorites);
+        catalog.rebuild();
+
+        for (int step = 0; step < 40; step++) {
+            int id = 101 + random.nextInt(70);
+            Object[] changed = random.nextInt(5) == 0 ? null : randomRow(random, id, cuisines);
+            if (changed == null) {
+                Object[] old = current.remove(id);
+                when(restaurantProfileRepository.findLocationRowsByIds(List.of(id))).thenReturn(old == null
+                        ? List.of() : List.<Object[]>of(withStatus(old, RestaurantApprovalStatus.REJECTED)));
+            } else {
+                current.put(id, changed);
+                when(restaurantProfileRepository.findLocationRowsByIds(List.of(id)))
+                        .thenReturn(List.<Object[]>of(withStatus(changed, RestaurantApprovalStatus.APPROVED)));
+            }
+            catalog.refresh(List.of(id));
+        }
+
+        RestaurantRelatedIndex expected = new RestaurantRelatedIndex();
+        givenRestaurants(new ArrayList<>(current.values()), List.of(), favorites);
+        ReflectionTestUtils.setField(expected, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(expected, "customerFavoriteRepository",
+                customerFavoriteRepository);
+        catalogOf(expected).rebuild();
+
+        for (int id = 101; id <= 170; id++) {
+            assertEquals(expected.getRelated(id, RestaurantRelatedIndex.TOP_K),
+                    restaurantRelatedIndex.getRelated(id, RestaurantRelatedIndex.TOP_K), "restaurant " + id);
+        }
+    }
+
+    private Object[] randomRow(Random random, int id, String[] cuisines) {
+        return row(id, cuisines[random.nextInt(cuisines.length)],
+                random.nextInt(4) == 0 ? null : 50000 + random.nextInt(20) * 25000,
+                random.nextInt(4) == 0 ? null : 16.0 + random.nextDouble() * 0.2,
+                108.1 + random.nextDouble() * 0.2,
+                random.nextInt(51) / 10.0);
+    }
+}
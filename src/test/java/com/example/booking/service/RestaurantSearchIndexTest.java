@@ -0,0 +1,142 @@
+package com.example.booking.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.booking.common.enums.RestaurantApprovalStatus;
+import com.example.booking.event.RestaurantProfileChangedEvent;
+import com.example.booking.repository.RestaurantProfileRepository;
+
+/**
+ * Unit tests for RestaurantSearchIndex
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RestaurantSearchIndex Tests")
+public class RestaurantSearchIndexTest {
+
+    @Mock
+    private RestaurantProfileRepository restaurantProfileRepository;
+
+    @InjectMocks
+    private RestaurantSearchIndex searchIndex;
+
+    private RestaurantLocationCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new RestaurantLocationCatalog();
+        ReflectionTestUtils.setField(catalog, "restaurantProfileRepository", restaurantProfileRepository);
+        ReflectionTestUtils.setField(catalog, "subscribers", List.of(searchIndex));
+    }
+
+    private Object[] row(int id, String name, String address, String cuisine) {
+        return new Object[] { id, name, address, cuisine, BigDecimal.valueOf(100000), null, null,
+                LocalDateTime.of(2025, 1, 1, 0, 0), 0.0, RestaurantApprovalStatus.APPROVED };
+    }
+
+    private void build(List<Object[]> rows) {
+        when(restaurantProfileRepository.findApprovedLocationRows()).thenReturn(rows);
+        catalog.rebuild();
+    }
+
+    private List<Integer> ids(String query) {
+        return new ArrayList<>(searchIndex.search(query).keySet());
+    }
+
+    @Test
+    @DisplayName("queries without accents match accented text")
+    void search_ShouldIgnoreAccents() {
+        build(List.of(
+                row(1, "Phở Đà Nẵng", "12 Lê Duẩn, Hải Châu", "Việt"),
+                row(2, "Sushi Bar", "5 Bạch Đằng, Đà Nẵng", "Nhật"),
+                row(3, "Bún Chả Hà Nội", "9 Trần Phú", "Việt")));
+
+        assertEquals(List.of(1), ids("pho da nang"));
+        assertEquals(List.of(1), ids("PHỞ"));
+        assertEquals(List.of(3), ids("bun-cha"));
+        assertEquals(List.of(1, 2), ids("da nang"));
+        assertTrue(ids("pizza").isEmpty());
+        assertTrue(ids("  ").isEmpty());
+    }
+
+    @Test
+    @DisplayName("name matches rank above cuisine and address matches, whole words above partial ones")
+    void search_ShouldRankByFieldAndMatchQuality() {
+        build(List.of(
+                row(1, "Quán Ngon", "Đường Hải Sản", "Việt"),
+                row(2, "Nhà hàng Biển", "Sơn Trà", "Hải sản"),
+                row(3, "Hải Sản Bé Mặn", "Võ Nguyên Giáp", "Việt"),
+                row(4, "Hải Sản", "Ngũ Hành Sơn", "Việt"),
+                row(5, "Khaisan", "Liên Chiểu", "Việt")));
+
+        assertEquals(List.of(4, 3, 2, 5, 1), ids("hai san"));
+        List<Integer> prefix = ids("hai");
+        assertEquals(List.of(3, 4), prefix.subList(0, 2).stream().sorted().toList());
+        assertEquals(5, prefix.get(prefix.size() - 2));
+        assertEquals(1, prefix.get(prefix.size() - 1));
+    }
+
+    @Test
+    @DisplayName("every query word must match, short words included")
+    void search_ShouldRequireAllWords() {
+        build(List.of(
+                row(1, "Lẩu Dê 7 Món", "Quận 1", "Việt"),
+                row(2, "Lẩu Thái", "Quận 7", "Thái")));
+
+        assertEquals(List.of(1), ids("lau de"));
+        assertEquals(List.of(2), ids("lau thai"));
+        assertEquals(List.of(1, 2), ids("lau 7"));
+        assertTrue(ids("lau nuong").isEmpty());
+    }
+
+    @Test
+    @DisplayName("committed profile changes add, rename and drop restaurants")
+    void onRestaurantProfileChanged_ShouldRefreshEntries() {
+        build(List.of(row(1, "Phở Cũ", "Đà Nẵng", "Việt"), row(2, "Phở Hai", "Đà Nẵng", "Việt")));
+
+        when(restaurantProfileRepository.findLocationRowsByIds(anyCollection())).thenAnswer(invocation -> {
+            Integer id = ((java.util.Collection<Integer>) invocation.getArgument(0)).iterator().next();
+            switch (id) {
+                case 1:
+                    return List.<Object[]>of(row(1, "Cơm Gà", "Đà Nẵng", "Việt"));
+                case 2:
+                    Object[] suspended = row(2, "Phở Hai", "Đà Nẵng", "Việt");
+                    suspended[9] = RestaurantApprovalStatus.SUSPENDED;
+                    return List.<Object[]>of(suspended);
+                default:
+                    return List.<Object[]>of(row(3, "Phở Mới", "Đà Nẵng", "Việt"));
+            }
+        });
+        catalog.onRestaurantProfileChanged(new RestaurantProfileChangedEvent(1));
+        catalog.onRestaurantProfileChanged(new RestaurantProfileChangedEvent(2));
+        catalog.onRestaurantProfileChanged(new RestaurantProfileChangedEvent(3));
+
+        assertEquals(List.of(3), ids("pho"));
+        assertEquals(List.of(1), ids("com ga"));
+    }
+
+    @Test
+    @DisplayName("static scoring matches restaurants outside the index")
+    void score_ShouldMatchWithoutIndex() {
+        assertTrue(RestaurantSearchIndex.score("bun bo", "Bún Bò Huế O Xuân", "Hải Châu", "Việt") > 0);
+        assertEquals(0, RestaurantSearchIndex.score("bun bo", "Bún Chả", "Hải Châu", "Việt"));
+        assertEquals(0, RestaurantSearchIndex.score("", "Bún Chả", null, null));
+        assertFalse(searchIndex.isReady());
+        assertTrue(searchIndex.search("bun").isEmpty());
+    }
+}
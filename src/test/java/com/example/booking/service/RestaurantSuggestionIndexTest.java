@@ -0,0 +1,185 @@
+package com.example.booking.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.booking.common.enums.RestaurantApprovalStatus;
+import com.example.booking.domain.DishStatus;
+import com.example.booking.event.DishChangedEvent;
+import com.example.booking.event.RestaurantProfileChangedEvent;
+import com.example.booking.repository.DishRepository;
+import com.example.booking.repository.RestaurantProfileRepository;
+import com.example.booking.service.RestaurantSuggestionIndex.Suggestion;
+import com.example.booking.service.RestaurantSuggestionIndex.Type;
+import com.example.booking.util.TextNormalizer;
+
+/**
+ * Unit tests for RestaurantSuggestionIndex
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RestaurantSuggestionIndex Tests")
+public class RestaurantSuggestionIndexTest {
+
+    @Mock
+    private RestaurantProfileRepository restaurantProfileRepository;
+
+    @Mock
+    private DishRepository dishRepository;
+
+    @InjectMocks
+    private RestaurantSuggestionIndex suggestionIndex;
+
+    private Object[] restaurant(int id, String name, String cuisine, int reviews) {
+        return new Object[] { id, name, cuisine, reviews, RestaurantApprovalStatus.APPROVED };
+    }
+
+    private Object[] dish(int restaurantId, String name, long booked) {
+        return new Object[] { restaurantId, name, booked };
+    }
+
+    private void build(List<Object[]> restaurants, List<Object[]> dishes) {
+        when(restaurantProfileRepository.findApprovedSuggestionRows()).thenReturn(restaurants);
+        when(dishRepository.findSuggestionRowsOfApprovedRestaurants(DishStatus.AVAILABLE)).thenReturn(dishes);
+        suggestionIndex.rebuild();
+    }
+
+    /**
+     * Answer by-ID reloads from mutable maps, like the database after commits
+     */
+    private void serveRefreshes(Map<Integer, Object[]> restaurants, Map<Integer, List<Object[]>> dishes) {
+        lenient().when(restaurantProfileRepository.findSuggestionRowsByIds(anyCollection())).thenAnswer(invocation ->
+                ((Collection<Integer>) invocation.getArgument(0)).stream()
+                        .map(restaurants::get).filter(row -> row != null).collect(Collectors.toList()));
+        lenient().when(dishRepository.findSuggestionRowsByRestaurantIds(anyCollection(), eq(DishStatus.AVAILABLE)))
+                .thenAnswer(invocation -> ((Collection<Integer>) invocation.getArgument(0)).stream()
+                        .flatMap(id -> dishes.getOrDefault(id, List.of()).stream()).collect(Collectors.toList()));
+    }
+
+    private List<String> labels(String prefix) {
+        return suggestionIndex.suggest(prefix, 10).stream().map(Suggestion::label).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("prefixes match word starts without accents, most popular first")
+    void suggest_ShouldMatchFoldedWordStartsByPopularity() {
+        build(List.of(
+                restaurant(1, "Phở Hà Nội", "Việt", 40),
+                restaurant(2, "Quán Phở Bò", "Việt", 5),
+                restaurant(3, "Sushi Phố Cổ", "Nhật", 12)),
+                List.of(dish(1, "Phở bò tái", 30), dish(2, "Phở bò tái", 4), dish(3, "Sushi cá hồi", 9)));
+
+        assertEquals(List.of("Phở Hà Nội", "Phở bò tái", "Sushi Phố Cổ", "Quán Phở Bò"), labels("pho"));
+        assertEquals(List.of("Phở Hà Nội"), labels("HA N"));
+        assertEquals(List.of("Phở bò tái", "Quán Phở Bò"), labels("pho bo"));
+        assertTrue(labels("xyz").isEmpty());
+        assertTrue(labels("  ").isEmpty());
+
+        Suggestion cuisine = suggestionIndex.suggest("viet", 10).get(0);
+        assertEquals(Type.CUISINE, cuisine.type());
+        assertEquals(2 + 40 + 5, cuisine.popularity());
+        Suggestion dish = suggestionIndex.suggest("tai", 10).get(0);
+        assertEquals(Type.DISH, dish.type());
+        assertEquals(2 + 30 + 4, dish.popularity());
+        assertNull(dish.restaurantId());
+        assertEquals(1, suggestionIndex.suggest("pho ha", 10).get(0).restaurantId());
+        assertEquals(2, suggestionIndex.suggest("pho", 2).size());
+    }
+
+    @Test
+    @DisplayName("committed restaurant and dish changes update suggestions and popularity")
+    void onChanges_ShouldUpdateIncrementally() {
+        Map<Integer, Object[]> restaurants = new HashMap<>();
+        restaurants.put(1, restaurant(1, "Bún Chả Hương Liên", "Việt", 10));
+        restaurants.put(2, restaurant(2, "Bún Bò Huế", "Việt", 3));
+        Map<Integer, List<Object[]>> dishes = new HashMap<>();
+        dishes.put(1, List.<Object[]>of(dish(1, "Bún chả", 7)));
+        dishes.put(2, List.of(dish(2, "Bún chả", 1), dish(2, "Bún bò", 2)));
+        build(new ArrayList<>(restaurants.values()),
+                dishes.values().stream().flatMap(List::stream).collect(Collectors.toList()));
+        serveRefreshes(restaurants, dishes);
+
+        // Restaurant 2 drops a dish and renames itself, restaurant 1 is suspended
+        dishes.put(2, List.<Object[]>of(dish(2, "Bún bò", 2)));
+        suggestionIndex.onDishChanged(new DishChangedEvent(9, 2));
+        restaurants.put(2, restaurant(2, "Bún Bò O Xuân", "Huế", 3));
+        suggestionIndex.onRestaurantProfileChanged(new RestaurantProfileChangedEvent(2));
+        Object[] suspended = restaurant(1, "Bún Chả Hương Liên", "Việt", 10);
+        suspended[4] = RestaurantApprovalStatus.SUSPENDED;
+        restaurants.put(1, suspended);
+        suggestionIndex.onRestaurantProfileChanged(new RestaurantProfileChangedEvent(1));
+
+        assertEquals(List.of("Bún Bò O Xuân", "Bún bò"), labels("bun"));
+        assertTrue(labels("cha").isEmpty());
+        assertTrue(labels("viet").isEmpty());
+        assertEquals(1 + 3, suggestionIndex.suggest("hue", 10).get(0).popularity());
+        assertTrue(labels("bun bo hue").isEmpty());
+    }
+
+    @Test
+    @DisplayName("top suggestions stay equal to a brute-force ranking after many updates")
+    void refresh_ShouldKeepTopListsConsistent() {
+        String[] words = { "phở", "bún", "cơm", "gà", "bò", "hải", "sản", "nướng", "lẩu", "chay" };
+        Random random = new Random(7);
+        Map<Integer, Object[]> restaurants = new HashMap<>();
+        // IDs from 101 up: 37 is the AI restaurant, which is never suggested
+        for (int id = 101; id <= 220; id++) {
+            restaurants.put(id, restaurant(id, randomName(random, words) + " " + id, null, random.nextInt(50)));
+        }
+        build(new ArrayList<>(restaurants.values()), List.of());
+        serveRefreshes(restaurants, new HashMap<>());
+
+        for (int round = 0; round < 300; round++) {
+            int id = 101 + random.nextInt(120);
+            if (random.nextInt(5) == 0) {
+                restaurants.remove(id);
+            } else {
+                restaurants.put(id, restaurant(id, randomName(random, words) + " " + id, null, random.nextInt(50)));
+            }
+            suggestionIndex.refresh(List.of(id));
+        }
+
+        for (String word : words) {
+            String prefix = TextNormalizer.fold(word).substring(0, 2);
+            List<Integer> expected = restaurants.values().stream()
+                    .filter(row -> TextNormalizer.tokens((String) row[1]).stream()
+                            .anyMatch(token -> token.startsWith(prefix)))
+                    .sorted(Comparator.comparingInt((Object[] row) -> -(Integer) row[3])
+                            .thenComparing(row -> (String) row[1]))
+                    .limit(10)
+                    .map(row -> (Integer) row[0])
+                    .collect(Collectors.toList());
+            assertEquals(expected, suggestionIndex.suggest(prefix, 10).stream()
+                    .map(Suggestion::restaurantId).collect(Collectors.toList()), prefix);
+        }
+    }
+
+    private String randomName(Random random, String[] words) {
+        return words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+    }
+
+    @Test
+    @DisplayName("lookups before the first build return nothing")
+    void suggest_BeforeBuild_ShouldBeEmpty() {
+        assertFalse(suggestionIndex.isReady());
+        assertTrue(suggestionIndex.suggest("pho", 10).isEmpty());
+        suggestionIndex.refresh(List.of(1));
+        verifyNoInteractions(restaurantProfileRepository, dishRepository);
+    }
+}
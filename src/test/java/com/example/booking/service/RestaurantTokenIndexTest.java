@@ -0,0 +1,163 @@
+package com.example.booking.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.booking.common.enums.RestaurantApprovalStatus;
+import com.example.booking.domain.DishStatus;
+import com.example.booking.event.DishChangedEvent;
+import com.example.booking.event.RestaurantProfileChangedEvent;
+import com.example.booking.repository.DishRepository;
+import com.example.booking.repository.RestaurantProfileRepository;
+import com.example.booking.util.TextNormalizer;
+
+/**
+ * Unit tests for RestaurantTokenIndex
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RestaurantTokenIndex Tests")
+public class RestaurantTokenIndexTest {
+
+    @Mock
+    private RestaurantProfileRepository restaurantProfileRepository;
+
+    @Mock
+    private DishRepository dishRepository;
+
+    @InjectMocks
+    private RestaurantTokenIndex restaurantTokenIndex;
+
+    private Object[] restaurant(int id, String name, String cuisine, String description, Integer price) {
+        return new Object[] { id, name, cuisine, description, price != null ? BigDecimal.valueOf(price) : null,
+                RestaurantApprovalStatus.APPROVED };
+    }
+
+    private Object[] dish(int restaurantId, String name) {
+        return new Object[] { restaurantId, name, 0L };
+    }
+
+    private void givenCatalog(List<Object[]> restaurants, List<Object[]> dishes) {
+        when(restaurantProfileRepository.findApprovedTokenRows()).thenReturn(restaurants);
+        when(dishRepository.findSuggestionRowsOfApprovedRestaurants(DishStatus.AVAILABLE)).thenReturn(dishes);
+        restaurantTokenIndex.rebuild();
+    }
+
+    private void givenDefaultCatalog() {
+        givenCatalog(List.of(
+                restaurant(1, "Phở Hà Nội", "Việt Nam", "Phở bò gia truyền", 60000),
+                restaurant(2, "Lẩu Thái Tomyum", "Lẩu", "Lẩu chua cay", 250000),
+                restaurant(3, "Sushi Hokkaido", "Nhật Bản", null, 400000),
+                restaurant(4, "Quán Nướng BBQ", "Hàn Quốc", "Thịt nướng than hoa", null)),
+                List.of(dish(1, "Bún bò Huế"), dish(1, "Phở tái"), dish(2, "Bún chả"), dish(2, "Bò lúc lắc"),
+                        dish(3, "Cơm cuộn"), dish(4, "Thịt nướng")));
+    }
+
+    @Test
+    @DisplayName("dish names match ignoring case and diacritics, multi-word names as a phrase")
+    void findByDishNames_ShouldMatchFoldedPhrases() {
+        givenDefaultCatalog();
+
+        assertEquals(List.of(1), restaurantTokenIndex.findByDishNames(List.of("bun bo")));
+        assertEquals(List.of(1, 2), restaurantTokenIndex.findByDishNames(List.of("BÚN")));
+        assertEquals(List.of(3, 4), restaurantTokenIndex.findByDishNames(List.of("cơm cuộn", "nuong", "  ")));
+        assertEquals(List.of(), restaurantTokenIndex.findByDishNames(List.of("bánh mì")));
+    }
+
+    @Test
+    @DisplayName("keywords match cuisine both ways, name and description")
+    void findByKeywords_ShouldMatchCuisineNameAndDescription() {
+        givenDefaultCatalog();
+
+        assertEquals(List.of(2), restaurantTokenIndex.findByKeywords(List.of("lau thai chua")));
+        assertEquals(List.of(1, 4), restaurantTokenIndex.findByKeywords(List.of("nuong", "gia truyen")));
+        assertEquals(List.of(3), restaurantTokenIndex.findByKeywords(List.of("nhat")));
+        assertEquals(List.of(), restaurantTokenIndex.findByKeywords(List.of("pizza")));
+    }
+
+    @Test
+    @DisplayName("candidates filter by cuisine, price and query text on the index")
+    void findCandidates_ShouldApplyIntentFilters() {
+        givenDefaultCatalog();
+
+        assertEquals(List.of(1, 2, 3, 4), restaurantTokenIndex.findCandidates(null, null, null, "gì cũng được", List.of()));
+        assertEquals(List.of(1, 3), restaurantTokenIndex.findCandidates(List.of("viet", "Nhật"), null, null, null, List.of()));
+        assertEquals(List.of(2, 3), restaurantTokenIndex.findCandidates(null, 200000d, null, null, List.of()));
+        assertEquals(List.of(1), restaurantTokenIndex.findCandidates(null, null, 100000d, null, List.of()));
+        assertEquals(List.of(2), restaurantTokenIndex.findCandidates(null, null, null, "lẩu tomyum", List.of("tomyum")));
+        assertEquals(List.of(4), restaurantTokenIndex.findCandidates(null, null, null, "han quoc", List.of("han", "quoc")));
+    }
+
+    @Test
+    @DisplayName("committed profile and dish changes re-index only those restaurants")
+    void refresh_ShouldReindexChangedRestaurants() {
+        givenDefaultCatalog();
+
+        when(restaurantProfileRepository.findTokenRowsByIds(List.of(3)))
+                .thenReturn(List.<Object[]>of(restaurant(3, "Sushi Hokkaido", "Nhật Bản", null, 400000)));
+        when(dishRepository.findSuggestionRowsByRestaurantIds(List.of(3), DishStatus.AVAILABLE))
+                .thenReturn(List.<Object[]>of(dish(3, "Bánh mì Nhật")));
+        restaurantTokenIndex.onDishChanged(new DishChangedEvent(50, 3));
+        assertEquals(List.of(3), restaurantTokenIndex.findByDishNames(List.of("banh mi")));
+        assertEquals(List.of(), restaurantTokenIndex.findByDishNames(List.of("com cuon")));
+
+        Object[] suspended = restaurant(1, "Phở Hà Nội", "Việt Nam", null, 60000);
+        suspended[5] = RestaurantApprovalStatus.SUSPENDED;
+        when(restaurantProfileRepository.findTokenRowsByIds(List.of(1))).thenReturn(List.<Object[]>of(suspended));
+        restaurantTokenIndex.onRestaurantProfileChanged(new RestaurantProfileChangedEvent(1));
+        assertEquals(List.of(2), restaurantTokenIndex.findByDishNames(List.of("bun")));
+        verify(dishRepository, never()).findSuggestionRowsByRestaurantIds(List.of(1), DishStatus.AVAILABLE);
+    }
+
+    @Test
+    @DisplayName("keyword matches equal a scan of the folded catalog")
+    void findByKeywords_ShouldMatchFullScan() {
+        Random random = new Random(7);
+        String[] words = { "phở", "bò", "bún", "chả", "lẩu", "thái", "nướng", "cơm", "gà", "hải", "sản", "chay" };
+        List<Object[]> rows = new ArrayList<>();
+        for (int id = 101; id <= 180; id++) {
+            rows.add(restaurant(id, phrase(random, words, 3), phrase(random, words, 2),
+                    random.nextInt(3) == 0 ? null : phrase(random, words, 6), null));
+        }
+        givenCatalog(rows, List.of());
+
+        for (int i = 0; i < 200; i++) {
+            String keyword = random.nextBoolean()
+                    ? phrase(random, words, 2)
+                    : TextNormalizer.fold(words[random.nextInt(words.length)]).substring(0, 2);
+            String folded = TextNormalizer.fold(keyword);
+            List<Integer> expected = new ArrayList<>();
+            for (Object[] row : rows) {
+                String name = TextNormalizer.fold((String) row[1]);
+                String cuisine = TextNormalizer.fold((String) row[2]);
+                String description = TextNormalizer.fold((String) row[3]);
+                if (cuisine.contains(folded) || (!cuisine.isEmpty() && folded.contains(cuisine))
+                        || name.contains(folded) || description.contains(folded)) {
+                    expected.add((Integer) row[0]);
+                }
+            }
+            assertEquals(expected, restaurantTokenIndex.findByKeywords(Set.of(keyword)), "keyword " + keyword);
+        }
+    }
+
+    private String phrase(Random random, String[] words, int maxWords) {
+        StringBuilder phrase = new StringBuilder();
+        int count = 1 + random.nextInt(maxWords);
+        for (int i = 0; i < count; i++) {
+            phrase.append(i == 0 ? "" : " ").append(words[random.nextInt(words.length)]);
+        }
+        return phrase.toString();
+    }
+}
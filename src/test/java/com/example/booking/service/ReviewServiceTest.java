@@ -21,6 +21,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.example.booking.domain.Customer;
 import com.example.booking.domain.Review;
@@ -478,6 +479,113 @@ public class ReviewServiceTest {
         assertEquals(15, result.getTotalReviews());
     }
 
+    @Test
+    @DisplayName("shouldGetRestaurantReviewStatistics_fromRatingSummary")
+    void shouldGetRestaurantReviewStatistics_fromRatingSummary() {
+        // Given
+        ReflectionTestUtils.setField(restaurant, "reviewCount", 3);
+        ReflectionTestUtils.setField(restaurant, "ratingSum", 13);
+        ReflectionTestUtils.setField(restaurant, "rating4Count", 2);
+        ReflectionTestUtils.setField(restaurant, "rating5Count", 1);
+        ReflectionTestUtils.setField(restaurant, "averageRating", 13 / 3.0);
+        when(restaurantProfileRepository.findById(restaurantId)).thenReturn(Optional.of(restaurant));
+
+        // When
+        ReviewStatisticsDto result = reviewService.getRestaurantReviewStatistics(restaurantId);
+
+        // Then
+        assertEquals(13 / 3.0, result.getAverageRating(), 0.0001);
+        assertEquals(3, result.getTotalReviews());
+        assertEquals(2, result.getFourStarCount());
+        assertEquals(1, result.getFiveStarCount());
+        verifyNoInteractions(reviewRepository);
+    }
+
+    // ========== Rating summary maintenance Tests ==========
+
+    @Test
+    @DisplayName("shouldAddNewReview_toRatingSummary")
+    void shouldAddNewReview_toRatingSummary() {
+        // Given
+        when(customerRepository.findById(customerId)).thenReturn(Optional.of(customer));
+        when(restaurantProfileRepository.findById(restaurantId)).thenReturn(Optional.of(restaurant));
+        when(reviewRepository.findByCustomerAndRestaurant(customer, restaurant)).thenReturn(Optional.empty());
+        when(reviewRepository.save(any(Review.class))).thenReturn(review);
+        when(restaurantProfileRepository.applyRatingChange(restaurantId, 1, 0, 5)).thenReturn(1);
+
+        // When
+        reviewService.createOrUpdateReview(reviewForm, customerId);
+
+        // Then
+        verify(restaurantProfileRepository).applyRatingChange(restaurantId, 1, 0, 5);
+        verify(restaurantProfileRepository, never()).recomputeRatingSummary(any());
+    }
+
+    @Test
+    @DisplayName("shouldSubtractModeratedReview_fromRatingSummary")
+    void shouldSubtractModeratedReview_fromRatingSummary() {
+        // Given: an old review, past the 30 days a customer may delete it
+        review.setCreatedAt(LocalDateTime.now().minusDays(60));
+        when(restaurantProfileRepository.applyRatingChange(restaurantId, -1, 5, 0)).thenReturn(1);
+
+        // When
+        reviewService.removeReview(review);
+
+        // Then
+        verify(reviewRepository).delete(review);
+        verify(restaurantProfileRepository).applyRatingChange(restaurantId, -1, 5, 0);
+        verify(restaurantProfileRepository, never()).recomputeRatingSummary(any());
+    }
+
+    @Test
+    @DisplayName("shouldMoveChangedRating_inRatingSummary")
+    void shouldMoveChangedRating_inRatingSummary() {
+        // Given
+        review.setRating(3);
+        when(customerRepository.findById(customerId)).thenReturn(Optional.of(customer));
+        when(restaurantProfileRepository.findById(restaurantId)).thenReturn(Optional.of(restaurant));
+        when(reviewRepository.findByCustomerAndRestaurant(customer, restaurant)).thenReturn(Optional.of(review));
+        when(reviewRepository.save(review)).thenReturn(review);
+        when(restaurantProfileRepository.applyRatingChange(restaurantId, 0, 3, 5)).thenReturn(1);
+
+        // When
+        reviewService.createOrUpdateReview(reviewForm, customerId);
+        // Same rating again: nothing to update
+        reviewService.createOrUpdateReview(reviewForm, customerId);
+
+        // Then
+        verify(restaurantProfileRepository, times(1)).applyRatingChange(anyInt(), anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("shouldRemoveDeletedReview_fromRatingSummary")
+    void shouldRemoveDeletedReview_fromRatingSummary() {
+        // Given
+        when(reviewRepository.findById(1)).thenReturn(Optional.of(review));
+        when(restaurantProfileRepository.applyRatingChange(restaurantId, -1, 5, 0)).thenReturn(1);
+
+        // When
+        reviewService.deleteReview(1, customerId);
+
+        // Then
+        verify(restaurantProfileRepository).applyRatingChange(restaurantId, -1, 5, 0);
+    }
+
+    @Test
+    @DisplayName("shouldRecomputeRatingSummary_whenNotComputedYet")
+    void shouldRecomputeRatingSummary_whenNotComputedYet() {
+        // Given
+        when(reviewRepository.findById(1)).thenReturn(Optional.of(review));
+        when(restaurantProfileRepository.applyRatingChange(restaurantId, -1, 5, 0)).thenReturn(0);
+
+        // When
+        reviewService.deleteReview(1, customerId);
+
+        // Then
+        verify(reviewRepository).flush();
+        verify(restaurantProfileRepository).recomputeRatingSummary(restaurantId);
+    }
+
     // ========== getRecentReviewsByRestaurant() Tests ==========
 
     @Test
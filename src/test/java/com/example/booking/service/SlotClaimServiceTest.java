@@ -0,0 +1,149 @@
+package com.example.booking.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.booking.exception.BookingConflictException;
+
+/**
+ * Unit tests for SlotClaimService
+ */
+@DisplayName("SlotClaimService Tests")
+public class SlotClaimServiceTest {
+
+    private SlotClaimService slotClaimService;
+    private final LocalDateTime time = LocalDateTime.now().plusDays(1).withHour(19).withMinute(0).withSecond(0)
+            .withNano(0);
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        slotClaimService = new SlotClaimService();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("another customer cannot claim a table inside the conflict reach of a live hold")
+    void claim_OverlappingHoldOfOtherCustomer_ShouldFail() {
+        slotClaimService.claim(List.of(5), time, alice);
+
+        BookingConflictException conflict = assertThrows(BookingConflictException.class,
+                () -> slotClaimService.claim(List.of(5), time.plusMinutes(210), bob));
+        assertEquals(BookingConflictException.ConflictType.TABLE_OCCUPIED, conflict.getConflictType());
+        assertEquals(5, conflict.getTableId());
+
+        // Outside the reach, another table, or the same customer again are all fine
+        assertDoesNotThrow(() -> slotClaimService.claim(List.of(5), time.plusMinutes(211), bob));
+        assertDoesNotThrow(() -> slotClaimService.claim(List.of(6), time, bob));
+        assertDoesNotThrow(() -> slotClaimService.claim(List.of(5), time, alice));
+    }
+
+    @Test
+    @DisplayName("a multi-table claim fails as a whole and holds nothing")
+    void claim_MultipleTables_ShouldBeAllOrNothing() {
+        slotClaimService.claim(List.of(7), time, alice);
+
+        assertThrows(BookingConflictException.class,
+                () -> slotClaimService.claim(List.of(6, 7, 8), time.minusMinutes(30), bob));
+        assertEquals(1, slotClaimService.heldSlotCount());
+        assertDoesNotThrow(() -> slotClaimService.claim(List.of(6, 8), time, bob));
+    }
+
+    @Test
+    @DisplayName("released and expired holds no longer block the slot")
+    void claim_ReleasedOrExpiredHold_ShouldNotBlock() {
+        SlotClaimService.Claim claim = slotClaimService.claim(List.of(5), time, alice);
+        claim.release();
+        assertDoesNotThrow(() -> slotClaimService.claim(List.of(5), time, bob));
+
+        SlotClaimService expiring = new SlotClaimService();
+        ReflectionTestUtils.setField(expiring, "holdSeconds", 0L);
+        expiring.claim(List.of(5), time, alice);
+        assertDoesNotThrow(() -> expiring.claim(List.of(5), time, bob));
+        expiring.purgeExpired();
+        assertEquals(0, expiring.heldSlotCount());
+    }
+
+    @Test
+    @DisplayName("hold is dropped when the creating transaction rolls back")
+    void claim_Rollback_ShouldReleaseHold() {
+        TransactionSynchronizationManager.initSynchronization();
+        slotClaimService.claim(List.of(5), time, alice);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(0, slotClaimService.heldSlotCount());
+        assertDoesNotThrow(() -> slotClaimService.claim(List.of(5), time, bob));
+    }
+
+    @Test
+    @DisplayName("held slots are reported to availability searches")
+    void findHeldSlots_ShouldReturnLiveHoldsInRange() {
+        slotClaimService.claim(List.of(5, 6), time, alice);
+
+        List<SlotClaimService.HeldSlot> held = slotClaimService.findHeldSlots(List.of(5),
+                time.toLocalDate().atStartOfDay(), time.toLocalDate().plusDays(1).atStartOfDay());
+
+        assertEquals(List.of(new SlotClaimService.HeldSlot(5, time)), held);
+        assertTrue(slotClaimService.findHeldSlots(List.of(5), time.plusHours(1), time.plusHours(2)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("concurrent claims for one table produce exactly one winner")
+    void claim_Concurrent_ShouldHaveSingleWinner() throws Exception {
+        int requests = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        slotClaimService.claim(List.of(9), time, UUID.randomUUID());
+                        return true;
+                    } catch (BookingConflictException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int winners = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(5, TimeUnit.SECONDS)) {
+                    winners++;
+                }
+            }
+            assertEquals(1, winners);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.booking.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.booking.common.enums.BookingStatus;
+import com.example.booking.common.enums.TableStatus;
+import com.example.booking.domain.RestaurantProfile;
+import com.example.booking.domain.RestaurantTable;
+import com.example.booking.repository.RestaurantProfileRepository;
+import com.example.booking.repository.RestaurantTableRepository;
+
+/**
+ * Unit tests for SlotSuggestionService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SlotSuggestionService Tests")
+public class SlotSuggestionServiceTest {
+
+    @Mock
+    private RestaurantProfileRepository restaurantProfileRepository;
+
+    @Mock
+    private RestaurantTableRepository restaurantTableRepository;
+
+    @Mock
+    private TableAvailabilityService tableAvailabilityService;
+
+    @InjectMocks
+    private SlotSuggestionService slotSuggestionService;
+
+    private RestaurantProfile restaurant;
+    private List<RestaurantTable> tables;
+    private final LocalDate day = LocalDate.now().plusDays(2);
+
+    @BeforeEach
+    void setUp() {
+        restaurant = new RestaurantProfile();
+        restaurant.setRestaurantId(1);
+        restaurant.setOpeningHours("10:00-22:00");
+
+        tables = new ArrayList<>();
+        tables.add(table(10, 6, TableStatus.AVAILABLE));
+        tables.add(table(11, 4, TableStatus.AVAILABLE));
+        tables.add(table(12, 2, TableStatus.AVAILABLE));
+        tables.add(table(13, 8, TableStatus.MAINTENANCE));
+    }
+
+    private RestaurantTable table(Integer id, Integer capacity, TableStatus status) {
+        RestaurantTable table = new RestaurantTable();
+        table.setTableId(id);
+        table.setTableName("Bàn " + id);
+        table.setCapacity(capacity);
+        table.setStatus(status);
+        return table;
+    }
+
+    private void stubReads(TableAvailabilityService.BookedWindow... booked) {
+        Map<Integer, List<TableAvailabilityService.BookedWindow>> byTable = new HashMap<>();
+        for (TableAvailabilityService.BookedWindow window : booked) {
+            byTable.computeIfAbsent(window.tableId(), id -> new ArrayList<>()).add(window);
+        }
+        when(restaurantProfileRepository.findById(1)).thenReturn(Optional.of(restaurant));
+        when(restaurantTableRepository.findByRestaurantRestaurantId(1)).thenReturn(tables);
+        when(tableAvailabilityService.getDayAvailability(eq(1), eq(day)))
+                .thenReturn(new TableAvailabilityService.BookingWindows(1, day.atStartOfDay(),
+                        day.plusDays(1).atStartOfDay(), byTable));
+    }
+
+    private TableAvailabilityService.BookedWindow confirmed(Integer tableId, LocalDateTime time) {
+        return new TableAvailabilityService.BookedWindow(tableId, tableId * 100, time, 4, BookingStatus.CONFIRMED);
+    }
+
+    @Test
+    @DisplayName("free day returns the slots nearest to the preferred time with the best fitting table")
+    void suggestSlots_FreeDay_ShouldReturnNearestSlots() {
+        stubReads();
+
+        List<SlotSuggestionService.SuggestedSlot> slots = slotSuggestionService.suggestSlots(1, day, 3,
+                day.atTime(19, 0), 3);
+
+        assertEquals(List.of(day.atTime(18, 30), day.atTime(19, 0), day.atTime(19, 30)),
+                slots.stream().map(SlotSuggestionService.SuggestedSlot::bookingTime).toList());
+        assertEquals(11, slots.get(0).tableId());
+        assertEquals(2, slots.get(0).freeTables());
+    }
+
+    @Test
+    @DisplayName("a table occupied right now is still suggested for a later day")
+    void suggestSlots_OccupiedTable_ShouldStillBeSuggested() {
+        tables.set(1, table(11, 4, TableStatus.OCCUPIED));
+        stubReads();
+
+        List<SlotSuggestionService.SuggestedSlot> slots = slotSuggestionService.suggestSlots(1, day, 3,
+                day.atTime(19, 0), 1);
+
+        assertEquals(11, slots.get(0).tableId());
+        assertEquals(2, slots.get(0).freeTables());
+    }
+
+    @Test
+    @DisplayName("slots inside every suitable table's buffer window are skipped")
+    void suggestSlots_AllTablesBooked_ShouldJumpPastBuffers() {
+        stubReads(confirmed(10, day.atTime(15, 0)), confirmed(11, day.atTime(16, 0)));
+
+        List<SlotSuggestionService.SuggestedSlot> slots = slotSuggestionService.suggestSlots(1, day, 4,
+                day.atTime(16, 0), 3);
+
+        // Table 10 is blocked for requests in [11:30, 18:30], table 11 in [12:30, 19:30]
+        assertEquals(List.of(day.atTime(12, 0), day.atTime(19, 0), day.atTime(19, 30)),
+                slots.stream().map(SlotSuggestionService.SuggestedSlot::bookingTime).toList());
+        assertEquals(11, slots.get(0).tableId());
+        assertEquals(10, slots.get(1).tableId());
+    }
+
+    @Test
+    @DisplayName("slot exactly at the buffer boundary still conflicts")
+    void suggestSlots_BoundaryIsInclusive() {
+        stubReads(confirmed(11, day.atTime(14, 0)), confirmed(10, day.atTime(14, 0)));
+
+        List<SlotSuggestionService.SuggestedSlot> slots = slotSuggestionService.suggestSlots(1, day, 4,
+                day.atTime(17, 30), 1);
+
+        // 14:00 + 210 minutes = 17:30 conflicts, 18:00 is the first free slot
+        assertEquals(day.atTime(18, 0), slots.get(0).bookingTime());
+    }
+
+    @Test
+    @DisplayName("pending bookings do not block suggestions and closed hours are never suggested")
+    void suggestSlots_PendingBookingAndOpeningHours() {
+        restaurant.setOpeningHours("10:00-14:00, 17:00-22:00");
+        stubReads(new TableAvailabilityService.BookedWindow(11, 1, day.atTime(18, 0), 4, BookingStatus.PENDING));
+
+        List<SlotSuggestionService.SuggestedSlot> slots = slotSuggestionService.suggestSlots(1, day, 4,
+                day.atTime(15, 30), 4);
+
+        assertEquals(List.of(day.atTime(13, 30), day.atTime(14, 0), day.atTime(17, 0), day.atTime(17, 30)),
+                slots.stream().map(SlotSuggestionService.SuggestedSlot::bookingTime).toList());
+        assertEquals(11, slots.get(2).tableId());
+    }
+
+    @Test
+    @DisplayName("no suitable table means no suggestion")
+    void suggestSlots_NoSuitableTable_ShouldReturnEmpty() {
+        when(restaurantProfileRepository.findById(1)).thenReturn(Optional.of(restaurant));
+        when(restaurantTableRepository.findByRestaurantRestaurantId(1)).thenReturn(tables);
+
+        assertTrue(slotSuggestionService.suggestSlots(1, day, 10, null, 5).isEmpty());
+        verifyNoInteractions(tableAvailabilityService);
+    }
+
+    @Test
+    @DisplayName("days outside the booking horizon are not searched")
+    void suggestSlots_OutsideHorizon_ShouldReturnEmpty() {
+        assertTrue(slotSuggestionService.suggestSlots(1, LocalDate.now().minusDays(1), 2, null, 5).isEmpty());
+        assertTrue(slotSuggestionService.suggestSlots(1, LocalDate.now().plusDays(60), 2, null, 5).isEmpty());
+        verifyNoInteractions(restaurantProfileRepository, tableAvailabilityService);
+    }
+}
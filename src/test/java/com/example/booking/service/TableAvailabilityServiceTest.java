@@ -0,0 +1,117 @@
+package com.example.booking.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.booking.common.enums.BookingStatus;
+import com.example.booking.repository.BookingTableRepository;
+
+/**
+ * Unit tests for TableAvailabilityService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TableAvailabilityService Tests")
+public class TableAvailabilityServiceTest {
+
+    @Mock
+    private BookingTableRepository bookingTableRepository;
+
+    @InjectMocks
+    private TableAvailabilityService tableAvailabilityService;
+
+    private final LocalDate day = LocalDate.now().plusDays(1);
+
+    private Object[] row(Integer tableId, Integer bookingId, LocalDateTime time, BookingStatus status) {
+        return new Object[] { tableId, bookingId, time, 4, status };
+    }
+
+    private TableAvailabilityService.BookingWindows loadDay(List<Object[]> rows) {
+        when(bookingTableRepository.findRestaurantBookingWindows(eq(1), anyCollection(),
+                any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(rows);
+        return tableAvailabilityService.getDayAvailability(1, day);
+    }
+
+    @Test
+    @DisplayName("day availability is loaded with a single query covering the buffers")
+    void getDayAvailability_ShouldQueryOnceWithBufferedRange() {
+        TableAvailabilityService.BookingWindows availability = loadDay(new ArrayList<>());
+
+        assertEquals(day.atStartOfDay().minusMinutes(210), availability.getFrom());
+        assertEquals(day.plusDays(1).atStartOfDay().plusMinutes(210), availability.getTo());
+        verify(bookingTableRepository, times(1)).findRestaurantBookingWindows(eq(1),
+                eq(TableAvailabilityService.BLOCKING_STATUSES), any(), any());
+    }
+
+    @Test
+    @DisplayName("bookings are grouped per table")
+    void getDayAvailability_ShouldGroupByTable() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(row(10, 100, day.atTime(12, 0), BookingStatus.CONFIRMED));
+        rows.add(row(10, 101, day.atTime(19, 0), BookingStatus.PENDING));
+        rows.add(row(11, 102, day.atTime(18, 0), BookingStatus.CONFIRMED));
+
+        TableAvailabilityService.BookingWindows availability = loadDay(rows);
+
+        assertEquals(2, availability.getBookings(10).size());
+        assertEquals(1, availability.getBookings(11).size());
+        assertTrue(availability.getBookings(99).isEmpty());
+    }
+
+    @Test
+    @DisplayName("overlapping buffers of a confirmed booking are a conflict")
+    void findConflicts_OverlappingBuffer_ShouldConflict() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(row(10, 100, day.atTime(18, 0), BookingStatus.CONFIRMED));
+
+        TableAvailabilityService.BookingWindows availability = loadDay(rows);
+
+        // 18:00 booking blocks [16:30, 20:00]; a 21:00 request blocks [19:30, 23:00]
+        assertFalse(availability.isFree(10, day.atTime(21, 0)));
+        // 21:30 request blocks [20:00, 23:30] and touches the boundary
+        assertFalse(availability.isFree(10, day.atTime(21, 30)));
+        assertTrue(availability.isFree(10, day.atTime(21, 31)));
+        assertTrue(availability.isFree(11, day.atTime(18, 0)));
+    }
+
+    @Test
+    @DisplayName("pending bookings do not count for the buffer rule")
+    void findConflicts_PendingBooking_ShouldNotConflict() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(row(10, 100, day.atTime(18, 0), BookingStatus.PENDING));
+
+        TableAvailabilityService.BookingWindows availability = loadDay(rows);
+
+        assertTrue(availability.isFree(10, day.atTime(18, 0)));
+        assertTrue(availability.hasBooking(10, List.of(BookingStatus.PENDING, BookingStatus.CONFIRMED),
+                day.atTime(16, 0), day.atTime(20, 0)));
+    }
+
+    @Test
+    @DisplayName("hasBooking filters by status and inclusive time range")
+    void hasBooking_ShouldRespectStatusesAndRange() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(row(10, 100, day.atTime(18, 0), BookingStatus.COMPLETED));
+
+        TableAvailabilityService.BookingWindows availability = loadDay(rows);
+
+        List<BookingStatus> legacyStatuses = List.of(BookingStatus.PENDING, BookingStatus.CONFIRMED);
+        assertFalse(availability.hasBooking(10, legacyStatuses, day.atTime(16, 0), day.atTime(20, 0)));
+        assertTrue(availability.hasBooking(10, List.of(BookingStatus.COMPLETED), day.atTime(18, 0),
+                day.atTime(20, 0)));
+        assertFalse(availability.hasBooking(10, List.of(BookingStatus.COMPLETED), day.atTime(18, 1),
+                day.atTime(20, 0)));
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.booking.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.booking.common.enums.BookingStatus;
+import com.example.booking.common.enums.TableStatus;
+import com.example.booking.domain.RestaurantTable;
+import com.example.booking.repository.BookingTableRepository;
+import com.example.booking.repository.RestaurantTableRepository;
+
+/**
+ * Unit tests for TableCombinationService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TableCombinationService Tests")
+public class TableCombinationServiceTest {
+
+    @Mock
+    private RestaurantTableRepository restaurantTableRepository;
+
+    @Mock
+    private BookingTableRepository bookingTableRepository;
+
+    @InjectMocks
+    private TableCombinationService tableCombinationService;
+
+    private final LocalDate day = LocalDate.now().plusDays(1);
+    private final LocalDateTime dinner = day.atTime(19, 0);
+    private final List<Object[]> bookedRows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        TableAvailabilityService tableAvailabilityService = new TableAvailabilityService();
+        ReflectionTestUtils.setField(tableAvailabilityService, "bookingTableRepository", bookingTableRepository);
+        ReflectionTestUtils.setField(tableCombinationService, "tableAvailabilityService", tableAvailabilityService);
+        lenient().when(bookingTableRepository.findRestaurantBookingWindows(eq(1), any(), any(), any()))
+                .thenReturn(bookedRows);
+    }
+
+    private RestaurantTable table(Integer id, String name, int capacity) {
+        RestaurantTable table = new RestaurantTable();
+        table.setTableId(id);
+        table.setTableName(name);
+        table.setCapacity(capacity);
+        return table;
+    }
+
+    private void book(Integer tableId, LocalDateTime time, BookingStatus status) {
+        bookedRows.add(new Object[] { tableId, 100 + bookedRows.size(), time, 4, status });
+    }
+
+    @Test
+    @DisplayName("a party of 12 is seated on the combination with the fewest empty seats")
+    void findBestCombination_ShouldMinimiseWaste() {
+        when(restaurantTableRepository.findByRestaurantRestaurantId(1)).thenReturn(List.of(
+                table(1, "Bàn 1", 8), table(2, "Bàn 2", 6), table(3, "Bàn 3", 6), table(4, "Bàn 4", 4),
+                table(5, "Bàn 5", 2)));
+
+        TableCombinationService.TableCombination combination = tableCombinationService
+                .findBestCombination(1, dinner, 12).orElseThrow();
+
+        // 8 + 4 and 6 + 6 both seat 12 exactly; the search keeps the first perfect pair
+        assertEquals(0, combination.waste());
+        assertEquals(2, combination.tableCount());
+        assertEquals(12, combination.capacity());
+        assertTrue(combination.exhaustive());
+    }
+
+    @Test
+    @DisplayName("booked, held back and out of service tables are left out")
+    void findBestCombination_ShouldSkipBlockedTables() {
+        RestaurantTable broken = table(4, "Bàn 4", 6);
+        broken.setStatus(TableStatus.MAINTENANCE);
+        when(restaurantTableRepository.findByRestaurantRestaurantId(1)).thenReturn(List.of(
+                table(1, "Bàn 1", 8), table(2, "Bàn 2", 6), table(3, "Bàn 3", 4), broken));
+        // Within the ±210 minute reach of the request
+        book(1, dinner.minusMinutes(210), BookingStatus.CONFIRMED);
+        // PENDING does not block, and 211 minutes is outside the reach
+        book(2, dinner, BookingStatus.PENDING);
+        book(3, dinner.plusMinutes(211), BookingStatus.COMPLETED);
+
+        TableCombinationService.TableCombination combination = tableCombinationService
+                .findBestCombination(1, dinner, 10).orElseThrow();
+
+        assertEquals(List.of(2, 3), combination.tableIds());
+        assertEquals(List.of("Bàn 2", "Bàn 3"), combination.tableNames());
+        assertEquals(0, combination.waste());
+        assertTrue(tableCombinationService.findBestCombination(1, dinner, 11).isEmpty());
+    }
+
+    @Test
+    @DisplayName("a table occupied right now can still be combined for a later booking")
+    void findBestCombination_OccupiedNow_ShouldStillBeUsed() {
+        RestaurantTable seated = table(2, "Bàn 2", 6);
+        seated.setStatus(TableStatus.OCCUPIED);
+        when(restaurantTableRepository.findByRestaurantRestaurantId(1)).thenReturn(List.of(
+                table(1, "Bàn 1", 6), seated));
+
+        TableCombinationService.TableCombination combination = tableCombinationService
+                .findBestCombination(1, dinner, 12).orElseThrow();
+
+        assertEquals(List.of(1, 2), combination.tableIds());
+    }
+
+    @Test
+    @DisplayName("tables are only combined inside one adjacency group")
+    void findBestCombination_ShouldRespectGroups() {
+        when(restaurantTableRepository.findByRestaurantRestaurantId(1)).thenReturn(List.of(
+                table(1, "A1", 6), table(2, "A2", 4), table(3, "B1", 6), table(4, "B-2", 6)));
+
+        TableCombinationService.TableCombination grouped = tableCombinationService
+                .findBestCombination(1, dinner, 12).orElseThrow();
+        assertEquals(List.of(3, 4), grouped.tableIds());
+        assertEquals("B", grouped.group());
+
+        // Without groups 6 + 6 + 4 across A and B seats 16
+        ReflectionTestUtils.setField(tableCombinationService, "sameGroup", false);
+        TableCombinationService.TableCombination anywhere = tableCombinationService
+                .findBestCombination(1, dinner, 16).orElseThrow();
+        assertEquals(16, anywhere.capacity());
+        assertEquals(3, anywhere.tableCount());
+    }
+
+    @Test
+    @DisplayName("the table limit caps combinations")
+    void findBestCombination_TooManyTablesNeeded_ShouldReturnEmpty() {
+        when(restaurantTableRepository.findByRestaurantRestaurantId(1)).thenReturn(List.of(
+                table(1, "Bàn 1", 2), table(2, "Bàn 2", 2), table(3, "Bàn 3", 2), table(4, "Bàn 4", 2)));
+
+        assertEquals(Optional.empty(), tableCombinationService.findBestCombination(1, dinner, 8));
+        ReflectionTestUtils.setField(tableCombinationService, "maxTables", 4);
+        assertEquals(4, tableCombinationService.findBestCombination(1, dinner, 8).orElseThrow().tableCount());
+    }
+
+    @Test
+    @DisplayName("a large floor is searched within the time budget")
+    void findBestCombination_LargeFloor_ShouldStayWithinBudget() {
+        List<RestaurantTable> tables = new ArrayList<>();
+        int[] sizes = { 2, 4, 6, 8, 10 };
+        for (int i = 1; i <= 200; i++) {
+            tables.add(table(i, "Bàn " + i, sizes[i % sizes.length]));
+        }
+        when(restaurantTableRepository.findByRestaurantRestaurantId(1)).thenReturn(tables);
+        ReflectionTestUtils.setField(tableCombinationService, "maxTables", 6);
+
+        TableCombinationService.FloorPlan plan = tableCombinationService.loadFloorPlan(1, day);
+        long start = System.nanoTime();
+        TableCombinationService.TableCombination combination = tableCombinationService.solve(plan, dinner, 37)
+                .orElseThrow();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis < 50, "search took " + elapsedMillis + " ms");
+        assertEquals(1, combination.waste());
+    }
+
+    @Test
+    @DisplayName("the adjacency group is the table name without its number")
+    void groupOf_ShouldStripTrailingNumber() {
+        Map<String, String> expected = Map.of("A1", "A", "a 12", "A", "VIP-2", "VIP", "Bàn 3", "BÀN", "7", "");
+        expected.forEach((name, group) -> assertEquals(group, TableCombinationService.groupOf(name), name));
+    }
+}
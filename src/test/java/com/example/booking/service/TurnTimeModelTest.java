@@ -0,0 +1,204 @@
+package com.example.booking.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.booking.common.enums.BookingStatus;
+import com.example.booking.common.enums.TableStatus;
+import com.example.booking.domain.Booking;
+import com.example.booking.domain.RestaurantProfile;
+import com.example.booking.domain.RestaurantTable;
+import com.example.booking.event.RestaurantTableChangedEvent;
+import com.example.booking.event.TableTurnEvent;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.repository.RestaurantTableRepository;
+
+/**
+ * Unit tests for TurnTimeModel
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TurnTimeModel Tests")
+public class TurnTimeModelTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private RestaurantTableRepository restaurantTableRepository;
+
+    @InjectMocks
+    private TurnTimeModel turnTimeModel;
+
+    // A Monday evening
+    private final LocalDateTime monday = LocalDateTime.of(2025, 3, 3, 19, 0);
+
+    private RestaurantProfile restaurant(Integer id) {
+        RestaurantProfile restaurant = new RestaurantProfile();
+        restaurant.setRestaurantId(id);
+        return restaurant;
+    }
+
+    private int nextBookingId = 1000;
+
+    private Object[] turn(int guests, LocalDateTime start, int minutes) {
+        return new Object[] { 1, guests, start, start.plusMinutes(minutes), nextBookingId++ };
+    }
+
+    private RestaurantTable table(Integer id, int capacity, TableStatus status) {
+        RestaurantTable table = new RestaurantTable();
+        table.setTableId(id);
+        table.setCapacity(capacity);
+        table.setStatus(status);
+        table.setRestaurant(restaurant(1));
+        return table;
+    }
+
+    private Booking booking(Integer id, int guests) {
+        Booking booking = new Booking();
+        booking.setBookingId(id);
+        booking.setRestaurant(restaurant(1));
+        booking.setNumberOfGuests(guests);
+        booking.setBookingTime(monday);
+        return booking;
+    }
+
+    private void backfill(List<Object[]> rows) {
+        when(bookingRepository.findTurnHistory(BookingStatus.COMPLETED)).thenReturn(rows);
+        turnTimeModel.backfill();
+    }
+
+    @Test
+    @DisplayName("backfill keeps plausible turns and precomputes EWMA and quantiles")
+    void backfill_ShouldBuildStatistics() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            rows.add(turn(4, monday.minusWeeks(i), 60));
+        }
+        // Too short and too long to be a real turn
+        rows.add(turn(4, monday, 5));
+        rows.add(turn(4, monday, 600));
+        backfill(rows);
+
+        TurnTimeModel.TurnStats stats = turnTimeModel.getTurnStats(1, 4, monday);
+        assertEquals(5, stats.samples());
+        assertEquals(60.0, stats.ewmaMinutes(), 0.001);
+        assertEquals(62, stats.medianMinutes());
+        assertEquals(62, stats.p90Minutes());
+        assertEquals(60.0, stats.expectedMinutes(), 0.001);
+    }
+
+    @Test
+    @DisplayName("sparse cells fall back to the party size and restaurant rollups")
+    void getTurnStats_SparseCell_ShouldUseRollups() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(turn(4, monday, 60));
+        for (int i = 1; i <= 4; i++) {
+            rows.add(turn(3, monday.plusDays(i), 90));
+        }
+        rows.add(turn(8, monday, 120));
+        backfill(rows);
+
+        // Monday 19h for 3-4 guests has 1 sample, the 3-4 bucket has 5
+        assertEquals(5, turnTimeModel.getTurnStats(1, 4, monday).samples());
+        // 7-8 guests only has 1 sample, the restaurant has 6
+        assertEquals(6, turnTimeModel.getTurnStats(1, 8, monday).samples());
+        assertEquals(0, turnTimeModel.getTurnStats(2, 4, monday).samples());
+        assertEquals(4 * TurnTimeModel.DEFAULT_MINUTES_PER_POSITION,
+                turnTimeModel.estimateWaitMinutes(2, 4, 4, monday));
+    }
+
+    @Test
+    @DisplayName("the wait is the turnaround divided by the tables that seat the party")
+    void estimateWaitMinutes_ShouldScaleWithTables() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            rows.add(turn(4, monday, 60));
+        }
+        backfill(rows);
+        when(restaurantTableRepository.findByRestaurantRestaurantId(1)).thenReturn(List.of(
+                table(1, 2, TableStatus.AVAILABLE), table(2, 4, TableStatus.OCCUPIED),
+                table(3, 4, TableStatus.AVAILABLE), table(4, 6, TableStatus.AVAILABLE),
+                table(5, 8, TableStatus.MAINTENANCE)));
+
+        // (60 turn + 20 cleaning) per table, 3 tables seat 4 guests
+        assertEquals(3, turnTimeModel.countTablesSeating(1, 4));
+        assertEquals(80, turnTimeModel.estimateWaitMinutes(1, 4, 3, monday));
+        assertEquals(54, turnTimeModel.estimateWaitMinutes(1, 4, 2, monday));
+        assertEquals(0, turnTimeModel.estimateWaitMinutes(1, 4, 0, monday));
+        verify(restaurantTableRepository, times(1)).findByRestaurantRestaurantId(1);
+
+        turnTimeModel.onTableChanged(new RestaurantTableChangedEvent(5, 1));
+        turnTimeModel.estimateWaitMinutes(1, 4, 1, monday);
+        verify(restaurantTableRepository, times(2)).findByRestaurantRestaurantId(1);
+    }
+
+    @Test
+    @DisplayName("live turns run from check-in to check-out and are counted once per booking")
+    void onTableTurn_ShouldObserveEachBookingOnce() {
+        for (int i = 1; i <= 5; i++) {
+            Booking booking = booking(i, 2);
+            turnTimeModel.onTableTurn(TableTurnEvent.seated(booking, monday.plusMinutes(10)));
+            turnTimeModel.onTableTurn(TableTurnEvent.left(booking, monday.plusMinutes(55)));
+        }
+        turnTimeModel.onTableTurn(TableTurnEvent.left(booking(5, 2), monday.plusMinutes(200)));
+
+        TurnTimeModel.TurnStats stats = turnTimeModel.getTurnStats(1, 2, monday);
+        assertEquals(5, stats.samples());
+        assertEquals(45.0, stats.ewmaMinutes(), 0.001);
+    }
+
+    @Test
+    @DisplayName("turns completed while a backfill runs are merged into its result, once")
+    void backfill_ShouldMergeLiveTurns() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            rows.add(turn(2, monday, 60));
+        }
+        // Booking 1 is already in the history the backfill reads, booking 2 is not
+        rows.add(new Object[] { 1, 2, monday, monday.plusMinutes(60), 1 });
+        when(bookingRepository.findTurnHistory(BookingStatus.COMPLETED)).thenAnswer(invocation -> {
+            turnTimeModel.onTableTurn(TableTurnEvent.left(booking(1, 2), monday.plusMinutes(60)));
+            turnTimeModel.onTableTurn(TableTurnEvent.left(booking(2, 2), monday.plusMinutes(30)));
+            return rows;
+        });
+
+        turnTimeModel.backfill();
+
+        // 5 history turns + the live turn of booking 2
+        TurnTimeModel.TurnStats stats = turnTimeModel.getTurnStats(1, 2, monday);
+        assertEquals(6, stats.samples());
+
+        // Afterwards live turns go straight to the statistics
+        turnTimeModel.onTableTurn(TableTurnEvent.seated(booking(3, 2), monday.plusMinutes(5)));
+        turnTimeModel.onTableTurn(TableTurnEvent.left(booking(3, 2), monday.plusMinutes(50)));
+        assertEquals(7, turnTimeModel.getTurnStats(1, 2, monday).samples());
+    }
+
+    @Test
+    @DisplayName("cleaning time is learnt from CLEANING -> AVAILABLE transitions")
+    void onTableTurn_ShouldTrackCleaningMinutes() {
+        assertEquals(TurnTimeModel.DEFAULT_CLEANING_MINUTES, turnTimeModel.getCleaningMinutes(1), 0.001);
+
+        for (int i = 1; i <= 5; i++) {
+            RestaurantTable table = table(i, 4, TableStatus.CLEANING);
+            turnTimeModel.onTableTurn(TableTurnEvent.cleaningStarted(table, monday));
+            turnTimeModel.onTableTurn(TableTurnEvent.cleaningFinished(table, monday.plusMinutes(10)));
+        }
+        // Finished without a seen start: not timed
+        turnTimeModel.onTableTurn(
+                TableTurnEvent.cleaningFinished(table(9, 4, TableStatus.CLEANING), monday.plusMinutes(90)));
+
+        assertEquals(10.0, turnTimeModel.getCleaningMinutes(1), 0.001);
+    }
+}
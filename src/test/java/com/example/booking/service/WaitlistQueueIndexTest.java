@@ -0,0 +1,179 @@
+package com.example.booking.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.example.booking.domain.WaitlistStatus;
+import com.example.booking.event.WaitlistChangedEvent;
+import com.example.booking.event.WaitlistQueueChangedEvent;
+import com.example.booking.repository.WaitlistRepository;
+
+/**
+ * Unit tests for WaitlistQueueIndex
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WaitlistQueueIndex Tests")
+public class WaitlistQueueIndexTest {
+
+    @Mock
+    private WaitlistRepository waitlistRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private WaitlistQueueIndex queueIndex;
+
+    private final LocalDateTime opening = LocalDateTime.now().withHour(17).withMinute(0).withSecond(0).withNano(0);
+
+    private Object[] entry(Integer waitlistId, Integer restaurantId, int minutesAfterOpening) {
+        return new Object[] { waitlistId, restaurantId, opening.plusMinutes(minutesAfterOpening), 2 };
+    }
+
+    private Object[] entry(Integer waitlistId, Integer restaurantId, int minutesAfterOpening, WaitlistStatus status) {
+        return new Object[] { waitlistId, restaurantId, opening.plusMinutes(minutesAfterOpening), 2, status };
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(waitlistRepository.findQueueEntriesByStatus(WaitlistStatus.WAITING)).thenReturn(List.of(
+                entry(10, 1, 5), entry(11, 1, 1), entry(12, 1, 9), entry(20, 2, 3)));
+        queueIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("positions follow join time per restaurant")
+    void findPosition_ShouldRankByJoinTime() {
+        assertEquals(OptionalInt.of(1), queueIndex.findPosition(11));
+        assertEquals(OptionalInt.of(2), queueIndex.findPosition(10));
+        assertEquals(OptionalInt.of(3), queueIndex.findPosition(12));
+        assertEquals(OptionalInt.of(1), queueIndex.findPosition(20));
+        assertEquals(OptionalInt.of(3), queueIndex.findQueueLength(1));
+        assertEquals(OptionalInt.of(0), queueIndex.findQueueLength(3));
+        assertTrue(queueIndex.findPosition(99).isEmpty());
+        assertEquals(new WaitlistQueueIndex.QueuePosition(1, 2, 3), queueIndex.findQueuePosition(12).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("committed joins, cancellations and seatings move the queue")
+    void onWaitlistChanged_ShouldRefreshEntries() {
+        when(waitlistRepository.findQueueEntriesByIds(List.of(11)))
+                .thenReturn(List.<Object[]>of(entry(11, 1, 1, WaitlistStatus.SEATED)));
+        when(waitlistRepository.findQueueEntriesByIds(List.of(13)))
+                .thenReturn(List.<Object[]>of(entry(13, 1, 12, WaitlistStatus.WAITING)));
+
+        queueIndex.onWaitlistChanged(new WaitlistChangedEvent(11));
+        queueIndex.onWaitlistChanged(new WaitlistChangedEvent(13));
+
+        assertTrue(queueIndex.findPosition(11).isEmpty());
+        assertEquals(OptionalInt.of(1), queueIndex.findPosition(10));
+        assertEquals(OptionalInt.of(3), queueIndex.findPosition(13));
+        assertEquals(OptionalInt.of(3), queueIndex.findQueueLength(1));
+
+        ArgumentCaptor<WaitlistQueueChangedEvent> changes = ArgumentCaptor.forClass(WaitlistQueueChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(changes.capture());
+        WaitlistQueueChangedEvent seated = changes.getAllValues().get(0);
+        assertEquals(WaitlistStatus.SEATED, seated.getStatus());
+        assertEquals(1, seated.getPreviousPosition());
+        assertEquals(0, seated.getPosition());
+        assertEquals(2, seated.getQueueLength());
+        WaitlistQueueChangedEvent joined = changes.getAllValues().get(1);
+        assertEquals(0, joined.getPreviousPosition());
+        assertEquals(3, joined.getPosition());
+        assertEquals(3, joined.getQueueLength());
+    }
+
+    @Test
+    @DisplayName("unchanged entries and entries that never queued publish nothing")
+    void refresh_NoQueueChange_ShouldNotPublish() {
+        when(waitlistRepository.findQueueEntriesByIds(List.of(10, 30))).thenReturn(List.<Object[]>of(
+                entry(10, 1, 5, WaitlistStatus.WAITING), entry(30, 1, 2, WaitlistStatus.CANCELLED)));
+
+        queueIndex.refresh(List.of(10, 30));
+
+        verify(eventPublisher, never()).publishEvent(any());
+        assertEquals(OptionalInt.of(3), queueIndex.findQueueLength(1));
+    }
+
+    @Test
+    @DisplayName("restaurants whose queue length drifted from the database are rebuilt")
+    void reconcile_Drift_ShouldRebuildRestaurant() {
+        when(waitlistRepository.countByStatusGroupByRestaurant(WaitlistStatus.WAITING))
+                .thenReturn(List.<Object[]>of(new Object[] { 1, 3L }, new Object[] { 2, 2L }));
+        when(waitlistRepository.findQueueEntriesByRestaurantAndStatus(2, WaitlistStatus.WAITING))
+                .thenReturn(List.<Object[]>of(entry(21, 2, 0), entry(20, 2, 3)));
+
+        queueIndex.reconcile();
+
+        verify(waitlistRepository, never()).findQueueEntriesByRestaurantAndStatus(eq(1), any());
+        ArgumentCaptor<WaitlistQueueChangedEvent> resync = ArgumentCaptor.forClass(WaitlistQueueChangedEvent.class);
+        verify(eventPublisher).publishEvent(resync.capture());
+        assertTrue(resync.getValue().isResync());
+        assertEquals(2, resync.getValue().getRestaurantId());
+        assertEquals(OptionalInt.of(1), queueIndex.findPosition(21));
+        assertEquals(OptionalInt.of(2), queueIndex.findPosition(20));
+        assertEquals(OptionalInt.of(2), queueIndex.findPosition(10));
+    }
+
+    @Test
+    @DisplayName("reported drift is rebuilt even when the counts match")
+    void reportDrift_ShouldRebuildAtNextCheck() {
+        when(waitlistRepository.countByStatusGroupByRestaurant(WaitlistStatus.WAITING))
+                .thenReturn(List.<Object[]>of(new Object[] { 1, 3L }, new Object[] { 2, 1L }));
+        when(waitlistRepository.findQueueEntriesByRestaurantAndStatus(1, WaitlistStatus.WAITING))
+                .thenReturn(List.<Object[]>of(entry(10, 1, 5), entry(12, 1, 9), entry(14, 1, 2)));
+
+        queueIndex.reportDrift(1);
+        queueIndex.reconcile();
+
+        assertTrue(queueIndex.findPosition(11).isEmpty());
+        assertEquals(OptionalInt.of(1), queueIndex.findPosition(14));
+        assertEquals(OptionalInt.of(1), queueIndex.findPosition(20));
+    }
+
+    @Test
+    @DisplayName("the order-statistic queue agrees with a sorted set under random inserts and removals")
+    void orderedQueue_ShouldMatchReference() {
+        WaitlistQueueIndex.OrderedQueue queue = new WaitlistQueueIndex.OrderedQueue();
+        TreeSet<WaitlistQueueIndex.Entry> reference = new TreeSet<>();
+        Random random = new Random(42);
+        List<WaitlistQueueIndex.Entry> present = new ArrayList<>();
+
+        for (int i = 0; i < 5000; i++) {
+            if (present.isEmpty() || random.nextInt(3) > 0) {
+                WaitlistQueueIndex.Entry entry = new WaitlistQueueIndex.Entry(
+                        opening.plusSeconds(random.nextInt(3600)), i);
+                queue.add(entry);
+                reference.add(entry);
+                present.add(entry);
+            } else {
+                WaitlistQueueIndex.Entry entry = present.remove(random.nextInt(present.size()));
+                queue.remove(entry);
+                reference.remove(entry);
+            }
+            if (i % 97 == 0 && !present.isEmpty()) {
+                WaitlistQueueIndex.Entry probe = present.get(random.nextInt(present.size()));
+                assertEquals(reference.headSet(probe).size(), queue.rank(probe));
+            }
+        }
+        assertEquals(reference.size(), queue.size());
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.booking.service.ai;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.booking.service.ai.AiCallExecutor.CircuitBreaker;
+import com.example.booking.service.ai.AiCallExecutor.Operation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for AiCallExecutor
+ */
+@DisplayName("AiCallExecutor Tests")
+public class AiCallExecutorTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(2);
+
+    private AiCallExecutor aiCallExecutor;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        aiCallExecutor = new AiCallExecutor();
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(aiCallExecutor, "meterRegistry", meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        aiCallExecutor.shutdown();
+    }
+
+    private double count(Operation operation, String outcome) {
+        return meterRegistry.counter("ai.call.requests", "operation", operation.tag(), "outcome", outcome).count();
+    }
+
+    private Throwable failure(CompletableFuture<?> future) {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(3, TimeUnit.SECONDS));
+        return e.getCause();
+    }
+
+    @Test
+    @DisplayName("each operation has its own bounded pool and rejects calls beyond it")
+    void submit_ShouldRejectBeyondBulkhead() throws Exception {
+        ReflectionTestUtils.setField(aiCallExecutor, "maxConcurrent", 1);
+        ReflectionTestUtils.setField(aiCallExecutor, "queueCapacity", 1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> running = aiCallExecutor.submit(Operation.INTENT, TIMEOUT, () -> {
+            release.await();
+            return "first";
+        });
+        CompletableFuture<String> queued = aiCallExecutor.submit(Operation.INTENT, TIMEOUT, () -> "second");
+        CompletableFuture<String> rejected = aiCallExecutor.submit(Operation.INTENT, TIMEOUT, () -> "third");
+        String otherOperation = aiCallExecutor.submit(Operation.EXPLAIN, TIMEOUT, () -> "explain")
+                .get(2, TimeUnit.SECONDS);
+
+        assertInstanceOf(RejectedExecutionException.class, failure(rejected));
+        assertEquals("explain", otherOperation);
+        release.countDown();
+        assertEquals("first", running.get(2, TimeUnit.SECONDS));
+        assertEquals("second", queued.get(2, TimeUnit.SECONDS));
+        assertEquals(1, count(Operation.INTENT, "rejected"));
+        assertEquals(2, count(Operation.INTENT, "success"));
+    }
+
+    @Test
+    @DisplayName("a timed out call is interrupted instead of left running")
+    void submit_ShouldInterruptTimedOutCall() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        CompletableFuture<String> result = aiCallExecutor.submit(Operation.SUGGEST, Duration.ofMillis(100), () -> {
+            try {
+                Thread.sleep(10_000);
+                return "late";
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+        });
+
+        assertInstanceOf(TimeoutException.class, failure(result));
+        assertTrue(interrupted.await(2, TimeUnit.SECONDS));
+        assertEquals(1, count(Operation.SUGGEST, "timeout"));
+    }
+
+    @Test
+    @DisplayName("slow calls open the circuit, a successful trial closes it again")
+    void submit_ShouldOpenCircuitOnSlowCallsAndRecover() throws Exception {
+        ReflectionTestUtils.setField(aiCallExecutor, "slowCallMs", 20L);
+        ReflectionTestUtils.setField(aiCallExecutor, "windowSize", 4);
+        ReflectionTestUtils.setField(aiCallExecutor, "minimumCalls", 4);
+        ReflectionTestUtils.setField(aiCallExecutor, "openMs", 200L);
+        AtomicInteger calls = new AtomicInteger();
+
+        for (int i = 0; i < 4; i++) {
+            aiCallExecutor.submit(Operation.INTENT, TIMEOUT, () -> {
+                calls.incrementAndGet();
+                Thread.sleep(40);
+                return "slow";
+            }).get(2, TimeUnit.SECONDS);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, aiCallExecutor.circuitState(Operation.INTENT));
+
+        CompletableFuture<String> shortCircuited = aiCallExecutor.submit(Operation.INTENT, TIMEOUT, () -> {
+            calls.incrementAndGet();
+            return "skipped";
+        });
+        assertInstanceOf(AiCallExecutor.CircuitOpenException.class, failure(shortCircuited));
+        assertEquals(4, calls.get());
+        assertEquals(1, count(Operation.INTENT, "short_circuited"));
+        assertEquals(CircuitBreaker.State.CLOSED, aiCallExecutor.circuitState(Operation.EXPLAIN));
+
+        Thread.sleep(250);
+        assertEquals("fast", aiCallExecutor.submit(Operation.INTENT, TIMEOUT, () -> "fast").get(2, TimeUnit.SECONDS));
+        assertEquals(CircuitBreaker.State.CLOSED, aiCallExecutor.circuitState(Operation.INTENT));
+    }
+
+    @Test
+    @DisplayName("breaker opens at the failure rate over the sliding window only")
+    void circuitBreaker_ShouldUseSlidingWindow() {
+        CircuitBreaker breaker = new CircuitBreaker(4, 4, 50, TimeUnit.SECONDS.toNanos(30));
+
+        breaker.record(true);
+        breaker.record(false);
+        breaker.record(false);
+        breaker.record(false);
+        breaker.record(false);
+        breaker.record(true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        breaker.record(true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("a hedged attempt answers for a stuck primary, which is then cancelled")
+    void submit_ShouldHedgeSlowPrimary() throws Exception {
+        ReflectionTestUtils.setField(aiCallExecutor, "hedgeDelayMs", 50L);
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch primaryInterrupted = new CountDownLatch(1);
+
+        CompletableFuture<String> result = aiCallExecutor.submit(Operation.INTENT, TIMEOUT, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    primaryInterrupted.countDown();
+                    throw e;
+                }
+            }
+            return "hedge";
+        });
+
+        assertEquals("hedge", result.get(2, TimeUnit.SECONDS));
+        assertTrue(primaryInterrupted.await(2, TimeUnit.SECONDS));
+        assertEquals(2, attempts.get());
+        assertEquals(1, meterRegistry.counter("ai.call.hedges", "operation", "intent", "result", "won").count());
+
+        String notHedged = aiCallExecutor.submit(Operation.IMPROVE, TIMEOUT, () -> {
+            attempts.incrementAndGet();
+            Thread.sleep(100);
+            return "improved";
+        }).get(2, TimeUnit.SECONDS);
+        assertEquals("improved", notHedged);
+        assertEquals(3, attempts.get());
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.booking.service.ai;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.booking.domain.AiResponseCache;
+import com.example.booking.repository.AiResponseCacheRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for AiResponseCacheService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AiResponseCacheService Tests")
+public class AiResponseCacheServiceTest {
+
+    private static final TypeReference<Map<String, Object>> INTENT_TYPE = new TypeReference<>() {};
+    private static final Duration TTL = Duration.ofHours(1);
+
+    @Mock
+    private AiResponseCacheRepository aiResponseCacheRepository;
+
+    @InjectMocks
+    private AiResponseCacheService aiResponseCacheService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(aiResponseCacheService, "aiCacheManager",
+                new ConcurrentMapCacheManager(AiResponseCacheService.INTENT, AiResponseCacheService.EXPLAIN));
+        ReflectionTestUtils.setField(aiResponseCacheService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(aiResponseCacheService, "peerWaitMs", 2000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        aiResponseCacheService.shutdown();
+    }
+
+    private double count(String result) {
+        return meterRegistry.counter("ai.cache.requests", "kind", AiResponseCacheService.INTENT, "result", result)
+                .count();
+    }
+
+    private AiResponseCache stored(String query, String payload) {
+        String fingerprint = AiResponseCacheService.fingerprint(query);
+        return new AiResponseCache(AiResponseCacheService.cacheKey(AiResponseCacheService.INTENT, fingerprint),
+                AiResponseCacheService.INTENT, fingerprint, payload, LocalDateTime.now(),
+                LocalDateTime.now().plusHours(1));
+    }
+
+    private CompletableFuture<Map<String, Object>> intent(String query,
+            Supplier<CompletableFuture<Map<String, Object>>> loader) {
+        return aiResponseCacheService.getOrLoad(AiResponseCacheService.INTENT, query, TTL, INTENT_TYPE, loader);
+    }
+
+    @Test
+    @DisplayName("fingerprints ignore case, spacing and punctuation but keep diacritics")
+    void fingerprint_ShouldNormalizeQuery() {
+        String key = AiResponseCacheService.cacheKey("aiIntent", AiResponseCacheService.fingerprint("Lẩu gần đây!!"));
+
+        assertEquals("lẩu gần đây", AiResponseCacheService.fingerprint("  LẨU,   gần đây? "));
+        assertEquals(key, AiResponseCacheService.cacheKey("aiIntent",
+                AiResponseCacheService.fingerprint(Normalizer.normalize("lẩu  gần đây", Normalizer.Form.NFD))));
+        assertNotEquals(AiResponseCacheService.fingerprint("cơm gà"), AiResponseCacheService.fingerprint("com ga"));
+        assertNotEquals(AiResponseCacheService.fingerprint("Phở Hùng\nPhở Lý"),
+                AiResponseCacheService.fingerprint("Phở\nHùng Phở Lý"));
+        assertNotEquals(key, AiResponseCacheService.cacheKey("aiExplain",
+                AiResponseCacheService.fingerprint("lẩu gần đây")));
+    }
+
+    @Test
+    @DisplayName("concurrent identical queries share one model call, later ones hit memory")
+    void getOrLoad_ShouldCoalesceConcurrentRequests() throws Exception {
+        when(aiResponseCacheRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(aiResponseCacheRepository.claim(anyString(), anyString(), anyString(), any(), any())).thenReturn(1);
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<Map<String, Object>> upstream = new CompletableFuture<>();
+
+        List<CompletableFuture<Map<String, Object>>> results = new ArrayList<>();
+        for (String query : List.of("lẩu gần đây", "Lẩu gần đây", "lẩu gần đây!", " LẨU GẦN ĐÂY ")) {
+            results.add(intent(query, () -> {
+                calls.incrementAndGet();
+                return upstream;
+            }));
+        }
+        upstream.complete(Map.of("intent_type", "restaurant_search", "cuisine", List.of("Lẩu")));
+
+        for (CompletableFuture<Map<String, Object>> result : results) {
+            assertEquals(List.of("Lẩu"), result.get(2, TimeUnit.SECONDS).get("cuisine"));
+        }
+        results.get(0).get().put("cuisine", List.of());
+        assertEquals(List.of("Lẩu"), results.get(1).get().get("cuisine"));
+
+        Map<String, Object> cached = intent("lẩu gần đây", () -> {
+            calls.incrementAndGet();
+            return upstream;
+        }).get(2, TimeUnit.SECONDS);
+        assertEquals("restaurant_search", cached.get("intent_type"));
+
+        assertEquals(1, calls.get());
+        verify(aiResponseCacheRepository, timeout(2000)).save(any(AiResponseCache.class));
+        assertEquals(1, count("miss"));
+        assertEquals(3, count("coalesced"));
+        assertEquals(1, count("memory"));
+        assertEquals(1, meterRegistry.timer("ai.cache.upstream", "kind", AiResponseCacheService.INTENT,
+                "outcome", "success").count());
+    }
+
+    @Test
+    @DisplayName("entries persisted by any node are served without calling the model")
+    void getOrLoad_ShouldServePersistedEntry() throws Exception {
+        when(aiResponseCacheRepository.findById(anyString()))
+                .thenReturn(Optional.of(stored("sushi", "{\"cuisine\":[\"Japanese\"]}")));
+
+        Map<String, Object> result = intent("Sushi", () -> {
+            throw new AssertionError("model must not be called");
+        }).get(2, TimeUnit.SECONDS);
+        intent("sushi", () -> {
+            throw new AssertionError("model must not be called");
+        }).get(2, TimeUnit.SECONDS);
+
+        assertEquals(List.of("Japanese"), result.get("cuisine"));
+        verify(aiResponseCacheRepository, times(1)).findById(anyString());
+        verify(aiResponseCacheRepository, never()).claim(anyString(), anyString(), anyString(), any(), any());
+        assertEquals(1, count("database"));
+        assertEquals(1, count("memory"));
+    }
+
+    @Test
+    @DisplayName("while another node holds the lease, its result is awaited instead of calling the model")
+    void getOrLoad_ShouldWaitForPeerLease() throws Exception {
+        AiResponseCache lease = stored("phở", null);
+        lease.setExpiresAt(LocalDateTime.now().plusSeconds(30));
+        when(aiResponseCacheRepository.findById(anyString())).thenReturn(Optional.empty(), Optional.of(lease),
+                Optional.of(stored("phở", "{\"cuisine\":[\"Việt\"]}")));
+        when(aiResponseCacheRepository.claim(anyString(), anyString(), anyString(), any(), any())).thenReturn(0);
+
+        Map<String, Object> result = intent("phở", () -> {
+            throw new AssertionError("model must not be called");
+        }).get(3, TimeUnit.SECONDS);
+
+        assertEquals(List.of("Việt"), result.get("cuisine"));
+        assertEquals(1, count("peer"));
+        assertEquals(0, count("miss"));
+    }
+
+    @Test
+    @DisplayName("failed model calls are not cached and release the lease")
+    void getOrLoad_ShouldNotCacheFailures() throws Exception {
+        when(aiResponseCacheRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(aiResponseCacheRepository.claim(anyString(), anyString(), anyString(), any(), any())).thenReturn(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<Map<String, Object>> failed = intent("bún chả", () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.failedFuture(new IllegalStateException("quota"));
+        });
+        assertThrows(ExecutionException.class, () -> failed.get(2, TimeUnit.SECONDS));
+        verify(aiResponseCacheRepository, timeout(2000)).releaseLease(anyString());
+
+        Map<String, Object> retried = intent("bún chả", () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(Map.of("cuisine", List.of("Việt")));
+        }).get(2, TimeUnit.SECONDS);
+
+        assertEquals(List.of("Việt"), retried.get("cuisine"));
+        assertEquals(2, calls.get());
+        verify(aiResponseCacheRepository, timeout(2000).times(1)).save(any(AiResponseCache.class));
+    }
+
+    @Test
+    @DisplayName("lookups run on the cache's own bounded pool, a full pool calls the model directly")
+    void getOrLoad_ShouldUseBoundedLookupPool() throws Exception {
+        ReflectionTestUtils.setField(aiResponseCacheService, "lookupThreads", 1);
+        ReflectionTestUtils.setField(aiResponseCacheService, "lookupQueueCapacity", 1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> threads = new CopyOnWriteArrayList<>();
+        when(aiResponseCacheRepository.findById(anyString())).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            release.await(2, TimeUnit.SECONDS);
+            return Optional.of(stored("phở", "{\"cuisine\":[\"Việt\"]}"));
+        });
+
+        CompletableFuture<Map<String, Object>> running = intent("phở", () -> {
+            throw new AssertionError("model must not be called");
+        });
+        CompletableFuture<Map<String, Object>> queued = intent("bún bò", () -> {
+            throw new AssertionError("model must not be called");
+        });
+        Map<String, Object> rejected = intent("cơm gà", () -> CompletableFuture.completedFuture(
+                Map.of("cuisine", List.of("Cơm")))).get(2, TimeUnit.SECONDS);
+
+        assertEquals(List.of("Cơm"), rejected.get("cuisine"));
+        release.countDown();
+        assertEquals(List.of("Việt"), running.get(2, TimeUnit.SECONDS).get("cuisine"));
+        assertEquals(List.of("Việt"), queued.get(2, TimeUnit.SECONDS).get("cuisine"));
+        assertEquals(2, threads.size());
+        assertTrue(threads.stream().allMatch(name -> name.startsWith("ai-cache-")), threads.toString());
+        assertEquals(1, count("rejected"));
+    }
+
+    @Test
+    @DisplayName("startup warms the memory tier from unexpired rows")
+    void warmUp_ShouldLoadLiveEntriesIntoMemory() throws Exception {
+        when(aiResponseCacheRepository.findLiveEntries(any(), any()))
+                .thenReturn(List.of(stored("lẩu gần đây", "{\"cuisine\":[\"Lẩu\"]}")));
+
+        aiResponseCacheService.warmUp();
+        Map<String, Object> result = intent("Lẩu gần đây", () -> {
+            throw new AssertionError("model must not be called");
+        }).get(2, TimeUnit.SECONDS);
+
+        assertEquals(List.of("Lẩu"), result.get("cuisine"));
+        verify(aiResponseCacheRepository, never()).findById(anyString());
+        assertEquals(1, count("memory"));
+    }
+}
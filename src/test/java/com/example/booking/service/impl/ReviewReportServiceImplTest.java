@@ -172,6 +172,21 @@ public class ReviewReportServiceImplTest {
         verify(reportRepository, times(1)).save(any(ReviewReport.class));
     }
 
+    @Test
+    @DisplayName("shouldRemoveReviewThroughReviewService_whenReportResolved")
+    void shouldRemoveReviewThroughReviewService_whenReportResolved() {
+        // Given
+        when(reportRepository.findById(reportId)).thenReturn(Optional.of(report));
+        when(reportRepository.findByReviewReviewId(1)).thenReturn(List.of(report));
+
+        // When
+        reportService.resolveReport(reportId, adminId, "Resolved");
+
+        // Then: the rating summary is maintained by ReviewService
+        verify(reviewService).removeReview(review);
+        verify(reviewRepository, never()).delete(any(Review.class));
+    }
+
     @Test
     @DisplayName("shouldThrowException_whenReportNotFound")
     void shouldThrowException_whenReportNotFound() {
@@ -538,7 +553,7 @@ public class ReviewReportServiceImplTest {
         assertEquals(ReviewReportStatus.RESOLVED, report.getStatus());
         assertEquals(ReviewReportStatus.RESOLVED, relatedReport1.getStatus());
         assertEquals(ReviewReportStatus.RESOLVED, relatedReport2.getStatus());
-        verify(reviewRepository).delete(review);
+        verify(reviewService).removeReview(review);
         verify(notificationService).sendNotifications(any(), eq(adminId));
     }
 
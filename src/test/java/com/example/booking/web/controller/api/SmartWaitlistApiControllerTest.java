@@ -406,5 +406,56 @@ public class SmartWaitlistApiControllerTest {
         assertEquals(HttpStatus.OK, result.getStatusCode());
         assertNotNull(result.getBody());
     }
-}
 
+    // ========== getWaitlistPosition() Tests ==========
+
+    private com.example.booking.domain.Waitlist waitlistOf(Customer owner) {
+        com.example.booking.domain.Waitlist waitlist = new com.example.booking.domain.Waitlist();
+        waitlist.setWaitlistId(7);
+        waitlist.setCustomer(owner);
+        return waitlist;
+    }
+
+    @Test
+    @DisplayName("getWaitlistPosition - should return position to the customer who joined")
+    void getWaitlistPosition_ShouldReturnPositionToOwner() {
+        when(authentication.getName()).thenReturn("testuser");
+        when(customerService.findByUsername("testuser")).thenReturn(Optional.of(customer));
+        when(waitlistService.findById(7)).thenReturn(waitlistOf(customer));
+        when(waitlistService.getQueuePosition(7)).thenReturn(3);
+        when(waitlistService.calculateEstimatedWaitTime(7)).thenReturn(45);
+
+        ResponseEntity<?> result = controller.getWaitlistPosition(7, authentication);
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        SmartWaitlistApiController.QueuePositionResponse response =
+            (SmartWaitlistApiController.QueuePositionResponse) result.getBody();
+        assertEquals(3, response.queuePosition);
+        assertEquals(45, response.estimatedWaitTime);
+    }
+
+    @Test
+    @DisplayName("getWaitlistPosition - should forbid another customer's entry")
+    void getWaitlistPosition_OtherCustomer_ShouldBeForbidden() {
+        Customer other = new Customer();
+        other.setCustomerId(UUID.randomUUID());
+        when(authentication.getName()).thenReturn("testuser");
+        when(customerService.findByUsername("testuser")).thenReturn(Optional.of(customer));
+        when(waitlistService.findById(7)).thenReturn(waitlistOf(other));
+
+        ResponseEntity<?> result = controller.getWaitlistPosition(7, authentication);
+
+        assertEquals(HttpStatus.FORBIDDEN, result.getStatusCode());
+        verify(waitlistService, never()).getQueuePosition(any());
+    }
+
+    @Test
+    @DisplayName("getWaitlistPosition - should return 404 for an unknown entry")
+    void getWaitlistPosition_UnknownEntry_ShouldBeNotFound() {
+        when(waitlistService.findById(7)).thenReturn(null);
+
+        ResponseEntity<?> result = controller.getWaitlistPosition(7, authentication);
+
+        assertEquals(HttpStatus.NOT_FOUND, result.getStatusCode());
+    }
+}
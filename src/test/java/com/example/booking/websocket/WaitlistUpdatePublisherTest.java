@@ -0,0 +1,84 @@
+package com.example.booking.websocket;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import com.example.booking.domain.WaitlistStatus;
+import com.example.booking.event.WaitlistQueueChangedEvent;
+
+/**
+ * Unit tests for WaitlistUpdatePublisher
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WaitlistUpdatePublisher Tests")
+class WaitlistUpdatePublisherTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @InjectMocks
+    private WaitlistUpdatePublisher publisher;
+
+    @Test
+    @DisplayName("queue changes are pushed as deltas on the restaurant topic")
+    void onQueueChanged_ShouldPushDelta() {
+        publisher.onQueueChanged(new WaitlistQueueChangedEvent(7, 42, WaitlistStatus.WAITING, 4, 0, 3, 3));
+        publisher.onQueueChanged(new WaitlistQueueChangedEvent(7, 40, WaitlistStatus.SEATED, 2, 1, 0, 2));
+
+        ArgumentCaptor<WaitlistUpdatePublisher.WaitlistUpdateMessage> messages = ArgumentCaptor
+                .forClass(WaitlistUpdatePublisher.WaitlistUpdateMessage.class);
+        verify(messagingTemplate, times(2)).convertAndSend(eq("/topic/waitlist/7"), messages.capture());
+
+        WaitlistUpdatePublisher.WaitlistUpdateMessage joined = messages.getAllValues().get(0);
+        assertEquals("JOINED", joined.getType());
+        assertEquals(42, joined.getWaitlistId());
+        assertEquals(3, joined.getPosition());
+        assertEquals(1, joined.getSeq());
+
+        WaitlistUpdatePublisher.WaitlistUpdateMessage seated = messages.getAllValues().get(1);
+        assertEquals("SEATED", seated.getType());
+        assertEquals(1, seated.getPreviousPosition());
+        assertEquals(2, seated.getQueueLength());
+        assertEquals(2, seated.getSeq());
+    }
+
+    @Test
+    @DisplayName("the delta type follows the positions and the new status")
+    void typeOf_ShouldDescribeTheChange() {
+        assertEquals("MOVED", WaitlistUpdatePublisher.typeOf(
+                new WaitlistQueueChangedEvent(1, 2, WaitlistStatus.WAITING, 2, 2, 1, 3)));
+        assertEquals("CALLED", WaitlistUpdatePublisher.typeOf(
+                new WaitlistQueueChangedEvent(1, 2, WaitlistStatus.CALLED, 2, 2, 0, 2)));
+        assertEquals("CANCELLED", WaitlistUpdatePublisher.typeOf(
+                new WaitlistQueueChangedEvent(1, 2, WaitlistStatus.CANCELLED, 2, 1, 0, 2)));
+        assertEquals("REMOVED", WaitlistUpdatePublisher.typeOf(
+                new WaitlistQueueChangedEvent(1, 2, null, 2, 1, 0, 2)));
+        assertEquals("RESYNC", WaitlistUpdatePublisher.typeOf(WaitlistQueueChangedEvent.resync(1, 5)));
+    }
+
+    @Test
+    @DisplayName("sequence numbers are counted per restaurant and send failures are swallowed")
+    void onQueueChanged_SequencePerRestaurant() {
+        doThrow(new RuntimeException("broker down")).when(messagingTemplate)
+                .convertAndSend(eq("/topic/waitlist/1"), any(Object.class));
+
+        publisher.onQueueChanged(new WaitlistQueueChangedEvent(1, 10, WaitlistStatus.WAITING, 2, 0, 1, 1));
+        publisher.onQueueChanged(new WaitlistQueueChangedEvent(1, 11, WaitlistStatus.WAITING, 2, 0, 2, 2));
+
+        ArgumentCaptor<WaitlistUpdatePublisher.WaitlistUpdateMessage> message = ArgumentCaptor
+                .forClass(WaitlistUpdatePublisher.WaitlistUpdateMessage.class);
+        publisher.onQueueChanged(new WaitlistQueueChangedEvent(2, 20, WaitlistStatus.WAITING, 2, 0, 1, 1));
+        verify(messagingTemplate).convertAndSend(eq("/topic/waitlist/2"), message.capture());
+        assertEquals(1, message.getValue().getSeq());
+    }
+}